@@ -3,11 +3,17 @@ package org.pillarone.riskanalytics.domain.pc.allocators;
 import org.pillarone.riskanalytics.domain.pc.constants.Exposure;
 import org.pillarone.riskanalytics.core.components.Component;
 import org.pillarone.riskanalytics.core.packets.PacketList;
+import org.pillarone.riskanalytics.core.simulation.engine.IterationScope;
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope;
 import org.pillarone.riskanalytics.domain.pc.generators.frequency.Frequency;
+import org.pillarone.riskanalytics.domain.pc.global.DrawSiteStream;
 import org.pillarone.riskanalytics.domain.pc.generators.frequency.FrequencyPacketFactory;
 import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo;
+import org.pillarone.riskanalytics.domain.utils.AliasTable;
 import org.pillarone.riskanalytics.domain.utils.IRandomNumberGenerator;
 import org.pillarone.riskanalytics.domain.utils.RandomNumberGeneratorFactory;
+import umontreal.iro.lecuyer.probdist.BinomialDist;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
 
 import java.util.Arrays;
 
@@ -15,7 +21,8 @@ import java.util.Arrays;
  * The frequency allocator receives one frequency packet and splits this frequency on the risk
  * bands <tt>inUnderwritingInfo</tt>. <tt>outFrequency</tt> contains as many frequency packets as
  * <tt>inUnderwritingInfo</tt> packets are received. Allocation is base on the property specified in
- * <tt>parmBase</tt>.
+ * <tt>parmBase</tt>. Claims are assigned to risk bands with an alias table, large frequencies are split
+ * multinomially.
  *
  * @author stefan.kunz (at) intuitive-collaboration (dot) com, michael-noe (at) web (dot) de
  */
@@ -28,7 +35,16 @@ public class FrequencyAllocator extends Component {
 
     public Exposure parmBase = Exposure.NUMBER_OF_POLICIES;
 
-    IRandomNumberGenerator generator = RandomNumberGeneratorFactory.getUniformGenerator();
+    IRandomNumberGenerator generator;
+    IterationScope iterationScope;
+    SimulationScope simulationScope;
+    private final DrawSiteStream allocationStream = new DrawSiteStream(this, "allocation");
+    /** alias table of the weights, rebuilt only if the weights of the risk bands change */
+    private AliasTable bands;
+    private double[] bandWeights;
+
+    /** frequencies of at least this count are split with one binomial draw per risk band instead of one uniform per claim */
+    static final int MULTINOMIAL_SPLIT_THRESHOLD = 256;
 
     public void validateWiring() {
         if (wiredReceivers(inUnderwritingInfo) != 1) {
@@ -41,31 +57,77 @@ public class FrequencyAllocator extends Component {
     }
 
     protected void doCalculation() {
+        RandomStreamBase stream = allocationStream.getStream(simulationScope, iterationScope);
+        if (generator == null) {
+            generator = RandomNumberGeneratorFactory.getUniformGenerator(stream);
+        }
         if (inFrequency.size() != 1) {
             throw new IllegalArgumentException("FrequencyAllocator.invalidNoOfFrequencyPackets");
         }
         int numberOfUnderwritingInfos = inUnderwritingInfo.size();
-        double[] limits = new double[numberOfUnderwritingInfos];
-        double total = 0d;
+        double[] weights = new double[numberOfUnderwritingInfos];
         for (int i = 0; i < numberOfUnderwritingInfos; i++) {
-            total += inUnderwritingInfo.get(i).scaleValue(parmBase);
+            weights[i] = inUnderwritingInfo.get(i).scaleValue(parmBase);
             outFrequency.add(FrequencyPacketFactory.createPacket());
         }
-        for (int i = 0; i < numberOfUnderwritingInfos; i++) {
-            if (i == 0) {
-                limits[i] = inUnderwritingInfo.get(i).scaleValue(parmBase) / total;
-            } else {
-                limits[i] = limits[i - 1] + inUnderwritingInfo.get(i).scaleValue(parmBase) / total;
+
+        int count = (int) Math.ceil(inFrequency.get(0).value);
+        if (count >= MULTINOMIAL_SPLIT_THRESHOLD) {
+            splitMultinomial(weights, count);
+        }
+        else if (count > 0) {
+            if (bands == null || !Arrays.equals(weights, bandWeights)) {
+                bands = new AliasTable(weights);
+                bandWeights = weights;
+            }
+            for (int i = 0; i < count; i++) {
+                outFrequency.get(bands.index((Double) generator.nextValue())).value++;
             }
         }
+    }
 
-        for (int i = 0; i < inFrequency.get(0).value; i++) {
-            double u = (Double) generator.nextValue();
-            int interval = Arrays.binarySearch(limits, u);
-            if (interval < 0) {
-                interval = -interval - 1;
+    /**
+     * Draws the band counts directly as a sequence of conditional binomials: band i receives
+     * Binomial(remaining count, weight i / remaining weight), the last band the rest.
+     */
+    private void splitMultinomial(double[] weights, int count) {
+        double remainingWeight = 0d;
+        for (double weight : weights) {
+            remainingWeight += weight;
+        }
+        int remainingCount = count;
+        for (int i = 0; i < weights.length - 1 && remainingCount > 0; i++) {
+            double p = remainingWeight > 0 ? Math.min(1d, weights[i] / remainingWeight) : 0d;
+            int bandCount;
+            if (p <= 0) {
+                bandCount = 0;
+            }
+            else if (p >= 1) {
+                bandCount = remainingCount;
             }
-            outFrequency.get(interval).value++;
+            else {
+                bandCount = BinomialDist.inverseF(remainingCount, p, (Double) generator.nextValue());
+            }
+            outFrequency.get(i).value += bandCount;
+            remainingCount -= bandCount;
+            remainingWeight -= weights[i];
         }
+        outFrequency.get(weights.length - 1).value += remainingCount;
+    }
+
+    public IterationScope getIterationScope() {
+        return iterationScope;
+    }
+
+    public void setIterationScope(IterationScope iterationScope) {
+        this.iterationScope = iterationScope;
+    }
+
+    public SimulationScope getSimulationScope() {
+        return simulationScope;
+    }
+
+    public void setSimulationScope(SimulationScope simulationScope) {
+        this.simulationScope = simulationScope;
     }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import org.pillarone.riskanalytics.core.packets.SingleValuePacket;
 import org.pillarone.riskanalytics.core.simulation.engine.PeriodScope;
 import org.pillarone.riskanalytics.domain.pc.claims.Claim;
 import org.pillarone.riskanalytics.domain.pc.generators.GeneratorCachingComponent;
+import org.pillarone.riskanalytics.domain.pc.generators.GeneratorSlot;
 import org.pillarone.riskanalytics.domain.utils.*;
 
 import java.util.Collections;
@@ -33,6 +34,8 @@ public class AssetLiabilityMismatchGenerator extends GeneratorCachingComponent i
             AssetLiabilityMismatchGeneratorStrategyType.getStrategy(
                 AssetLiabilityMismatchGeneratorStrategyType.RESULTRELATIVETOINITIALVOLUME, Collections.emptyMap());
 
+    private GeneratorSlot incurredGenerator = new GeneratorSlot("incurred");
+
     protected void doCalculation() {
         Claim claim = new Claim();
         claim.setOrigin(this);
@@ -42,7 +45,7 @@ public class AssetLiabilityMismatchGenerator extends GeneratorCachingComponent i
 
 
     private void setIncurred(Claim claim) {
-        IRandomNumberGenerator generator = getCachedGenerator(getParmDistribution(), getParmModification());
+        IRandomNumberGenerator generator = getCachedGenerator(incurredGenerator, getParmDistribution(), getParmModification());
         Double randomFactor = (Double) generator.nextValue();
         if (parmAssetLiabilityMismatchModel instanceof ResultRelativeToInitialVolumeAssetLiabilityMismatchGeneratorStrategy) {
             claim.setUltimate(randomFactor * parmInitialVolume);
@@ -1,5 +1,6 @@
 package org.pillarone.riskanalytics.domain.pc.claims;
 
+import org.joda.time.DateTime;
 import org.pillarone.riskanalytics.core.components.IComponentMarker;
 import org.pillarone.riskanalytics.core.packets.MultiValuePacket;
 import org.pillarone.riskanalytics.core.simulation.engine.PeriodScope;
@@ -23,6 +24,9 @@ import java.util.Map;
 
 /**
  * Basic claim object not recommended for development and inflation
+ * <p/>
+ * Peril, reserve, line of business and reinsurance contract markers are kept in fields instead of the marker map
+ * of the packet, their getters and getMarkedSender() are constant time. Other markers are kept in the map.
  */
 public class Claim extends MultiValuePacket {
 
@@ -33,8 +37,19 @@ public class Claim extends MultiValuePacket {
     private Double fractionOfPeriod = 0d;
     private ClaimType claimType;
     private UnderwritingInfo exposure;
+    /**
+     * set with IPerilMarker. set() copies getPeril(), therefore the peril of a copy of a claim marked by a reserve
+     * only is the reserve and the copy has no reserve marker, as with the marker map of the packet
+     */
+    private IComponentMarker peril;
+    private IReserveMarker reserve;
+    private ISegmentMarker lineOfBusiness;
+    private IReinsuranceContractMarker reinsuranceContract;
+    /** identifies the claim object within an iteration, assigned by the first getOrdinal() call, not copied by set() */
+    private int ordinal = UNASSIGNED_ORDINAL;
 
     private static final String ULTIMATE = "ultimate";
+    private static final int UNASSIGNED_ORDINAL = Integer.MIN_VALUE;
 
     public Claim() {
     }
@@ -58,12 +73,81 @@ public class Claim extends MultiValuePacket {
         setFractionOfPeriod(claim.getFractionOfPeriod());
         setDate(claim.getDate());
         setClaimType(claim.getClaimType());
-        addMarker(IPerilMarker.class, claim.getPeril());
-        addMarker(ISegmentMarker.class, claim.getLineOfBusiness());
-        addMarker(IReinsuranceContractMarker.class, claim.getReinsuranceContract());
+        peril = claim.getPeril();
+        lineOfBusiness = claim.lineOfBusiness;
+        reinsuranceContract = claim.reinsuranceContract;
         setExposure(claim.getExposure());
     }
 
+    /**
+     * Restores the state of a new claim before a claim of the arena of ClaimPacketFactory is reused.
+     */
+    void recycle() {
+        ordinal = UNASSIGNED_ORDINAL;
+        origin = null;
+        ultimate = 0;
+        originalClaim = null;
+        event = null;
+        fractionOfPeriod = 0d;
+        setDate((DateTime) null);
+        claimType = null;
+        exposure = null;
+        clearMarkers();
+    }
+
+    /**
+     * Marks a recycled claim of the arena of ClaimPacketFactory such that any further use yields NaN or fails.
+     */
+    void poison() {
+        recycle();
+        ordinal = -1;
+        ultimate = Double.NaN;
+        fractionOfPeriod = null;
+    }
+
+    private void clearMarkers() {
+        peril = null;
+        reserve = null;
+        lineOfBusiness = null;
+        reinsuranceContract = null;
+    }
+
+    @Override
+    public void addMarker(Class markerInterface, IComponentMarker marker) {
+        if (markerInterface == IPerilMarker.class) {
+            peril = marker;
+        }
+        else if (markerInterface == IReserveMarker.class) {
+            reserve = (IReserveMarker) marker;
+        }
+        else if (markerInterface == ISegmentMarker.class) {
+            lineOfBusiness = (ISegmentMarker) marker;
+        }
+        else if (markerInterface == IReinsuranceContractMarker.class) {
+            reinsuranceContract = (IReinsuranceContractMarker) marker;
+        }
+        else {
+            super.addMarker(markerInterface, marker);
+        }
+    }
+
+    @Override
+    public IComponentMarker getMarkedSender(Class markerInterface) {
+        if (markerInterface == IPerilMarker.class) {
+            return peril;
+        }
+        else if (markerInterface == IReserveMarker.class) {
+            return reserve;
+        }
+        else if (markerInterface == ISegmentMarker.class) {
+            return lineOfBusiness;
+        }
+        else if (markerInterface == IReinsuranceContractMarker.class) {
+            return reinsuranceContract;
+        }
+        return super.getMarkedSender(markerInterface);
+    }
+
     public void plus(Claim claim) {
         ultimate += claim.getUltimate();
     }
@@ -81,7 +165,7 @@ public class Claim extends MultiValuePacket {
         Claim netClaim = copy();
         netClaim.ultimate -= cededClaim.ultimate;
         if (cededClaim.notNull()) {
-            netClaim.addMarker(IReinsuranceContractMarker.class, cededClaim.getReinsuranceContract());
+            netClaim.reinsuranceContract = cededClaim.reinsuranceContract;
         }
         if (hasExposureInfo()) {
             double coverRatio = netClaim.getUltimate() / getUltimate();
@@ -180,6 +264,24 @@ public class Claim extends MultiValuePacket {
         this.originalClaim = originalClaim;
     }
 
+    /**
+     * The ordinal is drawn on the first call and not in the constructor, as only the ordinals of original claims are
+     * used by mergers.
+     *
+     * @return number of the claim object among the claims numbered by the same thread in the current iteration,
+     *         negative for poisoned claims
+     */
+    public int getOrdinal() {
+        if (ordinal == UNASSIGNED_ORDINAL) {
+            ordinal = ClaimPacketFactory.nextOrdinal();
+        }
+        return ordinal;
+    }
+
+    void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+
     public Event getEvent() {
         return event;
     }
@@ -188,16 +290,19 @@ public class Claim extends MultiValuePacket {
         this.event = event;
     }
 
+    /**
+     * @return the peril marker or, if there is none, the reserve marker
+     */
     public IComponentMarker getPeril() {
-        IComponentMarker marker = getMarkedSender(IPerilMarker.class);
-        if (marker == null) {
-            marker = getMarkedSender(IReserveMarker.class);
-        }
-        return marker;
+        return peril == null ? reserve : peril;
+    }
+
+    public IReserveMarker getReserve() {
+        return reserve;
     }
 
     public ISegmentMarker getLineOfBusiness() {
-        return (ISegmentMarker) getMarkedSender(ISegmentMarker.class);
+        return lineOfBusiness;
     }
 
     public double getUltimate() {
@@ -227,7 +332,7 @@ public class Claim extends MultiValuePacket {
     }
 
     public IReinsuranceContractMarker getReinsuranceContract() {
-        return (IReinsuranceContractMarker) getMarkedSender(IReinsuranceContractMarker.class);
+        return reinsuranceContract;
     }
 
     public UnderwritingInfo getExposure() {
@@ -0,0 +1,326 @@
+package org.pillarone.riskanalytics.domain.pc.claims;
+
+import org.pillarone.riskanalytics.core.components.Component;
+import org.pillarone.riskanalytics.core.components.IComponentMarker;
+import org.pillarone.riskanalytics.core.packets.MultiValuePacket;
+import org.pillarone.riskanalytics.core.packets.Packet;
+import org.pillarone.riskanalytics.domain.pc.constants.ClaimType;
+import org.pillarone.riskanalytics.domain.pc.generators.severities.Event;
+import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo;
+import org.pillarone.riskanalytics.domain.utils.marker.IPerilMarker;
+import org.pillarone.riskanalytics.domain.utils.marker.IReinsuranceContractMarker;
+import org.pillarone.riskanalytics.domain.utils.marker.IReserveMarker;
+import org.pillarone.riskanalytics.domain.utils.marker.ISegmentMarker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claims of a common origin stored column wise: ultimate, fraction of period, claim type, event and exposure of
+ * every claim are kept in primitive arrays, origin, peril, line of business and reinsurance contract are shared.
+ * Events and exposures are stored once per batch and referenced by index, -1 if a claim has none.
+ * <p/>
+ * Batches derived by reinsurance contracts keep a reference to the batch of the original claims. Claim objects are
+ * only created by toClaims() and getClaim(), e.g. if a collector is wired, original claims are created once per
+ * batch such that the originalClaim references of derived claims are consistent. Results save the sum of the
+ * ultimates.
+ */
+public class ClaimBatch extends MultiValuePacket {
+
+    private static final String ULTIMATE = "ultimate";
+    private static final ClaimType[] CLAIM_TYPES = ClaimType.values();
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size;
+    private double[] ultimates;
+    private double[] fractionsOfPeriod;
+    private byte[] claimTypes;
+    private int[] eventIds;
+    private int[] exposureIndices;
+    private List<Event> events;
+    private List<UnderwritingInfo> exposures;
+    private Map<Event, Integer> eventIdsByEvent;
+    private Map<UnderwritingInfo, Integer> exposureIndicesByExposure;
+    private ClaimBatch originalBatch;
+    private List<Claim> claims;
+
+    public ClaimBatch() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ClaimBatch(int capacity) {
+        capacity = Math.max(1, capacity);
+        ultimates = new double[capacity];
+        fractionsOfPeriod = new double[capacity];
+        claimTypes = new byte[capacity];
+        eventIds = new int[capacity];
+        exposureIndices = new int[capacity];
+        events = new ArrayList<Event>();
+        exposures = new ArrayList<UnderwritingInfo>();
+        eventIdsByEvent = new IdentityHashMap<Event, Integer>();
+        exposureIndicesByExposure = new IdentityHashMap<UnderwritingInfo, Integer>();
+    }
+
+    /**
+     * @return a batch with the claims, events, exposures and markers of this batch and origin as origin, ultimates
+     *         are copied and may be overwritten
+     */
+    public ClaimBatch derive(Component origin) {
+        ClaimBatch derived = new ClaimBatch(size);
+        derived.origin = origin;
+        derived.size = size;
+        System.arraycopy(ultimates, 0, derived.ultimates, 0, size);
+        System.arraycopy(fractionsOfPeriod, 0, derived.fractionsOfPeriod, 0, size);
+        System.arraycopy(claimTypes, 0, derived.claimTypes, 0, size);
+        System.arraycopy(eventIds, 0, derived.eventIds, 0, size);
+        System.arraycopy(exposureIndices, 0, derived.exposureIndices, 0, size);
+        derived.events = events;
+        derived.exposures = exposures;
+        derived.eventIdsByEvent = eventIdsByEvent;
+        derived.exposureIndicesByExposure = exposureIndicesByExposure;
+        derived.originalBatch = getOriginalBatch();
+        copyMarkersTo(derived);
+        return derived;
+    }
+
+    /**
+     * @param event    may be null
+     * @param exposure may be null
+     * @return index of the new claim
+     */
+    public int add(double ultimate, double fractionOfPeriod, ClaimType claimType, Event event, UnderwritingInfo exposure) {
+        if (originalBatch != null) {
+            throw new IllegalStateException("ClaimBatch.derivedBatch");
+        }
+        if (size == ultimates.length) {
+            int capacity = 2 * size;
+            ultimates = Arrays.copyOf(ultimates, capacity);
+            fractionsOfPeriod = Arrays.copyOf(fractionsOfPeriod, capacity);
+            claimTypes = Arrays.copyOf(claimTypes, capacity);
+            eventIds = Arrays.copyOf(eventIds, capacity);
+            exposureIndices = Arrays.copyOf(exposureIndices, capacity);
+        }
+        ultimates[size] = ultimate;
+        fractionsOfPeriod[size] = fractionOfPeriod;
+        claimTypes[size] = (byte) claimType.ordinal();
+        eventIds[size] = indexOf(event, events, eventIdsByEvent);
+        exposureIndices[size] = indexOf(exposure, exposures, exposureIndicesByExposure);
+        claims = null;
+        return size++;
+    }
+
+    private static <T> int indexOf(T element, List<T> elements, Map<T, Integer> indices) {
+        if (element == null) {
+            return -1;
+        }
+        Integer index = indices.get(element);
+        if (index == null) {
+            index = elements.size();
+            elements.add(element);
+            indices.put(element, index);
+        }
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getUltimate(int claim) {
+        return ultimates[claim];
+    }
+
+    public void setUltimate(int claim, double ultimate) {
+        ultimates[claim] = ultimate;
+        claims = null;
+    }
+
+    public double getFractionOfPeriod(int claim) {
+        return fractionsOfPeriod[claim];
+    }
+
+    public ClaimType getClaimType(int claim) {
+        return CLAIM_TYPES[claimTypes[claim]];
+    }
+
+    public int getEventId(int claim) {
+        return eventIds[claim];
+    }
+
+    public Event getEvent(int claim) {
+        int eventId = eventIds[claim];
+        return eventId < 0 ? null : events.get(eventId);
+    }
+
+    public UnderwritingInfo getExposure(int claim) {
+        int exposureIndex = exposureIndices[claim];
+        return exposureIndex < 0 ? null : exposures.get(exposureIndex);
+    }
+
+    public boolean hasExposureInfo() {
+        return !exposures.isEmpty();
+    }
+
+    public double getTotalUltimate() {
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += ultimates[i];
+        }
+        return total;
+    }
+
+    /**
+     * Overwrites the properties of target with those of the claim with the given index except the original claim,
+     * used to pass claims of a batch to code expecting Claim objects without creating one per claim.
+     */
+    public void copyTo(int claim, Claim target) {
+        target.origin = origin;
+        target.setUltimate(ultimates[claim]);
+        target.setFractionOfPeriod(fractionsOfPeriod[claim]);
+        target.setClaimType(getClaimType(claim));
+        target.setEvent(getEvent(claim));
+        target.setExposure(getExposure(claim));
+        copyMarkersTo(target);
+    }
+
+    public Claim getClaim(int claim) {
+        return toClaims().get(claim);
+    }
+
+    /**
+     * @return one claim per entry, created on the first call and kept until the batch is modified, synchronized as
+     *         contracts of the same inuring priority may share a batch
+     */
+    public synchronized List<Claim> toClaims() {
+        if (claims == null) {
+            claims = new ArrayList<Claim>(size);
+            for (int i = 0; i < size; i++) {
+                Claim claim = ClaimPacketFactory.createPacket();
+                copyTo(i, claim);
+                claim.setOriginalClaim(originalBatch == null ? claim : originalBatch.getClaim(i));
+                claims.add(claim);
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * @return a single claim of type AGGREGATED with the sum of the ultimates and the markers of the batch
+     */
+    public Claim aggregate() {
+        Claim claim = ClaimPacketFactory.createPacket();
+        claim.origin = origin;
+        claim.setClaimType(ClaimType.AGGREGATED);
+        claim.setUltimate(getTotalUltimate());
+        copyMarkersTo(claim);
+        return claim;
+    }
+
+    /**
+     * @return positions of all claims with the index of the batch in the upper and the index of the claim in the
+     *         lower 32 bits, stable sorted by fraction of period, i.e. in the order of the concatenated claims
+     *         sorted by SortClaimsByFractionOfPeriod
+     */
+    public static long[] sortByFractionOfPeriod(List<ClaimBatch> batches) {
+        int numberOfClaims = 0;
+        for (ClaimBatch batch : batches) {
+            numberOfClaims += batch.size;
+        }
+        long[] positions = new long[numberOfClaims];
+        double[] fractions = new double[numberOfClaims];
+        int k = 0;
+        for (int b = 0; b < batches.size(); b++) {
+            ClaimBatch batch = batches.get(b);
+            for (int i = 0; i < batch.size; i++) {
+                positions[k] = ((long) b << 32) | i;
+                fractions[k++] = batch.fractionsOfPeriod[i];
+            }
+        }
+        long[] mergedPositions = new long[numberOfClaims];
+        double[] mergedFractions = new double[numberOfClaims];
+        for (int width = 1; width < numberOfClaims; width *= 2) {
+            for (int low = 0; low < numberOfClaims; low += 2 * width) {
+                int middle = Math.min(low + width, numberOfClaims);
+                int high = Math.min(low + 2 * width, numberOfClaims);
+                int left = low;
+                int right = middle;
+                for (int m = low; m < high; m++) {
+                    if (left < middle && (right >= high || Double.compare(fractions[left], fractions[right]) <= 0)) {
+                        mergedPositions[m] = positions[left];
+                        mergedFractions[m] = fractions[left++];
+                    }
+                    else {
+                        mergedPositions[m] = positions[right];
+                        mergedFractions[m] = fractions[right++];
+                    }
+                }
+            }
+            long[] swapPositions = positions;
+            positions = mergedPositions;
+            mergedPositions = swapPositions;
+            double[] swapFractions = fractions;
+            fractions = mergedFractions;
+            mergedFractions = swapFractions;
+        }
+        return positions;
+    }
+
+    public static int getBatchIndex(long position) {
+        return (int) (position >>> 32);
+    }
+
+    public static int getClaimIndex(long position) {
+        return (int) position;
+    }
+
+    private void copyMarkersTo(Packet packet) {
+        if (getPeril() != null) {
+            packet.addMarker(IPerilMarker.class, getPeril());
+        }
+        if (getLineOfBusiness() != null) {
+            packet.addMarker(ISegmentMarker.class, getLineOfBusiness());
+        }
+        if (getReinsuranceContract() != null) {
+            packet.addMarker(IReinsuranceContractMarker.class, getReinsuranceContract());
+        }
+    }
+
+    /**
+     * @return the batch of the original claims, this if the batch was not derived
+     */
+    public ClaimBatch getOriginalBatch() {
+        return originalBatch == null ? this : originalBatch;
+    }
+
+    public IComponentMarker getPeril() {
+        IComponentMarker marker = getMarkedSender(IPerilMarker.class);
+        if (marker == null) {
+            marker = getMarkedSender(IReserveMarker.class);
+        }
+        return marker;
+    }
+
+    public ISegmentMarker getLineOfBusiness() {
+        return (ISegmentMarker) getMarkedSender(ISegmentMarker.class);
+    }
+
+    public IReinsuranceContractMarker getReinsuranceContract() {
+        return (IReinsuranceContractMarker) getMarkedSender(IReinsuranceContractMarker.class);
+    }
+
+    @Override
+    public Map<String, Number> getValuesToSave() throws IllegalAccessException {
+        Map<String, Number> valuesToSave = new HashMap<String, Number>(1);
+        valuesToSave.put(ULTIMATE, getTotalUltimate());
+        return valuesToSave;
+    }
+
+    @Override
+    public List<String> getFieldNames() {
+        return Arrays.asList(ULTIMATE);
+    }
+}
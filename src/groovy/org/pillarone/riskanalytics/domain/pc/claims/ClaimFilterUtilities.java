@@ -42,6 +42,23 @@ public class ClaimFilterUtilities {
         return filteredClaims;
     }
 
+    /**
+     * @param claimBatches  list of claim batches to be filtered
+     * @param coverCriteria components such as claims generators, lines of business
+     * @return a batch is added as a whole if the origin of its original batch is an element of the cover criteria
+     */
+    public static List<ClaimBatch> filterClaimBatches(List<ClaimBatch> claimBatches, List coverCriteria) {
+        List<ClaimBatch> filteredClaimBatches = new ArrayList<ClaimBatch>(claimBatches.size());
+        if (coverCriteria != null) {
+            for (ClaimBatch claimBatch : claimBatches) {
+                if (coverCriteria.contains(claimBatch.getOriginalBatch().origin)) {
+                    filteredClaimBatches.add(claimBatch);
+                }
+            }
+        }
+        return filteredClaimBatches;
+    }
+
     public static List<Claim> filterClaimsByLine(List<Claim> claims, ISegmentMarker coveredLine, boolean includingReserves) {
         List<Claim> filteredClaims = new ArrayList<Claim>(claims.size());
         for (Claim claim : claims) {
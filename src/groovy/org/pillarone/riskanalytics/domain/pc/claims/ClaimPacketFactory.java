@@ -1,14 +1,33 @@
 package org.pillarone.riskanalytics.domain.pc.claims;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
+ * Creates the claims of generators, contracts and mergers including all Claim.copy() calls.
+ * <p/>
+ * Claims are usually discarded at the end of an iteration. With the optional arena claims are taken from a pool
+ * per thread instead, all claims of the pool are reused once the next iteration starts, and the pool grows to the
+ * highest number of claims of an iteration. The arena is a setting of the simulation, see the runtimeClaimArena
+ * parameter of GlobalParameters, and is switched per thread by {@link #setIteration(int, boolean, boolean)}.
+ * Components have to call one of the setIteration() methods before they create claims, any component keeping a
+ * claim beyond its iteration has to copy its values. In debug mode claims are not reused but poisoned at the start
+ * of the next iteration: a NaN ultimate and null references reveal claims escaping their iteration.
+ * <p/>
+ * Every claim gets an ordinal on its first Claim.getOrdinal() call, numbering the claims of a thread from 0 in every
+ * iteration. Mergers use the ordinal of the original claims to pair ceded and gross claims without hashing.
  *
  *  @author stefan.kunz (at) intuitive-collaboration (dot) com
  */
-// todo(sku): add a Stack<Claim> allowing to recycle claim packets
 public class ClaimPacketFactory {
 
     private static ClaimPacketFactory instance = null;
 
+    private static final ThreadLocal<ClaimArena> ARENA = new ThreadLocal<ClaimArena>() {
+        protected ClaimArena initialValue() {
+            return new ClaimArena();
+        }
+    };
 
     private ClaimPacketFactory() {
     }
@@ -21,8 +40,129 @@ public class ClaimPacketFactory {
     }
 
     public static Claim createPacket() {
+        ClaimArena arena = ARENA.get();
+        if (arena.enabled) {
+            return arena.next();
+        }
         Claim claim = new Claim();
         claim.setOriginalClaim(claim);
         return claim;
     }
+
+    /**
+     * Switches the arena of this thread off and releases its claims.
+     */
+    public static void disableArena() {
+        ARENA.remove();
+    }
+
+    /**
+     * @return true if the arena of this thread is switched on
+     */
+    public static boolean isArenaEnabled() {
+        return ARENA.get().enabled;
+    }
+
+    /**
+     * @return true if the arena of this thread poisons its claims instead of reusing them
+     */
+    public static boolean isPoisonRecycledClaims() {
+        return ARENA.get().poison;
+    }
+
+    /**
+     * Restarts the ordinals and recycles the claims of the arena of this thread if the iteration changed, keeps the
+     * arena setting of this thread.
+     */
+    public static void setIteration(int iteration) {
+        ARENA.get().setIteration(iteration);
+    }
+
+    /**
+     * Switches the arena of this thread and starts the iteration as {@link #setIteration(int)}.
+     *
+     * @param arena claims are taken from the arena of this thread
+     * @param poisonRecycledClaims debug mode, claims are poisoned instead of being reused
+     */
+    public static void setIteration(int iteration, boolean arena, boolean poisonRecycledClaims) {
+        ClaimArena claimArena = ARENA.get();
+        claimArena.configure(arena, poisonRecycledClaims);
+        claimArena.setIteration(iteration);
+    }
+
+    /**
+     * Called by Claim.getOrdinal().
+     */
+    static int nextOrdinal() {
+        return ARENA.get().nextOrdinal();
+    }
+
+    /**
+     * @return number of claims of the arena of this thread, i.e. the high-water mark of the claims of an iteration
+     */
+    static int getArenaCapacity() {
+        return ARENA.get().claims.size();
+    }
+
+    private static class ClaimArena {
+
+        private final List<Claim> claims = new ArrayList<Claim>();
+        private boolean enabled;
+        private boolean poison;
+        private int used;
+        private int iteration = -1;
+        private int nextOrdinal;
+
+        void configure(boolean enabled, boolean poison) {
+            if (this.enabled && !enabled) {
+                claims.clear();
+                used = 0;
+            }
+            this.enabled = enabled;
+            this.poison = poison;
+        }
+
+        void setIteration(int iteration) {
+            if (iteration == this.iteration) {
+                return;
+            }
+            this.iteration = iteration;
+            nextOrdinal = 0;
+            if (!enabled) {
+                return;
+            }
+            if (poison) {
+                for (int i = 0; i < used; i++) {
+                    claims.get(i).poison();
+                }
+                // poisoned claims are never handed out again
+                claims.clear();
+            }
+            used = 0;
+        }
+
+        int nextOrdinal() {
+            int ordinal = nextOrdinal++;
+            if (nextOrdinal < 0) {
+                // without iterations, e.g. in unit tests
+                nextOrdinal = 0;
+            }
+            return ordinal;
+        }
+
+        Claim next() {
+            Claim claim;
+            if (used < claims.size()) {
+                claim = claims.get(used);
+                claim.recycle();
+            }
+            else {
+                claim = new Claim();
+                claims.add(claim);
+            }
+            used++;
+            claim.setOriginalClaim(claim);
+            return claim;
+        }
+    }
 }
\ No newline at end of file
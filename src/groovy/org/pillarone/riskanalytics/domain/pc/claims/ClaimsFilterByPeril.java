@@ -14,6 +14,8 @@ public class ClaimsFilterByPeril extends Component {
 
     private PacketList<Claim> inClaims = new PacketList<Claim>(Claim.class);
     private PacketList<Claim> outClaims = new PacketList<Claim>(Claim.class);
+    private PacketList<ClaimBatch> inClaimBatches = new PacketList<ClaimBatch>(ClaimBatch.class);
+    private PacketList<ClaimBatch> outClaimBatches = new PacketList<ClaimBatch>(ClaimBatch.class);
     private ComboBoxTableMultiDimensionalParameter parmPerils = new ComboBoxTableMultiDimensionalParameter(
             Arrays.asList(new String[]{""}),
             Arrays.asList(new String[]{"perils"}),
@@ -22,6 +24,7 @@ public class ClaimsFilterByPeril extends Component {
 
     public void doCalculation() {
         outClaims.addAll(ClaimFilterUtilities.filterClaims(inClaims, parmPerils.getValuesAsObjects(0, true)));
+        outClaimBatches.addAll(ClaimFilterUtilities.filterClaimBatches(inClaimBatches, parmPerils.getValuesAsObjects(0, true)));
     }
 
     public PacketList<Claim> getInClaims() {
@@ -40,6 +43,22 @@ public class ClaimsFilterByPeril extends Component {
         this.outClaims = outClaims;
     }
 
+    public PacketList<ClaimBatch> getInClaimBatches() {
+        return inClaimBatches;
+    }
+
+    public void setInClaimBatches(PacketList<ClaimBatch> inClaimBatches) {
+        this.inClaimBatches = inClaimBatches;
+    }
+
+    public PacketList<ClaimBatch> getOutClaimBatches() {
+        return outClaimBatches;
+    }
+
+    public void setOutClaimBatches(PacketList<ClaimBatch> outClaimBatches) {
+        this.outClaimBatches = outClaimBatches;
+    }
+
     public ComboBoxTableMultiDimensionalParameter getParmPerils() {
         return parmPerils;
     }
@@ -7,8 +7,8 @@ import org.pillarone.riskanalytics.domain.utils.marker.IReinsuranceContractMarke
 import org.pillarone.riskanalytics.domain.pc.reserves.cashflow.ClaimDevelopmentPacket;
 import org.pillarone.riskanalytics.domain.pc.reserves.fasttrack.ClaimDevelopmentLeanPacket;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The claims merger calculates merged ceded claims using the originalClaim
@@ -20,6 +20,7 @@ import java.util.Map;
  * If the outClaimsNet channel is connected, net claim objects are constructed
  * too. For every gross claim, a net claim is constructed subtracting
  * the ultimate of the merged ceded claim with the same originalClaim.<br/>
+ * Claims are paired by the ordinal of their original claim (see {@link OriginalClaimIndex}).<br/>
  * Ceded out channel contain the same packets as inClaimsCeded. This is required
  * to enable aggregate drill down.
  * <p/>
@@ -40,28 +41,29 @@ public class MarketGrossNetClaimsMerger extends Component {
     private PacketList<Claim> outClaimsGross = new PacketList<Claim>(Claim.class);
     private PacketList<Claim> outClaimsCeded = new PacketList<Claim>(Claim.class);
 
+    private final OriginalClaimIndex originalClaimIndex = new OriginalClaimIndex();
+
     public void doCalculation() {
         if (inClaimsGross.isEmpty() && !inClaimsCeded.isEmpty()) {
             throw new IllegalStateException("MarketGrossNetClaimsMerger.onlyCededClaims");
         }
 
-        /* The map contains the gross claims as keys and the ceded as values */
+        /* The list contains the pairs in the order of inClaimsGross */
         if (anyOutChannelWired()) {
-            // By using a LinkedHashMap, we can be sure, that all outClaims* lists will be sorted according
-            // to the inClaimsGross list.
-            Map<Claim, GrossCededClaimsPair> grossMergedCededPairs = new LinkedHashMap<Claim, GrossCededClaimsPair>(inClaimsGross.size());
+            if (!originalClaimIndex.index(inClaimsGross)) {
+                originalClaimIndex.clear();
+                throw new IllegalArgumentException("MarketGrossNetClaimsMerger.doubleClaimInformation");
+            }
+            List<GrossCededClaimsPair> grossMergedCededPairs = new ArrayList<GrossCededClaimsPair>(inClaimsGross.size());
             for (Claim grossClaim : inClaimsGross) {
-                GrossCededClaimsPair claimsPair = new GrossCededClaimsPair(grossClaim);
-                if (grossMergedCededPairs.containsKey(grossClaim.getOriginalClaim())) {
-                    throw new IllegalArgumentException("MarketGrossNetClaimsMerger.doubleClaimInformation");
-                }
-                grossMergedCededPairs.put(grossClaim.getOriginalClaim(), claimsPair);
+                grossMergedCededPairs.add(new GrossCededClaimsPair(grossClaim));
                 outClaimsGross.add(grossClaim);
             }
             if (isSenderWired(outClaimsCeded) || isSenderWired(outClaimsNet)) {
                 for (Claim cededClaim : inClaimsCeded) {
-                    if (grossMergedCededPairs.containsKey(cededClaim.getOriginalClaim())) {
-                        GrossCededClaimsPair aggregateGrossCededClaim = grossMergedCededPairs.get(cededClaim.getOriginalClaim());
+                    int position = originalClaimIndex.indexOf(cededClaim);
+                    if (position >= 0) {
+                        GrossCededClaimsPair aggregateGrossCededClaim = grossMergedCededPairs.get(position);
                         if (aggregateGrossCededClaim.getClaimCeded() == null) {
                             aggregateGrossCededClaim.setClaimCeded(cededClaim.copy());
                         }
@@ -75,10 +77,10 @@ public class MarketGrossNetClaimsMerger extends Component {
                     }
                 }
 
-                for (Map.Entry<Claim, GrossCededClaimsPair> entry : grossMergedCededPairs.entrySet()) {
-                    Claim grossClaim = entry.getValue().getClaimGross();
+                for (GrossCededClaimsPair claimsPair : grossMergedCededPairs) {
+                    Claim grossClaim = claimsPair.getClaimGross();
                     Claim netClaim;
-                    Claim cededClaim = entry.getValue().getClaimCeded();
+                    Claim cededClaim = claimsPair.getClaimCeded();
                     if (cededClaim == null) {
                         netClaim = grossClaim.copy();
                         cededClaim = grossClaim.copy();
@@ -87,11 +89,12 @@ public class MarketGrossNetClaimsMerger extends Component {
                     else {
                         netClaim = grossClaim.getNetClaim(cededClaim);
                     }
-                    netClaim.setOriginalClaim(entry.getKey());
+                    netClaim.setOriginalClaim(grossClaim.getOriginalClaim());
                     netClaim.origin = this;
                     outClaimsNet.add(netClaim);
                 }
             }
+            originalClaimIndex.clear();
         }
         if (isSenderWired(outClaimsCeded)) {
             outClaimsCeded.addAll(inClaimsCeded);
@@ -0,0 +1,107 @@
+package org.pillarone.riskanalytics.domain.pc.claims;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the gross claim with the same original claim as a claim, e.g. a ceded claim, in a claims merger. The
+ * position of every gross claim is stored in an array indexed by the ordinal of its original claim, relative to
+ * the smallest ordinal. The array is kept between calculations and only the used entries are cleared.
+ * <p/>
+ * If the ordinals of the original claims are spread too wide or not unique, e.g. as the claims were created by
+ * different threads, original claims are hashed by identity instead.
+ */
+class OriginalClaimIndex {
+
+    /** largest ordinal range per gross claim before original claims are hashed */
+    private static final int MAX_RANGE_PER_CLAIM = 8;
+    private static final int MIN_RANGE = 1024;
+
+    /** position + 1 of the gross claim, 0 for unused entries */
+    private int[] positions = new int[0];
+    private int minOrdinal;
+    private int indexedClaims;
+    private List<Claim> grossClaims;
+    private Map<Claim, Integer> hashedPositions;
+
+    /**
+     * @return false if two gross claims have the same original claim
+     */
+    boolean index(List<Claim> grossClaims) {
+        clear();
+        this.grossClaims = grossClaims;
+        if (grossClaims.isEmpty()) {
+            return true;
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Claim grossClaim : grossClaims) {
+            Claim originalClaim = grossClaim.getOriginalClaim();
+            int ordinal = originalClaim == null ? -1 : originalClaim.getOrdinal();
+            min = Math.min(min, ordinal);
+            max = Math.max(max, ordinal);
+        }
+        long range = (long) max - min + 1;
+        if (min < 0 || range > (long) MAX_RANGE_PER_CLAIM * grossClaims.size() + MIN_RANGE) {
+            return indexByHash();
+        }
+        if (positions.length < range) {
+            positions = new int[(int) range];
+        }
+        minOrdinal = min;
+        for (Claim grossClaim : grossClaims) {
+            int slot = grossClaim.getOriginalClaim().getOrdinal() - minOrdinal;
+            if (positions[slot] != 0) {
+                boolean sameOriginalClaim = grossClaims.get(positions[slot] - 1).getOriginalClaim() == grossClaim.getOriginalClaim();
+                clear();
+                this.grossClaims = grossClaims;
+                return !sameOriginalClaim && indexByHash();
+            }
+            positions[slot] = ++indexedClaims;
+        }
+        return true;
+    }
+
+    private boolean indexByHash() {
+        hashedPositions = new IdentityHashMap<Claim, Integer>(grossClaims.size());
+        for (int i = 0; i < grossClaims.size(); i++) {
+            if (hashedPositions.put(grossClaims.get(i).getOriginalClaim(), i) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return position of the gross claim with the same original claim, -1 if there is none
+     */
+    int indexOf(Claim claim) {
+        Claim originalClaim = claim.getOriginalClaim();
+        if (hashedPositions != null) {
+            Integer position = hashedPositions.get(originalClaim);
+            return position == null ? -1 : position;
+        }
+        if (originalClaim == null) {
+            return -1;
+        }
+        int slot = originalClaim.getOrdinal() - minOrdinal;
+        if (slot < 0 || slot >= positions.length || positions[slot] == 0) {
+            return -1;
+        }
+        int position = positions[slot] - 1;
+        return grossClaims.get(position).getOriginalClaim() == originalClaim ? position : -1;
+    }
+
+    /**
+     * Releases the gross claims, has to be called at the end of a calculation.
+     */
+    void clear() {
+        for (int i = 0; i < indexedClaims; i++) {
+            positions[grossClaims.get(i).getOriginalClaim().getOrdinal() - minOrdinal] = 0;
+        }
+        indexedClaims = 0;
+        grossClaims = null;
+        hashedPositions = null;
+    }
+}
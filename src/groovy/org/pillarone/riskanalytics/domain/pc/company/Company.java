@@ -2,6 +2,8 @@ package org.pillarone.riskanalytics.domain.pc.company;
 
 import org.pillarone.riskanalytics.core.components.*;
 import org.pillarone.riskanalytics.core.packets.PacketList;
+import org.pillarone.riskanalytics.core.simulation.engine.IterationScope;
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope;
 import org.pillarone.riskanalytics.core.parameterization.ConstrainedMultiDimensionalParameter;
 import org.pillarone.riskanalytics.domain.assets.constants.Rating;
 import org.pillarone.riskanalytics.domain.pc.assetLiabilityMismatch.CompanyConfigurableAssetLiabilityMismatchGenerator;
@@ -9,6 +11,7 @@ import org.pillarone.riskanalytics.domain.pc.claims.Claim;
 import org.pillarone.riskanalytics.domain.pc.constraints.CompanyPortion;
 import org.pillarone.riskanalytics.domain.pc.creditrisk.DefaultProbabilities;
 import org.pillarone.riskanalytics.domain.pc.creditrisk.ReinsurerDefault;
+import org.pillarone.riskanalytics.domain.pc.global.DrawSiteStream;
 import org.pillarone.riskanalytics.domain.pc.lob.CompanyConfigurableLobWithReserves;
 import org.pillarone.riskanalytics.domain.utils.marker.ISegmentMarker;
 import org.pillarone.riskanalytics.domain.utils.marker.IReinsuranceContractMarker;
@@ -21,6 +24,7 @@ import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfoUtilit
 import org.pillarone.riskanalytics.domain.utils.IRandomNumberGenerator;
 import org.pillarone.riskanalytics.domain.utils.RandomNumberGeneratorFactory;
 import umontreal.iro.lecuyer.probdist.BinomialDist;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -88,7 +92,10 @@ public class Company extends MultiPhaseComponent implements ICompanyMarker {
      */
     private Map<IReinsuranceContractMarker, Double> coveredPortionPerContract = new HashMap<IReinsuranceContractMarker, Double>();
     
-    private IRandomNumberGenerator generator = RandomNumberGeneratorFactory.getBinomialGenerator();
+    private IRandomNumberGenerator generator;
+    private IterationScope iterationScope;
+    private SimulationScope simulationScope;
+    private final DrawSiteStream defaultStream = new DrawSiteStream(this, "default");
     private static final String PHASE_DEFAULT = "Phase Default";
     private static final String PHASE_AGGREGATION = "Phase Aggregation";
 
@@ -106,6 +113,10 @@ public class Company extends MultiPhaseComponent implements ICompanyMarker {
     }
     
     private void doCalculationDefault() {
+        RandomStreamBase stream = defaultStream.getStream(simulationScope, iterationScope);
+        if (generator == null) {
+            generator = RandomNumberGeneratorFactory.getBinomialGenerator(stream);
+        }
         Map<Rating, Double> defaultProbabilities = inDefaultProbability.get(0).defaultProbability;
         boolean isReinsurerDefault = defaultOfReinsurer(defaultProbabilities.get(parmRating));
         ReinsurerDefault reinsurerDefault = new ReinsurerDefault(getName(), isReinsurerDefault);
@@ -562,4 +573,20 @@ public class Company extends MultiPhaseComponent implements ICompanyMarker {
     public void setPeriodStore(PeriodStore periodStore) {
         this.periodStore = periodStore;
     }
+
+    public IterationScope getIterationScope() {
+        return iterationScope;
+    }
+
+    public void setIterationScope(IterationScope iterationScope) {
+        this.iterationScope = iterationScope;
+    }
+
+    public SimulationScope getSimulationScope() {
+        return simulationScope;
+    }
+
+    public void setSimulationScope(SimulationScope simulationScope) {
+        this.simulationScope = simulationScope;
+    }
 }
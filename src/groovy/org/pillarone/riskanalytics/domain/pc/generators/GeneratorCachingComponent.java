@@ -1,21 +1,77 @@
 package org.pillarone.riskanalytics.domain.pc.generators;
 
 import org.pillarone.riskanalytics.core.components.Component;
+import org.pillarone.riskanalytics.core.simulation.engine.IterationScope;
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope;
+import org.pillarone.riskanalytics.domain.pc.claims.ClaimPacketFactory;
+import org.pillarone.riskanalytics.domain.pc.global.GlobalParameters;
+import org.pillarone.riskanalytics.domain.pc.generators.severities.Event;
+import org.pillarone.riskanalytics.domain.utils.AbstractQuantileTableDistribution;
 import org.pillarone.riskanalytics.domain.utils.DistributionModified;
 import org.pillarone.riskanalytics.domain.utils.IRandomNumberGenerator;
 import org.pillarone.riskanalytics.domain.utils.RandomDistribution;
 import org.pillarone.riskanalytics.domain.utils.RandomNumberGeneratorFactory;
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.SimulationStreams;
+import umontreal.iro.lecuyer.probdist.Distribution;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
 
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
+/**
+ * Caches generators per (distribution, modifier) instance pair. Parameter objects are not copied during a
+ * simulation, therefore instances and not their values are compared. This avoids hashing the parameters on every
+ * lookup and never mixes up different distributions with equal hash codes. Draw sites called every period should
+ * hold a {@link GeneratorSlot} in a field.
+ * <p/>
+ * If per component streams or antithetic variates are enabled, every draw site draws from its own stream, shared by
+ * all generators of the draw site. Generators without slot belong to the draw site "generator", generators of a
+ * slot to the draw site of the slot. Executing the component passes the current
+ * iteration to these modes once per iteration, getting a generator is a plain cache lookup. All modes are settings
+ * of the simulation, see
+ * {@link GlobalParameters#getSimulationStreams(SimulationScope)}.
+ */
 public abstract class GeneratorCachingComponent extends Component {
 
-    private Map<String, IRandomNumberGenerator> generators = new HashMap<String, IRandomNumberGenerator>();
+    private Map<RandomDistribution, Map<DistributionModified, IRandomNumberGenerator>> generators
+            = new IdentityHashMap<RandomDistribution, Map<DistributionModified, IRandomNumberGenerator>>();
+    private IterationScope iterationScope;
+    private SimulationScope simulationScope;
+    private SimulationStreams simulationStreams;
+    /** runtime parameters of the simulation, resolved with the first iteration */
+    private Boolean claimArena;
+    private boolean poisonRecycledClaims;
+    /** runtime parameter of the simulation, resolved with the first inversion */
+    private Double quantileTableMaxError;
+    /** streams per draw site, every stream of a draw site replays the same draws */
+    private Map<String, RandomStreamBase> streams = new HashMap<String, RandomStreamBase>();
+    /** iteration last passed to the random number modes, the claim arena and the ordinals */
+    private int synchronizedIteration = -1;
+
+    static final String DRAW_SITE = "generator";
 
     protected IRandomNumberGenerator getCachedGenerator(RandomDistribution distribution, DistributionModified modifier) {
-        String key = key(distribution, modifier);
-        IRandomNumberGenerator generator;
+        return getCachedGenerator(generators, DRAW_SITE, distribution, modifier, false);
+    }
+
+    /**
+     * Frequencies of discrete empirical distributions are sampled with their alias table, see
+     * RandomNumberGeneratorFactory.getVariateGenerator().
+     */
+    protected IRandomNumberGenerator getCachedFrequencyGenerator(RandomDistribution distribution, DistributionModified modifier) {
+        return getCachedGenerator(generators, DRAW_SITE, distribution, modifier, true);
+    }
+
+    private IRandomNumberGenerator getCachedGenerator(
+            Map<RandomDistribution, Map<DistributionModified, IRandomNumberGenerator>> cache, String drawSite,
+            RandomDistribution distribution, DistributionModified modifier, boolean frequency) {
+        Map<DistributionModified, IRandomNumberGenerator> generatorsByModifier = cache.get(distribution);
+        if (generatorsByModifier == null) {
+            generatorsByModifier = new IdentityHashMap<DistributionModified, IRandomNumberGenerator>(4);
+            cache.put(distribution, generatorsByModifier);
+        }
+        IRandomNumberGenerator generator = generatorsByModifier.get(modifier);
 //        if (modifier.getType().equals(DistributionModifier.TRUNCATED)) {
 //            double quantileOfMax = distribution.getDistribution().cdf((Double) modifier.getParameters().get("max"));
 //            double quantileOfMin = distribution.getDistribution().cdf((Double) modifier.getParameters().get("min"));
@@ -23,23 +79,157 @@ public abstract class GeneratorCachingComponent extends Component {
 //                throw new IllegalArgumentException("GeneratorCachingComponent.insufficientSupport");
 //            }
 //        }
-        if (generators.containsKey(key)) {
-            generator = generators.get(key);
-        } else {
+        if (generator == null) {
             try {
-                generator = RandomNumberGeneratorFactory.getGenerator(distribution, modifier);
+                generator = RandomNumberGeneratorFactory.getGenerator(distribution, modifier, getStream(drawSite), frequency);
             }
             catch (IllegalArgumentException ex) {
                 throw new IllegalArgumentException("['GeneratorCachingComponent.illegalDistributionDistributionModifier','"
                         +this.getNormalizedName()+"','"+ex.getLocalizedMessage()+"']");
             }
-            generators.put(key, generator);
+            generatorsByModifier.put(modifier, generator);
         }
         return generator;
     }
 
-    private String key(RandomDistribution distribution, DistributionModified modifier) {
-        return String.valueOf(distribution.hashCode()) + String.valueOf(modifier.hashCode());
+    /**
+     * @param slot field of the calling component, its generator is resolved only if the instances changed
+     */
+    protected IRandomNumberGenerator getCachedGenerator(GeneratorSlot slot, RandomDistribution distribution, DistributionModified modifier) {
+        if (!slot.isResolved(distribution, modifier)) {
+            if (slot.quasiRandomDimensions > 0 && getSimulationStreams().isQuasiMonteCarlo()) {
+                slot.generator = getQuasiRandomGenerator(slot, distribution, modifier);
+            }
+            else {
+                slot.generator = getCachedGenerator(slot.generators, slot.drawSite, distribution, modifier, slot.frequency);
+            }
+            slot.distribution = distribution;
+            slot.modifier = modifier;
+        }
+        return slot.generator;
+    }
+
+    /**
+     * Synchronizes the iteration before the calculation of the first period of every iteration.
+     */
+    @Override
+    public void execute() {
+        synchronizeIteration();
+        super.execute();
+    }
+
+    /**
+     * Selects the Sobol point and the antithetic pairing of the current iteration. Starts a new iteration of the
+     * claim arena, switched by the runtime parameters of the simulation, and of the claim and event ordinals. Called
+     * by execute(), components calling doCalculation() directly have to call it before they draw or create claims or
+     * events. Returns immediately if the iteration is already synchronized. Without an iteration scope, i.e. in unit
+     * tests, the modes are not synchronized.
+     */
+    protected void synchronizeIteration() {
+        if (iterationScope != null && iterationScope.getCurrentIteration() != synchronizedIteration) {
+            int iteration = iterationScope.getCurrentIteration();
+            synchronizedIteration = iteration;
+            getSimulationStreams().setIteration(iteration);
+            if (claimArena == null) {
+                GlobalParameters globalParameters = GlobalParameters.find(simulationScope);
+                claimArena = globalParameters != null && globalParameters.isRuntimeClaimArena();
+                poisonRecycledClaims = globalParameters != null && globalParameters.isRuntimePoisonRecycledClaims();
+            }
+            ClaimPacketFactory.setIteration(iteration, claimArena, poisonRecycledClaims);
+            Event.setIteration(iteration);
+        }
+    }
+
+    /**
+     * @param drawSite unique and stable within the component, not numbered in creation order
+     * @return the stream of MathUtils unless per component streams or antithetic variates are enabled, the same
+     *          stream in every call with the same draw site
+     */
+    protected RandomStreamBase getStream(String drawSite) {
+        RandomStreamBase stream = streams.get(drawSite);
+        if (stream == null) {
+            stream = getSimulationStreams().getDrawSiteStream(this, drawSite);
+            streams.put(drawSite, stream);
+        }
+        return stream;
+    }
+
+    /**
+     * @return the random number modes of the simulation, resolved with the first call
+     */
+    protected SimulationStreams getSimulationStreams() {
+        if (simulationStreams == null) {
+            simulationStreams = GlobalParameters.getSimulationStreams(simulationScope);
+        }
+        return simulationStreams;
     }
 
+    /**
+     * Draw sites inverting given probabilities call this instead of distribution.getDistribution(). If
+     * runtimeQuantileTableMaxError of the simulation is positive, the quantile function of the composite pareto type
+     * distributions is tabulated once per distribution instance, see AbstractQuantileTableDistribution.
+     */
+    protected Distribution getInverseFDistribution(RandomDistribution distribution) {
+        if (quantileTableMaxError == null) {
+            GlobalParameters globalParameters = GlobalParameters.find(simulationScope);
+            quantileTableMaxError = globalParameters == null ? 0d : globalParameters.getRuntimeQuantileTableMaxError();
+        }
+        Distribution inverseFDistribution = distribution.getDistribution();
+        if (quantileTableMaxError > 0 && inverseFDistribution instanceof AbstractQuantileTableDistribution
+                && !((AbstractQuantileTableDistribution) inverseFDistribution).isInverseFTabulated()) {
+            ((AbstractQuantileTableDistribution) inverseFDistribution).tabulateInverseF(quantileTableMaxError);
+        }
+        return inverseFDistribution;
+    }
+
+    /**
+     * Generators of quasi random slots are not shared as every slot draws from its own dimensions.
+     */
+    private IRandomNumberGenerator getQuasiRandomGenerator(GeneratorSlot slot, RandomDistribution distribution, DistributionModified modifier) {
+        if (slot.quasiRandomStream == null) {
+            slot.quasiRandomStream = getSimulationStreams().getStream(slot.quasiRandomDimensions);
+        }
+        try {
+            return RandomNumberGeneratorFactory.getGenerator(distribution, modifier, slot.quasiRandomStream);
+        }
+        catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("['GeneratorCachingComponent.illegalDistributionDistributionModifier','"
+                    +this.getNormalizedName()+"','"+ex.getLocalizedMessage()+"']");
+        }
+    }
+
+    /**
+     * Fills values with the next variates of the cached generator, avoids boxing every single variate.
+     */
+    protected void nextCachedValues(RandomDistribution distribution, DistributionModified modifier, double[] values) {
+        getCachedGenerator(distribution, modifier).nextValues(values, 0, values.length);
+    }
+
+    /**
+     * Fills values with the next variates of the cached generator, intended for frequencies.
+     */
+    protected void nextCachedValues(RandomDistribution distribution, DistributionModified modifier, int[] values) {
+        getCachedGenerator(distribution, modifier).nextValues(values, 0, values.length);
+    }
+
+    public IterationScope getIterationScope() {
+        return iterationScope;
+    }
+
+    public void setIterationScope(IterationScope iterationScope) {
+        this.iterationScope = iterationScope;
+    }
+
+    public SimulationScope getSimulationScope() {
+        return simulationScope;
+    }
+
+    public void setSimulationScope(SimulationScope simulationScope) {
+        this.simulationScope = simulationScope;
+        simulationStreams = null;
+        streams.clear();
+        claimArena = null;
+        quantileTableMaxError = null;
+        synchronizedIteration = -1;
+    }
 }
@@ -0,0 +1,60 @@
+package org.pillarone.riskanalytics.domain.pc.generators;
+
+import org.pillarone.riskanalytics.domain.utils.DistributionModified;
+import org.pillarone.riskanalytics.domain.utils.IRandomNumberGenerator;
+import org.pillarone.riskanalytics.domain.utils.RandomDistribution;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Generator of one draw site of a {@link GeneratorCachingComponent}, held in a field of the component. It is
+ * resolved with the first call of a simulation and again only if the distribution or modifier instance changes,
+ * i.e. with period specific parameters. Otherwise getting the generator costs two reference comparisons.
+ * <p/>
+ * The generators of a slot draw from the stream of its draw site if per component streams or antithetic variates
+ * are enabled and are cached per slot. Slots with quasi random dimensions draw from their own quasi random stream if the quasi-Monte Carlo mode is
+ * enabled. The stream is reserved once and kept if the slot is resolved again. Slots of frequencies sample discrete
+ * empirical distributions with their alias table.
+ */
+public class GeneratorSlot {
+
+    final String drawSite;
+    final int quasiRandomDimensions;
+    final boolean frequency;
+    RandomStreamBase quasiRandomStream;
+    RandomDistribution distribution;
+    DistributionModified modifier;
+    IRandomNumberGenerator generator;
+    final Map<RandomDistribution, Map<DistributionModified, IRandomNumberGenerator>> generators
+            = new IdentityHashMap<RandomDistribution, Map<DistributionModified, IRandomNumberGenerator>>(4);
+
+    /**
+     * @param drawSite unique and stable within the component
+     */
+    public GeneratorSlot(String drawSite) {
+        this(drawSite, 0);
+    }
+
+    /**
+     * @param quasiRandomDimensions number of uniforms per iteration taken from the Sobol point in quasi-Monte Carlo
+     *          mode, further draws of the iteration are pseudo random
+     */
+    public GeneratorSlot(String drawSite, int quasiRandomDimensions) {
+        this(drawSite, quasiRandomDimensions, false);
+    }
+
+    /**
+     * @param frequency the slot draws frequencies
+     */
+    public GeneratorSlot(String drawSite, int quasiRandomDimensions, boolean frequency) {
+        this.drawSite = drawSite;
+        this.quasiRandomDimensions = quasiRandomDimensions;
+        this.frequency = frequency;
+    }
+
+    boolean isResolved(RandomDistribution distribution, DistributionModified modifier) {
+        return generator != null && this.distribution == distribution && this.modifier == modifier;
+    }
+}
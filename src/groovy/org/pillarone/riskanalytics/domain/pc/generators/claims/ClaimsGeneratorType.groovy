@@ -63,8 +63,19 @@ public class ClaimsGeneratorType extends AbstractParameterObjectClassifier {
                     ConstraintsFactory.getConstraints(DoubleConstraints.IDENTIFIER)),
             claimsSizeModification: DistributionModifier.getStrategy(DistributionModifier.NONE, [:]),
             produceClaim: FrequencySeverityClaimType.AGGREGATED_EVENT])
+    public static final ClaimsGeneratorType COMPOUND_AGGREGATE = new ClaimsGeneratorType("compound aggregate", "COMPOUND_AGGREGATE", [
+            frequencyDistribution: DistributionType.getStrategy(DistributionType.CONSTANT, ["constant": 0d]),
+            claimsSizeBase: Exposure.ABSOLUTE,
+            claimsSizeDistribution: DistributionType.getStrategy(DistributionType.CONSTANT, ["constant": 0d]),
+            claimsSizeModification: DistributionModifier.getStrategy(DistributionModifier.NONE, [:])])
+    public static final ClaimsGeneratorType THRESHOLD_SPLIT = new ClaimsGeneratorType("threshold split", "THRESHOLD_SPLIT", [
+            frequencyDistribution: DistributionType.getStrategy(DistributionType.CONSTANT, ["constant": 0d]),
+            claimsSizeBase: Exposure.ABSOLUTE,
+            claimsSizeDistribution: DistributionType.getStrategy(DistributionType.CONSTANT, ["constant": 0d]),
+            claimsSizeModification: DistributionModifier.getStrategy(DistributionModifier.NONE, [:]),
+            threshold: 0d])
 
-    public static final all = [NONE, ATTRITIONAL, ATTRITIONAL_WITH_DATE, FREQUENCY_AVERAGE_ATTRITIONAL, FREQUENCY_SEVERITY, OCCURRENCE_AND_SEVERITY, SEVERITY_OF_EVENT_GENERATOR, PML]
+    public static final all = [NONE, ATTRITIONAL, ATTRITIONAL_WITH_DATE, FREQUENCY_AVERAGE_ATTRITIONAL, FREQUENCY_SEVERITY, OCCURRENCE_AND_SEVERITY, SEVERITY_OF_EVENT_GENERATOR, PML, COMPOUND_AGGREGATE, THRESHOLD_SPLIT]
 
     protected static Map types = [:]
     static {
@@ -150,6 +161,21 @@ public class ClaimsGeneratorType extends AbstractParameterObjectClassifier {
                         claimsSizeModification: (DistributionModified) parameters.get("claimsSizeModification"),
                         produceClaim : (FrequencySeverityClaimType) parameters.get("produceClaim"))
                 break;
+            case ClaimsGeneratorType.COMPOUND_AGGREGATE:
+                claimsGenerator = new CompoundAggregateClaimsGeneratorStrategy(
+                        frequencyDistribution: (RandomDistribution) parameters.get("frequencyDistribution"),
+                        claimsSizeBase: (Exposure) parameters.get("claimsSizeBase"),
+                        claimsSizeDistribution: (RandomDistribution) parameters.get("claimsSizeDistribution"),
+                        claimsSizeModification: (DistributionModified) parameters.get("claimsSizeModification"))
+                break;
+            case ClaimsGeneratorType.THRESHOLD_SPLIT:
+                claimsGenerator = new ThresholdSplitClaimsGeneratorStrategy(
+                        frequencyDistribution: (RandomDistribution) parameters.get("frequencyDistribution"),
+                        claimsSizeBase: (Exposure) parameters.get("claimsSizeBase"),
+                        claimsSizeDistribution: (RandomDistribution) parameters.get("claimsSizeDistribution"),
+                        claimsSizeModification: (DistributionModified) parameters.get("claimsSizeModification"),
+                        threshold: (Double) parameters.get("threshold"))
+                break;
             default:
                 throw new InvalidParameterException("ClaimsGeneratorType $type not implemented")
         }
@@ -0,0 +1,61 @@
+package org.pillarone.riskanalytics.domain.pc.generators.claims
+
+import org.pillarone.riskanalytics.core.parameterization.AbstractParameterObject
+import org.pillarone.riskanalytics.core.parameterization.IParameterObjectClassifier
+import org.pillarone.riskanalytics.domain.pc.constants.Exposure
+import org.pillarone.riskanalytics.domain.utils.CompoundAggregateDistribution
+import org.pillarone.riskanalytics.domain.utils.DistributionModified
+import org.pillarone.riskanalytics.domain.utils.DistributionModifier
+import org.pillarone.riskanalytics.domain.utils.DistributionType
+import org.pillarone.riskanalytics.domain.utils.RandomDistribution
+import org.pillarone.riskanalytics.domain.utils.RandomNumberGeneratorFactory
+
+/**
+ * Generates one attritional claim per period with the aggregate of a frequency distributed number of claims with
+ * sizes according to claimsSizeDistribution and claimsSizeModification. The {@link CompoundAggregateDistribution}
+ * is built once per parameterization, every period draws the aggregate by inversion of a single uniform.
+ */
+public class CompoundAggregateClaimsGeneratorStrategy extends AbstractParameterObject implements IClaimsGeneratorStrategy {
+
+    RandomDistribution frequencyDistribution = DistributionType.getStrategy(DistributionType.CONSTANT, ['constant': 0d])
+    Exposure claimsSizeBase = Exposure.ABSOLUTE
+    RandomDistribution claimsSizeDistribution = DistributionType.getStrategy(DistributionType.CONSTANT, ['constant': 0d])
+    DistributionModified claimsSizeModification = DistributionModifier.getStrategy(DistributionModifier.NONE, [:])
+
+    private CompoundAggregateDistribution aggregateDistribution
+
+    public IParameterObjectClassifier getType() {
+        return ClaimsGeneratorType.COMPOUND_AGGREGATE
+    }
+
+    public Map getParameters() {
+        ['frequencyDistribution': frequencyDistribution,
+                'claimsSizeBase': claimsSizeBase,
+                'claimsSizeDistribution': claimsSizeDistribution,
+                'claimsSizeModification': claimsSizeModification]
+    }
+
+    void setFrequencyDistribution(RandomDistribution frequencyDistribution) {
+        this.frequencyDistribution = frequencyDistribution
+        aggregateDistribution = null
+    }
+
+    void setClaimsSizeDistribution(RandomDistribution claimsSizeDistribution) {
+        this.claimsSizeDistribution = claimsSizeDistribution
+        aggregateDistribution = null
+    }
+
+    void setClaimsSizeModification(DistributionModified claimsSizeModification) {
+        this.claimsSizeModification = claimsSizeModification
+        aggregateDistribution = null
+    }
+
+    CompoundAggregateDistribution getAggregateDistribution() {
+        if (aggregateDistribution == null) {
+            aggregateDistribution = new CompoundAggregateDistribution(frequencyDistribution.distribution,
+                    RandomNumberGeneratorFactory.getModifiedDistribution(claimsSizeDistribution, claimsSizeModification),
+                    RandomNumberGeneratorFactory.getShift(claimsSizeModification))
+        }
+        aggregateDistribution
+    }
+}
@@ -28,6 +28,13 @@ public class DevelopedTypableClaimsGenerator extends TypableClaimsGenerator impl
         getOutClaims().clear();
         getOutClaims().addAll(outClaimsLeanDevelopment);
     }
+
+    /**
+     * lean development packets are derived from the claims
+     */
+    protected boolean isClaimsRequired() {
+        return true;
+    }
     
     public double getParmPeriodPaymentPortion() {
         return parmPeriodPaymentPortion;
@@ -49,6 +49,13 @@ public class DevelopedTypableFACClaimsGenerator extends TypableClaimsGenerator i
         getOutClaims().addAll(outClaimsLeanDevelopment);
     }
 
+    /**
+     * lean development packets are derived from the claims
+     */
+    protected boolean isClaimsRequired() {
+        return true;
+    }
+
     private void applyDefaultFacShare() {
         if (parmDefaultFacShare > 0) {
             // no action needed for equal 0 as the default would be applied in this case
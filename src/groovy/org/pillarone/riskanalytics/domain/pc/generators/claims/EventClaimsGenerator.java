@@ -9,6 +9,7 @@ import org.pillarone.riskanalytics.domain.pc.generators.severities.Event;
 import org.pillarone.riskanalytics.domain.pc.generators.severities.EventSeverity;
 import org.pillarone.riskanalytics.domain.utils.DistributionType;
 import org.pillarone.riskanalytics.domain.utils.RandomDistribution;
+import umontreal.iro.lecuyer.probdist.Distribution;
 
 /**
  * The event claims generator sends claims object to components
@@ -35,8 +36,9 @@ public class EventClaimsGenerator extends ClaimsGenerator {
             throw new IllegalStateException("EventClaimsGenerator.missingRandomVariateDistribution");
         }
 
+        Distribution distribution = getInverseFDistribution(parmDistribution);
         for (EventSeverity severity : inSeverities) {
-            double claimSize = parmDistribution.getDistribution().inverseF(severity.value);
+            double claimSize = distribution.inverseF(severity.value);
 
             Claim claim = ClaimPacketFactory.createPacket();
             claim.origin = this;
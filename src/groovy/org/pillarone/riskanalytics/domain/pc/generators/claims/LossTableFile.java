@@ -0,0 +1,250 @@
+package org.pillarone.riskanalytics.domain.pc.generators.claims;
+
+import org.pillarone.riskanalytics.domain.pc.generators.severities.Event;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Read only view of a binary year or event loss table mapped into memory, rows are read on demand and the table is
+ * never loaded on heap. Files are written by {@link LossTableFileWriter}, all values are big endian:
+ * <ul>
+ * <li>header: magic number, version, flags (bit 0: timing column), first year, number of years, number of rows</li>
+ * <li>index: number of years + 1 longs, the first row of every year and the number of rows</li>
+ * <li>rows ordered by year: year, event id, peril id (ints), loss and, if flagged, fraction of period (doubles)</li>
+ * </ul>
+ * Years without losses have an empty row range. Tables are mapped in chunks of whole rows as a single mapping is
+ * limited to 2 GB.
+ * <p/>
+ * Instances are shared per file among the generators of one owner, i.e. of one simulation. They are released by
+ * {@link #release(String, Object)} or together with the owner, the mappings are unmapped once the instance has been
+ * garbage collected. Events are shared among all generators reading the same table in the same iteration and
+ * period, the event cache is kept per thread.
+ */
+public class LossTableFile {
+
+    static final int MAGIC = 0x504C5459;
+    static final int VERSION = 1;
+    static final int TIMING = 1;
+    static final int HEADER_SIZE = 4 * 5 + 8;
+    static final int ROW_SIZE = 3 * 4 + 8;
+    /** fraction of period of the events of tables without timing column */
+    static final double DEFAULT_FRACTION_OF_PERIOD = 0.5;
+
+    /** shared instances by owner and canonical path, owners are weakly referenced */
+    private static final Map<Object, Map<String, LossTableFile>> FILES = new WeakHashMap<Object, Map<String, LossTableFile>>();
+
+    private final String path;
+    private final boolean timing;
+    private final int rowSize;
+    private final int firstYear;
+    private final long rowCount;
+    private final long[] yearOffsets;
+    private final int rowsPerChunk;
+    private final MappedByteBuffer[] chunks;
+    private final ThreadLocal<EventCache> events = new ThreadLocal<EventCache>() {
+        protected EventCache initialValue() {
+            return new EventCache();
+        }
+    };
+
+    /**
+     * @param owner the simulation scope of the generators sharing the instance
+     * @return the shared instance of the file
+     */
+    public static LossTableFile open(String path, Object owner) {
+        String canonicalPath = canonicalPath(path);
+        synchronized (FILES) {
+            Map<String, LossTableFile> lossTables = FILES.get(owner);
+            if (lossTables == null) {
+                lossTables = new HashMap<String, LossTableFile>();
+                FILES.put(owner, lossTables);
+            }
+            LossTableFile lossTable = lossTables.get(canonicalPath);
+            if (lossTable == null) {
+                lossTable = new LossTableFile(canonicalPath);
+                lossTables.put(canonicalPath, lossTable);
+            }
+            return lossTable;
+        }
+    }
+
+    /**
+     * Drops the shared instance of the owner. Generators still referencing it keep reading the mapped file.
+     */
+    public static void release(String path, Object owner) {
+        String canonicalPath = canonicalPath(path);
+        synchronized (FILES) {
+            Map<String, LossTableFile> lossTables = FILES.get(owner);
+            if (lossTables != null) {
+                lossTables.remove(canonicalPath);
+                if (lossTables.isEmpty()) {
+                    FILES.remove(owner);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the shared instances of all owners, required after a file has been rewritten.
+     */
+    public static void close(String path) {
+        String canonicalPath = canonicalPath(path);
+        synchronized (FILES) {
+            for (Map<String, LossTableFile> lossTables : FILES.values()) {
+                lossTables.remove(canonicalPath);
+            }
+        }
+    }
+
+    private static String canonicalPath(String path) {
+        try {
+            return new File(path).getCanonicalPath();
+        }
+        catch (IOException ex) {
+            throw new IllegalArgumentException("['LossTableFile.unreadable','" + path + "']");
+        }
+    }
+
+    LossTableFile(String path) {
+        this.path = path;
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(path, "r");
+            FileChannel channel = file.getChannel();
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(HEADER_SIZE, channel.size()));
+            if (header.limit() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IllegalArgumentException("['LossTableFile.invalidFile','" + path + "']");
+            }
+            timing = (header.getInt() & TIMING) != 0;
+            rowSize = ROW_SIZE + (timing ? 8 : 0);
+            firstYear = header.getInt();
+            int numberOfYears = header.getInt();
+            rowCount = header.getLong();
+            long indexSize = 8L * (numberOfYears + 1);
+            if (numberOfYears < 0 || channel.size() != HEADER_SIZE + indexSize + rowCount * rowSize) {
+                throw new IllegalArgumentException("['LossTableFile.invalidFile','" + path + "']");
+            }
+            yearOffsets = new long[numberOfYears + 1];
+            channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, indexSize).asLongBuffer().get(yearOffsets);
+            rowsPerChunk = Integer.MAX_VALUE / rowSize;
+            int numberOfChunks = (int) ((rowCount + rowsPerChunk - 1) / rowsPerChunk);
+            chunks = new MappedByteBuffer[numberOfChunks];
+            long rowsStart = HEADER_SIZE + indexSize;
+            for (int i = 0; i < numberOfChunks; i++) {
+                long firstRow = (long) i * rowsPerChunk;
+                long rows = Math.min(rowsPerChunk, rowCount - firstRow);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, rowsStart + firstRow * rowSize, rows * rowSize);
+            }
+        }
+        catch (IOException ex) {
+            throw new IllegalArgumentException("['LossTableFile.unreadable','" + path + "']");
+        }
+        finally {
+            if (file != null) {
+                try {
+                    // mappings stay valid after closing the channel
+                    file.close();
+                }
+                catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public boolean hasTiming() {
+        return timing;
+    }
+
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    public int getNumberOfYears() {
+        return yearOffsets.length - 1;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @param yearIndex 0 for the first year
+     */
+    public long getFirstRow(int yearIndex) {
+        return yearOffsets[yearIndex];
+    }
+
+    /**
+     * @param yearIndex 0 for the first year
+     * @return first row of the next year
+     */
+    public long getEndRow(int yearIndex) {
+        return yearOffsets[yearIndex + 1];
+    }
+
+    public int getYear(long row) {
+        return chunk(row).getInt(offset(row));
+    }
+
+    public int getEventId(long row) {
+        return chunk(row).getInt(offset(row) + 4);
+    }
+
+    public int getPeril(long row) {
+        return chunk(row).getInt(offset(row) + 8);
+    }
+
+    public double getLoss(long row) {
+        return chunk(row).getDouble(offset(row) + 12);
+    }
+
+    public double getFractionOfPeriod(long row) {
+        return timing ? chunk(row).getDouble(offset(row) + ROW_SIZE) : DEFAULT_FRACTION_OF_PERIOD;
+    }
+
+    /**
+     * @param iteration the cache of the thread is cleared if the iteration or the period changes
+     * @return the event of the thread with the given id, created with fractionOfPeriod if it does not exist yet
+     */
+    public Event getEvent(long iteration, int period, int eventId, double fractionOfPeriod) {
+        EventCache cache = events.get();
+        if (cache.iteration != iteration || cache.period != period) {
+            cache.iteration = iteration;
+            cache.period = period;
+            cache.events.clear();
+        }
+        Event event = cache.events.get(eventId);
+        if (event == null) {
+            event = new Event();
+            event.setFractionOfPeriod(fractionOfPeriod);
+            cache.events.put(eventId, event);
+        }
+        return event;
+    }
+
+    private ByteBuffer chunk(long row) {
+        return chunks[(int) (row / rowsPerChunk)];
+    }
+
+    private int offset(long row) {
+        return (int) (row % rowsPerChunk) * rowSize;
+    }
+
+    private static class EventCache {
+        private long iteration = Long.MIN_VALUE;
+        private int period;
+        private final Map<Integer, Event> events = new HashMap<Integer, Event>();
+    }
+}
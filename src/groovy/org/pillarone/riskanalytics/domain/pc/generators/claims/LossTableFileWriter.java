@@ -0,0 +1,134 @@
+package org.pillarone.riskanalytics.domain.pc.generators.claims;
+
+import org.pillarone.riskanalytics.core.parameterization.AbstractMultiDimensionalParameter;
+import org.pillarone.riskanalytics.domain.utils.InputFormatConverter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+/**
+ * Writes the binary format of {@link LossTableFile} row by row without keeping the table on heap. Rows have to be
+ * added in ascending year order, the index is written by close(). The static methods convert table parameters.
+ */
+public class LossTableFileWriter {
+
+    private final File file;
+    private final boolean timing;
+    private final int firstYear;
+    private final long[] yearOffsets;
+    private final DataOutputStream out;
+    private int currentYearIndex;
+    private long rowCount;
+
+    /**
+     * @param timing if true every row has a fraction of period
+     */
+    public LossTableFileWriter(File file, int firstYear, int numberOfYears, boolean timing) throws IOException {
+        this.file = file;
+        this.firstYear = firstYear;
+        this.timing = timing;
+        yearOffsets = new long[numberOfYears + 1];
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        // header and index are written by close()
+        out.write(new byte[LossTableFile.HEADER_SIZE + 8 * yearOffsets.length]);
+    }
+
+    public void addRow(int year, int eventId, int peril, double loss) throws IOException {
+        addRow(year, eventId, peril, loss, LossTableFile.DEFAULT_FRACTION_OF_PERIOD);
+    }
+
+    /**
+     * @param fractionOfPeriod ignored if the table has no timing column
+     */
+    public void addRow(int year, int eventId, int peril, double loss, double fractionOfPeriod) throws IOException {
+        int yearIndex = year - firstYear;
+        if (yearIndex < 0 || yearIndex >= yearOffsets.length - 1) {
+            throw new IllegalArgumentException("['LossTableFileWriter.invalidYear','" + year + "']");
+        }
+        if (yearIndex < currentYearIndex) {
+            throw new IllegalArgumentException("['LossTableFileWriter.unsortedYears','" + year + "']");
+        }
+        while (currentYearIndex < yearIndex) {
+            yearOffsets[++currentYearIndex] = rowCount;
+        }
+        out.writeInt(year);
+        out.writeInt(eventId);
+        out.writeInt(peril);
+        out.writeDouble(loss);
+        if (timing) {
+            out.writeDouble(fractionOfPeriod);
+        }
+        rowCount++;
+    }
+
+    public void close() throws IOException {
+        out.close();
+        while (currentYearIndex < yearOffsets.length - 1) {
+            yearOffsets[++currentYearIndex] = rowCount;
+        }
+        RandomAccessFile header = new RandomAccessFile(file, "rw");
+        try {
+            header.writeInt(LossTableFile.MAGIC);
+            header.writeInt(LossTableFile.VERSION);
+            header.writeInt(timing ? LossTableFile.TIMING : 0);
+            header.writeInt(firstYear);
+            header.writeInt(yearOffsets.length - 1);
+            header.writeLong(rowCount);
+            for (long yearOffset : yearOffsets) {
+                header.writeLong(yearOffset);
+            }
+        }
+        finally {
+            header.close();
+        }
+        LossTableFile.close(file.getPath());
+    }
+
+    /**
+     * Converts the loss table of a {@link LossTableGenerator}: every loss becomes the single event of its own year,
+     * the years are numbered from 1 in table order.
+     */
+    public static void convert(List<? extends Number> lossTable, File file) throws IOException {
+        LossTableFileWriter writer = new LossTableFileWriter(file, 1, lossTable.size(), false);
+        for (int i = 0; i < lossTable.size(); i++) {
+            writer.addRow(i + 1, i, 0, lossTable.get(i).doubleValue());
+        }
+        writer.close();
+    }
+
+    /**
+     * Converts a table with the columns year, event id, peril id, loss and optionally fraction of period. Rows have
+     * to be sorted by year, the years range from the smallest to the largest year of the table.
+     */
+    public static void convert(AbstractMultiDimensionalParameter lossTable, File file) throws IOException {
+        boolean timing = lossTable.getValueColumnCount() > 4;
+        int rows = lossTable.getValueRowCount();
+        int firstYear = Integer.MAX_VALUE;
+        int lastYear = Integer.MIN_VALUE;
+        for (int row = 0; row < rows; row++) {
+            int year = intValue(lossTable, 0, row);
+            firstYear = Math.min(firstYear, year);
+            lastYear = Math.max(lastYear, year);
+        }
+        LossTableFileWriter writer = new LossTableFileWriter(file, rows == 0 ? 1 : firstYear, rows == 0 ? 0 : lastYear - firstYear + 1, timing);
+        for (int row = 0; row < rows; row++) {
+            double fractionOfPeriod = timing ? doubleValue(lossTable, 4, row) : LossTableFile.DEFAULT_FRACTION_OF_PERIOD;
+            writer.addRow(intValue(lossTable, 0, row), intValue(lossTable, 1, row), intValue(lossTable, 2, row),
+                    doubleValue(lossTable, 3, row), fractionOfPeriod);
+        }
+        writer.close();
+    }
+
+    private static int intValue(AbstractMultiDimensionalParameter table, int column, int row) {
+        return (int) doubleValue(table, column, row);
+    }
+
+    private static double doubleValue(AbstractMultiDimensionalParameter table, int column, int row) {
+        return InputFormatConverter.getDouble(table.getValueAt(row + table.getTitleRowCount(), column));
+    }
+}
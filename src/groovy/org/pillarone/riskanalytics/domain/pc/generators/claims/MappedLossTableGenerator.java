@@ -0,0 +1,114 @@
+package org.pillarone.riskanalytics.domain.pc.generators.claims;
+
+import org.pillarone.riskanalytics.core.components.ComponentCategory;
+import org.pillarone.riskanalytics.core.simulation.engine.IterationScope;
+import org.pillarone.riskanalytics.domain.pc.claims.Claim;
+import org.pillarone.riskanalytics.domain.pc.claims.ClaimPacketFactory;
+import org.pillarone.riskanalytics.domain.pc.constants.ClaimType;
+import org.pillarone.riskanalytics.domain.pc.generators.severities.Event;
+import org.pillarone.riskanalytics.domain.utils.marker.IPerilMarker;
+
+/**
+ * Emits the rows of one year of a binary loss table (see {@link LossTableFile}) per iteration as claims of type
+ * AGGREGATED_EVENT. Iteration i reads year i modulo the number of years of the table, rows with the same event id
+ * share one event within a period. The file is memory mapped and only the rows of the current year are read. The
+ * mapped table is shared by the generators of a simulation and released after the last period of the last iteration.
+ * <p/>
+ * Table parameters of the {@link LossTableGenerator} format are converted by {@link LossTableFileWriter}.
+ */
+@ComponentCategory(categories = {"CLAIM","GENERATOR","EVENT"})
+public class MappedLossTableGenerator extends ClaimsGenerator implements IPerilMarker {
+
+    /** path of the binary loss table */
+    private String parmLossTableFile = "";
+    /** peril id of the rows to emit, all rows if negative */
+    private int parmPeril = -1;
+
+    /** opened on the first calculation, reset if the file parameter changes */
+    private LossTableFile lossTable;
+    /** iteration counter used without iteration scope */
+    private int calls;
+
+    public void validateParameterization() {
+        if (parmLossTableFile == null || parmLossTableFile.trim().length() == 0) {
+            throw new IllegalStateException("MappedLossTableGenerator.missingFile");
+        }
+        super.validateParameterization();
+    }
+
+    protected void doCalculation() {
+        synchronizeIteration();
+        LossTableFile table = getLossTable();
+        IterationScope iterationScope = getIterationScope();
+        int iteration = iterationScope == null ? calls++ : iterationScope.getCurrentIteration();
+        int period = iterationScope == null ? 0 : iterationScope.getPeriodScope().getCurrentPeriod();
+        if (table.getNumberOfYears() > 0) {
+            emitYear(table, iteration, period);
+        }
+        if (isLastPeriodOfSimulation(iterationScope, iteration, period)) {
+            LossTableFile.release(parmLossTableFile, getOwner());
+            lossTable = null;
+        }
+    }
+
+    private void emitYear(LossTableFile table, int iteration, int period) {
+        int yearIndex = iteration % table.getNumberOfYears();
+        double scalingFactor = getScalingFactor();
+        for (long row = table.getFirstRow(yearIndex); row < table.getEndRow(yearIndex); row++) {
+            if (parmPeril >= 0 && table.getPeril(row) != parmPeril) {
+                continue;
+            }
+            Event event = table.getEvent(iteration, period, table.getEventId(row), table.getFractionOfPeriod(row));
+            Claim claim = ClaimPacketFactory.createPacket();
+            claim.origin = this;
+            claim.setClaimType(ClaimType.AGGREGATED_EVENT);
+            claim.setUltimate(table.getLoss(row) * scalingFactor);
+            claim.setEvent(event);
+            claim.setFractionOfPeriod(event.getFractionOfPeriod());
+            claim.addMarker(IPerilMarker.class, this);
+            getOutClaims().add(claim);
+        }
+    }
+
+    private LossTableFile getLossTable() {
+        if (lossTable == null) {
+            lossTable = LossTableFile.open(parmLossTableFile, getOwner());
+        }
+        return lossTable;
+    }
+
+    /**
+     * @return the simulation scope, without simulation (i.e. in unit tests) the generator itself
+     */
+    private Object getOwner() {
+        return getSimulationScope() == null ? this : getSimulationScope();
+    }
+
+    private boolean isLastPeriodOfSimulation(IterationScope iterationScope, int iteration, int period) {
+        return getSimulationScope() != null && iterationScope != null
+                && iteration == getSimulationScope().getNumberOfIterations() - 1
+                && period == iterationScope.getNumberOfPeriods() - 1;
+    }
+
+    public String getParmLossTableFile() {
+        return parmLossTableFile;
+    }
+
+    public void setParmLossTableFile(String parmLossTableFile) {
+        if (parmLossTableFile == null ? this.parmLossTableFile != null : !parmLossTableFile.equals(this.parmLossTableFile)) {
+            if (lossTable != null) {
+                LossTableFile.release(this.parmLossTableFile, getOwner());
+            }
+            lossTable = null;
+        }
+        this.parmLossTableFile = parmLossTableFile;
+    }
+
+    public int getParmPeril() {
+        return parmPeril;
+    }
+
+    public void setParmPeril(int parmPeril) {
+        this.parmPeril = parmPeril;
+    }
+}
@@ -0,0 +1,105 @@
+package org.pillarone.riskanalytics.domain.pc.generators.claims
+
+import org.pillarone.riskanalytics.core.parameterization.AbstractParameterObject
+import org.pillarone.riskanalytics.core.parameterization.IParameterObjectClassifier
+import org.pillarone.riskanalytics.domain.pc.constants.Exposure
+import org.pillarone.riskanalytics.domain.utils.BelowThresholdDistribution
+import org.pillarone.riskanalytics.domain.utils.CompoundAggregateDistribution
+import org.pillarone.riskanalytics.domain.utils.DistributionModified
+import org.pillarone.riskanalytics.domain.utils.DistributionModifier
+import org.pillarone.riskanalytics.domain.utils.DistributionType
+import org.pillarone.riskanalytics.domain.utils.RandomDistribution
+import org.pillarone.riskanalytics.domain.utils.RandomNumberGeneratorFactory
+
+/**
+ * Generates single claims only for claim sizes above threshold and one attritional claim with the aggregate of all
+ * claims below. The number of single claims is the frequency thinned with the exceedance probability, their sizes
+ * are drawn from the claim size distribution conditional on exceeding threshold. The attritional claim is drawn
+ * from the {@link CompoundAggregateDistribution} of the frequency and the claim sizes with all values above
+ * threshold replaced by 0.
+ * <p/>
+ * Both parts have the marginal distributions of the full frequency severity model. They are drawn independently,
+ * which is exact for a Poisson frequency only: thinning a Poisson number of claims gives independent Poisson numbers
+ * of claims above and below threshold. For any other frequency both numbers are correlated, therefore the
+ * ClaimsGeneratorStrategyValidator accepts Poisson frequencies only. threshold applies to the modified claim size
+ * before the claims size base is applied.
+ */
+public class ThresholdSplitClaimsGeneratorStrategy extends AbstractParameterObject implements IClaimsGeneratorStrategy {
+
+    RandomDistribution frequencyDistribution = DistributionType.getStrategy(DistributionType.CONSTANT, ['constant': 0d])
+    Exposure claimsSizeBase = Exposure.ABSOLUTE
+    RandomDistribution claimsSizeDistribution = DistributionType.getStrategy(DistributionType.CONSTANT, ['constant': 0d])
+    DistributionModified claimsSizeModification = DistributionModifier.getStrategy(DistributionModifier.NONE, [:])
+    double threshold = 0d
+
+    private DistributionModified frequencyModification = DistributionModifier.getStrategy(DistributionModifier.NONE, [:])
+    private BelowThresholdDistribution belowThresholdDistribution
+    private CompoundAggregateDistribution aggregateDistribution
+
+    public IParameterObjectClassifier getType() {
+        return ClaimsGeneratorType.THRESHOLD_SPLIT
+    }
+
+    public Map getParameters() {
+        ['frequencyDistribution': frequencyDistribution,
+                'claimsSizeBase': claimsSizeBase,
+                'claimsSizeDistribution': claimsSizeDistribution,
+                'claimsSizeModification': claimsSizeModification,
+                'threshold': threshold]
+    }
+
+    void setFrequencyDistribution(RandomDistribution frequencyDistribution) {
+        this.frequencyDistribution = frequencyDistribution
+        aggregateDistribution = null
+    }
+
+    void setClaimsSizeDistribution(RandomDistribution claimsSizeDistribution) {
+        this.claimsSizeDistribution = claimsSizeDistribution
+        reset()
+    }
+
+    void setClaimsSizeModification(DistributionModified claimsSizeModification) {
+        this.claimsSizeModification = claimsSizeModification
+        reset()
+    }
+
+    void setThreshold(double threshold) {
+        this.threshold = threshold
+        reset()
+    }
+
+    /**
+     * The frequency is used unmodified, the instance is kept for the generator cache.
+     */
+    DistributionModified getFrequencyModification() {
+        frequencyModification
+    }
+
+    /**
+     * @return probability of a claim size above threshold
+     */
+    double getExceedanceProbability() {
+        belowThreshold().exceedanceProbability
+    }
+
+    CompoundAggregateDistribution getAggregateDistribution() {
+        if (aggregateDistribution == null) {
+            aggregateDistribution = new CompoundAggregateDistribution(frequencyDistribution.distribution, belowThreshold(), 0d)
+        }
+        aggregateDistribution
+    }
+
+    private BelowThresholdDistribution belowThreshold() {
+        if (belowThresholdDistribution == null) {
+            belowThresholdDistribution = new BelowThresholdDistribution(
+                    RandomNumberGeneratorFactory.getModifiedDistribution(claimsSizeDistribution, claimsSizeModification),
+                    RandomNumberGeneratorFactory.getShift(claimsSizeModification), threshold)
+        }
+        belowThresholdDistribution
+    }
+
+    private void reset() {
+        belowThresholdDistribution = null
+        aggregateDistribution = null
+    }
+}
@@ -1,21 +1,26 @@
 package org.pillarone.riskanalytics.domain.pc.generators.claims;
 
 import org.apache.commons.lang.NotImplementedException;
+import org.pillarone.riskanalytics.core.components.Component;
 import org.pillarone.riskanalytics.core.components.ComponentCategory;
 import org.pillarone.riskanalytics.core.model.Model;
 import org.pillarone.riskanalytics.core.packets.Packet;
 import org.pillarone.riskanalytics.core.packets.PacketList;
 import org.pillarone.riskanalytics.core.parameterization.ComboBoxTableMultiDimensionalParameter;
-import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope;
+import org.pillarone.riskanalytics.core.wiring.ITransmitter;
+import org.pillarone.riskanalytics.core.wiring.Transmitter;
 import org.pillarone.riskanalytics.core.wiring.WiringValidation;
 import org.pillarone.riskanalytics.domain.pc.claims.Claim;
-import org.pillarone.riskanalytics.domain.pc.claims.ClaimPacketFactory;
+import org.pillarone.riskanalytics.domain.pc.claims.ClaimBatch;
 import org.pillarone.riskanalytics.domain.pc.claims.IRiskAllocatorStrategy;
 import org.pillarone.riskanalytics.domain.pc.claims.RiskAllocatorType;
+import org.pillarone.riskanalytics.domain.pc.claims.TrivialRiskAllocatorStrategy;
 import org.pillarone.riskanalytics.domain.pc.constants.ClaimType;
 import org.pillarone.riskanalytics.domain.pc.constants.FrequencyBase;
 import org.pillarone.riskanalytics.domain.pc.constants.FrequencySeverityClaimType;
 import org.pillarone.riskanalytics.domain.pc.generators.GeneratorCachingComponent;
+import org.pillarone.riskanalytics.domain.pc.generators.GeneratorSlot;
+import org.pillarone.riskanalytics.domain.pc.generators.copulas.DependenceColumn;
 import org.pillarone.riskanalytics.domain.pc.generators.copulas.DependenceStream;
 import org.pillarone.riskanalytics.domain.pc.generators.copulas.EventDependenceStream;
 import org.pillarone.riskanalytics.domain.pc.generators.frequency.Frequency;
@@ -33,6 +38,7 @@ import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
 import umontreal.iro.lecuyer.probdist.DiscreteDistribution;
 import umontreal.iro.lecuyer.probdist.DiscreteDistributionInt;
 import umontreal.iro.lecuyer.probdist.Distribution;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
 
 import java.util.*;
 
@@ -42,8 +48,6 @@ import java.util.*;
 @ComponentCategory(categories = {"CLAIM","GENERATOR","ATTRITIONAL","SINGLE","EVENT"})
 public class TypableClaimsGenerator extends GeneratorCachingComponent implements IPerilMarker {
 
-    private SimulationScope simulationScope;
-
     /**
      * needs to be connected only if a none absolute base is selected
      */
@@ -72,6 +76,11 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
      * claims which source is a covered line
      */
     private PacketList<Claim> outClaims = new PacketList<Claim>(Claim.class);
+    /**
+     * all claims of a period in one packet, if only this channel is wired no Claim objects are created. A receiver
+     * must not be wired to outClaims and outClaimBatch, it would get every claim twice.
+     */
+    private PacketList<ClaimBatch> outClaimBatch = new PacketList<ClaimBatch>(ClaimBatch.class);
 
     private PacketList<Frequency> outClaimsNumber = new PacketList<Frequency>(Frequency.class);
 
@@ -81,14 +90,74 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
     private PacketList<UnderwritingInfo> outUnderwritingInfo = new PacketList<UnderwritingInfo>(UnderwritingInfo.class);
 
     /**
-     * used for date generation for single claims
+     * used for date generation for single claims, created with the first draw as the streams depend on the simulation
+     */
+    private IRandomNumberGenerator dateGenerator;
+    private GeneratorSlot occurrenceGenerator = new GeneratorSlot("occurrence");
+    /**
+     * number of quasi random dimensions of the frequency, claim size and event date draw sites
+     */
+    static final int FREQUENCY_DIMENSIONS = 1;
+    static final int CLAIMS_SIZE_DIMENSIONS = 16;
+    static final int EVENT_DATE_DIMENSIONS = 16;
+    private GeneratorSlot frequencyGenerator = new GeneratorSlot("frequency", FREQUENCY_DIMENSIONS, true);
+    private GeneratorSlot claimsSizeGenerator = new GeneratorSlot("claimsSize", CLAIMS_SIZE_DIMENSIONS);
+    /**
+     * used for event dates, quasi random if this mode is enabled
+     */
+    private RandomStreamBase eventDateStream;
+    /**
+     * used for compound aggregate claims, quasi random if this mode is enabled
+     */
+    private RandomStreamBase aggregateStream;
+    /**
+     * used for claims above the threshold of a threshold split, quasi random if this mode is enabled
      */
-    private IRandomNumberGenerator dateGenerator = RandomNumberGeneratorFactory.getUniformGenerator();
+    private RandomStreamBase tailStream;
+    private RandomStreamBase thinningStream;
+    private IRandomNumberGenerator tailGenerator;
+    private ThresholdSplitClaimsGeneratorStrategy tailGeneratorStrategy;
+    /**
+     * column of this generator in the dependence streams
+     */
+    private DependenceColumn probabilityColumn = new DependenceColumn();
+    private DependenceColumn eventSeverityColumn = new DependenceColumn();
+    /**
+     * analytic mean of the attritional claims of the current period, NaN if unknown
+     */
+    private double attritionalClaimsMean = Double.NaN;
+
+    @Override
+    public void validateWiring() {
+        Set<Component> claimsReceivers = Collections.newSetFromMap(new IdentityHashMap<Component, Boolean>());
+        Set<Component> claimBatchReceivers = Collections.newSetFromMap(new IdentityHashMap<Component, Boolean>());
+        for (ITransmitter transmitter : getAllOutputTransmitter()) {
+            if (!(transmitter instanceof Transmitter)) {
+                continue;
+            }
+            // checking equality on list instances won't work, as all lists with size 0 have 0 as hashCode
+            PacketList source = ((Transmitter) transmitter).getSource();
+            if (source == outClaims) {
+                claimsReceivers.add(((Transmitter) transmitter).getReceiver());
+            }
+            else if (source == outClaimBatch) {
+                claimBatchReceivers.add(((Transmitter) transmitter).getReceiver());
+            }
+        }
+        claimsReceivers.retainAll(claimBatchReceivers);
+        if (!claimsReceivers.isEmpty()) {
+            throw new IllegalStateException("TypableClaimsGenerator.claimsAndClaimBatchWired");
+        }
+        super.validateWiring();
+    }
 
     protected void doCalculation() {
-        List<Double> claimValues = new ArrayList<Double>();
+        synchronizeIteration();
+        double[] claimValues = new double[0];
         List<Event> events = new ArrayList<Event>();
-        PacketList<Claim> claims = new PacketList<Claim>(Claim.class);
+        ClaimBatch claims = new ClaimBatch();
+        claims.origin = this;
+        attritionalClaimsMean = Double.NaN;
         if (!(parmClaimsModel instanceof NoneClaimsGeneratorStrategy)) {
             double scalingFactor = UnderwritingUtilities.scaleFactor(inUnderwritingInfo, parmClaimsModel.getClaimsSizeBase());
             ClaimType claimType = ClaimType.ATTRITIONAL;
@@ -106,13 +175,30 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
                                 parmClaimsModel.getClaimsSizeModification());
                     }
                 }
-                if (claimValues == null || claimValues.size() == 0) {
+                if (claimValues.length == 0) {
                     claimValues = generateClaimsValues(1,
                             parmClaimsModel.getClaimsSizeDistribution(),
                             parmClaimsModel.getClaimsSizeModification());
                 }
+                DistributionModified modification = parmClaimsModel.getClaimsSizeModification();
+                if (modification == null || modification.getType().equals(DistributionModifier.NONE)) {
+                    attritionalClaimsMean = parmClaimsModel.getClaimsSizeDistribution().getDistribution().getMean() * scalingFactor;
+                }
 
             }
+            else if (parmClaimsModel instanceof CompoundAggregateClaimsGeneratorStrategy) {
+                claimType = ClaimType.ATTRITIONAL;
+                claimValues = new double[]{generateAggregateClaimValue(
+                        ((CompoundAggregateClaimsGeneratorStrategy) parmClaimsModel).getAggregateDistribution())};
+            }
+            else if (parmClaimsModel instanceof ThresholdSplitClaimsGeneratorStrategy) {
+                ThresholdSplitClaimsGeneratorStrategy strategy = (ThresholdSplitClaimsGeneratorStrategy) parmClaimsModel;
+                double attritionalClaimValue = generateAggregateClaimValue(strategy.getAggregateDistribution()) * scalingFactor;
+                claims.add(attritionalClaimValue, generateFractionOfPeriod(ClaimType.ATTRITIONAL), ClaimType.ATTRITIONAL, null, null);
+                claimType = ClaimType.SINGLE;
+                double frequency = generateFrequency(strategy.getFrequencyDistribution(), strategy.getFrequencyModification(), FrequencyBase.ABSOLUTE);
+                claimValues = generateTailClaimsValues(thinFrequency((int) frequency, strategy.getExceedanceProbability()), strategy);
+            }
             else if (parmClaimsModel instanceof IFrequencyClaimsGeneratorStrategy) {
                 double frequency = generateFrequency(
                         ((IFrequencyClaimsGeneratorStrategy) parmClaimsModel).getFrequencyDistribution(),
@@ -151,7 +237,7 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
                 }
             }
             else if (parmClaimsModel instanceof PMLClaimsGeneratorStrategy) {
-                ((PMLClaimsGeneratorStrategy) parmClaimsModel).initDistributions(simulationScope.getIterationScope().getPeriodScope());
+                ((PMLClaimsGeneratorStrategy) parmClaimsModel).initDistributions(getSimulationScope().getIterationScope().getPeriodScope());
                 RandomDistribution frequencyDistribution = ((PMLClaimsGeneratorStrategy) parmClaimsModel).getFrequencyDistribution();
                 RandomDistribution claimsSizeDistribution = parmClaimsModel.getClaimsSizeDistribution();
                 DistributionModified modification = parmClaimsModel.getClaimsSizeModification();
@@ -170,36 +256,62 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
                 throw new NotImplementedException("['TypableClaimsGenerator.notImplemented','" + parmClaimsModel.toString() + "']");
             }
             if (events.size() == 0) {
-                if (claimValues.size() == 0) {
-                    claimValues.add(0d);
+                if (claimValues.length == 0 && claims.size() == 0) {
+                    claimValues = new double[]{0d};
                 }
-                for (Double claimValue : claimValues) {
-                    Claim claim = ClaimPacketFactory.createPacket();
-                    claim.origin = this;
-                    claim.setClaimType(claimType);
-                    claim.setUltimate(claimValue * scalingFactor);
-                    setFractionOfPeriod(claimType, claim);
-                    claims.add(claim);
+                for (double claimValue : claimValues) {
+                    claims.add(claimValue * scalingFactor, generateFractionOfPeriod(claimType), claimType, null, null);
                 }
             }
             else {
-                for (int i = 0; i < claimValues.size(); i++) {
-                    Claim claim = ClaimPacketFactory.createPacket();
-                    claim.origin = this;
-                    claim.setClaimType(claimType);
-                    claim.setUltimate(claimValues.get(i) * scalingFactor);
-                    claim.setEvent(events.get(i));
-                    claim.setFractionOfPeriod(claim.getEvent().getFractionOfPeriod());
-                    claims.add(claim);
+                for (int i = 0; i < claimValues.length; i++) {
+                    Event event = events.get(i);
+                    claims.add(claimValues[i] * scalingFactor, event.getFractionOfPeriod(), claimType, event, null);
                 }
             }
         }
-        outClaims.addAll(parmAssociateExposureInfo.getAllocatedClaims(claims, inUnderwritingInfo));
+        int numberOfClaims;
+        if (isSenderWired(outClaimBatch) && parmAssociateExposureInfo instanceof TrivialRiskAllocatorStrategy) {
+            outClaimBatch.add(claims);
+            if (isClaimsRequired()) {
+                outClaims.addAll(claims.toClaims());
+            }
+            numberOfClaims = claims.size();
+        }
+        else {
+            PacketList<Claim> generatedClaims = new PacketList<Claim>(Claim.class);
+            generatedClaims.addAll(claims.toClaims());
+            List<Claim> allocatedClaims = parmAssociateExposureInfo.getAllocatedClaims(generatedClaims, inUnderwritingInfo);
+            outClaims.addAll(allocatedClaims);
+            if (isSenderWired(outClaimBatch)) {
+                outClaimBatch.add(toClaimBatch(allocatedClaims));
+            }
+            numberOfClaims = allocatedClaims.size();
+        }
         Frequency frequency = new Frequency();
-        frequency.setValue(outClaims.size());
+        frequency.setValue(numberOfClaims);
         outClaimsNumber.add(frequency);
     }
 
+    /**
+     * @return true if Claim objects have to be created although claims are sent as batch
+     */
+    protected boolean isClaimsRequired() {
+        return isSenderWired(outClaims);
+    }
+
+    /**
+     * Used if the allocation of the exposure is not trivial, i.e. claims have to be created anyway.
+     */
+    private ClaimBatch toClaimBatch(List<Claim> claims) {
+        ClaimBatch batch = new ClaimBatch(claims.size());
+        batch.origin = this;
+        for (Claim claim : claims) {
+            batch.add(claim.getUltimate(), claim.getFractionOfPeriod(), claim.getClaimType(), claim.getEvent(), claim.getExposure());
+        }
+        return batch;
+    }
+
     @Override
     // todo(sku): filter probabilities
     public void filterInChannel(PacketList inChannel, PacketList source) {
@@ -215,22 +327,29 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
     }
 
     protected void setFractionOfPeriod(ClaimType claimType, Claim claim) {
+        claim.setFractionOfPeriod(generateFractionOfPeriod(claimType));
+    }
+
+    protected double generateFractionOfPeriod(ClaimType claimType) {
         if (parmClaimsModel instanceof IOccurrenceClaimsGeneratorStrategy) {
-            IRandomNumberGenerator generator = getCachedGenerator(((IOccurrenceClaimsGeneratorStrategy) parmClaimsModel).getOccurrenceDistribution(), parmClaimsModel.getClaimsSizeModification());
-            claim.setFractionOfPeriod((Double) generator.nextValue());
+            IRandomNumberGenerator generator = getCachedGenerator(occurrenceGenerator, ((IOccurrenceClaimsGeneratorStrategy) parmClaimsModel).getOccurrenceDistribution(), parmClaimsModel.getClaimsSizeModification());
+            return (Double) generator.nextValue();
         }
         else {
             if (claimType.equals(ClaimType.ATTRITIONAL)) {
-                claim.setFractionOfPeriod(0.5d);
+                return 0.5d;
             }
             else {
-                claim.setFractionOfPeriod((Double) dateGenerator.nextValue());
+                if (dateGenerator == null) {
+                    dateGenerator = RandomNumberGeneratorFactory.getUniformGenerator(getStream("date"));
+                }
+                return (Double) dateGenerator.nextValue();
             }
         }
     }
 
     protected Model getModel() {
-        return simulationScope.getModel();
+        return getSimulationScope().getModel();
     }
 
     /**
@@ -241,9 +360,9 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
         List<Double> probabilities = new ArrayList<Double>();
         for (DependenceStream stream : inProbabilities) {
             // todo(sku): refactor in order to use component references in marginals
-            int index = stream.marginals.indexOf(getName());
+            int index = probabilityColumn.resolve(stream.getTargets(), getName());
             if (index > -1) {
-                probabilities.add((Double) stream.probabilities.get(index));
+                probabilities.add(stream.getValue(index));
             }
         }
         return probabilities;
@@ -260,7 +379,7 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
     protected List<EventSeverity> filterEvents() {
         List<EventSeverity> eventSeverities = new ArrayList<EventSeverity>();
         for (EventDependenceStream stream : inEventSeverities) {
-            int index = stream.marginals.indexOf(getName());
+            int index = eventSeverityColumn.resolve(stream.getTargets(), getName());
             if (index > -1) {
                 eventSeverities.add(stream.severities.get(index));
             }
@@ -270,7 +389,7 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
 
     protected double generateFrequency(RandomDistribution distribution, DistributionModified modification, FrequencyBase frequencyBase) {
         double frequency = 0;
-        IRandomNumberGenerator generator = getCachedGenerator(distribution, modification);
+        IRandomNumberGenerator generator = getCachedGenerator(frequencyGenerator, distribution, modification);
         // todo(sku): refactor in order to use IExposureBaseStrategy or an equivalent construct
         if (frequencyBase.equals(FrequencyBase.NUMBER_OF_POLICIES)) {
             double scaleFactor = 0;
@@ -285,22 +404,86 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
         return frequency;
     }
 
-    protected List<Double> generateClaimsValues(int number, RandomDistribution distribution, DistributionModified modification) {
+    protected double[] generateClaimsValues(int number, RandomDistribution distribution, DistributionModified modification) {
         if (distribution == null) {
             throw new IllegalStateException("TypableClaimsGenerator.missingDistribution");
         }
-        IRandomNumberGenerator generator = getCachedGenerator(distribution, modification);
-        List<Double> claimValues = new ArrayList<Double>(number);
-        for (int i = 0; i < number; i++) {
-            claimValues.add((Double) generator.nextValue());
+        double[] claimValues = new double[number];
+        getCachedGenerator(claimsSizeGenerator, distribution, modification).nextValues(claimValues, 0, number);
+        return claimValues;
+    }
+
+    /**
+     * The aggregate is drawn by inversion of a correlated probability if one is received, as for attritional claims.
+     */
+    protected double generateAggregateClaimValue(CompoundAggregateDistribution aggregateDistribution) {
+        if (this.isReceiverWired(inProbabilities)) {
+            List<Double> probabilities = filterProbabilities();
+            if (probabilities.size() > 1) {
+                throw new IllegalArgumentException("['TypableClaimsGenerator.attritionalClaims','" + this.getNormalizedName() + "']");
+            }
+            else if (probabilities.size() == 1) {
+                return aggregateDistribution.inverseF(probabilities.get(0));
+            }
+        }
+        if (aggregateStream == null) {
+            aggregateStream = getSimulationStreams().getStream(1, getStream("aggregate"));
+        }
+        return aggregateDistribution.inverseF(aggregateStream.nextDouble());
+    }
+
+    /**
+     * @return number of successes in number trials with the given probability, the gaps between successes are drawn
+     *         as geometric variates, which costs number * probability + 1 uniforms on average
+     */
+    protected int thinFrequency(int number, double probability) {
+        if (number <= 0 || probability <= 0) {
+            return 0;
+        }
+        if (probability >= 1) {
+            return number;
+        }
+        if (thinningStream == null) {
+            thinningStream = getStream("thinning");
+        }
+        double logFailure = Math.log1p(-probability);
+        int successes = 0;
+        double trial = Math.floor(Math.log(thinningStream.nextDouble()) / logFailure) + 1;
+        while (trial <= number) {
+            successes++;
+            trial += Math.floor(Math.log(thinningStream.nextDouble()) / logFailure) + 1;
         }
+        return successes;
+    }
+
+    /**
+     * Claim sizes conditional on exceeding the threshold of the strategy, the generator is kept as long as the
+     * strategy instance does not change.
+     */
+    protected double[] generateTailClaimsValues(int number, ThresholdSplitClaimsGeneratorStrategy strategy) {
+        double[] claimValues = new double[number];
+        if (number == 0) {
+            return claimValues;
+        }
+        if (tailGeneratorStrategy != strategy) {
+            if (tailStream == null) {
+                tailStream = getSimulationStreams().getStream(CLAIMS_SIZE_DIMENSIONS, getStream("tail"));
+            }
+            tailGenerator = RandomNumberGeneratorFactory.getTailGenerator(strategy.getClaimsSizeDistribution(),
+                    strategy.getClaimsSizeModification(), strategy.getThreshold(), tailStream);
+            tailGeneratorStrategy = strategy;
+        }
+        tailGenerator.nextValues(claimValues, 0, number);
         return claimValues;
     }
 
     protected List<Event> generateEvents(int number) {
-        List<Double> dates = UniformDoubleList.getDoubles(number, true);
+        if (eventDateStream == null) {
+            eventDateStream = getSimulationStreams().getStream(EVENT_DATE_DIMENSIONS, getStream("eventDates"));
+        }
+        double[] dates = UniformDoubleList.getSortedDoubleArray(number, eventDateStream);
         List<Event> events = new ArrayList<Event>(number);
-        for (Double date : dates) {
+        for (double date : dates) {
             Event event = new Event();
             event.setFractionOfPeriod(date);
             events.add(event);
@@ -310,17 +493,17 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
 
     // todo(sku): refactor once the variate distributions are properly refactored
 
-    protected List<Double> calculateClaimsValues(List<Double> probabilities, RandomDistribution distribution, DistributionModified modification) {
-        Distribution dist = distribution.getDistribution();
+    protected double[] calculateClaimsValues(List<Double> probabilities, RandomDistribution distribution, DistributionModified modification) {
+        Distribution dist = getInverseFDistribution(distribution);
         if (modification.getType().equals(DistributionModifier.CENSORED) || modification.getType().equals(DistributionModifier.CENSOREDSHIFT)) {
-            dist = new CensoredDistribution(distribution.getDistribution(),
+            dist = new CensoredDistribution(getInverseFDistribution(distribution),
                     (Double) modification.getParameters().get("min"), (Double) modification.getParameters().get("max"));
         }
         else if (modification.getType().equals(DistributionModifier.TRUNCATED) || modification.getType().equals(DistributionModifier.TRUNCATEDSHIFT)) {
             Double leftBoundary = (Double) modification.getParameters().get("min");
             Double rightBoundary = (Double) modification.getParameters().get("max");
             if (distribution.getDistribution() instanceof ContinuousDistribution) {
-                dist = new TruncatedDist((ContinuousDistribution) distribution.getDistribution(), leftBoundary, rightBoundary);
+                dist = new TruncatedDist((ContinuousDistribution) getInverseFDistribution(distribution), leftBoundary, rightBoundary);
             }
             else if (distribution.getDistribution() instanceof DiscreteDistribution) {
                 dist = new TruncatedDist((DiscreteDistribution) distribution.getDistribution(), leftBoundary, rightBoundary);
@@ -336,18 +519,19 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
 //                                        leftBoundary, (double) Double.POSITIVE_INFINITY),
 //                                    (double) Double.NEGATIVE_INFINITY, rightBoundary);
 //        }
-        List<Double> claimValues = new ArrayList<Double>(probabilities.size());
+        double[] claimValues = new double[probabilities.size()];
         double shift = modification.getParameters().get("shift") == null ? 0 : (Double) modification.getParameters().get("shift");
-        for (Double probability : probabilities) {
-            claimValues.add(dist.inverseF(probability) + shift);
+        for (int i = 0; i < claimValues.length; i++) {
+            claimValues[i] = dist.inverseF(probabilities.get(i)) + shift;
         }
         return claimValues;
     }
 
-    protected List<Double> calculateEventClaimsValues(List<EventSeverity> eventSeverities, RandomDistribution distribution) {
-        List<Double> claimValues = new ArrayList<Double>(eventSeverities.size());
-        for (EventSeverity severity : eventSeverities) {
-            claimValues.add(distribution.getDistribution().inverseF(severity.value));
+    protected double[] calculateEventClaimsValues(List<EventSeverity> eventSeverities, RandomDistribution distribution) {
+        double[] claimValues = new double[eventSeverities.size()];
+        Distribution dist = getInverseFDistribution(distribution);
+        for (int i = 0; i < claimValues.length; i++) {
+            claimValues[i] = dist.inverseF(eventSeverities.get(i).value);
         }
         return claimValues;
     }
@@ -388,6 +572,16 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
         return parmClaimsModel;
     }
 
+    /**
+     * Used as control of the ControlVariateCededClaims of reinsurance programs.
+     *
+     * @return analytic mean of the attritional claims of the current period, NaN if the claims model is not
+     *          attritional or the claims size is modified
+     */
+    public double getAttritionalClaimsMean() {
+        return attritionalClaimsMean;
+    }
+
     public void setParmClaimsModel(IClaimsGeneratorStrategy parmClaimsModel) {
         this.parmClaimsModel = parmClaimsModel;
     }
@@ -400,6 +594,14 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
         this.outClaims = outClaims;
     }
 
+    public PacketList<ClaimBatch> getOutClaimBatch() {
+        return outClaimBatch;
+    }
+
+    public void setOutClaimBatch(PacketList<ClaimBatch> outClaimBatch) {
+        this.outClaimBatch = outClaimBatch;
+    }
+
     public PacketList<UnderwritingInfo> getOutUnderwritingInfo() {
         return outUnderwritingInfo;
     }
@@ -416,14 +618,6 @@ public class TypableClaimsGenerator extends GeneratorCachingComponent implements
         this.parmAssociateExposureInfo = parmAssociateExposureInfo;
     }
 
-    public SimulationScope getSimulationScope() {
-        return simulationScope;
-    }
-
-    public void setSimulationScope(SimulationScope simulationScope) {
-        this.simulationScope = simulationScope;
-    }
-
     public PacketList<Frequency> getOutClaimsNumber() {
         return outClaimsNumber;
     }
@@ -11,6 +11,8 @@ import org.pillarone.riskanalytics.core.simulation.item.parameter.ParameterObjec
 import org.pillarone.riskanalytics.core.parameterization.IParameterObjectClassifier
 import org.pillarone.riskanalytics.domain.utils.DistributionModified
 import org.pillarone.riskanalytics.domain.utils.DistributionModifier
+import org.pillarone.riskanalytics.domain.utils.DistributionType
+import org.pillarone.riskanalytics.domain.utils.RandomDistribution
 import org.pillarone.riskanalytics.domain.pc.generators.claims.ClaimsGeneratorType
 import umontreal.iro.lecuyer.probdist.Distribution
 import umontreal.iro.lecuyer.probdist.ContinuousDistribution
@@ -84,6 +86,29 @@ class ClaimsGeneratorStrategyValidator implements IParameterizationValidator {
         validationService.register(ClaimsGeneratorType.SEVERITY_OF_EVENT_GENERATOR) {Map type ->
             return checkArea(type)
         }
+        validationService.register(ClaimsGeneratorType.COMPOUND_AGGREGATE) {Map type ->
+            return checkArea(type)
+        }
+        validationService.register(ClaimsGeneratorType.THRESHOLD_SPLIT) {Map type ->
+            if (type.threshold != null && type.threshold < 0) {
+                return [ValidationType.ERROR, "claims.model.error.negative.threshold"]
+            }
+            if (type.frequencyDistribution != null && !isPoisson((RandomDistribution) type.frequencyDistribution)) {
+                return [ValidationType.ERROR, "claims.model.error.threshold.split.frequency.not.poisson"]
+            }
+            return checkArea(type)
+        }
+    }
+
+    /**
+     * The parts of a threshold split are independent for a Poisson frequency only, a constant frequency of 0 is a
+     * Poisson frequency with lambda 0.
+     */
+    private static boolean isPoisson(RandomDistribution frequencyDistribution) {
+        if (frequencyDistribution.type == DistributionType.POISSON) {
+            return true
+        }
+        return frequencyDistribution.type == DistributionType.CONSTANT && frequencyDistribution.parameters["constant"] == 0
     }
 
     private def checkArea(Map type) {
@@ -1,10 +1,47 @@
 package org.pillarone.riskanalytics.domain.pc.generators.copulas
 
 import org.pillarone.riskanalytics.core.parameterization.AbstractParameterObject
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.SimulationStreams
 
 /**
  * @author stefan.kunz (at) intuitive-collaboration (dot) com
  */
 @Deprecated
 public abstract class AbstractCopulaStrategy extends AbstractParameterObject implements ICopulaStrategy {
+
+    /** random number modes of the simulation, set by the copula component and not a parameter */
+    private SimulationStreams simulationStreams = SimulationStreams.DISABLED
+    /** runtime parameter of the simulation, set by the copula component and not a parameter */
+    private boolean fastMarginals
+
+    SimulationStreams getSimulationStreams() {
+        simulationStreams
+    }
+
+    /**
+     * Generators drawing from the streams of another simulation are dropped by {@link #resetGenerators()}.
+     */
+    void setSimulationStreams(SimulationStreams simulationStreams) {
+        if (!simulationStreams.is(this.simulationStreams)) {
+            this.simulationStreams = simulationStreams
+            resetGenerators()
+        }
+    }
+
+    boolean isFastMarginals() {
+        fastMarginals
+    }
+
+    /**
+     * Lets normal and t copulas map their variates by approximations of the marginal distribution functions.
+     */
+    void setFastMarginals(boolean fastMarginals) {
+        if (fastMarginals != this.fastMarginals) {
+            this.fastMarginals = fastMarginals
+            resetGenerators()
+        }
+    }
+
+    protected void resetGenerators() {
+    }
 }
\ No newline at end of file
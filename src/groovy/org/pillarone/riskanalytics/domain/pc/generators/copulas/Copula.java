@@ -3,7 +3,10 @@ package org.pillarone.riskanalytics.domain.pc.generators.copulas;
 import org.pillarone.riskanalytics.core.components.Component;
 import org.pillarone.riskanalytics.core.packets.PacketList;
 import org.pillarone.riskanalytics.core.simulation.engine.PeriodScope;
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope;
 import org.pillarone.riskanalytics.domain.pc.generators.frequency.Frequency;
+import org.pillarone.riskanalytics.domain.pc.global.GlobalParameters;
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.SimulationStreams;
 
 import java.util.List;
 
@@ -16,8 +19,16 @@ abstract public class Copula extends Component {
     private PacketList<Frequency> inNumber = new PacketList<Frequency>(Frequency.class);
     private PacketList<DependenceStream> outProbabilities = new PacketList<DependenceStream>(DependenceStream.class);
     private PeriodScope periodScope;
+    private SimulationScope simulationScope;
+    private SimulationStreams simulationStreams;
+    private DependenceTargets targets;
+    /** injected by the global parameters */
+    private boolean globalFastCopulaMarginals;
 
     public void doCalculation() {
+        if (simulationScope != null) {
+            getSimulationStreams().setIteration(simulationScope.getCurrentIteration());
+        }
         if (isReceiverWired(inNumber) || inNumber.size() > 0) {
             for (Frequency frequency: inNumber) {
                 for (int i = 0; i < frequency.value; i++) {
@@ -30,12 +41,34 @@ abstract public class Copula extends Component {
         }
     }
 
+    /**
+     * Column indices are resolved once per target list, receivers look up their column once per targets instance.
+     */
     private DependenceStream buildDependenceStream() {
-        return new DependenceStream(getRandomVector(), getTargetNames());
+        List<Number> randomVector = getRandomVector();
+        double[] values = new double[randomVector.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = randomVector.get(i).doubleValue();
+        }
+        List<String> targetNames = getTargetNames();
+        if (targets == null || targets.getNames() != targetNames) {
+            targets = new DependenceTargets(targetNames);
+        }
+        return new DependenceStream(values, targets);
     }
 
     abstract protected List<Number> getRandomVector();
 
+    /**
+     * @return the random number modes of the simulation, passed to the copula strategy before drawing a vector
+     */
+    protected SimulationStreams getSimulationStreams() {
+        if (simulationStreams == null) {
+            simulationStreams = GlobalParameters.getSimulationStreams(simulationScope);
+        }
+        return simulationStreams;
+    }
+
     abstract protected List<String> getTargetNames();
 
     public PacketList<Frequency> getInNumber() {
@@ -61,4 +94,21 @@ abstract public class Copula extends Component {
     public void setPeriodScope(PeriodScope periodScope) {
         this.periodScope = periodScope;
     }
+
+    public SimulationScope getSimulationScope() {
+        return simulationScope;
+    }
+
+    public void setSimulationScope(SimulationScope simulationScope) {
+        this.simulationScope = simulationScope;
+        simulationStreams = null;
+    }
+
+    public boolean isGlobalFastCopulaMarginals() {
+        return globalFastCopulaMarginals;
+    }
+
+    public void setGlobalFastCopulaMarginals(boolean globalFastCopulaMarginals) {
+        this.globalFastCopulaMarginals = globalFastCopulaMarginals;
+    }
 }
\ No newline at end of file
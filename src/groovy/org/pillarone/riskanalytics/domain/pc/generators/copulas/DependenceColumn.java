@@ -0,0 +1,24 @@
+package org.pillarone.riskanalytics.domain.pc.generators.copulas;
+
+/**
+ * Column of a receiving component within dependence streams. It is looked up only if the {@link DependenceTargets}
+ * instance or the name differs from the previous call, i.e. once per copula and simulation.
+ */
+public class DependenceColumn {
+
+    private DependenceTargets targets;
+    private String name;
+    private int column = -1;
+
+    /**
+     * @return column of name within targets or -1 if name is not a target
+     */
+    public int resolve(DependenceTargets targets, String name) {
+        if (targets != this.targets || name == null || !name.equals(this.name)) {
+            column = targets.column(name);
+            this.targets = targets;
+            this.name = name;
+        }
+        return column;
+    }
+}
@@ -2,42 +2,78 @@ package org.pillarone.riskanalytics.domain.pc.generators.copulas;
 
 import org.pillarone.riskanalytics.core.packets.Packet;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
- *  Each severity in the list severities corresponds belongs to the marginals
- *  with the same list index.
+ *  Each probability in values belongs to the target (marginal) with the same column index in targets. Receivers
+ *  should resolve their column with a {@link DependenceColumn} and read it by {@link #getValue(int)}.
  *
  * @author ali.majidi (at) munichre (dot) com, stefan.kunz (at) intuitive-collaboration (dot) com
  */
 @Deprecated
 public class DependenceStream extends Packet {
-    // todo (sku): convert to a map; new name for marginals: target
+
+    private double[] values;
+    private DependenceTargets targets;
+
     public DependenceStream(){
 
     }
 
+    public DependenceStream(double[] values, DependenceTargets targets) {
+        this.values = values;
+        this.targets = targets;
+    }
+
     public DependenceStream(List<Number> probabilities, List<String> marginals) {
-        this.probabilities = probabilities;
-        this.marginals = marginals;
+        setProbabilities(probabilities);
+        setMarginals(marginals);
     }
 
-    public List<Number> probabilities;
-    public List<String> marginals;
+    public double getValue(int column) {
+        return values[column];
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+
+    public void setValues(double[] values) {
+        this.values = values;
+    }
+
+    public DependenceTargets getTargets() {
+        return targets;
+    }
+
+    public void setTargets(DependenceTargets targets) {
+        this.targets = targets;
+    }
 
+    /**
+     * @return boxed copy of values
+     */
     public List<Number> getProbabilities() {
+        List<Number> probabilities = new ArrayList<Number>(values.length);
+        for (double value : values) {
+            probabilities.add(value);
+        }
         return probabilities;
     }
 
     public void setProbabilities(List<Number> probabilities) {
-        this.probabilities = probabilities;
+        values = new double[probabilities.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = probabilities.get(i).doubleValue();
+        }
     }
 
     public List<String> getMarginals() {
-        return marginals;
+        return targets.getNames();
     }
 
     public void setMarginals(List<String> marginals) {
-        this.marginals = marginals;
+        targets = new DependenceTargets(marginals);
     }
 }
\ No newline at end of file
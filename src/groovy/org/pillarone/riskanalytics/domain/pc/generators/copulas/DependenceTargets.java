@@ -0,0 +1,37 @@
+package org.pillarone.riskanalytics.domain.pc.generators.copulas;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Target names of a copula together with their column indices. A copula creates one instance per target list and
+ * attaches it to all dependence streams it sends, receivers resolve their column once per instance with a
+ * {@link DependenceColumn}.
+ */
+public class DependenceTargets {
+
+    private final List<String> names;
+    private final Map<String, Integer> columns;
+
+    public DependenceTargets(List<String> names) {
+        this.names = names;
+        columns = new HashMap<String, Integer>(names.size() * 2);
+        for (int i = names.size() - 1; i >= 0; i--) {
+            // iterating backwards keeps the first column of duplicate names like List.indexOf()
+            columns.put(names.get(i), i);
+        }
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @return column of name or -1 if name is not a target
+     */
+    public int column(String name) {
+        Integer column = columns.get(name);
+        return column == null ? -1 : column;
+    }
+}
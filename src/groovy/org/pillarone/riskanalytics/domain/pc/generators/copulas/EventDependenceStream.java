@@ -6,17 +6,15 @@ import org.pillarone.riskanalytics.domain.pc.generators.severities.EventSeverity
 import java.util.List;
 
 /**
- *  Each severity in the list severities corresponds belongs to the marginals
- *  with the same list index.
+ *  Each severity in the list severities belongs to the target (marginal) with the same column index in targets.
  *
  * @author ali.majidi (at) munichre (dot) com, stefan.kunz (at) intuitive-collaboration (dot) com
  */
 @Deprecated
 public class EventDependenceStream extends Packet {
-    // todo (sku): convert to a map; new name for marginals: target
 
     public List<EventSeverity> severities;
-    public List<String> marginals;
+    private DependenceTargets targets;
 
     public List<EventSeverity> getSeverities() {
         return severities;
@@ -26,11 +24,19 @@ public class EventDependenceStream extends Packet {
         this.severities = severities;
     }
 
+    public DependenceTargets getTargets() {
+        return targets;
+    }
+
+    public void setTargets(DependenceTargets targets) {
+        this.targets = targets;
+    }
+
     public List<String> getMarginals() {
-        return marginals;
+        return targets.getNames();
     }
 
     public void setMarginals(List<String> marginals) {
-        this.marginals = marginals;
+        targets = new DependenceTargets(marginals);
     }
 }
\ No newline at end of file
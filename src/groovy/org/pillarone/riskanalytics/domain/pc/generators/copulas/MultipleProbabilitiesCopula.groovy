@@ -24,7 +24,11 @@ public class MultipleProbabilitiesCopula extends GeneratorCachingComponent {
     private ICopulaStrategy parmCopulaStrategy = CopulaStrategyFactory.getCopulaStrategy(PerilCopulaType.INDEPENDENT,
             ["targets": new ComboBoxTableMultiDimensionalParameter([''], ['perils'], IPerilMarker)])
 
+    /** injected by the global parameters */
+    boolean globalFastCopulaMarginals
+
     private IRandomNumberGenerator generator;
+    private DependenceTargets targets;
 
     private PacketList<EventDependenceStream> outEventSeverities = new PacketList(EventDependenceStream.class);
     private PacketList<Frequency> outFrequency = new PacketList(Frequency.class);
@@ -38,13 +42,17 @@ public class MultipleProbabilitiesCopula extends GeneratorCachingComponent {
 
     public void doCalculation() {
 
-        generator = getCachedGenerator(parmFrequencyDistribution, modifier);
+        generator = getCachedFrequencyGenerator(parmFrequencyDistribution, modifier);
         int frequency = generator.nextValue().intValue();
-        List<Double> dates = UniformDoubleList.getDoubles(frequency, true);
+        double[] dates = UniformDoubleList.getSortedDoubleArray(frequency);
+        List<String> targetNames = parmCopulaStrategy.getTargetNames()
+        if (targets == null || !targets.names.is(targetNames)) {
+            targets = new DependenceTargets(targetNames)
+        }
         for (int i = 0; i < frequency; i++) {
             outEventSeverities.add(new EventDependenceStream(
-                    severities: buildEventSeverity(new Event(fractionOfPeriod: dates.get(i))),
-                    marginals: parmCopulaStrategy.getTargetNames()))
+                    severities: buildEventSeverity(new Event(fractionOfPeriod: dates[i])),
+                    targets: targets))
         }
         if (isSenderWired(outFrequency)) {
             Frequency frequencyPacket = FrequencyPacketFactory.createPacket();
@@ -55,6 +63,8 @@ public class MultipleProbabilitiesCopula extends GeneratorCachingComponent {
 
     private List<EventSeverity> buildEventSeverity(Event event) {
         List<EventSeverity> eventSeverities = new ArrayList<EventSeverity>();
+        ((AbstractCopulaStrategy) parmCopulaStrategy).setSimulationStreams(getSimulationStreams())
+        ((AbstractCopulaStrategy) parmCopulaStrategy).setFastMarginals(globalFastCopulaMarginals)
         List<Double> probabilities = parmCopulaStrategy.getRandomVector();
         for (int i = 0; i < probabilities.size(); i++) {
             eventSeverities.add(new EventSeverity(event: event, value: probabilities.get(i)))
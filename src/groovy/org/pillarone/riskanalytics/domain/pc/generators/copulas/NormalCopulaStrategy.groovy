@@ -1,55 +1,69 @@
 package org.pillarone.riskanalytics.domain.pc.generators.copulas
 
 import org.pillarone.riskanalytics.core.parameterization.AbstractMultiDimensionalParameter
-import org.pillarone.riskanalytics.domain.utils.randomnumbers.DependencyType
-import org.pillarone.riskanalytics.domain.utils.randomnumbers.IMultiRandomGenerator
+import org.pillarone.riskanalytics.domain.utils.FastNormalCdf
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.CorrelatedNormalGenerator
 import umontreal.iro.lecuyer.probdist.NormalDist
 import cern.colt.matrix.DoubleMatrix2D
-import cern.colt.matrix.DoubleMatrix1D
-import cern.colt.matrix.linalg.EigenvalueDecomposition
 import cern.colt.matrix.impl.DenseDoubleMatrix2D
 
 
 /**
+ * The dependency matrix is validated and factorized once per parameterization, i.e. on the first call of
+ * getRandomVector() after the dependencyMatrix has been set. In quasi-Monte Carlo mode the first vector of every
+ * iteration is drawn from one quasi random dimension per target. With fastMarginals, i.e. the runtime parameter
+ * runtimeFastCopulaMarginals of the global parameters, the normal variates are mapped by {@link FastNormalCdf}.
+ *
  * @author ali.majidi (at) munichre (dot) com, stefan.kunz (at) intuitive-collaboration (dot) com
  */
 @Deprecated
 abstract class NormalCopulaStrategy extends AbstractCopulaStrategy {
 
-    //DoubleMatrix2D sigmaMatrix
-
-    IMultiRandomGenerator generator
     AbstractMultiDimensionalParameter dependencyMatrix
 
+    private CorrelatedNormalGenerator generator
+    private double[] normalVector
+
+    void setDependencyMatrix(AbstractMultiDimensionalParameter dependencyMatrix) {
+        this.dependencyMatrix = dependencyMatrix
+        generator = null
+    }
+
+    protected void resetGenerators() {
+        generator = null
+    }
+
     public List<Number> getRandomVector() {
+        if (generator == null) {
+            initGenerator()
+        }
+        generator.nextPoint(normalVector)
+        List<Number> randomVector = new ArrayList<Number>(normalVector.length)
+        for (int j = 0; j < normalVector.length; j++) {
+            randomVector.add(fastMarginals ? FastNormalCdf.cdf01(normalVector[j]) : NormalDist.cdf01(normalVector[j]))
+        }
+        randomVector
+    }
 
+    private void initGenerator() {
         List<List<Double>> values = dependencyMatrix.getValues();
-        List<Double> diag = new ArrayList<Double>();
         for (int i = 0; i < values.size(); i++) {
-            diag.add(values.get(i).get(i))
-        }
-        if (!(diag.min() == 1d && diag.max() == 1d)) {
-            throw new IllegalArgumentException("['NormalCopulaStratey.dependencyMatrixInvalidDiagonal']");
+            if (values.get(i).get(i) != 1d) {
+                throw new IllegalArgumentException("['NormalCopulaStratey.dependencyMatrixInvalidDiagonal']");
+            }
         }
-        DenseDoubleMatrix2D SIGMA = new DenseDoubleMatrix2D((double[][]) values);
+        double[][] sigma = (double[][]) values
+        DenseDoubleMatrix2D SIGMA = new DenseDoubleMatrix2D(sigma);
         DoubleMatrix2D SIGMAtranspose = SIGMA.viewDice();
         if (!SIGMAtranspose.equals(SIGMA)){
             throw new IllegalArgumentException("['NormalCopulaStratey.dependencyMatrixNonSymmetric']");
         }
-        EigenvalueDecomposition eigenvalueDecomp = new EigenvalueDecomposition(SIGMA);
-        DoubleMatrix1D eigenvalues = eigenvalueDecomp.getRealEigenvalues();
-        eigenvalues.viewSorted();
-        if (eigenvalues.get(0) <= 0){
+        double[][] lower = CorrelatedNormalGenerator.choleskyFactor(sigma)
+        if (lower == null) {
             throw new IllegalArgumentException("['NormalCopulaStratey.dependencyMatrixNonPosDef']");
         }
-
-        int size = dependencyMatrix.valueRowCount
-        generator = DependencyType.getStrategy(DependencyType.NORMAL, ["meanVector": new double[size], "sigmaMatrix": dependencyMatrix.values])
-        List<Number> randomVector = generator.nextVector()
-        for (int j = 0; j < randomVector.size(); j++) {
-            randomVector[j] = NormalDist.cdf(0, 1d, randomVector[j])
-        }
-        randomVector
+        generator = new CorrelatedNormalGenerator(lower, simulationStreams.getStream(lower.length))
+        normalVector = new double[lower.length]
     }
 
     public List<String> getTargetNames() {
@@ -59,4 +73,4 @@ abstract class NormalCopulaStrategy extends AbstractCopulaStrategy {
     public Map getParameters() {
         return ["dependencyMatrix": dependencyMatrix]
     }
-}
\ No newline at end of file
+}
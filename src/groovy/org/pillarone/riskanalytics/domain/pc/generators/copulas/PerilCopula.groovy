@@ -13,6 +13,8 @@ public class PerilCopula extends Copula {
             ["targets": new SimpleMultiDimensionalParameter([''])]);
 
     protected List<Number> getRandomVector() {
+        ((AbstractCopulaStrategy) parmCopulaStrategy).setSimulationStreams(getSimulationStreams())
+        ((AbstractCopulaStrategy) parmCopulaStrategy).setFastMarginals(isGlobalFastCopulaMarginals())
         return parmCopulaStrategy.getRandomVector();
     }
 
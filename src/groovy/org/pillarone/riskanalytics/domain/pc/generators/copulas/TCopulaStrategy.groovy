@@ -4,61 +4,88 @@ import org.pillarone.riskanalytics.core.parameterization.AbstractMultiDimensiona
 import org.pillarone.riskanalytics.domain.utils.DistributionType
 import org.pillarone.riskanalytics.domain.utils.IRandomNumberGenerator
 import org.pillarone.riskanalytics.domain.utils.RandomNumberGeneratorFactory
-import org.pillarone.riskanalytics.domain.utils.randomnumbers.DependencyType
-import org.pillarone.riskanalytics.domain.utils.randomnumbers.IMultiRandomGenerator
+import org.pillarone.riskanalytics.domain.utils.StudentCdfTable
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.CorrelatedNormalGenerator
 import umontreal.iro.lecuyer.probdist.StudentDist
 import cern.colt.matrix.DoubleMatrix2D
-import cern.colt.matrix.DoubleMatrix1D
-import cern.colt.matrix.linalg.EigenvalueDecomposition
 import cern.colt.matrix.impl.DenseDoubleMatrix2D
 
 /**
+ * The dependency matrix is validated and factorized once per parameterization, i.e. on the first call of
+ * getRandomVector() after the dependencyMatrix or degreesOfFreedom have been set. In quasi-Monte Carlo mode the
+ * first vector of every iteration is drawn from one quasi random dimension per target and one for the chi-square
+ * variate. With fastMarginals, i.e. the runtime parameter runtimeFastCopulaMarginals of the global parameters, the t
+ * variates are mapped by the {@link StudentCdfTable} of the degrees of freedom.
+ *
  * @author Michael-Noe (at) Web (dot) de
  */
 @Deprecated
 abstract class TCopulaStrategy extends AbstractCopulaStrategy {
 
-    DoubleMatrix2D sigmaMatrix
-
-    IMultiRandomGenerator generator
-
     AbstractMultiDimensionalParameter dependencyMatrix
     int degreesOfFreedom
-    Number chisquareRandomNumber
     IRandomNumberGenerator generatorForChiSquare
 
+    private CorrelatedNormalGenerator generator
+    private double[] normalVector
+    private StudentCdfTable studentCdfTable
+
+    void setDependencyMatrix(AbstractMultiDimensionalParameter dependencyMatrix) {
+        this.dependencyMatrix = dependencyMatrix
+        generator = null
+    }
+
+    void setDegreesOfFreedom(int degreesOfFreedom) {
+        this.degreesOfFreedom = degreesOfFreedom
+        generator = null
+    }
+
+    protected void resetGenerators() {
+        generator = null
+    }
+
     public List<Number> getRandomVector() {
+        if (generator == null) {
+            initGenerators()
+        }
+        generator.nextPoint(normalVector)
+        double factor = (double) degreesOfFreedom / generatorForChiSquare.nextValue()
+        factor = Math.sqrt(factor)
+        List<Number> randomVector = new ArrayList<Number>(normalVector.length)
+        if (fastMarginals) {
+            for (int i = 0; i < normalVector.length; ++i) {
+                randomVector.add(studentCdfTable.cdf(normalVector[i] * factor))
+            }
+        }
+        else {
+            for (int i = 0; i < normalVector.length; ++i) {
+                randomVector.add(StudentDist.cdf(degreesOfFreedom, normalVector[i] * factor))
+            }
+        }
+        return randomVector
+    }
+
+    private void initGenerators() {
         List<List<Double>> values = dependencyMatrix.getValues();
-        List<Double> diag = new ArrayList<Double>();
         for (int i = 0; i < values.size(); i++) {
-            diag.add(values.get(i).get(i))
-        }
-        if (!(diag.min() == 1d && diag.max() == 1d)) {
-            throw new IllegalArgumentException("['TCopulaStratey.dependencyMatrixInvalidDiagonal']");
+            if (values.get(i).get(i) != 1d) {
+                throw new IllegalArgumentException("['TCopulaStratey.dependencyMatrixInvalidDiagonal']");
+            }
         }
-        DenseDoubleMatrix2D SIGMA = new DenseDoubleMatrix2D((double[][]) values);
+        double[][] sigma = (double[][]) values
+        DenseDoubleMatrix2D SIGMA = new DenseDoubleMatrix2D(sigma);
         DoubleMatrix2D SIGMAtranspose = SIGMA.viewDice();
         if (!SIGMAtranspose.equals(SIGMA)) {
             throw new IllegalArgumentException("['TCopulaStratey.dependencyMatrixNonSymmetric']");
         }
-        EigenvalueDecomposition eigenvalueDecomp = new EigenvalueDecomposition(SIGMA);
-        DoubleMatrix1D eigenvalues = eigenvalueDecomp.getRealEigenvalues();
-        eigenvalues.viewSorted();
-        if (eigenvalues.get(0) <= 0) {
+        double[][] lower = CorrelatedNormalGenerator.choleskyFactor(sigma)
+        if (lower == null) {
             throw new IllegalArgumentException("['TCopulaStratey.dependencyMatrixNonPosDef']");
         }
-
-        int size = dependencyMatrix.valueRowCount
-        generator = DependencyType.getStrategy(DependencyType.NORMAL, ["meanVector": new double[size], "sigmaMatrix": dependencyMatrix.values])
-        generatorForChiSquare = RandomNumberGeneratorFactory.getGenerator(DistributionType.getStrategy(DistributionType.CHISQUAREDIST, ["n": degreesOfFreedom]))
-
-        List<Number> randomVector = generator.nextVector()
-        double factor = (double) degreesOfFreedom / generatorForChiSquare.nextValue()
-        factor = Math.sqrt(factor)
-        for (int i = 0; i < randomVector.size(); ++i) {
-            randomVector[i] = StudentDist.cdf(degreesOfFreedom, randomVector[i] * factor)
-        }
-        return randomVector
+        generator = new CorrelatedNormalGenerator(lower, simulationStreams.getStream(lower.length))
+        normalVector = new double[lower.length]
+        studentCdfTable = fastMarginals ? StudentCdfTable.getInstance(degreesOfFreedom) : null
+        generatorForChiSquare = RandomNumberGeneratorFactory.getGenerator(DistributionType.getStrategy(DistributionType.CHISQUAREDIST, ["n": degreesOfFreedom]), simulationStreams.getStream(1))
     }
 
     public List<String> getTargetNames() {
@@ -69,4 +96,4 @@ abstract class TCopulaStrategy extends AbstractCopulaStrategy {
         return ["dependencyMatrix": dependencyMatrix,
                 "degreesOfFreedom": degreesOfFreedom]
     }
-}
\ No newline at end of file
+}
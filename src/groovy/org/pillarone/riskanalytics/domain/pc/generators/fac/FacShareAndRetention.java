@@ -8,7 +8,6 @@ import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.SurplusContra
 import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo;
 import org.pillarone.riskanalytics.domain.utils.math.distribution.RandomDistribution;
 import org.pillarone.riskanalytics.domain.utils.math.generator.IRandomNumberGenerator;
-import org.pillarone.riskanalytics.domain.utils.math.generator.RandomNumberGeneratorFactory;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -68,8 +67,8 @@ public class FacShareAndRetention extends Packet {
         IRandomNumberGenerator facSurplusShareGenerator;
 
         FacRandomDistributions(RandomDistribution facQuotaShare, RandomDistribution facSurplusShare) {
-            facQuotaShareGenerator = RandomNumberGeneratorFactory.getGenerator(facQuotaShare);
-            facSurplusShareGenerator = RandomNumberGeneratorFactory.getGenerator(facSurplusShare);
+            facQuotaShareGenerator = FacShareGeneratorFactory.getGenerator(facQuotaShare);
+            facSurplusShareGenerator = FacShareGeneratorFactory.getGenerator(facSurplusShare);
         }
 
         double getFacShare(IReinsuranceContractStrategy contractStrategy) {
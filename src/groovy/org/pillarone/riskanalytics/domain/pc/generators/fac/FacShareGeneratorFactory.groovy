@@ -0,0 +1,42 @@
+package org.pillarone.riskanalytics.domain.pc.generators.fac
+
+import org.pillarone.riskanalytics.core.util.MathUtils
+import org.pillarone.riskanalytics.domain.utils.AliasVariateGen
+import org.pillarone.riskanalytics.domain.utils.DiscreteEmpiricalDistribution
+import org.pillarone.riskanalytics.domain.utils.math.distribution.RandomDistribution
+import org.pillarone.riskanalytics.domain.utils.math.generator.IRandomNumberGenerator
+import org.pillarone.riskanalytics.domain.utils.math.generator.RandomNumberGenerator
+import org.pillarone.riskanalytics.domain.utils.math.generator.RandomNumberGeneratorFactory
+import umontreal.iro.lecuyer.probdist.DiscreteDistribution
+
+/**
+ * Fac share distributions built by the FacShareRetentionHelper are discrete distributions and drawn with an alias
+ * table, built once per generator. All other distributions are delegated to the RandomNumberGeneratorFactory.
+ */
+class FacShareGeneratorFactory {
+
+    static IRandomNumberGenerator getGenerator(RandomDistribution distribution) {
+        DiscreteEmpiricalDistribution facShares = null
+        if (distribution.distribution instanceof DiscreteEmpiricalDistribution) {
+            facShares = (DiscreteEmpiricalDistribution) distribution.distribution
+        }
+        else if (distribution.distribution.class == DiscreteDistribution) {
+            facShares = getDiscreteEmpiricalDistribution((DiscreteDistribution) distribution.distribution)
+        }
+        if (facShares != null) {
+            return new RandomNumberGenerator(generator: new AliasVariateGen(MathUtils.getRandomStreamBase(), facShares),
+                    type: distribution.type, parameters: distribution.parameters)
+        }
+        return RandomNumberGeneratorFactory.getGenerator(distribution)
+    }
+
+    private static DiscreteEmpiricalDistribution getDiscreteEmpiricalDistribution(DiscreteDistribution distribution) {
+        double[] values = new double[distribution.n]
+        double[] probabilities = new double[distribution.n]
+        for (int i = 0; i < values.length; i++) {
+            values[i] = distribution.getValue(i)
+            probabilities[i] = distribution.prob(i)
+        }
+        new DiscreteEmpiricalDistribution(values, probabilities)
+    }
+}
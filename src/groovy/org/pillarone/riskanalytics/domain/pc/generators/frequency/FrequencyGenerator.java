@@ -53,7 +53,7 @@ public class FrequencyGenerator extends GeneratorCachingComponent {
     }
 
     public void doCalculation() {
-        IRandomNumberGenerator generator = getCachedGenerator(parmDistribution, modifier);
+        IRandomNumberGenerator generator = getCachedFrequencyGenerator(parmDistribution, modifier);
         Frequency frequency = FrequencyPacketFactory.createPacket();
         if (parmBase.equals(FrequencyBase.NUMBER_OF_POLICIES)) {
             frequency.value = (((Double) generator.nextValue()) * inUnderwritingInfo.get(0).getNumberOfPolicies());
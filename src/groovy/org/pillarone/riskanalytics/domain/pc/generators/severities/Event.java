@@ -2,8 +2,31 @@ package org.pillarone.riskanalytics.domain.pc.generators.severities;
 
 import org.pillarone.riskanalytics.core.packets.Packet;
 
+/**
+ * Every event gets an ordinal on creation, numbering the events created by a thread from 0 in every iteration.
+ * Contract strategies use it to accumulate claims per event in arrays instead of maps.
+ */
 public class Event extends Packet {
     private double fractionOfPeriod;
+    private final int ordinal;
+
+    private static final ThreadLocal<EventCounter> COUNTER = new ThreadLocal<EventCounter>() {
+        protected EventCounter initialValue() {
+            return new EventCounter();
+        }
+    };
+
+    public Event() {
+        ordinal = COUNTER.get().next();
+    }
+
+    /**
+     * Restarts the ordinals of this thread if the iteration changed, generators have to call it before they
+     * create events.
+     */
+    public static void setIteration(int iteration) {
+        COUNTER.get().setIteration(iteration);
+    }
 
     @Override
     public String toString() {
@@ -17,4 +40,33 @@ public class Event extends Packet {
     public void setFractionOfPeriod(double fractionOfPeriod) {
         this.fractionOfPeriod = fractionOfPeriod;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return number of the event among the events created by the same thread in the current iteration
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    private static class EventCounter {
+
+        private int iteration = -1;
+        private int nextOrdinal;
+
+        void setIteration(int iteration) {
+            if (iteration != this.iteration) {
+                this.iteration = iteration;
+                nextOrdinal = 0;
+            }
+        }
+
+        int next() {
+            int ordinal = nextOrdinal++;
+            if (nextOrdinal < 0) {
+                // without iterations, e.g. in unit tests
+                nextOrdinal = 0;
+            }
+            return ordinal;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.pillarone.riskanalytics.domain.pc.generators.severities
 
 import org.pillarone.riskanalytics.core.packets.PacketList
 import org.pillarone.riskanalytics.domain.pc.generators.GeneratorCachingComponent
+import org.pillarone.riskanalytics.domain.pc.generators.GeneratorSlot
 import org.pillarone.riskanalytics.domain.pc.generators.frequency.Frequency
 import org.pillarone.riskanalytics.domain.utils.randomnumbers.UniformDoubleList
 import org.pillarone.riskanalytics.domain.utils.*
@@ -28,7 +29,7 @@ class EventSeverityGenerator extends GeneratorCachingComponent {
     /** Output channel for severities.     */
     PacketList<EventSeverity> outSeverities = new PacketList(EventSeverity)
 
-    private IRandomNumberGenerator generator;
+    private GeneratorSlot severityGenerator = new GeneratorSlot("severity")
 
     public void validateParameterization() {
         if (parmDistribution == null) {
@@ -38,10 +39,9 @@ class EventSeverityGenerator extends GeneratorCachingComponent {
     }
 
     public void doCalculation() {
-        generator = getCachedGenerator(parmDistribution, parmModification);
+        IRandomNumberGenerator generator = getCachedGenerator(severityGenerator, parmDistribution, parmModification)
         int numberOfEvents = inSeverityCount.value.sum()
-        List<Double> dates = UniformDoubleList.getDoubles(numberOfEvents, true)
-        dates.sort()
+        double[] dates = UniformDoubleList.getSortedDoubleArray(numberOfEvents)
 
         int counter = -1
         for (int i = 0; i < inSeverityCount.size(); i++) {
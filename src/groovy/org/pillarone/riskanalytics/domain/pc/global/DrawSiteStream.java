@@ -0,0 +1,43 @@
+package org.pillarone.riskanalytics.domain.pc.global;
+
+import org.pillarone.riskanalytics.core.components.Component;
+import org.pillarone.riskanalytics.core.simulation.engine.IterationScope;
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope;
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.SimulationStreams;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
+
+/**
+ * Stream of one draw site of a component drawing without GeneratorCachingComponent, held in a field of the
+ * component. It is resolved with the first draw from the random number modes of the simulation, see
+ * {@link GlobalParameters#getSimulationStreams(SimulationScope)}.
+ */
+public class DrawSiteStream {
+
+    private final Component component;
+    private final String drawSite;
+    private SimulationStreams simulationStreams;
+    private RandomStreamBase stream;
+
+    /**
+     * @param drawSite unique and stable within the component
+     */
+    public DrawSiteStream(Component component, String drawSite) {
+        this.component = component;
+        this.drawSite = drawSite;
+    }
+
+    /**
+     * Passes the current iteration to the random number modes, has to be called before the draws of every period.
+     *
+     * @param iterationScope ignored if null, i.e. in unit tests
+     * @return the same stream in every call of a simulation
+     */
+    public RandomStreamBase getStream(SimulationScope simulationScope, IterationScope iterationScope) {
+        if (stream == null) {
+            simulationStreams = GlobalParameters.getSimulationStreams(simulationScope);
+            stream = simulationStreams.getDrawSiteStream(component, drawSite);
+        }
+        simulationStreams.setIteration(iterationScope);
+        return stream;
+    }
+}
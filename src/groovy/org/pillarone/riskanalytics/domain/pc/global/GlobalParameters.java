@@ -2,13 +2,47 @@ package org.pillarone.riskanalytics.domain.pc.global;
 
 import org.pillarone.riskanalytics.core.components.GlobalParameterComponent;
 import org.pillarone.riskanalytics.core.parameterization.global.Global;
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope;
+import org.pillarone.riskanalytics.core.simulation.item.Simulation;
+import org.pillarone.riskanalytics.core.util.MathUtils;
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.AntitheticStreams;
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.ComponentStreams;
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.QuasiRandomStreams;
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.SimulationStreams;
 
 /**
+ * The runtimeQuasiMonteCarlo, runtimeAntitheticVariates and runtimeComponentStreams parameters select the random
+ * number modes of a simulation. They are read once, with the first draw of the simulation, and the state of the modes is kept by this
+ * instance, i.e. per simulated model. The runtimeClaimArena parameter lets generators take their claims from the
+ * reused claim pool of ClaimPacketFactory, runtimePoisonRecycledClaims is its debug mode. runtimeParallelContracts
+ * is the number of contracts of an inuring priority calculated at the same time, see ParallelContractGroup.
+ * runtimeContractCascade is injected as global parameter into the reinsurance programs before they are wired and
+ * lets them evaluate their contracts by a ContractCascade. If runtimeQuantileTableMaxError is positive, generators
+ * drawing claims from dependent probabilities or event severities tabulate the inverse distribution function of
+ * the composite pareto type distributions once with this maximal absolute error. runtimeControlVariate is injected
+ * into the reinsurance programs before they are wired and lets them send a control variate estimate of their ceded
+ * claims, see ControlVariateCededClaims. runtimeFastCopulaMarginals is injected into the copulas and lets normal and
+ * t copulas map their variates by approximations of the marginal distribution functions.
+ *
  * @author stefan.kunz (at) intuitive-collaboration (dot) com
  */
 public class GlobalParameters extends GlobalParameterComponent {
 
     private boolean runtimeSanityChecks = true;
+    private boolean runtimeQuasiMonteCarlo = false;
+    private boolean runtimeAntitheticVariates = false;
+    private boolean runtimeComponentStreams = false;
+    private boolean runtimeClaimArena = false;
+    private boolean runtimePoisonRecycledClaims = false;
+    /** contracts are calculated one after the other below 2 */
+    private int runtimeParallelContracts = 0;
+    private boolean runtimeContractCascade = false;
+    /** exact inverse distribution functions if not positive */
+    private double runtimeQuantileTableMaxError = 0;
+    private boolean runtimeControlVariate = false;
+    private boolean runtimeFastCopulaMarginals = false;
+
+    private SimulationStreams simulationStreams;
 
     @Global(identifier = "sanityChecks")
     public boolean isRuntimeSanityChecks() {
@@ -18,4 +52,143 @@ public class GlobalParameters extends GlobalParameterComponent {
     public void setRuntimeSanityChecks(boolean runtimeSanityChecks) {
         this.runtimeSanityChecks = runtimeSanityChecks;
     }
+
+    public boolean isRuntimeQuasiMonteCarlo() {
+        return runtimeQuasiMonteCarlo;
+    }
+
+    public void setRuntimeQuasiMonteCarlo(boolean runtimeQuasiMonteCarlo) {
+        this.runtimeQuasiMonteCarlo = runtimeQuasiMonteCarlo;
+    }
+
+    public boolean isRuntimeAntitheticVariates() {
+        return runtimeAntitheticVariates;
+    }
+
+    public void setRuntimeAntitheticVariates(boolean runtimeAntitheticVariates) {
+        this.runtimeAntitheticVariates = runtimeAntitheticVariates;
+    }
+
+    public boolean isRuntimeComponentStreams() {
+        return runtimeComponentStreams;
+    }
+
+    public void setRuntimeComponentStreams(boolean runtimeComponentStreams) {
+        this.runtimeComponentStreams = runtimeComponentStreams;
+    }
+
+    public boolean isRuntimeClaimArena() {
+        return runtimeClaimArena;
+    }
+
+    public void setRuntimeClaimArena(boolean runtimeClaimArena) {
+        this.runtimeClaimArena = runtimeClaimArena;
+    }
+
+    public boolean isRuntimePoisonRecycledClaims() {
+        return runtimePoisonRecycledClaims;
+    }
+
+    public void setRuntimePoisonRecycledClaims(boolean runtimePoisonRecycledClaims) {
+        this.runtimePoisonRecycledClaims = runtimePoisonRecycledClaims;
+    }
+
+    public int getRuntimeParallelContracts() {
+        return runtimeParallelContracts;
+    }
+
+    public void setRuntimeParallelContracts(int runtimeParallelContracts) {
+        this.runtimeParallelContracts = runtimeParallelContracts;
+    }
+
+    @Global(identifier = "contractCascade")
+    public boolean isRuntimeContractCascade() {
+        return runtimeContractCascade;
+    }
+
+    public void setRuntimeContractCascade(boolean runtimeContractCascade) {
+        this.runtimeContractCascade = runtimeContractCascade;
+    }
+
+    public double getRuntimeQuantileTableMaxError() {
+        return runtimeQuantileTableMaxError;
+    }
+
+    public void setRuntimeQuantileTableMaxError(double runtimeQuantileTableMaxError) {
+        this.runtimeQuantileTableMaxError = runtimeQuantileTableMaxError;
+    }
+
+    @Global(identifier = "controlVariate")
+    public boolean isRuntimeControlVariate() {
+        return runtimeControlVariate;
+    }
+
+    public void setRuntimeControlVariate(boolean runtimeControlVariate) {
+        this.runtimeControlVariate = runtimeControlVariate;
+    }
+
+    @Global(identifier = "fastCopulaMarginals")
+    public boolean isRuntimeFastCopulaMarginals() {
+        return runtimeFastCopulaMarginals;
+    }
+
+    public void setRuntimeFastCopulaMarginals(boolean runtimeFastCopulaMarginals) {
+        this.runtimeFastCopulaMarginals = runtimeFastCopulaMarginals;
+    }
+
+    /**
+     * @return the random number modes of the simulation, all modes are switched off if there is no simulation scope
+     *          or the model has no global parameters
+     */
+    public static SimulationStreams getSimulationStreams(SimulationScope simulationScope) {
+        GlobalParameters globalParameters = find(simulationScope);
+        if (globalParameters == null) {
+            return SimulationStreams.DISABLED;
+        }
+        return globalParameters.simulationStreams(simulationScope);
+    }
+
+    /**
+     * Models may replace their global parameters component in wireComponents(), therefore the instance is looked
+     * up in the components of the model and not by property.
+     *
+     * @return null if there is no simulation scope or the model has no global parameters
+     */
+    public static GlobalParameters find(SimulationScope simulationScope) {
+        if (simulationScope == null || simulationScope.getModel() == null
+                || simulationScope.getModel().getAllComponents() == null) {
+            return null;
+        }
+        for (Object component : simulationScope.getModel().getAllComponents()) {
+            if (component instanceof GlobalParameters) {
+                return (GlobalParameters) component;
+            }
+        }
+        return null;
+    }
+
+    private synchronized SimulationStreams simulationStreams(SimulationScope simulationScope) {
+        if (simulationStreams == null) {
+            long seed = randomSeed(simulationScope);
+            QuasiRandomStreams quasiRandomStreams = runtimeQuasiMonteCarlo
+                    ? new QuasiRandomStreams(simulationScope.getNumberOfIterations(), seed) : null;
+            ComponentStreams componentStreams = runtimeComponentStreams
+                    ? new ComponentStreams(seed, simulationScope.getModel().getAllComponents()) : null;
+            simulationStreams = new SimulationStreams(quasiRandomStreams,
+                    runtimeAntitheticVariates ? new AntitheticStreams() : null, componentStreams);
+        }
+        return simulationStreams;
+    }
+
+    /**
+     * @return the seed of the simulation or, if none is set, a seed drawn from a copy of the stream of MathUtils
+     *          in order not to shift the draws of the simulation
+     */
+    static long randomSeed(SimulationScope simulationScope) {
+        Simulation simulation = simulationScope.getSimulation();
+        if (simulation != null && simulation.getRandomSeed() != null) {
+            return simulation.getRandomSeed();
+        }
+        return MathUtils.getRandomStreamBase().clone().nextInt(0, Integer.MAX_VALUE);
+    }
 }
@@ -3,12 +3,16 @@ package org.pillarone.riskanalytics.domain.pc.reinsurance;
 import org.pillarone.riskanalytics.core.components.Component;
 import org.pillarone.riskanalytics.core.components.ComponentCategory;
 import org.pillarone.riskanalytics.core.packets.PacketList;
+import org.pillarone.riskanalytics.core.simulation.engine.IterationScope;
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope;
 import org.pillarone.riskanalytics.domain.assets.constants.Rating;
 import org.pillarone.riskanalytics.domain.pc.creditrisk.DefaultProbabilities;
 import org.pillarone.riskanalytics.domain.pc.creditrisk.ReinsurerDefault;
+import org.pillarone.riskanalytics.domain.pc.global.DrawSiteStream;
 import org.pillarone.riskanalytics.domain.utils.IRandomNumberGenerator;
 import org.pillarone.riskanalytics.domain.utils.RandomNumberGeneratorFactory;
 import umontreal.iro.lecuyer.probdist.BinomialDist;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
 
 import java.util.Map;
 
@@ -22,9 +26,16 @@ public class ReinsurerDefaultProbability extends Component implements IReinsurer
     private PacketList<DefaultProbabilities> inDefaultProbability = new PacketList<DefaultProbabilities>(DefaultProbabilities.class);
     private PacketList<ReinsurerDefault> outReinsurersDefault = new PacketList<ReinsurerDefault>(ReinsurerDefault.class);
 
-    private IRandomNumberGenerator generator = RandomNumberGeneratorFactory.getBinomialGenerator();
+    private IRandomNumberGenerator generator;
+    private IterationScope iterationScope;
+    private SimulationScope simulationScope;
+    private final DrawSiteStream defaultStream = new DrawSiteStream(this, "default");
 
     protected void doCalculation() {
+        RandomStreamBase stream = defaultStream.getStream(simulationScope, iterationScope);
+        if (generator == null) {
+            generator = RandomNumberGeneratorFactory.getBinomialGenerator(stream);
+        }
         Map<Rating, Double> defaultProbabilities = inDefaultProbability.get(0).defaultProbability;
         boolean isReinsurerDefault = defaultOfReinsurer(defaultProbabilities.get(parmRating));
         ReinsurerDefault reinsurerDefault = new ReinsurerDefault(getName(), isReinsurerDefault);
@@ -67,4 +78,20 @@ public class ReinsurerDefaultProbability extends Component implements IReinsurer
     public void setGenerator(IRandomNumberGenerator generator) {
         this.generator = generator;
     }
+
+    public IterationScope getIterationScope() {
+        return iterationScope;
+    }
+
+    public void setIterationScope(IterationScope iterationScope) {
+        this.iterationScope = iterationScope;
+    }
+
+    public SimulationScope getSimulationScope() {
+        return simulationScope;
+    }
+
+    public void setSimulationScope(SimulationScope simulationScope) {
+        this.simulationScope = simulationScope;
+    }
 }
\ No newline at end of file
@@ -3,13 +3,17 @@ package org.pillarone.riskanalytics.domain.pc.reinsurance;
 import org.pillarone.riskanalytics.core.components.Component;
 import org.pillarone.riskanalytics.core.components.ComponentCategory;
 import org.pillarone.riskanalytics.core.packets.PacketList;
+import org.pillarone.riskanalytics.core.simulation.engine.IterationScope;
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope;
 import org.pillarone.riskanalytics.domain.assets.constants.Rating;
 import org.pillarone.riskanalytics.domain.pc.constants.Reinsurer;
 import org.pillarone.riskanalytics.domain.pc.creditrisk.DefaultProbabilities;
 import org.pillarone.riskanalytics.domain.pc.creditrisk.ReinsurersDefault;
+import org.pillarone.riskanalytics.domain.pc.global.DrawSiteStream;
 import org.pillarone.riskanalytics.domain.utils.IRandomNumberGenerator;
 import org.pillarone.riskanalytics.domain.utils.RandomNumberGeneratorFactory;
 import umontreal.iro.lecuyer.probdist.BinomialDist;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
 
 import java.util.Map;
 
@@ -30,9 +34,16 @@ public class ReinsurersDefaultProbability extends Component {
     private PacketList<DefaultProbabilities> inDefaultProbability = new PacketList<DefaultProbabilities>(DefaultProbabilities.class);
     private PacketList<ReinsurersDefault> outReinsurersDefault = new PacketList<ReinsurersDefault>(ReinsurersDefault.class);
 
-    private IRandomNumberGenerator generator = RandomNumberGeneratorFactory.getBinomialGenerator();
+    private IRandomNumberGenerator generator;
+    private IterationScope iterationScope;
+    private SimulationScope simulationScope;
+    private final DrawSiteStream defaultStream = new DrawSiteStream(this, "default");
 
     protected void doCalculation() {
+        RandomStreamBase stream = defaultStream.getStream(simulationScope, iterationScope);
+        if (generator == null) {
+            generator = RandomNumberGeneratorFactory.getBinomialGenerator(stream);
+        }
         Map<Rating, Double> defaultProbabilities = inDefaultProbability.get(0).defaultProbability;
         ReinsurersDefault reinsurersDefault = new ReinsurersDefault();
         reinsurersDefault.defaultOccured.put(Reinsurer.MERCURY_RE, defaultOfReinsurer(defaultProbabilities.get(parmMercuryRe)));
@@ -131,4 +142,20 @@ public class ReinsurersDefaultProbability extends Component {
     public void setParmNeptuneRe(Rating parmNeptuneRe) {
         this.parmNeptuneRe = parmNeptuneRe;
     }
+
+    public IterationScope getIterationScope() {
+        return iterationScope;
+    }
+
+    public void setIterationScope(IterationScope iterationScope) {
+        this.iterationScope = iterationScope;
+    }
+
+    public SimulationScope getSimulationScope() {
+        return simulationScope;
+    }
+
+    public void setSimulationScope(SimulationScope simulationScope) {
+        this.simulationScope = simulationScope;
+    }
 }
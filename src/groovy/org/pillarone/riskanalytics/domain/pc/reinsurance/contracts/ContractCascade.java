@@ -0,0 +1,266 @@
+package org.pillarone.riskanalytics.domain.pc.reinsurance.contracts;
+
+import org.pillarone.riskanalytics.core.components.Component;
+import org.pillarone.riskanalytics.core.packets.PacketList;
+import org.pillarone.riskanalytics.core.wiring.ITransmitter;
+import org.pillarone.riskanalytics.core.wiring.Transmitter;
+import org.pillarone.riskanalytics.domain.pc.claims.Claim;
+import org.pillarone.riskanalytics.domain.pc.reserves.cashflow.ClaimDevelopmentPacket;
+import org.pillarone.riskanalytics.domain.pc.underwriting.CededUnderwritingInfo;
+import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Aggregate only evaluation of the contracts of a reinsurance program in a single pass over the gross claims.
+ * The contracts of a stage cover the net claims after all preceding stages, e.g. the contracts of one inuring
+ * priority. Only the gross, ceded and net ultimates of every claim are carried between the stages, contracts
+ * receive a reused claim object or, if their strategy evaluates all claims at once, net claims created for them.
+ * <p/>
+ * The cascade replaces the wiring of contracts and claims mergers of a program if the contractCascade global
+ * parameter is set, see GlobalParameters, and all contracts are plain ReinsuranceContracts. outClaimsCeded contains
+ * one merged ceded claim per gross claim, totals are the same as in the full evaluation up to rounding. Underwriting
+ * info is supported for stages with a single contract: every contract receives the net underwriting info of the
+ * preceding stage and outCoverUnderwritingInfo contains the ceded underwriting info of all contracts.
+ * <p/>
+ * Collectors are wired after the program. Contracts with collected channels fall back to the packets of the full
+ * wiring: after their stage they fill and publish their channels, see ReinsuranceContract.publishCascade(). The
+ * first calculation refuses to run if program channels the cascade does not fill are collected or if it receives
+ * claim development packets.
+ */
+public class ContractCascade extends Component {
+
+    private PacketList<Claim> inClaims = new PacketList<Claim>(Claim.class);
+    private PacketList<UnderwritingInfo> inUnderwritingInfo = new PacketList<UnderwritingInfo>(UnderwritingInfo.class);
+
+    private PacketList<Claim> outClaimsGross = new PacketList<Claim>(Claim.class);
+    private PacketList<Claim> outClaimsCeded = new PacketList<Claim>(Claim.class);
+    private PacketList<Claim> outClaimsNet = new PacketList<Claim>(Claim.class);
+    private PacketList<CededUnderwritingInfo> outCoverUnderwritingInfo = new PacketList<CededUnderwritingInfo>(CededUnderwritingInfo.class);
+    private PacketList<UnderwritingInfo> outNetAfterCoverUnderwritingInfo = new PacketList<UnderwritingInfo>(UnderwritingInfo.class);
+
+    private final List<List<ReinsuranceContract>> stages;
+    private Component program;
+    private List<PacketList> unfilledProgramChannels = Collections.emptyList();
+    private List<ReinsuranceContract> collectedContracts = new ArrayList<ReinsuranceContract>();
+    private boolean checked;
+
+    /**
+     * @param contractCascade global parameter of the program
+     * @return true if the mode is switched on and all contracts are instances of ReinsuranceContract itself, as
+     *         subclasses may override the calculation
+     */
+    public static boolean isApplicable(boolean contractCascade, Collection<? extends Component> contracts) {
+        if (!contractCascade) {
+            return false;
+        }
+        for (Component contract : contracts) {
+            if (contract.getClass() != ReinsuranceContract.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param stages contracts grouped by stage in the order of the stages
+     */
+    public ContractCascade(List<List<ReinsuranceContract>> stages) {
+        this.stages = stages;
+    }
+
+    /**
+     * @param program owner of the channels
+     * @param channels out channels of the program left empty by the cascade
+     */
+    public void setUnfilledProgramChannels(Component program, List<PacketList> channels) {
+        this.program = program;
+        unfilledProgramChannels = channels;
+    }
+
+    protected void doCalculation() {
+        if (!checked) {
+            checkCollectedChannels();
+            checked = true;
+        }
+        int numberOfClaims = inClaims.size();
+        int[] order = sortByFractionOfPeriod(inClaims);
+        double[] netUltimates = new double[numberOfClaims];
+        double[] cededUltimates = new double[numberOfClaims];
+        for (int i = 0; i < numberOfClaims; i++) {
+            netUltimates[i] = inClaims.get(i).getUltimate();
+        }
+        List<UnderwritingInfo> underwritingInfos = inUnderwritingInfo;
+        for (List<ReinsuranceContract> stage : stages) {
+            if (stage.size() > 1 && !underwritingInfos.isEmpty()) {
+                throw new IllegalStateException("ContractCascade.underwritingInfoOfParallelContracts");
+            }
+            double[] stageCededUltimates = new double[numberOfClaims];
+            List<UnderwritingInfo> netUnderwritingInfos = new ArrayList<UnderwritingInfo>(underwritingInfos.size());
+            for (ReinsuranceContract contract : stage) {
+                List<CededUnderwritingInfo> cededUnderwritingInfos = new ArrayList<CededUnderwritingInfo>(underwritingInfos.size());
+                double[] contractCededUltimates = contract.calculateCascade(inClaims, order, netUltimates,
+                        underwritingInfos, cededUnderwritingInfos, netUnderwritingInfos);
+                for (int i = 0; i < numberOfClaims; i++) {
+                    stageCededUltimates[i] += contractCededUltimates[i];
+                }
+                outCoverUnderwritingInfo.addAll(cededUnderwritingInfos);
+                if (collectedContracts.contains(contract)) {
+                    contract.publishCascade(inClaims, order, netUltimates, contractCededUltimates,
+                            cededUnderwritingInfos, netUnderwritingInfos);
+                }
+            }
+            for (int i = 0; i < numberOfClaims; i++) {
+                cededUltimates[i] += stageCededUltimates[i];
+                netUltimates[i] = inClaims.get(i).getUltimate() - cededUltimates[i];
+            }
+            underwritingInfos = netUnderwritingInfos;
+        }
+        if (isSenderWired(outNetAfterCoverUnderwritingInfo)) {
+            outNetAfterCoverUnderwritingInfo.addAll(underwritingInfos);
+        }
+        fillClaimsChannels(cededUltimates);
+    }
+
+    private void checkCollectedChannels() {
+        for (List<ReinsuranceContract> stage : stages) {
+            for (ReinsuranceContract contract : stage) {
+                if (!contract.getAllOutputTransmitter().isEmpty()) {
+                    collectedContracts.add(contract);
+                }
+            }
+        }
+        if (program != null) {
+            for (ITransmitter transmitter : program.getAllOutputTransmitter()) {
+                for (PacketList channel : unfilledProgramChannels) {
+                    // checking equality on list instances won't work, as all lists with size 0 have 0 as hashCode
+                    if (transmitter instanceof Transmitter && ((Transmitter) transmitter).getSource() == channel) {
+                        throw new IllegalStateException("['ContractCascade.collectedProgramChannels','"
+                                + program.getNormalizedName() + "']");
+                    }
+                }
+            }
+        }
+        for (Claim claim : inClaims) {
+            if (claim instanceof ClaimDevelopmentPacket) {
+                throw new IllegalStateException("ContractCascade.claimDevelopmentPackets");
+            }
+        }
+    }
+
+    private void fillClaimsChannels(double[] cededUltimates) {
+        if (isSenderWired(outClaimsGross)) {
+            outClaimsGross.addAll(inClaims);
+        }
+        boolean fillCeded = isSenderWired(outClaimsCeded);
+        boolean fillNet = isSenderWired(outClaimsNet);
+        if (!fillCeded && !fillNet) {
+            return;
+        }
+        for (int i = 0; i < inClaims.size(); i++) {
+            Claim grossClaim = inClaims.get(i);
+            Claim cededClaim = grossClaim.copy();
+            cededClaim.setUltimate(cededUltimates[i]);
+            cededClaim.origin = this;
+            if (grossClaim.hasExposureInfo()) {
+                cededClaim.setExposure(grossClaim.getExposure().copy().scale(cededUltimates[i] / grossClaim.getUltimate()));
+            }
+            if (fillCeded) {
+                outClaimsCeded.add(cededClaim);
+            }
+            if (fillNet) {
+                Claim netClaim = grossClaim.getNetClaim(cededClaim);
+                netClaim.origin = this;
+                outClaimsNet.add(netClaim);
+            }
+        }
+    }
+
+    /**
+     * @return indices of the claims in the order of a stable sort by fraction of period
+     */
+    static int[] sortByFractionOfPeriod(List<Claim> claims) {
+        List<Integer> indices = new ArrayList<Integer>(claims.size());
+        for (int i = 0; i < claims.size(); i++) {
+            indices.add(i);
+        }
+        final double[] fractions = new double[claims.size()];
+        for (int i = 0; i < claims.size(); i++) {
+            fractions[i] = claims.get(i).getFractionOfPeriod();
+        }
+        Collections.sort(indices, new Comparator<Integer>() {
+            public int compare(Integer index, Integer otherIndex) {
+                return Double.compare(fractions[index], fractions[otherIndex]);
+            }
+        });
+        int[] order = new int[indices.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = indices.get(i);
+        }
+        return order;
+    }
+
+    public List<List<ReinsuranceContract>> getStages() {
+        return stages;
+    }
+
+    public PacketList<Claim> getInClaims() {
+        return inClaims;
+    }
+
+    public void setInClaims(PacketList<Claim> inClaims) {
+        this.inClaims = inClaims;
+    }
+
+    public PacketList<UnderwritingInfo> getInUnderwritingInfo() {
+        return inUnderwritingInfo;
+    }
+
+    public void setInUnderwritingInfo(PacketList<UnderwritingInfo> inUnderwritingInfo) {
+        this.inUnderwritingInfo = inUnderwritingInfo;
+    }
+
+    public PacketList<Claim> getOutClaimsGross() {
+        return outClaimsGross;
+    }
+
+    public void setOutClaimsGross(PacketList<Claim> outClaimsGross) {
+        this.outClaimsGross = outClaimsGross;
+    }
+
+    public PacketList<Claim> getOutClaimsCeded() {
+        return outClaimsCeded;
+    }
+
+    public void setOutClaimsCeded(PacketList<Claim> outClaimsCeded) {
+        this.outClaimsCeded = outClaimsCeded;
+    }
+
+    public PacketList<Claim> getOutClaimsNet() {
+        return outClaimsNet;
+    }
+
+    public void setOutClaimsNet(PacketList<Claim> outClaimsNet) {
+        this.outClaimsNet = outClaimsNet;
+    }
+
+    public PacketList<CededUnderwritingInfo> getOutCoverUnderwritingInfo() {
+        return outCoverUnderwritingInfo;
+    }
+
+    public void setOutCoverUnderwritingInfo(PacketList<CededUnderwritingInfo> outCoverUnderwritingInfo) {
+        this.outCoverUnderwritingInfo = outCoverUnderwritingInfo;
+    }
+
+    public PacketList<UnderwritingInfo> getOutNetAfterCoverUnderwritingInfo() {
+        return outNetAfterCoverUnderwritingInfo;
+    }
+
+    public void setOutNetAfterCoverUnderwritingInfo(PacketList<UnderwritingInfo> outNetAfterCoverUnderwritingInfo) {
+        this.outNetAfterCoverUnderwritingInfo = outNetAfterCoverUnderwritingInfo;
+    }
+}
@@ -0,0 +1,175 @@
+package org.pillarone.riskanalytics.domain.pc.reinsurance.contracts;
+
+import org.pillarone.riskanalytics.domain.pc.claims.Claim;
+import org.pillarone.riskanalytics.domain.pc.constants.ClaimType;
+import org.pillarone.riskanalytics.domain.pc.generators.severities.Event;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sums the ultimates of event claims per event and keeps a ceded share per event. Events are numbered in the
+ * order of their first claim, the number of an event is found in an array indexed by the ordinal of the event
+ * relative to the smallest ordinal. The arrays are kept between periods, i.e. no objects are allocated once they
+ * are large enough.
+ * <p/>
+ * If the ordinals are spread too wide or not unique, e.g. as the events were created by different threads, events
+ * are hashed by identity instead.
+ */
+class EventAccumulator {
+
+    /** largest ordinal range per event claim before events are hashed */
+    private static final int MAX_RANGE_PER_CLAIM = 8;
+    private static final int MIN_RANGE = 1024;
+
+    /** event number + 1 per ordinal, 0 for unused entries */
+    private int[] eventNumbers = new int[0];
+    private int minOrdinal;
+    private Map<Event, Integer> hashedEventNumbers;
+
+    private Event[] events = new Event[0];
+    private double[] ultimates = new double[0];
+    private double[] cededShares = new double[0];
+    private int size;
+
+    // todo (sku): work on clear definitions of ClaimType.EVENT and ClaimType.AGGREGATE_EVENT
+    static boolean isEventClaim(Claim claim) {
+        return claim.getClaimType() == ClaimType.EVENT || claim.getClaimType() == ClaimType.AGGREGATED_EVENT;
+    }
+
+    /**
+     * Replaces the events by the events of the event claims of claims.
+     *
+     * @return number of events
+     */
+    int accumulate(List<Claim> claims) {
+        clear();
+        int numberOfEventClaims = 0;
+        boolean hashEvents = false;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Claim claim : claims) {
+            if (isEventClaim(claim)) {
+                numberOfEventClaims++;
+                if (claim.getEvent() == null) {
+                    hashEvents = true;
+                }
+                else {
+                    min = Math.min(min, claim.getEvent().getOrdinal());
+                    max = Math.max(max, claim.getEvent().getOrdinal());
+                }
+            }
+        }
+        if (numberOfEventClaims == 0) {
+            return 0;
+        }
+        ensureCapacity(numberOfEventClaims);
+        long range = (long) max - min + 1;
+        if (hashEvents || range > (long) MAX_RANGE_PER_CLAIM * numberOfEventClaims + MIN_RANGE) {
+            hashedEventNumbers = new IdentityHashMap<Event, Integer>();
+        }
+        else {
+            if (eventNumbers.length < range) {
+                eventNumbers = new int[(int) range];
+            }
+            minOrdinal = min;
+        }
+        for (Claim claim : claims) {
+            if (isEventClaim(claim)) {
+                int number = getEventNumber(claim.getEvent());
+                if (number < 0) {
+                    number = add(claim.getEvent());
+                }
+                ultimates[number] += claim.getUltimate();
+            }
+        }
+        return size;
+    }
+
+    private int add(Event event) {
+        int number = size++;
+        events[number] = event;
+        ultimates[number] = 0d;
+        cededShares[number] = 0d;
+        if (hashedEventNumbers == null) {
+            int slot = event.getOrdinal() - minOrdinal;
+            if (eventNumbers[slot] == 0) {
+                eventNumbers[slot] = number + 1;
+                return number;
+            }
+            // another event with the same ordinal
+            clearEventNumbers(number);
+            hashedEventNumbers = new IdentityHashMap<Event, Integer>();
+            for (int i = 0; i < number; i++) {
+                hashedEventNumbers.put(events[i], i);
+            }
+        }
+        hashedEventNumbers.put(event, number);
+        return number;
+    }
+
+    /**
+     * @return number of the event, -1 if no claim of the event was accumulated
+     */
+    private int getEventNumber(Event event) {
+        if (hashedEventNumbers != null) {
+            Integer number = hashedEventNumbers.get(event);
+            return number == null ? -1 : number;
+        }
+        if (event == null) {
+            return -1;
+        }
+        int slot = event.getOrdinal() - minOrdinal;
+        if (slot < 0 || slot >= eventNumbers.length || eventNumbers[slot] == 0) {
+            return -1;
+        }
+        int number = eventNumbers[slot] - 1;
+        return events[number] == event ? number : -1;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (events.length < capacity) {
+            events = new Event[capacity];
+            ultimates = new double[capacity];
+            cededShares = new double[capacity];
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    double getUltimate(int eventNumber) {
+        return ultimates[eventNumber];
+    }
+
+    void setCededShare(int eventNumber, double cededShare) {
+        cededShares[eventNumber] = cededShare;
+    }
+
+    /**
+     * @return ceded share of the event, 0 if no claim of the event was accumulated
+     */
+    double getCededShare(Event event) {
+        int number = getEventNumber(event);
+        return number < 0 ? 0d : cededShares[number];
+    }
+
+    void clear() {
+        if (hashedEventNumbers == null) {
+            clearEventNumbers(size);
+        }
+        for (int i = 0; i < size; i++) {
+            events[i] = null;
+        }
+        size = 0;
+        hashedEventNumbers = null;
+    }
+
+    private void clearEventNumbers(int numberOfEvents) {
+        for (int i = 0; i < numberOfEvents; i++) {
+            eventNumbers[events[i].getOrdinal() - minOrdinal] = 0;
+        }
+    }
+}
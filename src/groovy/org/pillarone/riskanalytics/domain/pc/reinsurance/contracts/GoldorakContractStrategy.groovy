@@ -2,7 +2,6 @@ package org.pillarone.riskanalytics.domain.pc.reinsurance.contracts
 
 import org.pillarone.riskanalytics.domain.pc.claims.Claim
 import org.pillarone.riskanalytics.domain.pc.constants.ClaimType
-import org.pillarone.riskanalytics.domain.pc.generators.severities.Event
 import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo
 import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfoUtilities
 import org.pillarone.riskanalytics.domain.pc.constants.PremiumBase
@@ -14,7 +13,7 @@ import org.pillarone.riskanalytics.core.simulation.InvalidParameterException
 
 /**
  *  In a first step claims are merged per event. Merged claims are ceded and afterwards the ceded part is
- *  allocated proportionally to the individual claims.
+ *  allocated proportionally to the individual claims. Claims are merged by the EventAccumulator.
  *
  * @author shartmann (at) munichre (dot) com
  */
@@ -40,10 +39,12 @@ class GoldorakContractStrategy extends AbstractContractStrategy implements IRein
     private double factor
     private double cxlAvailableAggregateLimit
     private double aggregateGrossClaimAmount
-    private Map<Event, Double> claimsValueMergedByEvent = [:]
-    private Map<Event, Double> cededShareByEvent = [:]
+    private EventAccumulator claimsMergedByEvent = new EventAccumulator()
     private Map<UnderwritingInfo, Double> grossPremiumSharesPerBand = [:]
     private double totalCededPremium
+    /** reinstatementPremiums the rates were parsed from */
+    private AbstractMultiDimensionalParameter parsedReinstatementPremiums
+    private double[] reinstatementPremiumRates
 
     ReinsuranceContractType getType() {
         ReinsuranceContractType.GOLDORAK
@@ -69,7 +70,7 @@ class GoldorakContractStrategy extends AbstractContractStrategy implements IRein
             //CXL
             if (inClaim.claimType.equals(ClaimType.EVENT) || inClaim.claimType.equals(ClaimType.AGGREGATED_EVENT)) {
 
-                return inClaim.ultimate * cededShareByEvent.get(inClaim.event)
+                return inClaim.ultimate * claimsMergedByEvent.getCededShare(inClaim.event)
             }
             else {
                 return 0d
@@ -119,37 +120,25 @@ class GoldorakContractStrategy extends AbstractContractStrategy implements IRein
         double scaledAggregateCededClaimAmount = Math.min(Math.max(scaledAggregateGrossClaimAmount - scaledAttachmentPoint, 0), scaledSlLimit)
         factor = (scaledAggregateGrossClaimAmount != 0) ? scaledAggregateCededClaimAmount / scaledAggregateGrossClaimAmount : 1d
 
-        // merge claims by event id
-        claimsValueMergedByEvent.clear()
+        // merge claims by event
+        claimsMergedByEvent.clear()
 
         if (scaledAggregateGrossClaimAmount < scaledGoldorakSlThreshold) {
             //CXL case
-            for (Claim claim: inClaims) {
-                // todo (sku): work on clear definitions of ClaimType.EVENT and ClaimType.AGGREGATE_EVENT
-                if (claim.claimType == ClaimType.EVENT || claim.claimType == ClaimType.AGGREGATED_EVENT) {
-                    Double value = claimsValueMergedByEvent.get(claim.event)
-                    if (value != null) {
-                        claimsValueMergedByEvent.put(claim.event, value + claim.ultimate)
-                    }
-                    else {
-                        claimsValueMergedByEvent.put(claim.event, claim.ultimate)
-                    }
-                }
-            }
-
-            for (Map.Entry claim: claimsValueMergedByEvent.entrySet()) {
-                if ((claim.value > 0) && (gnpi > 0)) {
-                    double scaledCeded = Math.min(Math.max(claim.value - scaledAttachmentPoint, 0), scaledLimit)
+            int numberOfEvents = claimsMergedByEvent.accumulate(inClaims)
+            for (int i = 0; i < numberOfEvents; i++) {
+                double ultimate = claimsMergedByEvent.getUltimate(i)
+                if ((ultimate > 0) && (gnpi > 0)) {
+                    double scaledCeded = Math.min(Math.max(ultimate - scaledAttachmentPoint, 0), scaledLimit)
                     double scaledAvailableAggregateLimit = cxlAvailableAggregateLimit * gnpi
                     scaledCeded = Math.min(scaledAvailableAggregateLimit, scaledCeded)
                     double ceded = scaledCeded / gnpi
                     cxlAvailableAggregateLimit -= ceded
-                    cededShareByEvent.put(claim.key, scaledCeded / claim.value)
+                    claimsMergedByEvent.setCededShare(i, scaledCeded / ultimate)
                 }
                 else {
-                    cededShareByEvent.put(claim.key, 0d)
+                    claimsMergedByEvent.setCededShare(i, 0d)
                 }
-
             }
         }
 
@@ -181,15 +170,21 @@ class GoldorakContractStrategy extends AbstractContractStrategy implements IRein
         cededUnderwritingInfo.premium = totalCededPremium * grossPremiumSharesPerBand(grossUnderwritingInfo)
         double reinstatements = cxlAvailableAggregateLimit / cxlLimit - 1
         cededUnderwritingInfo.fixedPremium = cededUnderwritingInfo.premium
-        cededUnderwritingInfo.variablePremium = XLContractStrategy.calculateReinstatementPremiums(cxlAggregateLimit, cxlAvailableAggregateLimit,
-                cxlAggregateDeductible, cxlLimit, reinstatements, reinstatementPremiums) * cededUnderwritingInfo.premium
+        cededUnderwritingInfo.variablePremium = XLContractKernel.calculateReinstatementPremiums(cxlAggregateLimit, cxlAvailableAggregateLimit,
+                cxlLimit, reinstatements, getReinstatementPremiumRates()) * cededUnderwritingInfo.premium
         cededUnderwritingInfo.premium = cededUnderwritingInfo.fixedPremium + cededUnderwritingInfo.variablePremium
         return cededUnderwritingInfo
     }
 
+    private double[] getReinstatementPremiumRates() {
+        if (reinstatementPremiumRates == null || !parsedReinstatementPremiums.is(reinstatementPremiums)) {
+            reinstatementPremiumRates = XLContractKernel.parseReinstatementPremiums(reinstatementPremiums)
+            parsedReinstatementPremiums = reinstatementPremiums
+        }
+        reinstatementPremiumRates
+    }
 
     public void resetMemberInstances() {
-        claimsValueMergedByEvent.clear()
-        cededShareByEvent.clear()
+        claimsMergedByEvent.clear()
     }
 }
@@ -0,0 +1,209 @@
+package org.pillarone.riskanalytics.domain.pc.reinsurance.contracts;
+
+import org.pillarone.riskanalytics.core.simulation.engine.IterationScope;
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope;
+import org.pillarone.riskanalytics.domain.pc.claims.ClaimPacketFactory;
+import org.pillarone.riskanalytics.domain.pc.generators.severities.Event;
+import org.pillarone.riskanalytics.domain.pc.global.GlobalParameters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contracts of one inuring priority receiving the same merged claims and underwriting info. If the optional mode
+ * is enabled, the execution of a contract is deferred until all contracts of the group received their input. The
+ * calculations then run concurrently on a bounded pool and the results are published in the order the contracts
+ * were added, i.e. the order of the serial execution. The contracts of a group must not depend on each other, and
+ * the calculation of a contract must not modify its input packets. Pool threads start the iteration of the
+ * simulation thread for all per thread iteration state, see startIteration().
+ * <p/>
+ * The mode is a setting of the simulation, see the runtimeParallelContracts parameter of GlobalParameters. The
+ * groups of a simulation share one pool, it is shut down once all of them finished the last period of the last
+ * iteration. A group releases the pool as well if a calculation fails. As a cancelled simulation does not notify
+ * its components, pool threads are daemon threads terminating after IDLE_SECONDS without a calculation. Without the
+ * mode, or with a single contract, contracts are executed immediately.
+ */
+public class ParallelContractGroup {
+
+    /** pools shared by the groups of a simulation, by simulation scope, owners are weakly referenced */
+    private static final Map<Object, SharedPool> POOLS = new WeakHashMap<Object, SharedPool>();
+    static final long IDLE_SECONDS = 10;
+
+    private final List<ReinsuranceContract> contracts = new ArrayList<ReinsuranceContract>();
+    private final List<ReinsuranceContract> readyContracts = new ArrayList<ReinsuranceContract>();
+    /** resolved with the first execution of a simulation */
+    private SimulationScope simulationScope;
+    private ExecutorService pool;
+    private boolean resolved;
+
+    public void add(ReinsuranceContract contract) {
+        contracts.add(contract);
+        contract.setParallelContractGroup(this);
+    }
+
+    public List<ReinsuranceContract> getContracts() {
+        return contracts;
+    }
+
+    /**
+     * Called by a contract instead of its own execution once all its inputs are received.
+     */
+    void execute(ReinsuranceContract contract) {
+        if (!resolved) {
+            resolvePool(contract.getSimulationScope());
+        }
+        if (pool == null) {
+            contract.executeCalculated(false);
+            return;
+        }
+        readyContracts.add(contract);
+        if (readyContracts.size() < contracts.size()) {
+            return;
+        }
+        readyContracts.clear();
+        boolean completed = false;
+        try {
+            calculate(pool);
+            for (ReinsuranceContract readyContract : contracts) {
+                readyContract.executeCalculated(true);
+            }
+            completed = true;
+        }
+        finally {
+            if (!completed || isLastPeriodOfSimulation()) {
+                release(simulationScope);
+                pool = null;
+                resolved = false;
+            }
+        }
+    }
+
+    private void resolvePool(SimulationScope simulationScope) {
+        this.simulationScope = simulationScope;
+        resolved = true;
+        GlobalParameters globalParameters = GlobalParameters.find(simulationScope);
+        int parallelism = globalParameters == null ? 0 : globalParameters.getRuntimeParallelContracts();
+        if (parallelism > 1 && contracts.size() > 1) {
+            pool = acquire(simulationScope, parallelism);
+        }
+    }
+
+    private boolean isLastPeriodOfSimulation() {
+        IterationScope iterationScope = simulationScope.getIterationScope();
+        return iterationScope != null
+                && iterationScope.getCurrentIteration() == simulationScope.getNumberOfIterations() - 1
+                && iterationScope.getPeriodScope().getCurrentPeriod() == iterationScope.getNumberOfPeriods() - 1;
+    }
+
+    private void calculate(ExecutorService executingPool) {
+        List<Callable<Object>> calculations = new ArrayList<Callable<Object>>(contracts.size());
+        // the pool threads use the claim arena setting of the simulation thread
+        final boolean claimArena = ClaimPacketFactory.isArenaEnabled();
+        final boolean poisonRecycledClaims = ClaimPacketFactory.isPoisonRecycledClaims();
+        for (final ReinsuranceContract contract : contracts) {
+            final int iteration = contract.getCurrentIteration();
+            calculations.add(new Callable<Object>() {
+                public Object call() {
+                    if (iteration >= 0) {
+                        startIteration(iteration, claimArena, poisonRecycledClaims);
+                    }
+                    contract.doCalculation();
+                    return null;
+                }
+            });
+        }
+        for (Future<Object> calculation : executingPool.invokeAll(calculations)) {
+            try {
+                calculation.get();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("ParallelContractGroup.interrupted", ex);
+            }
+            catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * Starts the iteration of all state kept per thread, i.e. the claim and event ordinals and the claim arena.
+     */
+    static void startIteration(int iteration, boolean claimArena, boolean poisonRecycledClaims) {
+        ClaimPacketFactory.setIteration(iteration, claimArena, poisonRecycledClaims);
+        Event.setIteration(iteration);
+    }
+
+    /**
+     * @param owner the simulation scope of the groups sharing the pool
+     * @param parallelism maximal number of contracts calculated at the same time
+     */
+    static ExecutorService acquire(Object owner, int parallelism) {
+        synchronized (POOLS) {
+            SharedPool sharedPool = POOLS.get(owner);
+            if (sharedPool == null) {
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(parallelism, parallelism, IDLE_SECONDS, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory());
+                pool.allowCoreThreadTimeOut(true);
+                sharedPool = new SharedPool(pool);
+                POOLS.put(owner, sharedPool);
+            }
+            sharedPool.users++;
+            return sharedPool.pool;
+        }
+    }
+
+    /**
+     * Shuts the pool of the owner down once its last group released it.
+     */
+    static void release(Object owner) {
+        synchronized (POOLS) {
+            SharedPool sharedPool = POOLS.get(owner);
+            if (sharedPool != null && --sharedPool.users == 0) {
+                POOLS.remove(owner);
+                sharedPool.pool.shutdown();
+            }
+        }
+    }
+
+    static boolean hasPool(Object owner) {
+        synchronized (POOLS) {
+            return POOLS.containsKey(owner);
+        }
+    }
+
+    private static class SharedPool {
+
+        private final ExecutorService pool;
+        private int users;
+
+        SharedPool(ExecutorService pool) {
+            this.pool = pool;
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ParallelContractGroup-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -6,6 +6,8 @@ import org.pillarone.riskanalytics.core.packets.PacketList;
 import org.pillarone.riskanalytics.core.packets.SingleValuePacket;
 import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope;
 import org.pillarone.riskanalytics.domain.pc.claims.Claim;
+import org.pillarone.riskanalytics.domain.pc.claims.ClaimBatch;
+import org.pillarone.riskanalytics.domain.pc.claims.ClaimPacketFactory;
 import org.pillarone.riskanalytics.domain.pc.claims.ClaimUtilities;
 import org.pillarone.riskanalytics.domain.pc.claims.SortClaimsByFractionOfPeriod;
 import org.pillarone.riskanalytics.domain.pc.reinsurance.ReinsuranceResultWithCommissionPacket;
@@ -17,7 +19,9 @@ import org.pillarone.riskanalytics.domain.pc.underwriting.CededUnderwritingInfo;
 import org.pillarone.riskanalytics.domain.pc.underwriting.CededUnderwritingInfoUtilities;
 import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo;
 import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfoUtilities;
+import org.pillarone.riskanalytics.domain.pc.constants.ClaimType;
 import org.pillarone.riskanalytics.domain.utils.marker.IReinsuranceContractMarker;
+import org.pillarone.riskanalytics.domain.utils.marker.ISegmentMarker;
 
 import java.util.*;
 
@@ -36,6 +40,16 @@ public class ReinsuranceContract extends Component implements IReinsuranceContra
     protected PacketList<Claim> outUncoveredClaims = new PacketList<Claim>(Claim.class);
     protected PacketList<Claim> outCoveredClaims = new PacketList<Claim>(Claim.class);
 
+    /**
+     * Claim batches are covered without creating Claim objects if inClaims is empty, the contract strategy
+     * allocates claim by claim (see isClaimBatchStrategy()) and no batch has exposure info. Otherwise their claims
+     * are added to inClaims. Covered and uncovered claims are only created if the corresponding channel is wired.
+     * Subclasses overriding doCalculation() do not process batches.
+     */
+    protected PacketList<ClaimBatch> inClaimBatches = new PacketList<ClaimBatch>(ClaimBatch.class);
+    protected PacketList<ClaimBatch> outUncoveredClaimBatches = new PacketList<ClaimBatch>(ClaimBatch.class);
+    protected PacketList<ClaimBatch> outCoveredClaimBatches = new PacketList<ClaimBatch>(ClaimBatch.class);
+
     // todo(sku): remove the following and related lines as soon as PMO-648 is resolved
     private PacketList<ClaimDevelopmentLeanPacket> outClaimsDevelopmentLeanNet = new PacketList<ClaimDevelopmentLeanPacket>(ClaimDevelopmentLeanPacket.class);
     private PacketList<ClaimDevelopmentLeanPacket> outClaimsDevelopmentLeanGross = new PacketList<ClaimDevelopmentLeanPacket>(ClaimDevelopmentLeanPacket.class);
@@ -63,48 +77,344 @@ public class ReinsuranceContract extends Component implements IReinsuranceContra
 
     private double coveredByReinsurer;
 
+    /** contracts of the same inuring priority, set by DynamicReinsuranceProgram */
+    private ParallelContractGroup parallelContractGroup;
+
+    /**
+     * Lets the parallel contract group decide when the contract is calculated.
+     */
+    @Override
+    public void execute() {
+        if (parallelContractGroup == null) {
+            super.execute();
+        }
+        else {
+            parallelContractGroup.execute(this);
+        }
+    }
+
+    /**
+     * @param calculated true if doCalculation() has already been called by the parallel contract group, only the
+     *                   results are published in this case
+     */
+    void executeCalculated(boolean calculated) {
+        if (!calculated) {
+            super.execute();
+            return;
+        }
+        publishResults();
+        reset();
+    }
+
+    /**
+     * @return -1 without simulation scope
+     */
+    int getCurrentIteration() {
+        return simulationScope == null ? -1 : simulationScope.getIterationScope().getCurrentIteration();
+    }
+
+    void setParallelContractGroup(ParallelContractGroup parallelContractGroup) {
+        this.parallelContractGroup = parallelContractGroup;
+    }
+
     public void doCalculation() {
         if (parmContractStrategy == null)
             throw new IllegalStateException("ReinsuranceContract.missingContractStrategy");
 
+        boolean coverClaimBatches = isClaimBatchCoverable();
+        if (!coverClaimBatches) {
+            for (ClaimBatch claimBatch : inClaimBatches) {
+                inClaims.addAll(claimBatch.toClaims());
+            }
+        }
         parmContractStrategy.initBookkeepingFigures(inClaims, inUnderwritingInfo);
 
         initCoveredByReinsurer();
-        Collections.sort(inClaims, SortClaimsByFractionOfPeriod.getInstance());
-        if (isSenderWired(outUncoveredClaims)) {
-            calculateClaims(inClaims, outCoveredClaims, outUncoveredClaims, this);
+        List<Claim> cededClaims = outCoveredClaims;
+        if (coverClaimBatches) {
+            cededClaims = calculateClaimBatches();
         }
         else {
-            calculateCededClaims(inClaims, outCoveredClaims, this);
+            Collections.sort(inClaims, SortClaimsByFractionOfPeriod.getInstance());
+            if (isSenderWired(outUncoveredClaims)) {
+                calculateClaims(inClaims, outCoveredClaims, outUncoveredClaims, this);
+            }
+            else {
+                calculateCededClaims(inClaims, outCoveredClaims, this);
+            }
+            fillClaimBatchChannels();
         }
 
         if (isSenderWired(outCoverUnderwritingInfo) || isSenderWired(outNetAfterCoverUnderwritingInfo)) {
-            calculateCededUnderwritingInfos(inUnderwritingInfo, outCoverUnderwritingInfo, outCoveredClaims);
+            calculateCededUnderwritingInfos(inUnderwritingInfo, outCoverUnderwritingInfo, cededClaims);
         }
         boolean isFirstPeriod = simulationScope.getIterationScope().getPeriodScope().isFirstPeriod();
-        parmCommissionStrategy.calculateCommission(outCoveredClaims, outCoverUnderwritingInfo, isFirstPeriod, false);
+        parmCommissionStrategy.calculateCommission(cededClaims, outCoverUnderwritingInfo, isFirstPeriod, false);
         if (isSenderWired(outNetAfterCoverUnderwritingInfo)) {
-            calculateNetUnderwritingInfos(inUnderwritingInfo, outCoverUnderwritingInfo, outNetAfterCoverUnderwritingInfo, outCoveredClaims);
+            calculateNetUnderwritingInfos(inUnderwritingInfo, outCoverUnderwritingInfo, outNetAfterCoverUnderwritingInfo, cededClaims);
         }
         fillDevelopedClaimsChannels();
+        fillContractFinancials(cededClaims, outCoverUnderwritingInfo);
+        parmContractStrategy.resetMemberInstances();
+
+        for (UnderwritingInfo outCoverUnderwritingInfoPacket : outCoverUnderwritingInfo) {
+            outCoverUnderwritingInfoPacket.setReinsuranceContract(this);
+        }
+    }
+
+    private void fillContractFinancials(List<Claim> cededClaims, List<CededUnderwritingInfo> cededUnderwritingInfos) {
         if (isSenderWired(getOutContractFinancials())) {
             ReinsuranceResultWithCommissionPacket result = new ReinsuranceResultWithCommissionPacket();
-            CededUnderwritingInfo underwritingInfo = CededUnderwritingInfoUtilities.aggregate(outCoverUnderwritingInfo);
+            CededUnderwritingInfo underwritingInfo = CededUnderwritingInfoUtilities.aggregate(cededUnderwritingInfos);
             if (underwritingInfo != null) {
                 result.setCededPremium(-underwritingInfo.getPremium());
                 result.setCededCommission(-underwritingInfo.getCommission());
             }
-            result.setCededClaim(ClaimUtilities.aggregateClaims(outCoveredClaims, this).getUltimate());
+            result.setCededClaim(ClaimUtilities.aggregateClaims(cededClaims, this).getUltimate());
             if (result.getCededPremium() != 0) {
                 result.setCededLossRatio(result.getCededClaim() / -result.getCededPremium());
             }
             outContractFinancials.add(result);
         }
+    }
+
+    /**
+     * @return true if the claim batches can be covered without creating Claim objects
+     */
+    protected boolean isClaimBatchCoverable() {
+        if (inClaimBatches.isEmpty() || !inClaims.isEmpty() || !isClaimBatchStrategy()) {
+            return false;
+        }
+        for (ClaimBatch claimBatch : inClaimBatches) {
+            // net and proportionally ceded claims have individually scaled exposure info
+            if (claimBatch.hasExposureInfo()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the strategy does not evaluate inClaims in initBookkeepingFigures() and the ceded claim
+     *         depends on the claim and the claims with earlier fraction of period only
+     */
+    protected boolean isClaimBatchStrategy() {
+        return parmContractStrategy instanceof WXLContractStrategy
+                || parmContractStrategy instanceof QuotaShareContractStrategy
+                || parmContractStrategy instanceof SurplusContractStrategy
+                || parmContractStrategy instanceof TrivialContractStrategy;
+    }
+
+    /**
+     * Claims of all batches are passed in order of their fraction of period to the contract strategy using a
+     * single Claim object.
+     *
+     * @return covered claims if outCoveredClaims is wired, otherwise one aggregated covered claim per batch
+     */
+    protected List<Claim> calculateClaimBatches() {
+        List<ClaimBatch> cededBatches = new ArrayList<ClaimBatch>(inClaimBatches.size());
+        List<ClaimBatch> netBatches = new ArrayList<ClaimBatch>(inClaimBatches.size());
+        boolean calculateNet = isSenderWired(outUncoveredClaimBatches) || isSenderWired(outUncoveredClaims);
+        for (ClaimBatch claimBatch : inClaimBatches) {
+            cededBatches.add(claimBatch.derive(this));
+            if (calculateNet) {
+                netBatches.add(claimBatch.derive(this));
+            }
+        }
+        long[] positions = ClaimBatch.sortByFractionOfPeriod(inClaimBatches);
+        Claim claim = ClaimPacketFactory.createPacket();
+        for (long position : positions) {
+            int batch = ClaimBatch.getBatchIndex(position);
+            int index = ClaimBatch.getClaimIndex(position);
+            ClaimBatch grossBatch = inClaimBatches.get(batch);
+            grossBatch.copyTo(index, claim);
+            double cededUltimate = parmContractStrategy.allocateCededClaim(claim) * coveredByReinsurer;
+            cededBatches.get(batch).setUltimate(index, cededUltimate);
+            if (calculateNet) {
+                netBatches.get(batch).setUltimate(index, grossBatch.getUltimate(index) - cededUltimate);
+            }
+        }
+        outCoveredClaimBatches.addAll(cededBatches);
+        outUncoveredClaimBatches.addAll(netBatches);
+        if (isSenderWired(outUncoveredClaims)) {
+            for (long position : positions) {
+                outUncoveredClaims.add(netBatches.get(ClaimBatch.getBatchIndex(position)).getClaim(ClaimBatch.getClaimIndex(position)));
+            }
+        }
+        if (isSenderWired(outCoveredClaims)) {
+            for (long position : positions) {
+                outCoveredClaims.add(cededBatches.get(ClaimBatch.getBatchIndex(position)).getClaim(ClaimBatch.getClaimIndex(position)));
+            }
+            return outCoveredClaims;
+        }
+        List<Claim> aggregatedCededClaims = new ArrayList<Claim>(cededBatches.size());
+        for (ClaimBatch cededBatch : cededBatches) {
+            aggregatedCededClaims.add(cededBatch.aggregate());
+        }
+        return aggregatedCededClaims;
+    }
+
+    /**
+     * Fills the batch channels if the claims of the batches have been covered as Claim objects.
+     */
+    protected void fillClaimBatchChannels() {
+        if (inClaimBatches.isEmpty()) {
+            return;
+        }
+        Map<Claim, Integer> positions = new IdentityHashMap<Claim, Integer>(inClaims.size());
+        for (int i = 0; i < inClaims.size(); i++) {
+            positions.put(inClaims.get(i), i);
+        }
+        for (ClaimBatch claimBatch : inClaimBatches) {
+            ClaimBatch cededBatch = claimBatch.derive(this);
+            ClaimBatch netBatch = claimBatch.derive(this);
+            for (int i = 0; i < claimBatch.size(); i++) {
+                double cededUltimate = outCoveredClaims.get(positions.get(claimBatch.getClaim(i))).getUltimate();
+                cededBatch.setUltimate(i, cededUltimate);
+                netBatch.setUltimate(i, claimBatch.getUltimate(i) - cededUltimate);
+            }
+            outCoveredClaimBatches.add(cededBatch);
+            outUncoveredClaimBatches.add(netBatch);
+        }
+    }
+
+    /**
+     * Covers the claims of a ContractCascade instead of inClaims: claim i has the properties of grossClaims.get(i)
+     * and the ultimate ultimates[i]. Strategies allocating claim by claim receive a single reused Claim object,
+     * all others receive net claims as built by the claims mergers. The premium allocation and commission are based
+     * on the ceded claims aggregated by line of business, ceded and net underwriting info are calculated as in
+     * doCalculation() if underwritingInfos is not empty.
+     *
+     * @param order indices of the claims stable sorted by fraction of period
+     * @return ceded ultimate of every claim
+     */
+    double[] calculateCascade(List<Claim> grossClaims, int[] order, double[] ultimates,
+                              List<UnderwritingInfo> underwritingInfos,
+                              List<CededUnderwritingInfo> cededUnderwritingInfos,
+                              List<UnderwritingInfo> netUnderwritingInfos) {
+        if (parmContractStrategy == null)
+            throw new IllegalStateException("ReinsuranceContract.missingContractStrategy");
+
+        double[] cededUltimates = new double[grossClaims.size()];
+        if (isClaimBatchStrategy() && !(parmContractStrategy instanceof SurplusContractStrategy)) {
+            parmContractStrategy.initBookkeepingFigures(Collections.<Claim>emptyList(), underwritingInfos);
+            initCoveredByReinsurer();
+            Claim claim = ClaimPacketFactory.createPacket();
+            for (int index : order) {
+                claim.set(grossClaims.get(index));
+                claim.setUltimate(ultimates[index]);
+                cededUltimates[index] = parmContractStrategy.allocateCededClaim(claim) * coveredByReinsurer;
+            }
+        }
+        else {
+            List<Claim> claims = new ArrayList<Claim>(grossClaims.size());
+            for (int i = 0; i < grossClaims.size(); i++) {
+                claims.add(getCascadeClaim(grossClaims.get(i), ultimates[i]));
+            }
+            parmContractStrategy.initBookkeepingFigures(claims, underwritingInfos);
+            initCoveredByReinsurer();
+            for (int index : order) {
+                cededUltimates[index] = getCoveredClaim(claims.get(index), this).getUltimate() * coveredByReinsurer;
+            }
+        }
+
+        List<Claim> cededClaims = aggregateByLineOfBusiness(grossClaims, cededUltimates);
+        if (!underwritingInfos.isEmpty()) {
+            calculateCededUnderwritingInfos(underwritingInfos, cededUnderwritingInfos, cededClaims);
+        }
+        boolean isFirstPeriod = simulationScope.getIterationScope().getPeriodScope().isFirstPeriod();
+        parmCommissionStrategy.calculateCommission(cededClaims, cededUnderwritingInfos, isFirstPeriod, false);
+        if (!underwritingInfos.isEmpty()) {
+            calculateNetUnderwritingInfos(underwritingInfos, cededUnderwritingInfos, netUnderwritingInfos, cededClaims);
+        }
         parmContractStrategy.resetMemberInstances();
+        for (CededUnderwritingInfo cededUnderwritingInfo : cededUnderwritingInfos) {
+            cededUnderwritingInfo.setReinsuranceContract(this);
+        }
+        return cededUltimates;
+    }
 
-        for (UnderwritingInfo outCoverUnderwritingInfoPacket : outCoverUnderwritingInfo) {
-            outCoverUnderwritingInfoPacket.setReinsuranceContract(this);
+    /**
+     * Fills the channels of a contract evaluated by a ContractCascade with the packets doCalculation() would send
+     * for the claims covered in calculateCascade() and publishes them. Used if channels of the contract are
+     * collected, as collectors are wired after the program has decided for the cascade.
+     *
+     * @param cededUltimates result of calculateCascade()
+     * @param cededUnderwritingInfos ceded underwriting info of calculateCascade()
+     * @param netUnderwritingInfos net underwriting info of calculateCascade()
+     */
+    void publishCascade(List<Claim> grossClaims, int[] order, double[] ultimates, double[] cededUltimates,
+                        List<CededUnderwritingInfo> cededUnderwritingInfos,
+                        List<UnderwritingInfo> netUnderwritingInfos) {
+        boolean fillCovered = isSenderWired(outCoveredClaims) || isSenderWired(getOutContractFinancials());
+        boolean fillUncovered = isSenderWired(outUncoveredClaims);
+        List<Claim> cededClaims = new ArrayList<Claim>(fillCovered ? grossClaims.size() : 0);
+        if (fillCovered || fillUncovered) {
+            for (int index : order) {
+                Claim claim = getCascadeClaim(grossClaims.get(index), ultimates[index]);
+                Claim cededClaim = claim.copy();
+                cededClaim.scale(claim.getUltimate() == 0 ? 1d : cededUltimates[index] / claim.getUltimate());
+                cededClaim.setUltimate(cededUltimates[index]);
+                adjustAttachedExposureInfo(claim, cededClaim);
+                setClaimReferences(cededClaim, claim, this);
+                if (fillCovered) {
+                    cededClaims.add(cededClaim);
+                }
+                if (fillUncovered) {
+                    Claim netClaim = claim.getNetClaim(cededClaim);
+                    adjustAttachedExposureInfo(claim, netClaim);
+                    setClaimReferences(netClaim, claim, this);
+                    outUncoveredClaims.add(netClaim);
+                }
+            }
+        }
+        if (isSenderWired(outCoveredClaims)) {
+            outCoveredClaims.addAll(cededClaims);
+        }
+        if (isSenderWired(outCoverUnderwritingInfo)) {
+            outCoverUnderwritingInfo.addAll(cededUnderwritingInfos);
+        }
+        if (isSenderWired(outNetAfterCoverUnderwritingInfo)) {
+            outNetAfterCoverUnderwritingInfo.addAll(netUnderwritingInfos);
+        }
+        fillContractFinancials(cededClaims, cededUnderwritingInfos);
+        executeCalculated(true);
+    }
+
+    /**
+     * @return grossClaim if its ultimate is not reduced, otherwise a net claim as built by the claims mergers
+     */
+    private static Claim getCascadeClaim(Claim grossClaim, double ultimate) {
+        if (ultimate == grossClaim.getUltimate()) {
+            return grossClaim;
         }
+        Claim netClaim = grossClaim.copy();
+        netClaim.setUltimate(ultimate);
+        if (grossClaim.hasExposureInfo()) {
+            netClaim.setExposure(grossClaim.getExposure().copy().scale(ultimate / grossClaim.getUltimate()));
+        }
+        return netClaim;
+    }
+
+    /**
+     * @return one claim of type AGGREGATED per line of business of the gross claims
+     */
+    private List<Claim> aggregateByLineOfBusiness(List<Claim> grossClaims, double[] cededUltimates) {
+        Map<ISegmentMarker, Claim> cededClaims = new LinkedHashMap<ISegmentMarker, Claim>();
+        for (int i = 0; i < grossClaims.size(); i++) {
+            ISegmentMarker lineOfBusiness = grossClaims.get(i).getLineOfBusiness();
+            Claim cededClaim = cededClaims.get(lineOfBusiness);
+            if (cededClaim == null) {
+                cededClaim = ClaimPacketFactory.createPacket();
+                cededClaim.origin = this;
+                cededClaim.setClaimType(ClaimType.AGGREGATED);
+                cededClaim.addMarker(ISegmentMarker.class, lineOfBusiness);
+                cededClaim.addMarker(IReinsuranceContractMarker.class, this);
+                cededClaims.put(lineOfBusiness, cededClaim);
+            }
+            cededClaim.setUltimate(cededClaim.getUltimate() + cededUltimates[i]);
+        }
+        return new ArrayList<Claim>(cededClaims.values());
     }
 
     protected void initCoveredByReinsurer() {
@@ -333,6 +643,30 @@ public class ReinsuranceContract extends Component implements IReinsuranceContra
         this.outCoveredClaims = outCoveredClaims;
     }
 
+    public PacketList<ClaimBatch> getInClaimBatches() {
+        return inClaimBatches;
+    }
+
+    public void setInClaimBatches(PacketList<ClaimBatch> inClaimBatches) {
+        this.inClaimBatches = inClaimBatches;
+    }
+
+    public PacketList<ClaimBatch> getOutUncoveredClaimBatches() {
+        return outUncoveredClaimBatches;
+    }
+
+    public void setOutUncoveredClaimBatches(PacketList<ClaimBatch> outUncoveredClaimBatches) {
+        this.outUncoveredClaimBatches = outUncoveredClaimBatches;
+    }
+
+    public PacketList<ClaimBatch> getOutCoveredClaimBatches() {
+        return outCoveredClaimBatches;
+    }
+
+    public void setOutCoveredClaimBatches(PacketList<ClaimBatch> outCoveredClaimBatches) {
+        this.outCoveredClaimBatches = outCoveredClaimBatches;
+    }
+
     public PacketList<UnderwritingInfo> getOutNetAfterCoverUnderwritingInfo() {
         return outNetAfterCoverUnderwritingInfo;
     }
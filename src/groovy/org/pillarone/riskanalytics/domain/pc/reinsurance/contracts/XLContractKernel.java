@@ -0,0 +1,147 @@
+package org.pillarone.riskanalytics.domain.pc.reinsurance.contracts;
+
+import org.pillarone.riskanalytics.core.parameterization.AbstractMultiDimensionalParameter;
+import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo;
+
+import java.util.List;
+
+/**
+ * Arithmetic of the XL contract strategies: a layer with attachment point and limit, an annual aggregate
+ * deductible (AAD) and an annual aggregate limit (AAL) consumed claim by claim within a period, and the
+ * reinstatement premium factor at the end of a period. Reinstatement premium rates are read from the table
+ * parameter once by {@link #parseReinstatementPremiums(AbstractMultiDimensionalParameter)}.
+ */
+public class XLContractKernel {
+
+    private double attachmentPoint;
+    private double limit;
+    private double aggregateDeductible;
+    private double aggregateLimit;
+    private double[] reinstatementPremiumRates = new double[0];
+
+    private double availableAggregateLimit;
+    /** before AAD & AAL */
+    private double remainingAggregateDeductible;
+
+    /**
+     * Sets the layer and restores the aggregate deductible and limit, has to be called at the start of a period.
+     */
+    public void initPeriod(double attachmentPoint, double limit, double aggregateDeductible, double aggregateLimit,
+                           double[] reinstatementPremiumRates) {
+        this.attachmentPoint = attachmentPoint;
+        this.limit = limit;
+        this.aggregateDeductible = aggregateDeductible;
+        this.aggregateLimit = aggregateLimit;
+        this.reinstatementPremiumRates = reinstatementPremiumRates;
+        availableAggregateLimit = aggregateLimit;
+        remainingAggregateDeductible = aggregateDeductible;
+    }
+
+    /**
+     * @return ceded part of ultimate after the AAD and AAL, both are reduced accordingly
+     */
+    public double cede(double ultimate) {
+        if (availableAggregateLimit > 0) {
+            double ceded = Math.min(Math.max(ultimate - attachmentPoint, 0), limit);
+            double cededAfterAAD = Math.max(0, ceded - remainingAggregateDeductible);
+            remainingAggregateDeductible = Math.max(0, remainingAggregateDeductible - ceded);
+            double cededAfterAAL = availableAggregateLimit > cededAfterAAD ? cededAfterAAD : availableAggregateLimit;
+            availableAggregateLimit -= cededAfterAAL;
+            return cededAfterAAL;
+        }
+        else {
+            return 0d;
+        }
+    }
+
+    public double getAvailableAggregateLimit() {
+        return availableAggregateLimit;
+    }
+
+    public double getRemainingAggregateDeductible() {
+        return remainingAggregateDeductible;
+    }
+
+    /**
+     * @return number of reinstatements included in the AAL
+     */
+    public double getReinstatements() {
+        return limit == 0d ? 0d : aggregateLimit / limit - 1;
+    }
+
+    /**
+     * @return reinstatement premium as a fraction of the premium for the AAL used so far
+     */
+    public double getReinstatementPremiumFactor() {
+        return calculateReinstatementPremiums(aggregateLimit, availableAggregateLimit, limit, getReinstatements(),
+                reinstatementPremiumRates);
+    }
+
+    public static double calculateUsedReinstatements(double aggregateLimit, double availableAggregateLimit,
+                                                     double limit, double reinstatements) {
+        double usedReinstatements = limit == 0d ? 0d : (aggregateLimit - availableAggregateLimit) / limit;
+        return Math.min(usedReinstatements, reinstatements);
+    }
+
+    /**
+     * Every full reinstatement is charged with its rate, a partially used reinstatement proportionally.
+     *
+     * @param reinstatementPremiumRates rate per reinstatement, the last rate applies to all further reinstatements
+     */
+    public static double calculateReinstatementPremiums(double aggregateLimit, double availableAggregateLimit,
+                                                        double limit, double reinstatements,
+                                                        double[] reinstatementPremiumRates) {
+        double usedReinstatements = calculateUsedReinstatements(aggregateLimit, availableAggregateLimit, limit, reinstatements);
+        double reinstatementPremium = 0d;
+        for (int i = 1; i <= usedReinstatements; i++) {
+            reinstatementPremium += getReinstatementPremiumRate(i, reinstatementPremiumRates);
+        }
+        double partialReinstatement = usedReinstatements - Math.floor(usedReinstatements);
+        reinstatementPremium += partialReinstatement * getReinstatementPremiumRate(
+                (int) Math.ceil(usedReinstatements), reinstatementPremiumRates);
+        return reinstatementPremium;
+    }
+
+    static double getReinstatementPremiumRate(int reinstatement, double[] reinstatementPremiumRates) {
+        if (reinstatementPremiumRates.length == 0) {
+            return 0d;
+        }
+        return reinstatementPremiumRates[Math.min(reinstatement, reinstatementPremiumRates.length - 1)];
+    }
+
+    /**
+     * @return values of the first column, of nested lists the first element
+     */
+    public static double[] parseReinstatementPremiums(AbstractMultiDimensionalParameter reinstatementPremiums) {
+        int rows = reinstatementPremiums.getValueRowCount();
+        double[] rates = new double[rows];
+        if (rows == 0) {
+            return rates;
+        }
+        List column = (List) reinstatementPremiums.getValues().get(0);
+        for (int row = 0; row < rows; row++) {
+            Object value = column.get(row);
+            if (value instanceof List) {
+                value = ((List) value).get(0);
+            }
+            rates[row] = ((Number) value).doubleValue();
+        }
+        return rates;
+    }
+
+    public static double sumPremium(List<UnderwritingInfo> underwritingInfos) {
+        double premium = 0d;
+        for (UnderwritingInfo underwritingInfo : underwritingInfos) {
+            premium += underwritingInfo.getPremium();
+        }
+        return premium;
+    }
+
+    public static double sumNumberOfPolicies(List<UnderwritingInfo> underwritingInfos) {
+        double numberOfPolicies = 0d;
+        for (UnderwritingInfo underwritingInfo : underwritingInfos) {
+            numberOfPolicies += underwritingInfo.getNumberOfPolicies();
+        }
+        return numberOfPolicies;
+    }
+}
@@ -31,10 +31,10 @@ abstract class XLContractStrategy extends AbstractContractStrategy implements IR
     double aggregateLimit
 
     private double totalCededPremium
-    private double availableAggregateLimit
-    /** before AAD & AAL */
-    private double remainingAggregateDeductible
-    private double reinstatements
+    private XLContractKernel kernel = new XLContractKernel()
+    /** reinstatementPremiums the rates were parsed from */
+    private AbstractMultiDimensionalParameter parsedReinstatementPremiums
+    private double[] reinstatementPremiumRates
 
     public Map getParameters() {
         return ["premiumBase": premiumBase,
@@ -53,65 +53,35 @@ abstract class XLContractStrategy extends AbstractContractStrategy implements IR
     abstract double allocateCededClaim(Claim inClaim)
 
     protected double calculateCededClaim(double ultimate) {
-        if (availableAggregateLimit > 0) {
-            double ceded = Math.min(Math.max(ultimate - attachmentPoint, 0), limit)
-            double cededAfterAAD = Math.max(0, ceded - remainingAggregateDeductible)
-            remainingAggregateDeductible = Math.max(0, remainingAggregateDeductible - ceded)
-            double cededAfterAAL = availableAggregateLimit > cededAfterAAD ? cededAfterAAD : availableAggregateLimit
-            availableAggregateLimit -= cededAfterAAL
-            return cededAfterAAL
-        }
-        else {
-            return 0d
-        }
-    }
-
-    static double calculateUsedReinstatements(double aggregateLimit, double availableAggregateLimit,
-                                              double aggregateDeductible, double limit, double reinstatements) {
-        double usedReinstatements = limit == 0d ? 0d : (Double) (aggregateLimit - availableAggregateLimit) / limit
-        return Math.min(usedReinstatements, reinstatements)
-    }
-
-    static double calculateReinstatementPremiums(double aggregateLimit, double availableAggregateLimit,
-                                                 double aggregateDeductible, double limit, double reinstatements,
-                                                 AbstractMultiDimensionalParameter reinstatementPremiums) {
-        double usedReinstatements = calculateUsedReinstatements(aggregateLimit, availableAggregateLimit,
-                aggregateDeductible, limit, reinstatements)
-        double reinstatementPremium = 0d
-        for (int i = 1; i <= usedReinstatements; i++) {
-            reinstatementPremium += getReinstatementPremiumFactor(i, reinstatementPremiums)
-        }
-        double partialReinstatement = usedReinstatements - Math.floor(usedReinstatements)
-        reinstatementPremium += partialReinstatement * getReinstatementPremiumFactor(
-                Math.ceil(usedReinstatements).toInteger(), reinstatementPremiums)
-        reinstatementPremium
+        kernel.cede(ultimate)
     }
 
-    static double getReinstatementPremiumFactor(int reinstatement, AbstractMultiDimensionalParameter reinstatementPremiums) {
-        def val=reinstatementPremiums.values[0][Math.min(reinstatement, reinstatementPremiums.valueRowCount - 1)]
-        if (List.class.isAssignableFrom(val.class)){
-            return val[0]
+    /**
+     * @return rates of reinstatementPremiums, parsed again only if the parameter object was replaced
+     */
+    protected double[] getReinstatementPremiumRates() {
+        if (reinstatementPremiumRates == null || !parsedReinstatementPremiums.is(reinstatementPremiums)) {
+            reinstatementPremiumRates = XLContractKernel.parseReinstatementPremiums(reinstatementPremiums)
+            parsedReinstatementPremiums = reinstatementPremiums
         }
-        return val;
+        reinstatementPremiumRates
     }
 
     void initBookkeepingFigures(List<Claim> inClaims, List<UnderwritingInfo> coverUnderwritingInfo) {
-        availableAggregateLimit = aggregateLimit
-        remainingAggregateDeductible = aggregateDeductible
-        reinstatements = limit == 0d ? 0d : availableAggregateLimit / limit - 1
+        kernel.initPeriod(attachmentPoint, limit, aggregateDeductible, aggregateLimit, getReinstatementPremiumRates())
 
         switch (premiumBase) {
             case PremiumBase.ABSOLUTE:
                 totalCededPremium = premium
                 break
             case PremiumBase.GNPI:
-                totalCededPremium = coverUnderwritingInfo.isEmpty() ? 0 : premium * coverUnderwritingInfo.premium.sum()
+                totalCededPremium = coverUnderwritingInfo.isEmpty() ? 0 : premium * XLContractKernel.sumPremium(coverUnderwritingInfo)
                 break
             case PremiumBase.RATE_ON_LINE:
                 totalCededPremium = premium * limit
                 break
             case PremiumBase.NUMBER_OF_POLICIES:
-                totalCededPremium = coverUnderwritingInfo.isEmpty() ? 0 : premium * coverUnderwritingInfo.numberOfPolicies.sum()
+                totalCededPremium = coverUnderwritingInfo.isEmpty() ? 0 : premium * XLContractKernel.sumNumberOfPolicies(coverUnderwritingInfo)
                 break
             default:
                 throw new InvalidParameterException("PremiumBase $premiumBase not implemented")
@@ -134,8 +104,7 @@ abstract class XLContractStrategy extends AbstractContractStrategy implements IR
         cededUnderwritingInfo.maxSumInsured = 0d
         cededUnderwritingInfo.premium = totalCededPremium * premiumAllocation.getShare(grossUnderwritingInfo)
         cededUnderwritingInfo.fixedPremium = cededUnderwritingInfo.premium
-        cededUnderwritingInfo.variablePremium = cededUnderwritingInfo.premium * calculateReinstatementPremiums(aggregateLimit,
-                availableAggregateLimit, aggregateDeductible, limit, reinstatements, reinstatementPremiums)
+        cededUnderwritingInfo.variablePremium = cededUnderwritingInfo.premium * kernel.reinstatementPremiumFactor
         cededUnderwritingInfo.premium = cededUnderwritingInfo.fixedPremium + cededUnderwritingInfo.variablePremium
         return cededUnderwritingInfo
     }
@@ -0,0 +1,133 @@
+package org.pillarone.riskanalytics.domain.pc.reinsurance.programs;
+
+import org.pillarone.riskanalytics.core.components.Component;
+import org.pillarone.riskanalytics.core.packets.PacketList;
+import org.pillarone.riskanalytics.core.simulation.engine.IterationScope;
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope;
+import org.pillarone.riskanalytics.domain.pc.claims.Claim;
+import org.pillarone.riskanalytics.domain.pc.claims.ClaimPacketFactory;
+import org.pillarone.riskanalytics.domain.pc.constants.ClaimType;
+import org.pillarone.riskanalytics.domain.pc.generators.claims.TypableClaimsGenerator;
+import org.pillarone.riskanalytics.domain.pc.global.GlobalParameters;
+import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ReinsuranceContract;
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.ControlVariateEstimator;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Control variate estimate of the ceded claims of a reinsurance program, wired by the program if the
+ * controlVariate global parameter is set. The control is the total of the gross attritional claims of the
+ * generators knowing its analytic mean, see TypableClaimsGenerator.getAttritionalClaimsMean(). In every period
+ * outClaimsCeded contains one claim with the ultimate ceded - beta * (control - analytic mean of the control).
+ * <p/>
+ * Beta is estimated per period by a ControlVariateEstimator from the preceding iterations, with antithetic
+ * variates from the preceding pairs of iterations. It is therefore independent of the control deviation of the
+ * current iteration, and the mean of the sent claims over all iterations is an unbiased estimate of the mean
+ * ceded claims. Its variance is the smaller the stronger ceded and attritional claims are correlated, e.g. for
+ * stop loss contracts. The first iterations are sent unadjusted.
+ */
+public class ControlVariateCededClaims extends Component {
+
+    private PacketList<Claim> inClaimsGross = new PacketList<Claim>(Claim.class);
+    private PacketList<Claim> inClaimsCeded = new PacketList<Claim>(Claim.class);
+
+    private PacketList<Claim> outClaimsCeded = new PacketList<Claim>(Claim.class);
+
+    /** supplies the simulation scope */
+    private final ReinsuranceContract contract;
+    private Boolean antithetic;
+    private final List<ControlVariateEstimator> estimators = new ArrayList<ControlVariateEstimator>();
+    /** per period the ceded totals and control deviations not yet added to the estimator */
+    private final List<List<double[]>> pendingObservations = new ArrayList<List<double[]>>();
+
+    /**
+     * @param contract contract of the program
+     */
+    public ControlVariateCededClaims(ReinsuranceContract contract) {
+        this.contract = contract;
+    }
+
+    protected void doCalculation() {
+        SimulationScope simulationScope = contract.getSimulationScope();
+        if (antithetic == null) {
+            antithetic = GlobalParameters.getSimulationStreams(simulationScope).isAntithetic();
+        }
+        IterationScope iterationScope = simulationScope == null ? null : simulationScope.getIterationScope();
+        int period = iterationScope == null ? 0 : iterationScope.getPeriodScope().getCurrentPeriod();
+        int iteration = iterationScope == null ? 0 : iterationScope.getCurrentIteration();
+        while (estimators.size() <= period) {
+            estimators.add(new ControlVariateEstimator(0d));
+            pendingObservations.add(new ArrayList<double[]>());
+        }
+        ControlVariateEstimator estimator = estimators.get(period);
+        List<double[]> pending = pendingObservations.get(period);
+        if (!antithetic || iteration % 2 == 0) {
+            for (double[] observation : pending) {
+                estimator.add(observation[0], observation[1]);
+            }
+            pending.clear();
+        }
+
+        double ceded = 0;
+        for (Claim claim : inClaimsCeded) {
+            ceded += claim.getUltimate();
+        }
+        double controlDeviation = getControlDeviation();
+        pending.add(new double[]{ceded, controlDeviation});
+
+        Claim claim = ClaimPacketFactory.createPacket();
+        claim.setClaimType(ClaimType.AGGREGATED);
+        claim.setUltimate(ceded - estimator.getBeta() * controlDeviation);
+        claim.setOriginalClaim(claim);
+        outClaimsCeded.add(claim);
+    }
+
+    /**
+     * @return total of the gross attritional claims minus its analytic mean, generators with an unknown mean are
+     *          left out
+     */
+    private double getControlDeviation() {
+        double deviation = 0;
+        Map<TypableClaimsGenerator, Object> generators = new IdentityHashMap<TypableClaimsGenerator, Object>();
+        for (Claim claim : inClaimsGross) {
+            if (claim.getClaimType() == ClaimType.ATTRITIONAL && claim.getPeril() instanceof TypableClaimsGenerator) {
+                TypableClaimsGenerator generator = (TypableClaimsGenerator) claim.getPeril();
+                double mean = generator.getAttritionalClaimsMean();
+                if (!Double.isNaN(mean)) {
+                    deviation += claim.getUltimate();
+                    if (generators.put(generator, generator) == null) {
+                        deviation -= mean;
+                    }
+                }
+            }
+        }
+        return deviation;
+    }
+
+    public PacketList<Claim> getInClaimsGross() {
+        return inClaimsGross;
+    }
+
+    public void setInClaimsGross(PacketList<Claim> inClaimsGross) {
+        this.inClaimsGross = inClaimsGross;
+    }
+
+    public PacketList<Claim> getInClaimsCeded() {
+        return inClaimsCeded;
+    }
+
+    public void setInClaimsCeded(PacketList<Claim> inClaimsCeded) {
+        this.inClaimsCeded = inClaimsCeded;
+    }
+
+    public PacketList<Claim> getOutClaimsCeded() {
+        return outClaimsCeded;
+    }
+
+    public void setOutClaimsCeded(PacketList<Claim> outClaimsCeded) {
+        this.outClaimsCeded = outClaimsCeded;
+    }
+}
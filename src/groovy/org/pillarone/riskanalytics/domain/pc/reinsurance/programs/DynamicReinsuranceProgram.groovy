@@ -11,7 +11,9 @@ import org.pillarone.riskanalytics.core.packets.PacketList
 import org.pillarone.riskanalytics.domain.pc.claims.Claim
 import org.pillarone.riskanalytics.domain.pc.claims.MarketClaimsMerger
 import org.pillarone.riskanalytics.domain.pc.constants.ReinsuranceContractBase
+import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ContractCascade
 import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.MultiCoverAttributeReinsuranceContract
+import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ParallelContractGroup
 import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ReinsuranceContract
 import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ReinsuranceContractComparator
 import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ReinsuranceContractType
@@ -45,6 +47,7 @@ import org.pillarone.riskanalytics.core.components.ComponentCategory
  *         inUnderwritingInfo
  *     out channels:
  *         outClaims* (* = Net, Gross, Ceded)
+ *         outClaimsCededControlVariate
  *         outClaimsDevelopmentLean* (* = Net, Gross, Ceded)
  *         out*UnderwritingInfo (* = Cover, NetAfterCover, -)
  * Ceded/covered packets from all contained reinsurance contracts as well as final net/uncovered
@@ -61,6 +64,19 @@ import org.pillarone.riskanalytics.core.components.ComponentCategory
  * as noted above, to accomplish the merging after each stage (i.e. each distinct inuring priority >=0).
  * The class will throw an error during wiring if any inuring priority is <0. //todo(bgi): add test case
  *
+ * The contracts of an inuring priority form a ParallelContractGroup. If the runtimeParallelContracts parameter of
+ * the global parameters is at least 2 they are calculated concurrently and their results are sent in the order of
+ * the contracts.
+ *
+ * If the contractCascade global parameter is set, inUnderwritingInfo is not wired and all contracts are plain
+ * ReinsuranceContracts, a ContractCascade with one stage per inuring priority replaces the contracts and mergers.
+ * Only the out claims channels are filled, with one merged ceded claim per gross claim. If inUnderwritingInfo is
+ * wired the program keeps the full wiring, as the cascade neither covers underwriting info of parallel contracts
+ * nor provides the GNPI base the gnpiUnderwritingInfoMergers send to non proportional contracts.
+ *
+ * If the controlVariate global parameter is set, outClaimsCededControlVariate contains a control variate estimate
+ * of the total ceded claims per period, see ControlVariateCededClaims.
+ *
  * @author stefan.kunz (at) intuitive-collaboration (dot) com
  */
 @ComponentCategory(categories = ['REINSURANCE','PROGRAM'])
@@ -73,6 +89,7 @@ class DynamicReinsuranceProgram extends DynamicComposedComponent {
     PacketList<Claim> outClaimsNet = new PacketList(Claim)
     PacketList<Claim> outClaimsGross = new PacketList(Claim)
     PacketList<Claim> outClaimsCeded = new PacketList(Claim)
+    PacketList<Claim> outClaimsCededControlVariate = new PacketList(Claim)
 
     // todo(sku): remove the following and related lines as soon as PMO-648 is resolved
     PacketList<ClaimDevelopmentLeanPacket> outClaimsDevelopmentLeanNet = new PacketList(ClaimDevelopmentLeanPacket)
@@ -91,6 +108,13 @@ class DynamicReinsuranceProgram extends DynamicComposedComponent {
     List<MarketClaimsMerger> claimsMergers = new ArrayList<MarketClaimsMerger>()
     List<MarketUnderwritingInfoMerger> underwritingInfoMergers = new ArrayList<MarketUnderwritingInfoMerger>()
     List<MarketUnderwritingInfoMerger> gnpiUnderwritingInfoMergers = new ArrayList<MarketUnderwritingInfoMerger>()
+    private List<ParallelContractGroup> contractGroups = new ArrayList<ParallelContractGroup>()
+    private ContractCascade contractCascade
+    /** injected from GlobalParameters before wiring */
+    boolean globalContractCascade
+    private ControlVariateCededClaims controlVariate
+    /** injected from GlobalParameters before wiring */
+    boolean globalControlVariate
 
     private static Log LOG = LogFactory.getLog(DynamicReinsuranceProgram.class);
 
@@ -113,6 +137,11 @@ class DynamicReinsuranceProgram extends DynamicComposedComponent {
     public void wire() {
         if (subComponentCount() > 0) {
             initWiring()
+            if (isContractCascadeApplicable()) {
+                wireContractCascade()
+                wireControlVariate([contractCascade])
+                return
+            }
             wireContractsClaimsChannels()
             wireClaimsMergers()
 
@@ -123,6 +152,7 @@ class DynamicReinsuranceProgram extends DynamicComposedComponent {
                 wireGnpiUnderwritingInfoMergers()
             }
             wireReplicatingOutChannels()
+            wireControlVariate(contractsSorted)
         }
         else { // program has no contracts
             doWire WC, this, 'outClaimsGross', this, 'inClaims'
@@ -150,6 +180,47 @@ class DynamicReinsuranceProgram extends DynamicComposedComponent {
         }
     }
 
+    private boolean isContractCascadeApplicable() {
+        return getClass() == DynamicReinsuranceProgram && !isReceiverWired(inUnderwritingInfo) &&
+                ContractCascade.isApplicable(globalContractCascade, contractsSorted)
+    }
+
+    private void wireContractCascade() {
+        List<List<ReinsuranceContract>> stages = []
+        int currentPriority = -1
+        for (int i = 0; i < numberOfContracts; i++) {
+            if (getContract(i).parmInuringPriority > currentPriority) {
+                currentPriority = getContract(i).parmInuringPriority
+                stages << []
+            }
+            stages[-1] << getContract(i)
+        }
+        contractCascade = new ContractCascade(stages)
+        contractCascade.name = "contract cascade"
+        contractCascade.setUnfilledProgramChannels(this,
+                [outClaimsDevelopmentLeanNet, outClaimsDevelopmentLeanGross, outClaimsDevelopmentLeanCeded])
+        doWire PRC, contractCascade, 'inClaims', this, 'inClaims'
+        doWire PRC, this, 'outClaimsGross', contractCascade, 'outClaimsGross'
+        doWire PRC, this, 'outClaimsCeded', contractCascade, 'outClaimsCeded'
+        doWire PRC, this, 'outClaimsNet', contractCascade, 'outClaimsNet'
+    }
+
+    /**
+     * @param cedingComponents components sending the ceded claims of the program on outCoveredClaims or outClaimsCeded
+     */
+    private void wireControlVariate(List<Component> cedingComponents) {
+        if (!globalControlVariate) {
+            return
+        }
+        controlVariate = new ControlVariateCededClaims(getContract(0))
+        controlVariate.name = "control variate"
+        doWire PRC, controlVariate, 'inClaimsGross', this, 'inClaims'
+        for (Component component : cedingComponents) {
+            doWire WC, controlVariate, 'inClaimsCeded', component, component instanceof ContractCascade ? 'outClaimsCeded' : 'outCoveredClaims'
+        }
+        doWire PRC, this, 'outClaimsCededControlVariate', controlVariate, 'outClaimsCeded'
+    }
+
     private void wireContractsClaimsChannels() {
         int currentPriority = -1
         int currentMerger = -1
@@ -159,7 +230,9 @@ class DynamicReinsuranceProgram extends DynamicComposedComponent {
                 claimsMergers << new MarketClaimsMerger()
                 currentPriority = getContract(i).parmInuringPriority
                 claimsMergers[-1].name = "inuring priority ${currentPriority}"
+                contractGroups << new ParallelContractGroup()
             }
+            contractGroups[-1].add(getContract(i))
             if (currentMerger == 0) {
                 doWire PRC, getContract(i), 'inClaims', this, 'inClaims'
                 if (getContract(i) instanceof MultiCoverAttributeReinsuranceContract &&
@@ -1,6 +1,7 @@
 package org.pillarone.riskanalytics.domain.pc.reinsurance.programs
 
 import org.apache.log4j.Logger
+import org.pillarone.riskanalytics.core.components.Component
 import org.pillarone.riskanalytics.core.components.ComposedComponent
 import org.pillarone.riskanalytics.core.packets.PacketList
 import org.pillarone.riskanalytics.core.wiring.PortReplicatorCategory
@@ -9,6 +10,7 @@ import org.pillarone.riskanalytics.core.wiring.WiringUtils
 import org.pillarone.riskanalytics.domain.pc.aggregators.ClaimsMerger
 import org.pillarone.riskanalytics.domain.pc.aggregators.UnderwritingInfoMerger
 import org.pillarone.riskanalytics.domain.pc.claims.Claim
+import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ContractCascade
 import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ReinsuranceContract
 import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ReinsuranceContractType
 import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo
@@ -21,6 +23,10 @@ import org.pillarone.riskanalytics.core.components.ComponentCategory
  *  the net claims of the preceeding contracts.
  *  In order to provide the merged gross, ceded and net claims after all contracts
  *  a claims aggregator is used. Merging is done by claim.id.
+ *  If the contractCascade global parameter is set the contracts are evaluated by a
+ *  ContractCascade instead, contracts send results only if their channels are collected.
+ *  If the controlVariate global parameter is set outClaimsCededControlVariate contains
+ *  a control variate estimate of the total ceded claims, see ControlVariateCededClaims.
  *
  * @author stefan.kunz (at) intuitive-collaboration (dot) com
  */
@@ -31,6 +37,7 @@ class ReinsuranceProgram3SerialContracts extends ComposedComponent {
     PacketList<UnderwritingInfo> inUnderwritingInfo = new PacketList(UnderwritingInfo)
 
     PacketList<Claim> outClaimsCeded = new PacketList(Claim)
+    PacketList<Claim> outClaimsCededControlVariate = new PacketList(Claim)
     PacketList<Claim> outClaimsGross = new PacketList(Claim)
     PacketList<Claim> outClaimsNet = new PacketList(Claim)
     PacketList<CededUnderwritingInfo> outUnderwritingInfoCeded = new PacketList(CededUnderwritingInfo)
@@ -47,7 +54,21 @@ class ReinsuranceProgram3SerialContracts extends ComposedComponent {
     ClaimsMerger subClaimsAggregator = new ClaimsMerger()
     UnderwritingInfoMerger subUnderwritingInfoMerger = new UnderwritingInfoMerger()
 
+    private ContractCascade contractCascade
+    /** injected from GlobalParameters before wiring */
+    boolean globalContractCascade
+    private ControlVariateCededClaims controlVariate
+    /** injected from GlobalParameters before wiring */
+    boolean globalControlVariate
+
     public void wire() {
+        List<ReinsuranceContract> contracts = [subContract1, subContract2, subContract3, subContract4, subContract5]
+        if (ContractCascade.isApplicable(globalContractCascade, contracts)) {
+            wireContractCascade(contracts)
+            wireControlVariate([contractCascade], 'outClaimsCeded')
+            return
+        }
+        wireControlVariate(contracts, 'outCoveredClaims')
         WiringUtils.use(WireCategory) {
             subContract2.inClaims = subContract1.outUncoveredClaims
             subContract2.inUnderwritingInfo = subContract1.outNetAfterCoverUnderwritingInfo
@@ -84,4 +105,41 @@ class ReinsuranceProgram3SerialContracts extends ComposedComponent {
             this.outUnderwritingInfoNet = subUnderwritingInfoMerger.outUnderwritingInfoNet
         }
     }
+
+    private void wireControlVariate(List<Component> cedingComponents, String cededClaimsChannel) {
+        if (!globalControlVariate) {
+            return
+        }
+        controlVariate = new ControlVariateCededClaims(subContract1)
+        controlVariate.name = "control variate"
+        WiringUtils.use(WireCategory) {
+            cedingComponents.each { Component component ->
+                controlVariate.inClaimsCeded = component."$cededClaimsChannel"
+            }
+        }
+        WiringUtils.use(PortReplicatorCategory) {
+            controlVariate.inClaimsGross = this.inClaims
+            this.outClaimsCededControlVariate = controlVariate.outClaimsCeded
+        }
+    }
+
+    private void wireContractCascade(List<ReinsuranceContract> contracts) {
+        contractCascade = new ContractCascade(contracts.collect { [it] })
+        contractCascade.name = "contract cascade"
+        WiringUtils.use(WireCategory) {
+            subUnderwritingInfoMerger.inUnderwritingInfoCeded = contractCascade.outCoverUnderwritingInfo
+        }
+        WiringUtils.use(PortReplicatorCategory) {
+            contractCascade.inClaims = this.inClaims
+            contractCascade.inUnderwritingInfo = this.inUnderwritingInfo
+            this.outClaimsCeded = contractCascade.outClaimsCeded
+            this.outClaimsGross = contractCascade.outClaimsGross
+            this.outClaimsNet = contractCascade.outClaimsNet
+
+            subUnderwritingInfoMerger.inUnderwritingInfoGross = this.inUnderwritingInfo
+            this.outUnderwritingInfoCeded = subUnderwritingInfoMerger.outUnderwritingInfoCeded
+            this.outUnderwritingInfoGross = subUnderwritingInfoMerger.outUnderwritingInfoGross
+            this.outUnderwritingInfoNet = subUnderwritingInfoMerger.outUnderwritingInfoNet
+        }
+    }
 }
\ No newline at end of file
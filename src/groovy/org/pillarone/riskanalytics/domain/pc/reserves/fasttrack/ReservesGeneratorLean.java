@@ -9,6 +9,7 @@ import org.pillarone.riskanalytics.core.parameterization.ComboBoxTableMultiDimen
 import org.pillarone.riskanalytics.core.simulation.engine.PeriodScope;
 import org.pillarone.riskanalytics.domain.pc.claims.Claim;
 import org.pillarone.riskanalytics.domain.pc.generators.GeneratorCachingComponent;
+import org.pillarone.riskanalytics.domain.pc.generators.GeneratorSlot;
 import org.pillarone.riskanalytics.domain.utils.marker.IPerilMarker;
 import org.pillarone.riskanalytics.domain.utils.marker.IReserveMarker;
 import org.pillarone.riskanalytics.domain.utils.*;
@@ -54,6 +55,8 @@ public class ReservesGeneratorLean extends GeneratorCachingComponent implements
     private DistributionModified parmModification = DistributionModifier.getStrategy(DistributionModifier.NONE, new HashMap());
     private double parmPeriodPaymentPortion = 0d;
 
+    private GeneratorSlot incurredGenerator = new GeneratorSlot("incurred");
+
     protected void doCalculation() {
         ClaimDevelopmentLeanPacket claim = new ClaimDevelopmentLeanPacket();
         claim.setOrigin(this);
@@ -108,7 +111,7 @@ public class ReservesGeneratorLean extends GeneratorCachingComponent implements
 
     private void setIncurred(ClaimDevelopmentLeanPacket claimDevelopmentLeanPacket) {
 
-        IRandomNumberGenerator generator = getCachedGenerator(getParmDistribution(), getParmModification());
+        IRandomNumberGenerator generator = getCachedGenerator(incurredGenerator, getParmDistribution(), getParmModification());
         Double randomFactor = (Double) generator.nextValue();
 
         if (parmReservesModel instanceof AbsoluteReservesGeneratorStrategy) {
@@ -18,15 +18,16 @@ class AttachEventToSeverity extends Component {
 
     public void doCalculation() {
         int numberOfEvents = inProbabilities.size()
-        List<Double> dates = UniformDoubleList.getDoubles(numberOfEvents, true)
+        double[] dates = UniformDoubleList.getSortedDoubleArray(numberOfEvents)
         int counter = 0
         for (DependenceStream stream: inProbabilities) {
-            List<EventSeverity> eventSeverities = new ArrayList<EventSeverity>(stream.probabilities.size())
-            for (Number number: stream.probabilities) {
-                eventSeverities << new EventSeverity(value: number, event: new Event(fractionOfPeriod: dates[counter]))
+            double[] values = stream.values
+            List<EventSeverity> eventSeverities = new ArrayList<EventSeverity>(values.length)
+            for (double value: values) {
+                eventSeverities << new EventSeverity(value: value, event: new Event(fractionOfPeriod: dates[counter]))
             }
             counter++
-            outEventSeverities << new EventDependenceStream(severities: eventSeverities, marginals: stream.marginals)
+            outEventSeverities << new EventDependenceStream(severities: eventSeverities, targets: stream.targets)
         }
     }
 
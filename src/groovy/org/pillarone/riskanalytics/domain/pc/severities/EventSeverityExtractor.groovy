@@ -3,6 +3,7 @@ package org.pillarone.riskanalytics.domain.pc.severities
 import org.pillarone.riskanalytics.core.components.Component
 import org.pillarone.riskanalytics.core.packets.PacketList
 import org.pillarone.riskanalytics.core.parameterization.ConstrainedString
+import org.pillarone.riskanalytics.domain.pc.generators.copulas.DependenceColumn
 import org.pillarone.riskanalytics.domain.pc.generators.copulas.EventDependenceStream
 import org.pillarone.riskanalytics.domain.pc.generators.severities.EventSeverity
 import org.pillarone.riskanalytics.domain.utils.marker.ISegmentMarker
@@ -23,9 +24,11 @@ class EventSeverityExtractor extends Component {
     PacketList<EventDependenceStream> inSeverities = new PacketList(EventDependenceStream)
     PacketList<EventSeverity> outSeverities = new PacketList(EventSeverity)
 
+    private DependenceColumn column = new DependenceColumn()
+
     public void doCalculation() {
         for (EventDependenceStream stream: inSeverities) {
-            int index = stream.marginals.findIndexOf { it == parmFilterCriteria.stringValue }
+            int index = column.resolve(stream.targets, parmFilterCriteria.stringValue)
             outSeverities << stream.severities[index]
         }
     }
@@ -3,6 +3,7 @@ package org.pillarone.riskanalytics.domain.pc.severities
 import org.pillarone.riskanalytics.core.components.Component
 import org.pillarone.riskanalytics.core.packets.PacketList
 import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope
+import org.pillarone.riskanalytics.domain.pc.generators.copulas.DependenceColumn
 import org.pillarone.riskanalytics.domain.pc.generators.copulas.DependenceStream
 import org.pillarone.riskanalytics.domain.pc.generators.severities.Severity
 
@@ -20,12 +21,14 @@ class ProbabilityExtractor extends Component {
     PacketList<DependenceStream> inProbabilities = new PacketList(DependenceStream)
     PacketList<Severity> outProbabilities = new PacketList(Severity)
 
+    private DependenceColumn column = new DependenceColumn()
+
     public void doCalculation() {
         String filterCriteria = simulationScope.getStructureInformation().getLine(this)
         for (DependenceStream stream: inProbabilities) {
-            int index = stream.marginals.findIndexOf { it == filterCriteria }
+            int index = column.resolve(stream.targets, filterCriteria)
             if (index > -1) {
-                outProbabilities << new Severity(stream.probabilities[index])
+                outProbabilities << new Severity(stream.getValue(index))
             }
         }
     }
@@ -2,6 +2,7 @@ package org.pillarone.riskanalytics.domain.pc.severities
 
 import org.pillarone.riskanalytics.core.components.Component
 import org.pillarone.riskanalytics.core.packets.PacketList
+import org.pillarone.riskanalytics.domain.pc.generators.copulas.DependenceColumn
 import org.pillarone.riskanalytics.domain.pc.generators.copulas.DependenceStream
 import org.pillarone.riskanalytics.domain.pc.generators.severities.Severity
 
@@ -23,10 +24,12 @@ class SeverityExtractor extends Component {
     PacketList<DependenceStream> inSeverities = new PacketList(DependenceStream)
     PacketList<Severity> outSeverities = new PacketList(Severity)
 
+    private DependenceColumn column = new DependenceColumn()
+
     public void doCalculation() {
         for (DependenceStream stream: inSeverities) {
-            int index = stream.marginals.findIndexOf { it == parmFilterCriteria }
-            outSeverities << new Severity(stream.probabilities[index])
+            int index = column.resolve(stream.targets, parmFilterCriteria)
+            outSeverities << new Severity(stream.values[index])
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package org.pillarone.riskanalytics.domain.utils;
+
+import umontreal.iro.lecuyer.probdist.Distribution;
+
+/**
+ * Distribution of Y = X + shift conditional on Y > threshold. The probability of X <= threshold - shift is evaluated
+ * once at construction, inverseF() maps u to the quantile of X at that probability plus u times the exceedance
+ * probability. Mean and variance are those of Y less its partial moments below threshold, see
+ * {@link BelowThresholdDistribution}, and require the mean and variance of X.
+ */
+public class AboveThresholdDistribution implements Distribution {
+
+    private final Distribution distribution;
+    private final double shift;
+    private final double threshold;
+    private final double cdfThreshold;
+    private double mean = Double.NaN;
+    private double variance = Double.NaN;
+
+    /**
+     * @param distribution of X
+     * @param shift added to X
+     * @param threshold applied to X + shift
+     */
+    public AboveThresholdDistribution(Distribution distribution, double shift, double threshold) {
+        this.distribution = distribution;
+        this.shift = shift;
+        this.threshold = threshold;
+        cdfThreshold = distribution.cdf(threshold - shift);
+        if (cdfThreshold >= 1) {
+            throw new IllegalArgumentException("['AboveThresholdDistribution.noExceedance','" + threshold + "']");
+        }
+    }
+
+    public double cdf(double y) {
+        if (y <= threshold) {
+            return 0;
+        }
+        return (distribution.cdf(y - shift) - cdfThreshold) / (1 - cdfThreshold);
+    }
+
+    public double barF(double y) {
+        return 1d - cdf(y);
+    }
+
+    public double inverseF(double u) {
+        return Math.max(threshold, distribution.inverseF(cdfThreshold + u * (1 - cdfThreshold)) + shift);
+    }
+
+    public double getMean() {
+        if (Double.isNaN(mean)) {
+            evaluateMoments();
+        }
+        return mean;
+    }
+
+    public double getVariance() {
+        if (Double.isNaN(variance)) {
+            evaluateMoments();
+        }
+        return variance;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    private void evaluateMoments() {
+        double[] belowThreshold = BelowThresholdDistribution.partialMoments(distribution, shift, cdfThreshold);
+        double meanY = distribution.getMean() + shift;
+        double secondMomentY = distribution.getVariance() + meanY * meanY;
+        double exceedance = 1 - cdfThreshold;
+        mean = (meanY - belowThreshold[0]) / exceedance;
+        variance = Math.max(0, (secondMomentY - belowThreshold[1]) / exceedance - mean * mean);
+    }
+
+    public double[] getParams() {
+        return new double[]{shift, threshold};
+    }
+}
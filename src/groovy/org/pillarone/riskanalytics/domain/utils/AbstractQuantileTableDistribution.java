@@ -0,0 +1,51 @@
+package org.pillarone.riskanalytics.domain.utils;
+
+import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
+
+/**
+ * Continuous distribution with an optional tabulated inverse distribution function. By default inverseF() is
+ * evaluated exactly. After tabulateInverseF() it is interpolated by a {@link MonotoneQuantileTable} built once
+ * for this instance, the far tail and intervals not meeting the error bound are still evaluated exactly.
+ * Subclasses have to call dropQuantileTable() whenever their parameters change.
+ */
+public abstract class AbstractQuantileTableDistribution extends ContinuousDistribution {
+
+    private MonotoneQuantileTable quantileTable;
+
+    /**
+     * @param maxAbsoluteError maximal absolute difference between the tabulated and the exact quantile
+     */
+    public void tabulateInverseF(double maxAbsoluteError) {
+        tabulateInverseF(maxAbsoluteError, MonotoneQuantileTable.DEFAULT_EXACT_TAIL_PROBABILITY);
+    }
+
+    /**
+     * @param maxAbsoluteError maximal absolute difference between the tabulated and the exact quantile
+     * @param exactTailProbability quantiles of probabilities above 1 - exactTailProbability are evaluated exactly
+     */
+    public void tabulateInverseF(double maxAbsoluteError, double exactTailProbability) {
+        // inverseF() has to be exact while the table is built
+        quantileTable = null;
+        quantileTable = new MonotoneQuantileTable(this, maxAbsoluteError, exactTailProbability);
+    }
+
+    public boolean isInverseFTabulated() {
+        return quantileTable != null;
+    }
+
+    protected void dropQuantileTable() {
+        quantileTable = null;
+    }
+
+    public double inverseF(double y) {
+        if (quantileTable != null) {
+            double x = quantileTable.inverseF(y);
+            if (!Double.isNaN(x)) {
+                return x;
+            }
+        }
+        return exactInverseF(y);
+    }
+
+    abstract protected double exactInverseF(double y);
+}
@@ -0,0 +1,90 @@
+package org.pillarone.riskanalytics.domain.utils;
+
+/**
+ * Walker's alias method (in the numerically stable construction of Vose) for drawing an index i with probability
+ * weights[i] / sum(weights). Construction needs O(n) steps, every draw consumes one uniform and needs O(1) steps.
+ * In contrast to inversion the drawn index is not monotone in the uniform.
+ */
+public class AliasTable {
+
+    /** column i keeps its own index if the fractional part of u * n is below threshold[i] */
+    private final double[] threshold;
+    private final int[] alias;
+
+    /**
+     * @param weights non-negative with a positive sum, need not be normalized
+     */
+    public AliasTable(double[] weights) {
+        int size = weights.length;
+        if (size == 0) {
+            throw new IllegalArgumentException("AliasTable.noWeights");
+        }
+        double sum = 0;
+        for (double weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("AliasTable.negativeWeight");
+            }
+            sum += weight;
+        }
+        if (!(sum > 0) || Double.isInfinite(sum)) {
+            throw new IllegalArgumentException("AliasTable.invalidWeightSum");
+        }
+        threshold = new double[size];
+        alias = new int[size];
+        double[] scaled = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            scaled[i] = weights[i] * size / sum;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            }
+            else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            threshold[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            }
+            else {
+                large[largeCount++] = more;
+            }
+        }
+        // remaining columns are full up to rounding errors
+        while (largeCount > 0) {
+            int more = large[--largeCount];
+            threshold[more] = 1;
+            alias[more] = more;
+        }
+        while (smallCount > 0) {
+            int less = small[--smallCount];
+            threshold[less] = 1;
+            alias[less] = less;
+        }
+    }
+
+    /**
+     * @param u uniform in [0,1]
+     * @return index drawn with probability proportional to its weight
+     */
+    public int index(double u) {
+        double x = u * threshold.length;
+        int column = (int) x;
+        if (column >= threshold.length) {
+            column = threshold.length - 1;
+        }
+        return x - column < threshold[column] ? column : alias[column];
+    }
+
+    public int size() {
+        return threshold.length;
+    }
+}
@@ -0,0 +1,31 @@
+package org.pillarone.riskanalytics.domain.utils;
+
+import umontreal.iro.lecuyer.randvar.RandomVariateGen;
+import umontreal.iro.lecuyer.rng.RandomStream;
+
+/**
+ * Draws from a discrete empirical distribution with its alias table: one uniform and O(1) steps per variate,
+ * independent of the number of observations. Variates are not monotone in the uniforms, use inverseF() of the
+ * distribution where this is required, e.g. for dependent draws.
+ */
+public class AliasVariateGen extends RandomVariateGen {
+
+    private final double[] values;
+    private final AliasTable aliasTable;
+
+    public AliasVariateGen(RandomStream stream, DiscreteEmpiricalDistribution distribution) {
+        super(stream, distribution);
+        values = distribution.getSortedValues();
+        aliasTable = distribution.getAliasTable();
+    }
+
+    public double nextDouble() {
+        return values[aliasTable.index(stream.nextDouble())];
+    }
+
+    public void nextArrayOfDouble(double[] variates, int start, int number) {
+        for (int i = start; i < start + number; i++) {
+            variates[i] = values[aliasTable.index(stream.nextDouble())];
+        }
+    }
+}
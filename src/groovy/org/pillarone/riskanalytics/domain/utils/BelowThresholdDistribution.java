@@ -0,0 +1,106 @@
+package org.pillarone.riskanalytics.domain.utils;
+
+import umontreal.iro.lecuyer.probdist.Distribution;
+
+/**
+ * Distribution of Y = X + shift with every value above threshold replaced by 0, i.e. the contribution of a single
+ * claim to the aggregate of the claims not exceeding threshold. The exceedance probability becomes an atom at 0.
+ * Mean and variance are evaluated once by the midpoint rule on MOMENT_POINTS quantiles of X below threshold.
+ */
+public class BelowThresholdDistribution implements Distribution {
+
+    static final int MOMENT_POINTS = 1 << 12;
+
+    private final Distribution distribution;
+    private final double shift;
+    private final double threshold;
+    private final double exceedance;
+    private double[] partialMoments;
+
+    /**
+     * @param distribution of X
+     * @param shift added to X
+     * @param threshold applied to X + shift, not negative
+     */
+    public BelowThresholdDistribution(Distribution distribution, double shift, double threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("['BelowThresholdDistribution.negativeThreshold','" + threshold + "']");
+        }
+        this.distribution = distribution;
+        this.shift = shift;
+        this.threshold = threshold;
+        exceedance = 1 - distribution.cdf(threshold - shift);
+    }
+
+    public double cdf(double z) {
+        if (z >= threshold) {
+            return 1;
+        }
+        if (z < 0) {
+            return distribution.cdf(z - shift);
+        }
+        return Math.min(1, distribution.cdf(z - shift) + exceedance);
+    }
+
+    public double barF(double z) {
+        return 1d - cdf(z);
+    }
+
+    public double inverseF(double u) {
+        double y = distribution.inverseF(u) + shift;
+        if (y < 0) {
+            return y;
+        }
+        if (u <= distribution.cdf(-shift) + exceedance) {
+            return 0;
+        }
+        return Math.min(threshold, distribution.inverseF(u - exceedance) + shift);
+    }
+
+    /**
+     * @return P(X + shift > threshold)
+     */
+    public double getExceedanceProbability() {
+        return exceedance;
+    }
+
+    public double getMean() {
+        return partialMoments()[0];
+    }
+
+    public double getVariance() {
+        double[] moments = partialMoments();
+        return Math.max(0, moments[1] - moments[0] * moments[0]);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    private double[] partialMoments() {
+        if (partialMoments == null) {
+            partialMoments = partialMoments(distribution, shift, 1 - exceedance);
+        }
+        return partialMoments;
+    }
+
+    /**
+     * @param cdfThreshold P(X + shift <= threshold)
+     * @return E[Y; Y <= threshold] and E[Y^2; Y <= threshold] of Y = X + shift
+     */
+    static double[] partialMoments(Distribution distribution, double shift, double cdfThreshold) {
+        double step = cdfThreshold / MOMENT_POINTS;
+        double first = 0;
+        double second = 0;
+        for (int i = 0; i < MOMENT_POINTS; i++) {
+            double y = distribution.inverseF((i + 0.5) * step) + shift;
+            first += y;
+            second += y * y;
+        }
+        return new double[]{first * step, second * step};
+    }
+
+    public double[] getParams() {
+        return new double[]{shift, threshold};
+    }
+}
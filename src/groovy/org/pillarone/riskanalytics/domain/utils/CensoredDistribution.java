@@ -12,11 +12,16 @@ public class CensoredDistribution implements Distribution {
     Distribution distribution;
     double min;
     double max;
+    /** probabilities of the censoring limits, evaluated once at construction */
+    double minU;
+    double maxU;
 
     public CensoredDistribution(Distribution distribution, double min, double max) {
         this.distribution = distribution;
         this.min = min;
         this.max = max;
+        minU = cdf(min);
+        maxU = distribution.cdf(max);
     }
 
     public double cdf(double v) {
@@ -36,8 +41,6 @@ public class CensoredDistribution implements Distribution {
     }
 
     public double inverseF(double v) {
-        double minU = cdf(min);
-        double maxU = distribution.cdf(max);
         if (v <= minU) {
             return min;
         }
@@ -1,5 +1,6 @@
 package org.pillarone.riskanalytics.domain.utils
 
+import groovy.transform.CompileStatic
 import umontreal.iro.lecuyer.probdist.Distribution
 import umontreal.iro.lecuyer.randvar.RandomVariateGen
 import umontreal.iro.lecuyer.rng.RandomStream
@@ -29,4 +30,12 @@ class CensoredVariateGen extends RandomVariateGen {
     double nextDouble() {
         return Math.max(lowerBound, Math.min(upperBound, generator.nextDouble())) + shift
     }
+
+    @CompileStatic
+    void nextArrayOfDouble(double[] values, int start, int number) {
+        generator.nextArrayOfDouble(values, start, number)
+        for (int i = start; i < start + number; i++) {
+            values[i] = Math.max(lowerBound, Math.min(upperBound, values[i])) + shift
+        }
+    }
 }
\ No newline at end of file
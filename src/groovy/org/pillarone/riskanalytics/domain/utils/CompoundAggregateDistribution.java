@@ -0,0 +1,367 @@
+package org.pillarone.riskanalytics.domain.utils;
+
+import umontreal.iro.lecuyer.probdist.BinomialDist;
+import umontreal.iro.lecuyer.probdist.Distribution;
+import umontreal.iro.lecuyer.probdist.NegativeBinomialDist;
+import umontreal.iro.lecuyer.probdist.PoissonDist;
+
+/**
+ * Distribution of the aggregate claim S = X_1 + ... + X_N of a claim number N and iid non-negative claim sizes X_i,
+ * evaluated on the lattice k * span, k = 0 .. POINTS - 1. The claim number of a draw is the integer part of a variate
+ * of the frequency distribution, as for the frequency generators. The claim size is discretized on the lattice such
+ * that its mean, limited to the lattice, is preserved.
+ * <p/>
+ * The lattice covers the claim size quantile 1 - SEVERITY_TAIL and the aggregate mean plus STANDARD_DEVIATIONS
+ * standard deviations. Aggregate probabilities are computed once, by Panjer's recursion if N is Poisson, negative
+ * binomial or binomial, and by a fast Fourier transform of the probability generating function otherwise or if
+ * the probability of S = 0 underflows (high frequencies). The aggregate probability above the lattice is assigned
+ * to its last point. inverseF() uses a guide table, a draw of S therefore costs one uniform and O(1) steps on
+ * average, independent of the frequency.
+ */
+public class CompoundAggregateDistribution implements Distribution {
+
+    public static final int POINTS = 1 << 12;
+
+    static final double SEVERITY_TAIL = 1E-6;
+    static final double STANDARD_DEVIATIONS = 10;
+    /** claim number probabilities are tabulated until their sum reaches 1 - FREQUENCY_TAIL */
+    static final double FREQUENCY_TAIL = 1E-12;
+    static final int MAX_CLAIM_NUMBER = 1 << 24;
+    static final int SUBDIVISIONS = 16;
+    /** smallest logarithm of P(S = 0) for Panjer's recursion */
+    static final double MIN_LOG_START = -700;
+
+    private static final double EPSILON = 1E-9;
+
+    private final double span;
+    private final double[] probabilities;
+    private final double[] cumulative;
+    private final GuideTable guideTable;
+    private final boolean recursive;
+
+    /**
+     * @param frequency distribution of the claim number
+     * @param severity distribution of the claim size before the shift
+     * @param shift added to every claim size
+     */
+    public CompoundAggregateDistribution(Distribution frequency, Distribution severity, double shift) {
+        if (severity.cdf(Math.nextAfter(-shift, Double.NEGATIVE_INFINITY)) > 0) {
+            throw new IllegalArgumentException("CompoundAggregateDistribution.negativeClaimSize");
+        }
+        double[] frequencyProbabilities = claimNumberProbabilities(frequency);
+        double severityMax = Math.max(0, severity.inverseF(1 - SEVERITY_TAIL) + shift);
+        double[] claimSize = discretize(severity, shift, severityMax / (POINTS - 1));
+        double claimSizeMean = 0;
+        double claimSizeSecondMoment = 0;
+        for (int j = 0; j < POINTS; j++) {
+            double x = j * severityMax / (POINTS - 1);
+            claimSizeMean += claimSize[j] * x;
+            claimSizeSecondMoment += claimSize[j] * x * x;
+        }
+        double frequencyMean = 0;
+        double frequencySecondMoment = 0;
+        for (int k = 0; k < frequencyProbabilities.length; k++) {
+            frequencyMean += frequencyProbabilities[k] * k;
+            frequencySecondMoment += frequencyProbabilities[k] * k * (double) k;
+        }
+        double mean = frequencyMean * claimSizeMean;
+        double variance = frequencyMean * (claimSizeSecondMoment - claimSizeMean * claimSizeMean)
+                + (frequencySecondMoment - frequencyMean * frequencyMean) * claimSizeMean * claimSizeMean;
+        double upper = Math.max(severityMax, mean + STANDARD_DEVIATIONS * Math.sqrt(Math.max(0, variance)));
+        span = upper > 0 ? upper / (POINTS - 1) : 1;
+        claimSize = discretize(severity, shift, span);
+
+        double[] aggregate = panjerRecursion(frequency, claimSize);
+        recursive = aggregate != null;
+        if (!recursive) {
+            aggregate = fourierTransform(frequency, frequencyProbabilities, claimSize);
+        }
+        probabilities = aggregate;
+        cumulative = new double[POINTS];
+        double sum = 0;
+        for (int k = 0; k < POINTS; k++) {
+            probabilities[k] = Math.max(0, probabilities[k]);
+            sum += probabilities[k];
+            cumulative[k] = Math.min(1, sum);
+        }
+        probabilities[POINTS - 1] += 1 - cumulative[POINTS - 1];
+        cumulative[POINTS - 1] = 1;
+        guideTable = new GuideTable(cumulative);
+    }
+
+    /**
+     * @return P(N = k) for k = 0 .. K with P(N > K) below FREQUENCY_TAIL or K = MAX_CLAIM_NUMBER
+     */
+    static double[] claimNumberProbabilities(Distribution frequency) {
+        double[] probabilities = new double[64];
+        double previous = 0;
+        int k = 0;
+        while (true) {
+            double current = frequency.cdf(k + 1 - EPSILON);
+            if (k == probabilities.length) {
+                double[] larger = new double[2 * k];
+                System.arraycopy(probabilities, 0, larger, 0, k);
+                probabilities = larger;
+            }
+            probabilities[k] = Math.max(0, current - previous);
+            previous = current;
+            if (current >= 1 - FREQUENCY_TAIL || k == MAX_CLAIM_NUMBER) {
+                break;
+            }
+            k++;
+        }
+        double[] result = new double[k + 1];
+        System.arraycopy(probabilities, 0, result, 0, k + 1);
+        return result;
+    }
+
+    /**
+     * Mean preserving mass dispersal: with the limited expected value L(x) = E[min(X, x)] point 0 receives
+     * 1 - L(span) / span and point j (2 L(j span) - L((j - 1) span) - L((j + 1) span)) / span, the last point the
+     * remaining probability. L is integrated by the trapezoidal rule on SUBDIVISIONS steps per lattice interval.
+     */
+    static double[] discretize(Distribution severity, double shift, double span) {
+        double[] probabilities = new double[POINTS];
+        if (span == 0) {
+            probabilities[0] = 1;
+            return probabilities;
+        }
+        double step = span / SUBDIVISIONS;
+        double[] limitedExpectedValue = new double[POINTS];
+        double survival = 1 - severity.cdf(-shift);
+        for (int j = 1; j < POINTS; j++) {
+            double sum = 0.5 * survival;
+            for (int i = 1; i < SUBDIVISIONS; i++) {
+                sum += 1 - severity.cdf((j - 1) * span + i * step - shift);
+            }
+            survival = 1 - severity.cdf(j * span - shift);
+            sum += 0.5 * survival;
+            limitedExpectedValue[j] = limitedExpectedValue[j - 1] + sum * step;
+        }
+        probabilities[0] = 1 - limitedExpectedValue[1] / span;
+        double total = probabilities[0];
+        for (int j = 1; j < POINTS - 1; j++) {
+            probabilities[j] = Math.max(0, (2 * limitedExpectedValue[j] - limitedExpectedValue[j - 1] - limitedExpectedValue[j + 1]) / span);
+            total += probabilities[j];
+        }
+        probabilities[POINTS - 1] = Math.max(0, 1 - total);
+        return probabilities;
+    }
+
+    /**
+     * @return aggregate probabilities or null if the frequency is not of the (a, b, 0) class or P(S = 0) underflows
+     */
+    private static double[] panjerRecursion(Distribution frequency, double[] claimSize) {
+        double a;
+        double b;
+        double logStart;
+        double f0 = claimSize[0];
+        if (frequency instanceof PoissonDist) {
+            double lambda = ((PoissonDist) frequency).getLambda();
+            a = 0;
+            b = lambda;
+            logStart = lambda * (f0 - 1);
+        }
+        else if (frequency instanceof NegativeBinomialDist) {
+            double gamma = ((NegativeBinomialDist) frequency).getGamma();
+            double p = ((NegativeBinomialDist) frequency).getP();
+            a = 1 - p;
+            b = (gamma - 1) * (1 - p);
+            logStart = gamma * (Math.log(p) - Math.log(1 - (1 - p) * f0));
+        }
+        else if (frequency instanceof BinomialDist) {
+            int n = ((BinomialDist) frequency).getN();
+            double p = ((BinomialDist) frequency).getP();
+            if (p >= 1) {
+                return null;
+            }
+            a = -p / (1 - p);
+            b = (n + 1) * p / (1 - p);
+            logStart = n * Math.log(1 - p + p * f0);
+        }
+        else {
+            return null;
+        }
+        if (!(logStart > MIN_LOG_START)) {
+            return null;
+        }
+        double[] aggregate = new double[POINTS];
+        aggregate[0] = Math.exp(logStart);
+        double factor = 1 / (1 - a * f0);
+        for (int k = 1; k < POINTS; k++) {
+            double sum = 0;
+            for (int j = 1; j <= k; j++) {
+                sum += (a + b * j / k) * claimSize[j] * aggregate[k - j];
+            }
+            aggregate[k] = sum * factor;
+        }
+        return aggregate;
+    }
+
+    /**
+     * The claim size probabilities are zero padded to twice the lattice size to reduce the wrap around of the
+     * cyclic convolution.
+     */
+    private static double[] fourierTransform(Distribution frequency, double[] frequencyProbabilities, double[] claimSize) {
+        int n = 2 * POINTS;
+        double[] real = new double[n];
+        double[] imaginary = new double[n];
+        System.arraycopy(claimSize, 0, real, 0, POINTS);
+        fft(real, imaginary, false);
+        double[] value = new double[2];
+        for (int m = 0; m < n; m++) {
+            generatingFunction(frequency, frequencyProbabilities, real[m], imaginary[m], value);
+            real[m] = value[0];
+            imaginary[m] = value[1];
+        }
+        fft(real, imaginary, true);
+        double[] aggregate = new double[POINTS];
+        for (int k = 0; k < POINTS; k++) {
+            aggregate[k] = real[k] / n;
+        }
+        return aggregate;
+    }
+
+    /**
+     * Probability generating function E[z^N] of the claim number at the complex argument z = (x, y), closed forms
+     * are used for Poisson, negative binomial and binomial claim numbers.
+     */
+    private static void generatingFunction(Distribution frequency, double[] frequencyProbabilities, double x, double y, double[] value) {
+        double modulus;
+        double argument;
+        if (frequency instanceof PoissonDist) {
+            double lambda = ((PoissonDist) frequency).getLambda();
+            modulus = Math.exp(lambda * (x - 1));
+            argument = lambda * y;
+        }
+        else if (frequency instanceof NegativeBinomialDist) {
+            double gamma = ((NegativeBinomialDist) frequency).getGamma();
+            double p = ((NegativeBinomialDist) frequency).getP();
+            double wx = 1 - (1 - p) * x;
+            double wy = -(1 - p) * y;
+            modulus = Math.exp(gamma * (Math.log(p) - 0.5 * Math.log(wx * wx + wy * wy)));
+            argument = -gamma * Math.atan2(wy, wx);
+        }
+        else if (frequency instanceof BinomialDist) {
+            int trials = ((BinomialDist) frequency).getN();
+            double p = ((BinomialDist) frequency).getP();
+            double wx = 1 - p + p * x;
+            double wy = p * y;
+            modulus = Math.pow(Math.sqrt(wx * wx + wy * wy), trials);
+            argument = trials * Math.atan2(wy, wx);
+        }
+        else {
+            double real = 0;
+            double imaginary = 0;
+            for (int k = frequencyProbabilities.length - 1; k >= 0; k--) {
+                double product = real * x - imaginary * y + frequencyProbabilities[k];
+                imaginary = real * y + imaginary * x;
+                real = product;
+            }
+            value[0] = real;
+            value[1] = imaginary;
+            return;
+        }
+        value[0] = modulus * Math.cos(argument);
+        value[1] = modulus * Math.sin(argument);
+    }
+
+    /**
+     * Iterative radix-2 Cooley-Tukey transform in place, real.length has to be a power of two. The inverse transform
+     * is not normalized.
+     */
+    static void fft(double[] real, double[] imaginary, boolean inverse) {
+        int n = real.length;
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                double swap = real[i];
+                real[i] = real[j];
+                real[j] = swap;
+                swap = imaginary[i];
+                imaginary[i] = imaginary[j];
+                imaginary[j] = swap;
+            }
+        }
+        for (int length = 2; length <= n; length <<= 1) {
+            double angle = 2 * Math.PI / length * (inverse ? 1 : -1);
+            int half = length >> 1;
+            for (int k = 0; k < half; k++) {
+                double wReal = Math.cos(angle * k);
+                double wImaginary = Math.sin(angle * k);
+                for (int i = k; i < n; i += length) {
+                    int j = i + half;
+                    double tReal = real[j] * wReal - imaginary[j] * wImaginary;
+                    double tImaginary = real[j] * wImaginary + imaginary[j] * wReal;
+                    real[j] = real[i] - tReal;
+                    imaginary[j] = imaginary[i] - tImaginary;
+                    real[i] += tReal;
+                    imaginary[i] += tImaginary;
+                }
+            }
+        }
+    }
+
+    public double getSpan() {
+        return span;
+    }
+
+    /**
+     * @return true if the probabilities were computed by Panjer's recursion, false if by Fourier transform
+     */
+    public boolean isRecursive() {
+        return recursive;
+    }
+
+    /**
+     * @return P(S = k * span)
+     */
+    public double probability(int k) {
+        return probabilities[k];
+    }
+
+    public double cdf(double x) {
+        if (x < 0) {
+            return 0;
+        }
+        double k = Math.floor(x / span);
+        return k >= POINTS - 1 ? 1 : cumulative[(int) k];
+    }
+
+    public double barF(double x) {
+        return 1d - cdf(x);
+    }
+
+    public double inverseF(double u) {
+        return guideTable.index(u) * span;
+    }
+
+    public double getMean() {
+        double mean = 0;
+        for (int k = 0; k < POINTS; k++) {
+            mean += probabilities[k] * k;
+        }
+        return mean * span;
+    }
+
+    public double getVariance() {
+        double mean = getMean() / span;
+        double variance = 0;
+        for (int k = 0; k < POINTS; k++) {
+            variance += probabilities[k] * (k - mean) * (k - mean);
+        }
+        return variance * span * span;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double[] getParams() {
+        return new double[]{span};
+    }
+}
@@ -12,4 +12,8 @@ class ConstantVariateGenerator extends RandomVariateGen {
     double nextDouble() {
         constant
     }
+
+    void nextArrayOfDouble(double[] values, int start, int number) {
+        Arrays.fill(values, start, start + number, constant)
+    }
 }
\ No newline at end of file
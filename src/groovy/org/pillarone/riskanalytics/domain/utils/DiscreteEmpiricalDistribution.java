@@ -0,0 +1,111 @@
+package org.pillarone.riskanalytics.domain.utils;
+
+import umontreal.iro.lecuyer.probdist.DiscreteDistribution;
+
+import java.util.Arrays;
+
+/**
+ * Discrete distribution over a finite set of observations. Observations are sorted and repeated observations
+ * merged at construction, observations of probability zero are dropped. The cumulative probabilities are kept in a primitive array. cdf uses a binary search,
+ * inverseF a guide table and therefore needs O(1) steps on average.
+ */
+public class DiscreteEmpiricalDistribution extends DiscreteDistribution {
+
+    private final double[] sortedValues;
+    /** cumulative[i] is the probability of an outcome <= sortedValues[i], cumulative[last] == 1 */
+    private final double[] cumulative;
+    private final double[] sortedProbabilities;
+    private final GuideTable guideTable;
+    private AliasTable aliasTable;
+
+    /**
+     * @param observations in any order, repeated observations are merged and those of probability zero dropped
+     * @param probabilities non-negative, normalized to a sum of 1
+     */
+    public DiscreteEmpiricalDistribution(double[] observations, double[] probabilities) {
+        this(sortAndMerge(observations, probabilities));
+    }
+
+    private DiscreteEmpiricalDistribution(double[][] sorted) {
+        super(sorted[0], sorted[1], sorted[0].length);
+        sortedValues = sorted[0];
+        sortedProbabilities = sorted[1];
+        cumulative = new double[sortedValues.length];
+        double sum = 0;
+        for (int i = 0; i < sortedValues.length; i++) {
+            sum += sortedProbabilities[i];
+            cumulative[i] = sum;
+        }
+        cumulative[cumulative.length - 1] = 1d;
+        guideTable = new GuideTable(cumulative);
+    }
+
+    private static double[][] sortAndMerge(double[] observations, double[] probabilities) {
+        if (observations.length != probabilities.length || observations.length == 0) {
+            throw new IllegalArgumentException("DiscreteEmpiricalDistribution.invalidNumberOfArguments");
+        }
+        double probabilitySum = 0;
+        for (double probability : probabilities) {
+            if (probability < 0) {
+                throw new IllegalArgumentException("DiscreteEmpiricalDistribution.negativeProbability");
+            }
+            probabilitySum += probability;
+        }
+        if (probabilitySum <= 0) {
+            throw new IllegalArgumentException("DiscreteEmpiricalDistribution.zeroProbabilitySum");
+        }
+        Integer[] order = new Integer[observations.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        final double[] values = observations;
+        Arrays.sort(order, new java.util.Comparator<Integer>() {
+            public int compare(Integer first, Integer second) {
+                return Double.compare(values[first], values[second]);
+            }
+        });
+        double[] sortedValues = new double[observations.length];
+        double[] sortedProbabilities = new double[observations.length];
+        int distinct = -1;
+        for (Integer index : order) {
+            if (probabilities[index] == 0) {
+                continue;
+            }
+            if (distinct < 0 || observations[index] != sortedValues[distinct]) {
+                sortedValues[++distinct] = observations[index];
+            }
+            sortedProbabilities[distinct] += probabilities[index] / probabilitySum;
+        }
+        return new double[][]{Arrays.copyOf(sortedValues, distinct + 1), Arrays.copyOf(sortedProbabilities, distinct + 1)};
+    }
+
+    public double cdf(double x) {
+        int index = GuideTable.upperBound(sortedValues, 0, sortedValues.length, x);
+        return index == 0 ? 0d : cumulative[index - 1];
+    }
+
+    public double inverseF(double u) {
+        if (u < 0 || u > 1) {
+            throw new IllegalArgumentException("u not in [0,1]");
+        }
+        return sortedValues[guideTable.index(u)];
+    }
+
+    public double[] getSortedValues() {
+        return sortedValues;
+    }
+
+    public double[] getSortedProbabilities() {
+        return sortedProbabilities;
+    }
+
+    /**
+     * @return alias table over getSortedValues(), built on first access
+     */
+    public AliasTable getAliasTable() {
+        if (aliasTable == null) {
+            aliasTable = new AliasTable(sortedProbabilities);
+        }
+        return aliasTable;
+    }
+}
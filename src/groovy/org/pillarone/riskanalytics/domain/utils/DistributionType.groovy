@@ -181,18 +181,17 @@ class DistributionType extends AbstractParameterObjectClassifier implements Seri
     }
 
     private static Distribution getDiscreteEmpiricalDistribution(double[] obs, double[] prob) {
-        double probSum = 0
-        for (double value : prob) {probSum += value}
-        for (int i = 0; i < prob.size(); i++) {
-            prob[i] = prob[i] / probSum
-        }
-        return new DiscreteDistribution(obs, prob, obs.length)
+        return new DiscreteEmpiricalDistribution(obs, prob)
     }
 
     private static Distribution getDiscreteEmpiricalCumulativeDistribution(double[] obs, double[] cumprob) {
-        double lastcell = 0, ret = 0
-        def prob = cumprob.collect {cell -> ret = cell - lastcell; lastcell = cell; ret }
-        return getDiscreteEmpiricalDistribution(obs, prob as double[])
+        double[] prob = new double[cumprob.length]
+        double lastcell = 0
+        for (int i = 0; i < cumprob.length; i++) {
+            prob[i] = cumprob[i] - lastcell
+            lastcell = cumprob[i]
+        }
+        return getDiscreteEmpiricalDistribution(obs, prob)
     }
 
     static RandomDistribution getUniformDistribution() {
@@ -250,7 +249,7 @@ class DistributionType extends AbstractParameterObjectClassifier implements Seri
                             asDouble(parameters["discreteEmpiricalCumulativeValues"].getColumnByName("cumulative probabilities")))
                     break
                 case DistributionType.PIECEWISELINEAREMPIRICAL:
-                    distribution.distribution = new PiecewiseLinearEmpiricalDist((double[]) asDouble(parameters["observations"].getColumnByName("observations")))
+                    distribution.distribution = PiecewiseLinearDistribution.getEmpiricalDistribution((double[]) asDouble(parameters["observations"].getColumnByName("observations")))
                     break
                 case DistributionType.PIECEWISELINEAR:
                     distribution.distribution = new PiecewiseLinearDistribution(asDouble(parameters["supportPoints"].getColumnByName("values")),
@@ -1,18 +1,25 @@
 package org.pillarone.riskanalytics.domain.utils;
 
-import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
-
 /**
+ * Parameter only terms of the density, distribution and inverse distribution function are cached whenever the
+ * parameters are set.
+ *
  * @author jessika.walter (at) intuitive-collaboration (dot) com
  */
 @Deprecated
-public class GeneralizedParetoDistribution extends ContinuousDistribution {
+public class GeneralizedParetoDistribution extends AbstractQuantileTableDistribution {
     /** shape parameter */
     private double xi;
     /** threshold parameter */
     private double beta;
     /** positive scaling parameter */
     private double tau;
+    /** 1 / tau */
+    private double tauInverse;
+    /** xi / tau */
+    private double xiOverTau;
+    /** upper end of the support, infinite unless xi < 0 */
+    private double upperBound;
 
 
     public GeneralizedParetoDistribution(double xi, double beta, double tau) {
@@ -20,19 +27,45 @@ public class GeneralizedParetoDistribution extends ContinuousDistribution {
     }
 
     public double density(double x) {
-        return density(xi, beta, tau, x);
+        if (x < beta || x >= upperBound) {
+            return 0;
+        }
+        if (xi == 0) {
+            return tauInverse * Math.exp(-tauInverse * (x - beta));
+        }
+        return tauInverse * Math.pow(1 + xiOverTau * (x - beta), -1 / xi - 1);
     }
 
     public double cdf(double x) {
-        return cdf(xi, beta, tau, x);
+        if (x <= beta)
+            return 0.0;
+        if (xi == 0) {
+            return 1.0 - Math.exp(-tauInverse * (x - beta));
+        }
+        if (x >= upperBound) {
+            return 1.0;
+        }
+        return 1.0 - Math.pow(1 + xiOverTau * (x - beta), -1 / xi);
     }
 
     public double barF(double x) {
-        return barF(xi, beta, tau, x);
+        if (x <= beta)
+            return 1.0;
+        return 1.0 - cdf(x);
     }
 
-    public double inverseF(double y) {
-        return inverseF(xi, beta, tau, y);
+    protected double exactInverseF(double y) {
+        if (y < 0.0 || y > 1.0)
+            throw new IllegalArgumentException("y not in [0,1]");
+        if (y <= 0.0)
+            return beta;
+        if (y >= 1.0) {
+            return upperBound;
+        }
+        if (xi == 0) {
+            return beta - tau * Math.log1p(-y);
+        }
+        return beta + tau / xi * (-1 + Math.pow(1 - y, -xi));
     }
 
     /**
@@ -130,10 +163,14 @@ public class GeneralizedParetoDistribution extends ContinuousDistribution {
         this.xi=xi;
         this.beta=beta;
         this.tau = tau;
+        tauInverse = 1 / tau;
+        xiOverTau = xi / tau;
+        upperBound = xi < 0 ? beta - tau / xi : Double.POSITIVE_INFINITY;
         supportA = beta;
         if (xi < 0) {
-            supportB = beta - tau / xi;
+            supportB = upperBound;
         }
+        dropQuantileTable();
     }
 
     public double[] getParams() {
@@ -0,0 +1,77 @@
+package org.pillarone.riskanalytics.domain.utils;
+
+/**
+ * Index lookup in a non-decreasing array of cumulative probabilities. Binary search needs O(log n) steps, the
+ * optional guide table (Chen and Asau) reduces inversion to O(1) steps on average: guide[k] is the smallest index
+ * whose cumulative probability is >= k / n.
+ */
+public class GuideTable {
+
+    private final double[] cumulative;
+    private final int[] guide;
+
+    /**
+     * @param cumulative non-decreasing with cumulative[last] == 1, the array is referenced and not copied
+     */
+    public GuideTable(double[] cumulative) {
+        this.cumulative = cumulative;
+        int size = cumulative.length;
+        guide = new int[size + 1];
+        int index = 0;
+        for (int k = 0; k <= size; k++) {
+            double u = k / (double) size;
+            while (index < size - 1 && cumulative[index] < u) {
+                index++;
+            }
+            guide[k] = index;
+        }
+    }
+
+    /**
+     * @return smallest index i with cumulative[i] >= u, last index if there is none
+     */
+    public int index(double u) {
+        int index = guide[(int) (u * (cumulative.length))];
+        int last = cumulative.length - 1;
+        while (index < last && cumulative[index] < u) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @return smallest index i in [from, to) with values[i] >= key or to if there is none
+     */
+    public static int lowerBound(double[] values, int from, int to, double key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return smallest index i in [from, to) with values[i] > key or to if there is none
+     */
+    public static int upperBound(double[] values, int from, int to, double key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
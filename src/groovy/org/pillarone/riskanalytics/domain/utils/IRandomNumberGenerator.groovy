@@ -6,5 +6,17 @@ import umontreal.iro.lecuyer.probdist.Distribution
 interface IRandomNumberGenerator {
 
     Number nextValue()
+
+    /**
+     * Fills values[start] to values[start + number - 1] with the next number variates without boxing them.
+     */
+    void nextValues(double[] values, int start, int number)
+
+    /**
+     * Fills values[start] to values[start + number - 1] with the next number variates, intended for frequencies.
+     * Variates of continuous distributions are truncated as in nextValue().intValue().
+     */
+    void nextValues(int[] values, int start, int number)
+
     Distribution getDistribution()
-}
\ No newline at end of file
+}
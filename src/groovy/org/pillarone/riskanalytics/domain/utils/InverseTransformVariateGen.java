@@ -0,0 +1,55 @@
+package org.pillarone.riskanalytics.domain.utils;
+
+import umontreal.iro.lecuyer.probdist.Distribution;
+import umontreal.iro.lecuyer.randvar.RandomVariateGen;
+import umontreal.iro.lecuyer.rng.RandomStream;
+
+/**
+ * Censored and shifted variates by direct inversion: the probabilities of the censoring limits are evaluated once
+ * at construction. Every draw consumes one uniform u and returns min if u <= cdf(min), max if u > cdf(max) and
+ * inverseF(u) otherwise, each plus shift. This equals censoring inverseF(u) but saves the inverseF evaluation for
+ * the censored probability mass. Truncation is covered by passing a {@link TruncatedDist}.
+ */
+public class InverseTransformVariateGen extends RandomVariateGen {
+
+    private final double min;
+    private final double max;
+    private final double shift;
+    private final double cdfMin;
+    private final double cdfMax;
+
+    public InverseTransformVariateGen(RandomStream stream, Distribution distribution, double min, double max, double shift) {
+        super(stream, distribution);
+        this.min = min;
+        this.max = max;
+        this.shift = shift;
+        // infinite limits never censor, the comparisons below are never true for u in [0,1]
+        cdfMin = min == Double.NEGATIVE_INFINITY ? -1 : distribution.cdf(min);
+        cdfMax = max == Double.POSITIVE_INFINITY ? 2 : distribution.cdf(max);
+    }
+
+    public InverseTransformVariateGen(RandomStream stream, Distribution distribution, double min, double max) {
+        this(stream, distribution, min, max, 0d);
+    }
+
+    public double nextDouble() {
+        return inverseF(stream.nextDouble());
+    }
+
+    public void nextArrayOfDouble(double[] values, int start, int number) {
+        for (int i = start; i < start + number; i++) {
+            values[i] = inverseF(stream.nextDouble());
+        }
+    }
+
+    private double inverseF(double u) {
+        if (u <= cdfMin) {
+            return min + shift;
+        }
+        if (u > cdfMax) {
+            return max + shift;
+        }
+        // clamping guards against rounding errors of inverseF close to the limits
+        return Math.max(min, Math.min(max, dist.inverseF(u))) + shift;
+    }
+}
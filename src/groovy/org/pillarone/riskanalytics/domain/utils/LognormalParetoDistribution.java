@@ -1,6 +1,5 @@
 package org.pillarone.riskanalytics.domain.utils;
 
-import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
 import umontreal.iro.lecuyer.probdist.LognormalDist;
 import umontreal.iro.lecuyer.probdist.NormalDist;
 import umontreal.iro.lecuyer.probdist.ParetoDist;
@@ -12,11 +11,12 @@ import umontreal.iro.lecuyer.probdist.ParetoDist;
  *  mu = mu(sigma, alpha, beta) and sigma that is right-truncated at beta. From beta the distribution is given by a
  *  Pareto density with parameters alpha and beta. Appropriate weightings of the truncated lognormal and pareto
  *  densities are given by a dependent parameter r = r(sigma, alpha, beta, mu).
+ *  r and the normalisation of the truncated lognormal are cached whenever the parameters are set.
  *
  *  @author jessika.walter (at) intuitive-collaboration (dot) com
  */
 @Deprecated
-public class LognormalParetoDistribution extends ContinuousDistribution {
+public class LognormalParetoDistribution extends AbstractQuantileTableDistribution {
     /**
      * scaling parameter lognormal > 0
      */
@@ -33,6 +33,14 @@ public class LognormalParetoDistribution extends ContinuousDistribution {
      * mean lognormal
      */
     private double mu;
+    /**
+     * weight of the truncated lognormal part
+     */
+    private double r;
+    /**
+     * lognormal cdf at beta
+     */
+    private double lognormalCdfBeta;
 
 
     public LognormalParetoDistribution(double sigma, double alpha, double beta) {
@@ -55,20 +63,44 @@ public class LognormalParetoDistribution extends ContinuousDistribution {
     }
 
     public double density(double x) {
-        return density(sigma, alpha, beta, mu, x);
+        if (x <= 0) {
+            return 0;
+        }
+        if (x <= beta) {
+            return r / lognormalCdfBeta * LognormalDist.density(mu, sigma, x);
+        }
+        return (1.0 - r) * ParetoDist.density(alpha, beta, x);
     }
 
     public double cdf(double x) {
-        
-        return cdf(sigma, alpha, beta, mu, x);
+        if (x <= 0) {
+            return 0.0;
+        }
+        if (x <= beta) {
+            return r / lognormalCdfBeta * LognormalDist.cdf(mu, sigma, x);
+        }
+        return r + (1.0 - r) * ParetoDist.cdf(alpha, beta, x);
     }
 
     public double barF(double x) {
-        return barF(sigma, alpha, beta, mu, x);
+        if (x <= 0) {
+            return 1.0;
+        }
+        return 1.0 - cdf(x);
     }
 
-    public double inverseF(double y) {
-        return inverseF(sigma, alpha, beta, mu, y);
+    protected double exactInverseF(double y) {
+        if (y < 0.0 || y > 1.0)
+            throw new IllegalArgumentException("y not in [0,1]");
+        if (y <= 0.0)
+            return 0.0;
+        if (y >= 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (y <= r) {
+            return LognormalDist.inverseF(mu, sigma, y / r * lognormalCdfBeta);
+        }
+        return ParetoDist.inverseF(alpha, beta, (y - r) / (1.0 - r));
     }
 
     /**
@@ -250,6 +282,9 @@ public class LognormalParetoDistribution extends ContinuousDistribution {
         this.beta = beta;
         this.mu = mu;
         supportA = 0.0;
+        r = getR(sigma, alpha, beta, mu);
+        lognormalCdfBeta = NormalDist.cdf(mu, sigma, Math.log(beta));
+        dropQuantileTable();
     }
 
     public double[] getParams() {
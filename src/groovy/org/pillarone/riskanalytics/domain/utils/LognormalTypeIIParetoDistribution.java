@@ -1,6 +1,5 @@
 package org.pillarone.riskanalytics.domain.utils;
 
-import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
 import umontreal.iro.lecuyer.probdist.LognormalDist;
 import umontreal.iro.lecuyer.probdist.NormalDist;
 
@@ -13,9 +12,10 @@ import umontreal.iro.lecuyer.probdist.NormalDist;
  *         and sigma that is right-truncated at beta. From beta the distribution is given by a generalized Pareto density
  *         in the form of the type II pareto density (a.k.a Lomax density) with parameters alpha, beta and lambda.
  *         Appropriate weightings of the truncated lognormal and type II pareto densities are given by a dependent parameter r = r(sigma,alpha,beta,lambda, mu).*
+ *         r, the normalisation of the truncated lognormal and the type II pareto part are cached whenever the parameters are set.
  */
 @Deprecated
-public class LognormalTypeIIParetoDistribution extends ContinuousDistribution {
+public class LognormalTypeIIParetoDistribution extends AbstractQuantileTableDistribution {
     /**
      * calling parameter lognormal > 0
      */
@@ -36,6 +36,15 @@ public class LognormalTypeIIParetoDistribution extends ContinuousDistribution {
      * mean parameter lognormal
      */
     private double mu;
+    /**
+     * weight of the truncated lognormal part
+     */
+    private double r;
+    /**
+     * lognormal cdf at beta
+     */
+    private double lognormalCdfBeta;
+    private TypeIIParetoDistribution typeIIPareto;
 
     public LognormalTypeIIParetoDistribution(double sigma, double alpha, double beta, double lambda) {
         setParams(sigma, alpha, beta, lambda);
@@ -52,19 +61,44 @@ public class LognormalTypeIIParetoDistribution extends ContinuousDistribution {
     }
 
     public double density(double x) {
-        return density(sigma, alpha, beta, lambda, mu, x);
+        if (x <= 0) {
+            return 0;
+        }
+        if (x <= beta) {
+            return r / lognormalCdfBeta * LognormalDist.density(mu, sigma, x);
+        }
+        return (1.0 - r) * typeIIPareto.density(x);
     }
 
     public double cdf(double x) {
-        return cdf(sigma, alpha, beta, lambda, mu, x);
+        if (x <= 0) {
+            return 0.0;
+        }
+        if (x <= beta) {
+            return r / lognormalCdfBeta * LognormalDist.cdf(mu, sigma, x);
+        }
+        return r + (1.0 - r) * typeIIPareto.cdf(x);
     }
 
     public double barF(double x) {
-        return barF(sigma, alpha, beta, lambda, mu, x);
+        if (x <= 0) {
+            return 1.0;
+        }
+        return 1.0 - cdf(x);
     }
 
-    public double inverseF(double y) {
-        return inverseF(sigma, alpha, beta, lambda, mu, y);
+    protected double exactInverseF(double y) {
+        if (y < 0.0 || y > 1.0)
+            throw new IllegalArgumentException("y not in [0,1]");
+        if (y <= 0.0)
+            return 0.0;
+        if (y >= 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (y <= r) {
+            return LognormalDist.inverseF(mu, sigma, y / r * lognormalCdfBeta);
+        }
+        return typeIIPareto.inverseF((y - r) / (1.0 - r));
     }
 
     /**
@@ -267,6 +301,10 @@ public class LognormalTypeIIParetoDistribution extends ContinuousDistribution {
         this.lambda = lambda;
         this.mu = mu;
         supportA = 0.0;
+        r = getR(sigma, alpha, beta, lambda, mu);
+        lognormalCdfBeta = NormalDist.cdf(mu, sigma, Math.log(beta));
+        typeIIPareto = new TypeIIParetoDistribution(alpha, beta, lambda);
+        dropQuantileTable();
     }
 
 
@@ -0,0 +1,158 @@
+package org.pillarone.riskanalytics.domain.utils;
+
+import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
+
+/**
+ * Tabulated inverse distribution function of a continuous distribution. The quantile function is interpolated
+ * by a monotone piecewise cubic Hermite spline (Fritsch-Butland slopes) on the probabilities [0, 1 - exactTailProbability].
+ * Starting from an equidistant grid, every interval whose interpolated values at its quartiles and midpoint differ by
+ * more than half of maxAbsoluteError from the exact quantile is bisected until all intervals meet the error bound. Intervals still
+ * violating it once MAX_NODES is reached, as well as the far tail above 1 - exactTailProbability, are not
+ * interpolated: inverseF() returns Double.NaN for them and the caller has to evaluate the exact quantile.
+ * A guide table maps every probability to its interval in O(1) average time.
+ */
+public class MonotoneQuantileTable {
+
+    public static final double DEFAULT_EXACT_TAIL_PROBABILITY = 1E-3;
+
+    private static final int INITIAL_INTERVALS = 64;
+    private static final int MAX_NODES = 1 << 14;
+
+    private final double upperProbability;
+    private double[] probabilities;
+    private double[] quantiles;
+    private double[] slopes;
+    /** interval i is evaluated exactly as it did not reach the error bound */
+    private boolean[] exact;
+    private int[] guide;
+    private double guideFactor;
+
+    /**
+     * @param distribution its inverseF() has to be the exact quantile function while the table is built
+     * @param maxAbsoluteError bound for the interpolation error
+     * @param exactTailProbability probabilities above 1 - exactTailProbability are not tabulated
+     */
+    public MonotoneQuantileTable(ContinuousDistribution distribution, double maxAbsoluteError, double exactTailProbability) {
+        if (maxAbsoluteError <= 0) {
+            throw new IllegalArgumentException("maxAbsoluteError <= 0");
+        }
+        if (exactTailProbability <= 0 || exactTailProbability >= 1) {
+            throw new IllegalArgumentException("exactTailProbability not in (0,1)");
+        }
+        upperProbability = 1 - exactTailProbability;
+        // the error is only sampled at three points per interval, keep a safety margin for the points in between
+        double tolerance = 0.5 * maxAbsoluteError;
+        int intervals = INITIAL_INTERVALS;
+        probabilities = new double[intervals + 1];
+        quantiles = new double[intervals + 1];
+        for (int i = 0; i <= intervals; i++) {
+            probabilities[i] = upperProbability * i / intervals;
+            quantiles[i] = distribution.inverseF(probabilities[i]);
+        }
+        while (true) {
+            slopes = slopes(probabilities, quantiles);
+            double[] midQuantiles = new double[intervals];
+            exact = new boolean[intervals];
+            int failed = 0;
+            for (int i = 0; i < intervals; i++) {
+                double midProbability = 0.5 * (probabilities[i] + probabilities[i + 1]);
+                midQuantiles[i] = distribution.inverseF(midProbability);
+                if (!(Math.abs(interpolate(i, midProbability) - midQuantiles[i]) <= tolerance)
+                        || !withinError(distribution, i, 0.25, tolerance)
+                        || !withinError(distribution, i, 0.75, tolerance)) {
+                    exact[i] = true;
+                    failed++;
+                }
+            }
+            if (failed == 0 || intervals + failed >= MAX_NODES) {
+                break;
+            }
+            double[] refinedProbabilities = new double[intervals + failed + 1];
+            double[] refinedQuantiles = new double[intervals + failed + 1];
+            int j = 0;
+            for (int i = 0; i < intervals; i++) {
+                refinedProbabilities[j] = probabilities[i];
+                refinedQuantiles[j++] = quantiles[i];
+                if (exact[i]) {
+                    refinedProbabilities[j] = 0.5 * (probabilities[i] + probabilities[i + 1]);
+                    refinedQuantiles[j++] = midQuantiles[i];
+                }
+            }
+            refinedProbabilities[j] = probabilities[intervals];
+            refinedQuantiles[j] = quantiles[intervals];
+            probabilities = refinedProbabilities;
+            quantiles = refinedQuantiles;
+            intervals += failed;
+        }
+        guideFactor = intervals / upperProbability;
+        guide = new int[intervals + 1];
+        int interval = 0;
+        for (int k = 0; k <= intervals; k++) {
+            double probability = k / guideFactor;
+            while (interval < intervals - 1 && probabilities[interval + 1] <= probability) {
+                interval++;
+            }
+            guide[k] = interval;
+        }
+    }
+
+    /**
+     * @return interpolated quantile or Double.NaN if y is not covered by the table and has to be evaluated exactly
+     */
+    public double inverseF(double y) {
+        if (!(y >= 0 && y <= upperProbability)) {
+            return Double.NaN;
+        }
+        int interval = guide[(int) (y * guideFactor)];
+        int lastInterval = exact.length - 1;
+        while (interval < lastInterval && probabilities[interval + 1] < y) {
+            interval++;
+        }
+        if (exact[interval]) {
+            return Double.NaN;
+        }
+        return interpolate(interval, y);
+    }
+
+    public int getNumberOfNodes() {
+        return probabilities.length;
+    }
+
+    private boolean withinError(ContinuousDistribution distribution, int interval, double t, double tolerance) {
+        double y = probabilities[interval] + t * (probabilities[interval + 1] - probabilities[interval]);
+        return Math.abs(interpolate(interval, y) - distribution.inverseF(y)) <= tolerance;
+    }
+
+    private double interpolate(int interval, double y) {
+        double h = probabilities[interval + 1] - probabilities[interval];
+        double t = (y - probabilities[interval]) / h;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        return (2 * t3 - 3 * t2 + 1) * quantiles[interval] + (t3 - 2 * t2 + t) * h * slopes[interval]
+                + (3 * t2 - 2 * t3) * quantiles[interval + 1] + (t3 - t2) * h * slopes[interval + 1];
+    }
+
+    /**
+     * Fritsch-Butland slopes: weighted harmonic mean of the adjacent secants, zero at local extrema. They keep the
+     * Hermite interpolant monotone on every interval.
+     */
+    private static double[] slopes(double[] u, double[] x) {
+        int intervals = u.length - 1;
+        double[] h = new double[intervals];
+        double[] secants = new double[intervals];
+        for (int i = 0; i < intervals; i++) {
+            h[i] = u[i + 1] - u[i];
+            secants[i] = (x[i + 1] - x[i]) / h[i];
+        }
+        double[] slopes = new double[intervals + 1];
+        slopes[0] = secants[0];
+        slopes[intervals] = secants[intervals - 1];
+        for (int i = 1; i < intervals; i++) {
+            if (secants[i - 1] * secants[i] > 0) {
+                slopes[i] = 3 * (h[i - 1] + h[i])
+                        / ((2 * h[i] + h[i - 1]) / secants[i - 1] + (h[i] + 2 * h[i - 1]) / secants[i]);
+            }
+        }
+        return slopes;
+    }
+}
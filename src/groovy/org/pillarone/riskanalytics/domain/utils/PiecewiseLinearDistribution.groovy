@@ -1,27 +1,35 @@
 package org.pillarone.riskanalytics.domain.utils
 
-import umontreal.iro.lecuyer.probdist.Distribution
+import groovy.transform.CompileStatic
 import umontreal.iro.lecuyer.probdist.ContinuousDistribution
 
 /**
  * Implements the interface of SSJ (external university of Montreal) package
  * in order to be used in the same way as the other predefined distributions.
  *
+ * Support points are kept in primitive arrays, cdf and density use a binary search, inverseF a guide table if
+ * the distribution has more than GUIDE_TABLE_THRESHOLD support points and a binary search otherwise. The val, cdft
+ * and probabilities properties return copies of the arrays as lists.
+ *
  * Date: 31.07.2008,  10:25:17
  * @author stefan.zumsteg@intuitive-collaboration.com
  */
 @Deprecated
+@CompileStatic
 class PiecewiseLinearDistribution extends ContinuousDistribution {
 
+    static final int GUIDE_TABLE_THRESHOLD = 64
+
     // todo(jwa): validator to check if values strongly monotonically increasing
-    List<Double> val                //sortedValues contains a series of monotonically increasing values
-    List<Double> cdft                //cdft[i] is probability that value of random variable is <=sortedValues[i]
+    private double[] val                //sortedValues contains a series of monotonically increasing values
+    private double[] cdft                //cdft[i] is probability that value of random variable is <=sortedValues[i]
     //cdft[0]=0, , cdft[last]= 1
     private int last
     private double mean
     private double stdDev
     private double variance
-    List<Double> probabilities
+    private double[] probabilities
+    private GuideTable guideTable
 
     /** Constructor checks validity of arguments:
      *  - matching list length
@@ -31,30 +39,79 @@ class PiecewiseLinearDistribution extends ContinuousDistribution {
      * sets all internal variables
      */
     PiecewiseLinearDistribution(double[] values, double[] cumulProb) {
-        last = values.size() - 1;
-        val = []
-        cdft = []
-        probabilities = []
-        if (values.size() != cumulProb.size())
+        this(values, cumulProb, values.length > GUIDE_TABLE_THRESHOLD)
+    }
+
+    /**
+     * @param guideTable use a guide table for inverseF instead of a binary search
+     */
+    PiecewiseLinearDistribution(double[] values, double[] cumulProb, boolean guideTable) {
+        this(values, cumulProb, guideTable, false)
+    }
+
+    private PiecewiseLinearDistribution(double[] values, double[] cumulProb, boolean guideTable, boolean allowEqualValues) {
+        last = values.length - 1;
+        if (values.length != cumulProb.length)
             throw new IllegalArgumentException("PiecewiseLinearDistribution.invalidNumberOfArguments");
         if (cumulProb[0] != 0) throw new IllegalArgumentException("PiecewiseLinearDistribution.invalidFirstFunctionValue");
-        val.add(values[0]); cdft.add(cumulProb[0]);
-        probabilities.add(cumulProb[0])
         if (cumulProb[last] != 1) throw new IllegalArgumentException("PiecewiseLinearDistribution.invalidLastFunctionValue");
+        val = new double[last + 1]
+        cdft = new double[last + 1]
+        probabilities = new double[last + 1]
+        val[0] = values[0]; cdft[0] = cumulProb[0];
+        probabilities[0] = cumulProb[0]
         for (int i = 1; i <= last; i++) {
-            if (values[i] <= values[i - 1])
+            if (values[i] < values[i - 1] || (values[i] == values[i - 1] && !allowEqualValues))
                 throw new IllegalArgumentException("PiecewiseLinearDistribution.nonincreasingArguments");
             if (cumulProb[i] <= cumulProb[i - 1]) {
                 throw new IllegalArgumentException("PiecewiseLinearDistribution.nonincreasingFunctionValues");
             }
-            val.add(values[i]);
-            cdft.add(cumulProb[i]);
-            probabilities.add(cumulProb[i]-cumulProb[i-1])
-
+            val[i] = values[i]
+            cdft[i] = cumulProb[i]
+            probabilities[i] = cumulProb[i] - cumulProb[i - 1]
+        }
+        if (guideTable) {
+            this.guideTable = new GuideTable(cdft)
         }
         computeDescriptiveStatVars()
     }
 
+    /**
+     * Piecewise linear interpolation of the empirical distribution function, equivalent to SSJ's
+     * PiecewiseLinearEmpiricalDist: the sorted observations have cumulative probabilities i / (n - 1).
+     * Repeated observations are allowed, a piece between equal observations is a point mass. As in SSJ, mean,
+     * variance and standard deviation are the sample statistics of the observations. A single observation is a
+     * degenerate distribution with variance 0.
+     */
+    static PiecewiseLinearDistribution getEmpiricalDistribution(double[] observations) {
+        double[] sortedObservations = observations.length == 1 ? [observations[0], observations[0]] as double[]
+                : (double[]) observations.clone()
+        Arrays.sort(sortedObservations)
+        int pieces = sortedObservations.length - 1
+        double[] cumulProb = new double[sortedObservations.length]
+        for (int i = 0; i <= pieces; i++) {
+            cumulProb[i] = i / (double) pieces
+        }
+        PiecewiseLinearDistribution distribution = new PiecewiseLinearDistribution(sortedObservations, cumulProb,
+                sortedObservations.length > GUIDE_TABLE_THRESHOLD, true)
+        distribution.computeSampleStatVars(observations)
+        distribution
+    }
+
+    private void computeSampleStatVars(double[] observations) {
+        mean = 0
+        for (double observation : observations) {
+            mean += observation
+        }
+        mean /= observations.length
+        double sumOfSquares = 0
+        for (double observation : observations) {
+            sumOfSquares += (observation - mean) * (observation - mean)
+        }
+        variance = observations.length == 1 ? 0 : sumOfSquares / (observations.length - 1)
+        stdDev = Math.sqrt(variance)
+    }
+
     void computeDescriptiveStatVars() {
         mean = 0
         variance = 0
@@ -63,32 +120,33 @@ class PiecewiseLinearDistribution extends ContinuousDistribution {
             double pieceProb = cdft[i] - cdft[i - 1]
             mean += pieceProb * (val[i] + val[i - 1]) / 2
 
-            meanSquare += pieceProb *  //expected value of x^2 for values between sortedValues[i-1] and sortedValues[i]
-                    (Math.pow(val[i], 3) - Math.pow(val[i - 1], 3)) /
-                    (3 * (val[i] - val[i - 1])
-                    )
+            if (val[i] == val[i - 1]) {
+                meanSquare += pieceProb * val[i] * val[i]
+            }
+            else {
+                meanSquare += pieceProb *  //expected value of x^2 for values between sortedValues[i-1] and sortedValues[i]
+                        (Math.pow(val[i], 3) - Math.pow(val[i - 1], 3)) /
+                        (3 * (val[i] - val[i - 1])
+                        )
+            }
         }
         variance = meanSquare - mean * mean
         stdDev = Math.sqrt(variance)
     }
 
-    /*This implementation is not efficient
-     * for improved performance with sets having a large number of support points a binary search should be implemented
-    */
-
     double inverseF(double u) {
         if ((u < 0) || (u > 1)) throw new IllegalArgumentException("PiecewiseLinearDistribution.invalidArgumentsInverse");
-        int i = 1;                                     //first piece of cdft containing u
-        while (u > cdft[i]) {i++}                       //now we have cdft[i-1]<=u<=cdft[i]    (even cdft[i-1]<u for u>0)
+        //first piece of cdft containing u, we have cdft[i-1]<=u<=cdft[i]    (even cdft[i-1]<u for u>0)
+        int i = guideTable == null ? GuideTable.lowerBound(cdft, 1, last, u) : Math.max(1, guideTable.index(u))
         double pos = (u - cdft[i - 1]) / (cdft[i] - cdft[i - 1])    //pos is relative location of u in that interval
         return (1 - pos) * val[i - 1] + pos * val[i]
     }
 
     double cdf(double v) {
-        if (v <= val[0]) return 0.0;
+        if (v < val[0]) return 0.0;
         if (v >= val[last]) return 1.0
-        int i = 1;                                     //first piece of sortedValues containing v
-        while (v > val[i]) {i++}                       //now we have sortedValues[i-1]<v<=sortedValues[i]
+        //last piece of sortedValues containing v, we have sortedValues[i-1]<=v<sortedValues[i], i.e. cdf is right-continuous at ties
+        int i = GuideTable.upperBound(val, 1, last, v)
         double pos = (v - val[i - 1]) / (val[i] - val[i - 1])    //pos is relative location of v in that interval
         return (1 - pos) * cdft[i - 1] + pos * cdft[i]
     }
@@ -99,11 +157,16 @@ class PiecewiseLinearDistribution extends ContinuousDistribution {
     double density(double v){
         if (v< val[0]) return 0.0
         if (v >= val[last]) return 0.0
-        int i=1;
-        while (v > val[i]) {i++}
-        return probabilities[i-1] 
+        int i = GuideTable.lowerBound(val, 1, last, v)
+        return probabilities[i-1]
     }
 
+    List<Double> getVal() {val.toList()}
+
+    List<Double> getCdft() {cdft.toList()}
+
+    List<Double> getProbabilities() {probabilities.toList()}
+
     double getMean() {return mean}
 
     double getVariance() {return variance}
@@ -117,4 +180,4 @@ class PiecewiseLinearDistribution extends ContinuousDistribution {
 
     ;
     //Returns the parameters of the distribution function in the same order as in the constructors.
-}
\ No newline at end of file
+}
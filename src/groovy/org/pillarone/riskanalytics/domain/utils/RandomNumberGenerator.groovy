@@ -1,5 +1,6 @@
 package org.pillarone.riskanalytics.domain.utils
 
+import groovy.transform.CompileStatic
 import umontreal.iro.lecuyer.probdist.Distribution
 import umontreal.iro.lecuyer.randvar.RandomVariateGen
 import umontreal.iro.lecuyer.randvar.RandomVariateGenInt
@@ -25,6 +26,23 @@ class RandomNumberGenerator extends AbstractParameterObject implements IRandomNu
         return generator.nextDouble()
     }
 
+    @CompileStatic
+    public void nextValues(double[] values, int start, int number) {
+        generator.nextArrayOfDouble(values, start, number)
+    }
+
+    @CompileStatic
+    public void nextValues(int[] values, int start, int number) {
+        if (generator instanceof RandomVariateGenInt) {
+            ((RandomVariateGenInt) generator).nextArrayOfInt(values, start, number)
+        }
+        else {
+            for (int i = start; i < start + number; i++) {
+                values[i] = (int) generator.nextDouble()
+            }
+        }
+    }
+
     public Distribution getDistribution() {
         generator.distribution
     }
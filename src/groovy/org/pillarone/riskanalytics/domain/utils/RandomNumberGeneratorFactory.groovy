@@ -3,6 +3,7 @@ package org.pillarone.riskanalytics.domain.utils
 import org.pillarone.riskanalytics.core.util.MathUtils
 import umontreal.iro.lecuyer.probdist.BinomialDist
 import umontreal.iro.lecuyer.probdist.ContinuousDistribution
+import umontreal.iro.lecuyer.probdist.Distribution
 import umontreal.iro.lecuyer.probdist.UniformDist
 import umontreal.iro.lecuyer.randvar.BinomialGen
 import umontreal.iro.lecuyer.randvar.RandomVariateGen
@@ -12,6 +13,7 @@ import umontreal.iro.lecuyer.rng.RandomStreamBase
 import umontreal.iro.lecuyer.probdist.DiscreteDistribution
 import umontreal.iro.lecuyer.probdist.DiscreteDistributionInt
 import org.pillarone.riskanalytics.core.simulation.InvalidParameterException
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.AntitheticStreams
 
 /**
  * Enables different streams for generators, and parametrization of streams.
@@ -36,20 +38,44 @@ class RandomNumberGeneratorFactory {
     }
 
     static IRandomNumberGenerator getBinomialGenerator() {
+        return getBinomialGenerator(MathUtils.getRandomStreamBase())
+    }
+
+    static IRandomNumberGenerator getBinomialGenerator(RandomStream stream) {
         IRandomNumberGenerator binomialGenerator
-        BinomialGen generator = new BinomialGen(MathUtils.getRandomStreamBase(), new BinomialDist(1, 1))
+        BinomialGen generator = new BinomialGen(stream, new BinomialDist(1, 1))
         binomialGenerator = new RandomNumberGenerator(generator: generator)
         return binomialGenerator
     }
 
+    /**
+     * Draw sites of frequencies sample discrete empirical distributions with their alias table, all other draws
+     * invert, i.e. claim sizes keep their result stream. Alias draws are not monotone in the uniform and would void
+     * the pairing of antithetic streams, which are therefore inverted too.
+     *
+     * @param aliasSampling the draw site samples frequencies
+     */
+    static RandomVariateGen getVariateGenerator(RandomStream stream, Distribution distribution, boolean aliasSampling) {
+        if (aliasSampling && distribution instanceof DiscreteEmpiricalDistribution && !AntitheticStreams.isAntithetic(stream)) {
+            return new AliasVariateGen(stream, (DiscreteEmpiricalDistribution) distribution)
+        }
+        return new RandomVariateGen(stream, distribution)
+    }
+
     static IRandomNumberGenerator getGenerator(RandomDistribution distribution) {
-        RandomVariateGen generator = new RandomVariateGen(MathUtils.getRandomStreamBase(), distribution.distribution)
-        return new RandomNumberGenerator(generator: generator, type: distribution.type, parameters: distribution.parameters)
+        return getGenerator(distribution, MathUtils.getRandomStreamBase())
     }
 
 
     static IRandomNumberGenerator getGenerator(RandomDistribution distribution, RandomStream stream) {
-        RandomVariateGen generator = new RandomVariateGen(stream, distribution.distribution)
+        return getGenerator(distribution, stream, false)
+    }
+
+    /**
+     * @param aliasSampling the generator draws frequencies, see getVariateGenerator()
+     */
+    static IRandomNumberGenerator getGenerator(RandomDistribution distribution, RandomStream stream, boolean aliasSampling) {
+        RandomVariateGen generator = getVariateGenerator(stream, distribution.distribution, aliasSampling)
         return new RandomNumberGenerator(generator: generator, type: distribution.type, parameters: distribution.parameters)
     }
 
@@ -57,24 +83,77 @@ class RandomNumberGeneratorFactory {
         return getGenerator(distribution, modifier, MathUtils.getRandomStreamBase())
     }
 
+    /**
+     * Draws claim sizes conditional on exceeding threshold, the threshold applies to the modified and shifted claim
+     * size. Every draw costs one uniform and one inverseF evaluation.
+     */
+    static IRandomNumberGenerator getTailGenerator(RandomDistribution distribution, DistributionModified modifier,
+                                                   double threshold, RandomStream randomStream) {
+        Distribution tail = new AboveThresholdDistribution(getModifiedDistribution(distribution, modifier), getShift(modifier), threshold)
+        return new RandomNumberGenerator(generator: new RandomVariateGen(randomStream, tail), modifier: modifier?.type,
+                type: distribution.type, parameters: distribution.parameters)
+    }
+
+    /**
+     * @return the distribution restricted to the censoring or truncation limits of modifier, without its shift
+     */
+    static Distribution getModifiedDistribution(RandomDistribution distribution, DistributionModified modifier) {
+        Distribution modified = distribution.distribution
+        Map parameters = modifier?.parameters
+        switch (modifier?.type) {
+            case DistributionModifier.CENSORED:
+            case DistributionModifier.CENSOREDSHIFT:
+                modified = new CensoredDistribution(modified, (double) parameters["min"], (double) parameters["max"])
+                break
+            case DistributionModifier.TRUNCATED:
+            case DistributionModifier.TRUNCATEDSHIFT:
+                modified = new TruncatedDist(modified, (double) parameters["min"], (double) parameters["max"])
+                break
+            case DistributionModifier.LEFTTRUNCATEDRIGHTCENSOREDSHIFT:
+                modified = new CensoredDistribution(
+                        new TruncatedDist(modified, (double) parameters["min"], (double) Double.POSITIVE_INFINITY),
+                        (double) Double.NEGATIVE_INFINITY, (double) parameters["max"])
+                break
+        }
+        return modified
+    }
+
+    /**
+     * @return the shift of modifier or 0 if it has none
+     */
+    static double getShift(DistributionModified modifier) {
+        Object shift = modifier?.parameters?.get("shift")
+        return shift == null ? 0d : (double) shift
+    }
+
     static IRandomNumberGenerator getGenerator(RandomDistribution distribution, DistributionModified modifier, RandomStreamBase randomStream) {
+        return getGenerator(distribution, modifier, randomStream, false)
+    }
+
+    /**
+     * @param aliasSampling the generator draws frequencies, only unmodified distributions are sampled with their
+     *          alias table, see getVariateGenerator()
+     */
+    static IRandomNumberGenerator getGenerator(RandomDistribution distribution, DistributionModified modifier,
+                                               RandomStreamBase randomStream, boolean aliasSampling) {
         if (modifier) {
             IRandomNumberGenerator generator
             switch (modifier.type) {
                 case DistributionModifier.NONE:
                     generator = new RandomNumberGenerator(
-                            generator: new RandomVariateGen(randomStream, distribution.distribution))
+                            generator: getVariateGenerator(randomStream, distribution.distribution, aliasSampling))
                     break
             // for simple truncation or censoring, we access the parameters directly
+            // boundary probabilities are evaluated once here, each draw costs at most one inverseF evaluation
                 case DistributionModifier.CENSORED:
                     generator = new RandomNumberGenerator(
-                            generator: new CensoredVariateGen(randomStream, distribution.distribution,
+                            generator: new InverseTransformVariateGen(randomStream, distribution.distribution,
                                     (double) modifier.parameters["min"],
                                     (double) modifier.parameters["max"]))
                     break
                 case DistributionModifier.CENSOREDSHIFT:
                     generator = new RandomNumberGenerator(
-                            generator: new CensoredVariateGen(randomStream, distribution.distribution,
+                            generator: new InverseTransformVariateGen(randomStream, distribution.distribution,
                                     (double) modifier.parameters["min"],
                                     (double) modifier.parameters["max"],
                                     (double) modifier.parameters["shift"]))
@@ -102,7 +181,7 @@ class RandomNumberGeneratorFactory {
                     break
                 case DistributionModifier.LEFTTRUNCATEDRIGHTCENSOREDSHIFT:
                     generator = new RandomNumberGenerator(
-                            generator: new CensoredVariateGen(randomStream,
+                            generator: new InverseTransformVariateGen(randomStream,
                                     new TruncatedDist(distribution.distribution,
                                             (double) modifier.parameters["min"],
                                             (double) Double.POSITIVE_INFINITY),
@@ -120,7 +199,7 @@ class RandomNumberGeneratorFactory {
             return generator
         }
         else {
-            return getGenerator(distribution)
+            return getGenerator(distribution, MathUtils.getRandomStreamBase(), aliasSampling)
         }
     }
 }
\ No newline at end of file
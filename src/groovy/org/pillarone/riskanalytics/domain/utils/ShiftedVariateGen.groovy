@@ -1,5 +1,6 @@
 package org.pillarone.riskanalytics.domain.utils
 
+import groovy.transform.CompileStatic
 import umontreal.iro.lecuyer.probdist.Distribution
 import umontreal.iro.lecuyer.randvar.RandomVariateGen
 import umontreal.iro.lecuyer.rng.RandomStream
@@ -20,4 +21,12 @@ class ShiftedVariateGen extends RandomVariateGen {
     double nextDouble() {
         generator.nextDouble() + shift
     }
+
+    @CompileStatic
+    void nextArrayOfDouble(double[] values, int start, int number) {
+        generator.nextArrayOfDouble(values, start, number)
+        for (int i = start; i < start + number; i++) {
+            values[i] += shift
+        }
+    }
 }
\ No newline at end of file
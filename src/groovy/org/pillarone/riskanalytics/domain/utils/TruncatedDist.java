@@ -21,13 +21,16 @@ public class TruncatedDist implements Distribution {
     double a;
     double b;
     double cdfLeftBoundary;
+    /** cdf(b) - cdfLeftBoundary, evaluated once at construction */
+    double normalization;
 
     public TruncatedDist(ContinuousDistribution distribution, double a, double b) {
         this.distribution = distribution;
         this.a = a;
         this.b = b;
         this.cdfLeftBoundary = distribution.cdf(a);
-        if (cdfLeftBoundary == 1 || (distribution.cdf(b) - cdfLeftBoundary) <= 1E-8) {
+        normalization = distribution.cdf(b) - cdfLeftBoundary;
+        if (cdfLeftBoundary == 1 || normalization <= 1E-8) {
             throw new IllegalArgumentException("['TruncatedDist.nonNormalizeableSpace']");
         }
     }
@@ -46,7 +49,8 @@ public class TruncatedDist implements Distribution {
         Collections.sort(obs);
         int index = obs.indexOf(a);
         this.cdfLeftBoundary = index == 0 ? 0 : distribution.cdf(obs.get(index - 1));
-        if (cdfLeftBoundary == 1 || (distribution.cdf(b) - cdfLeftBoundary) <= 1E-8) {
+        normalization = distribution.cdf(b) - cdfLeftBoundary;
+        if (cdfLeftBoundary == 1 || normalization <= 1E-8) {
             throw new IllegalArgumentException("['TruncatedDist.nonNormalizeableSpace']");
         }
     }
@@ -56,7 +60,8 @@ public class TruncatedDist implements Distribution {
         this.a = a;
         this.b = b;
         this.cdfLeftBoundary = a == 0 ? 0 : distribution.cdf(Math.ceil(a - 1));
-        if (cdfLeftBoundary == 1 || (distribution.cdf(b) - cdfLeftBoundary) <= 1E-8) {
+        normalization = distribution.cdf(b) - cdfLeftBoundary;
+        if (cdfLeftBoundary == 1 || normalization <= 1E-8) {
             throw new IllegalArgumentException("['TruncatedDist.nonNormalizeableSpace']");
         }
     }
@@ -69,7 +74,7 @@ public class TruncatedDist implements Distribution {
             return 1;
         }
         else {
-            return (distribution.cdf(x) - cdfLeftBoundary) / (distribution.cdf(b) - cdfLeftBoundary);
+            return (distribution.cdf(x) - cdfLeftBoundary) / normalization;
         }
     }
 
@@ -78,7 +83,7 @@ public class TruncatedDist implements Distribution {
     }
 
     public double inverseF(double y) {
-        return distribution.inverseF(y * (distribution.cdf(b) - cdfLeftBoundary) + cdfLeftBoundary);
+        return distribution.inverseF(y * normalization + cdfLeftBoundary);
     }
 
 
@@ -88,7 +93,7 @@ public class TruncatedDist implements Distribution {
         }
         if (x < a || x > b)
             return 0d;
-        return ((ContinuousDistribution) distribution).density(x) / (distribution.cdf(b) - cdfLeftBoundary);
+        return ((ContinuousDistribution) distribution).density(x) / normalization;
     }
 
     public double prob(int x) {
@@ -97,8 +102,8 @@ public class TruncatedDist implements Distribution {
         }
         if (x < a || x > b) return 0d;
         if (distribution instanceof DiscreteDistribution)
-            return ((DiscreteDistribution) distribution).prob(x) / (distribution.cdf(b) - cdfLeftBoundary);
-        return ((DiscreteDistributionInt) distribution).prob(x) / (distribution.cdf(b) - cdfLeftBoundary);
+            return ((DiscreteDistribution) distribution).prob(x) / normalization;
+        return ((DiscreteDistributionInt) distribution).prob(x) / normalization;
     }
 
     public double getMean() {
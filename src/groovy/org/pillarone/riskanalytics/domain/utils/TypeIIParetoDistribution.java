@@ -1,12 +1,12 @@
 package org.pillarone.riskanalytics.domain.utils;
 
-import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
-
 /**
+ * The equivalent generalized pareto parameters are cached whenever the parameters are set.
+ *
  * @author jessika.walter (at) intuitive-collaboration (dot) com
  */
 @Deprecated
-public class TypeIIParetoDistribution extends ContinuousDistribution {
+public class TypeIIParetoDistribution extends AbstractQuantileTableDistribution {
 
     /**
      * shape parameter >0; alpha = 1/k
@@ -20,6 +20,10 @@ public class TypeIIParetoDistribution extends ContinuousDistribution {
      * scaling parameter lambda = alpha*zeta - beta >-beta
      */
     private double lambda;
+    /**
+     * equivalent generalized pareto distribution with xi = 1/alpha and tau = (lambda + beta)/alpha
+     */
+    private GeneralizedParetoDistribution generalizedPareto;
 
 
     public TypeIIParetoDistribution(double alpha, double beta, double lambda) {
@@ -31,19 +35,21 @@ public class TypeIIParetoDistribution extends ContinuousDistribution {
     }
 
     public double density(double x) {
-        return density(alpha, beta, lambda, x);
+        return generalizedPareto.density(x);
     }
 
     public double cdf(double x) {
-        return cdf(alpha, beta, lambda, x);
+        return generalizedPareto.cdf(x);
     }
 
     public double barF(double x) {
-        return barF(alpha, beta, lambda, x);
+        if (x <= beta)
+            return 1.0;
+        return 1.0 - generalizedPareto.cdf(x);
     }
 
-    public double inverseF(double y) {
-        return inverseF(alpha, beta, lambda, y);
+    protected double exactInverseF(double y) {
+        return generalizedPareto.inverseF(y);
     }
 
     /**
@@ -128,6 +134,8 @@ public class TypeIIParetoDistribution extends ContinuousDistribution {
         this.beta = beta;
         this.lambda = lambda;
         supportA = beta;
+        generalizedPareto = new GeneralizedParetoDistribution(1 / alpha, beta, 1 / alpha * (lambda + beta));
+        dropQuantileTable();
     }
 
     public double[] getParams() {
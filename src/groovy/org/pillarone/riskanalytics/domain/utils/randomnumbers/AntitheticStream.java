@@ -0,0 +1,64 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers;
+
+import umontreal.iro.lecuyer.rng.RandomStream;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
+
+/**
+ * Records the uniforms of the first iteration of a pair and replays them as 1 - u in the twin, see
+ * {@link AntitheticStreams}. Instances are created by {@link AntitheticStreams#getStream(RandomStreamBase)} only.
+ */
+class AntitheticStream extends RandomStreamBase {
+
+    private final AntitheticStreams owner;
+    private final RandomStream stream;
+    private double[] recorded = new double[16];
+    private int size;
+    private int position;
+    private int generation = -1;
+    private boolean twin;
+
+    AntitheticStream(AntitheticStreams owner, RandomStream stream) {
+        this.owner = owner;
+        this.stream = stream;
+    }
+
+    protected double nextValue() {
+        int currentGeneration = owner.getGeneration();
+        if (currentGeneration != generation) {
+            // a twin is only replayed if the stream recorded the directly preceding iteration
+            twin = owner.isTwin() && currentGeneration == generation + 1;
+            generation = currentGeneration;
+            position = 0;
+            if (!twin) {
+                size = 0;
+            }
+        }
+        if (twin) {
+            return position < size ? 1 - recorded[position++] : stream.nextDouble();
+        }
+        double u = stream.nextDouble();
+        if (size == recorded.length) {
+            double[] enlarged = new double[size * 2];
+            System.arraycopy(recorded, 0, enlarged, 0, size);
+            recorded = enlarged;
+        }
+        recorded[size++] = u;
+        return u;
+    }
+
+    public void resetStartStream() {
+        stream.resetStartStream();
+    }
+
+    public void resetStartSubstream() {
+        stream.resetStartSubstream();
+    }
+
+    public void resetNextSubstream() {
+        stream.resetNextSubstream();
+    }
+
+    public String toString() {
+        return "AntitheticStream[" + stream + "]";
+    }
+}
@@ -0,0 +1,59 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers;
+
+import umontreal.iro.lecuyer.rng.RandomStream;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
+
+/**
+ * Antithetic variates of a simulation: consecutive iterations form pairs, the second iteration of a pair (the twin)
+ * draws 1 - u for every uniform u of the first one. The pairing is done per stream, i.e. per draw site, so the k-th
+ * draw of a generator in the twin is the antithetic of its k-th draw in the first iteration even if other draw
+ * sites consumed a different number of uniforms. Draws of the twin beyond the number recorded use fresh uniforms.
+ * <p/>
+ * An instance is created per simulation by {@link SimulationStreams} if the runtime parameter of the model enables
+ * the mode. Components drawing from antithetic streams have to call {@link #setIteration(int)} before their first
+ * draw of an iteration. As every iteration is a complete sample, deterministic components like claims development
+ * or reinsurance programs keep the pairing of their results. The mean over an even number of iterations is the
+ * average of the pair means. The pairing reduces the variance of outputs monotone in the uniforms only, therefore
+ * generators on antithetic streams sample by inversion, see {@link #isAntithetic(RandomStream)}.
+ */
+public class AntitheticStreams {
+
+    private int currentIteration = -1;
+    private boolean twin = true;
+    /** number of iteration changes, distinguishes iterations even if their number repeats */
+    private int generation;
+
+    /**
+     * Every change of the iteration alternates between first iteration and twin, repeated calls within an
+     * iteration have no effect.
+     */
+    public void setIteration(int iteration) {
+        if (iteration != currentIteration) {
+            currentIteration = iteration;
+            twin = !twin;
+            generation++;
+        }
+    }
+
+    /**
+     * @return a new antithetic stream on top of stream
+     */
+    public RandomStreamBase getStream(RandomStreamBase stream) {
+        return new AntitheticStream(this, stream);
+    }
+
+    /**
+     * @return true if stream replays the uniforms of the previous iteration mirrored
+     */
+    public static boolean isAntithetic(RandomStream stream) {
+        return stream instanceof AntitheticStream;
+    }
+
+    boolean isTwin() {
+        return twin;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+}
@@ -0,0 +1,43 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers
+
+import org.pillarone.riskanalytics.core.components.Component
+
+/**
+ * Paths of the components of a model: the names from the top level component down to the component, joined by ':'.
+ * Composed components contribute their sub components, dynamic composed components their component list. Equally
+ * named components of the same class get different paths as long as their parents differ.
+ */
+class ComponentPaths {
+
+    static Map<Component, String> collect(List components) {
+        Map<Component, String> paths = new IdentityHashMap<Component, String>()
+        for (Object component : components) {
+            if (component instanceof Component) {
+                add(paths, (Component) component, ((Component) component).name)
+            }
+        }
+        return paths
+    }
+
+    private static void add(Map<Component, String> paths, Component component, String path) {
+        if (paths.containsKey(component)) {
+            return
+        }
+        paths.put(component, path)
+        for (MetaProperty property : component.metaClass.properties) {
+            if (property.name.startsWith('sub') && Component.isAssignableFrom(property.type)) {
+                Component subComponent = (Component) property.getProperty(component)
+                if (subComponent != null) {
+                    add(paths, subComponent, path + ':' + property.name)
+                }
+            }
+        }
+        if (component.hasProperty('componentList')) {
+            for (Object subComponent : component.componentList) {
+                if (subComponent instanceof Component) {
+                    add(paths, (Component) subComponent, path + ':' + ((Component) subComponent).name)
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers;
+
+import org.pillarone.riskanalytics.core.components.Component;
+import umontreal.iro.lecuyer.rng.MRG32k3a;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
+
+/**
+ * Stream of one draw site, see {@link ComponentStreams}. With the first draw of an iteration the stream moves to
+ * the substream of the iteration: to the next one if iterations are consecutive, by jumping ahead otherwise.
+ */
+class ComponentStream extends RandomStreamBase {
+
+    private final ComponentStreams owner;
+    private Component component;
+    private String drawSite;
+    private String key;
+    private long[] streamSeed;
+    private final MRG32k3a generator = new MRG32k3a();
+    private int iteration = -1;
+
+    ComponentStream(ComponentStreams owner, Component component, String drawSite) {
+        this.owner = owner;
+        this.component = component;
+        this.drawSite = drawSite;
+    }
+
+    ComponentStream(ComponentStreams owner, String key) {
+        this.owner = owner;
+        this.key = key;
+    }
+
+    protected double nextValue() {
+        int currentIteration = owner.getCurrentIteration();
+        if (currentIteration != iteration) {
+            if (streamSeed == null) {
+                if (key == null) {
+                    key = owner.key(component, drawSite);
+                    component = null;
+                }
+                streamSeed = owner.streamSeed(key);
+            }
+            if (iteration >= 0 && currentIteration == iteration + 1) {
+                generator.resetNextSubstream();
+            }
+            else {
+                generator.setSeed(ComponentStreams.substreamSeed(streamSeed, Math.max(0, currentIteration)));
+            }
+            iteration = currentIteration;
+        }
+        return generator.nextDouble();
+    }
+
+    public void resetStartStream() {
+        iteration = -1;
+    }
+
+    public void resetStartSubstream() {
+        generator.resetStartSubstream();
+    }
+
+    public void resetNextSubstream() {
+        generator.resetNextSubstream();
+    }
+
+    public String toString() {
+        return "ComponentStream[" + (key != null ? key : drawSite) + "]";
+    }
+}
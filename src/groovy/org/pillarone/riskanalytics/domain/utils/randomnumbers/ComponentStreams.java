@@ -0,0 +1,166 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers;
+
+import org.pillarone.riskanalytics.core.components.Component;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mode of a simulation with an own MRG32k3a stream per component and draw site instead of the single stream of
+ * MathUtils. The seed of a stream is derived from the simulation seed and the key of the draw site, iteration n uses
+ * substream n of it. Substreams are 2^76 steps apart and reached by jumping ahead, therefore the uniforms of a draw
+ * site depend neither on the execution order of the components nor on preceding iterations. Every iteration can be
+ * replayed on its own.
+ * <p/>
+ * Keys consist of the path of the component within the model, i.e. the names of its parents and its own name, and
+ * the name of the draw site within the component. Components not found in the model are keyed by class and name.
+ * An instance is created per simulation by {@link SimulationStreams} if the runtime parameter of the model enables
+ * the mode. Components have to call {@link #setIteration(int)} before their first draw of an iteration.
+ */
+public class ComponentStreams {
+
+    static final long M1 = 4294967087L;
+    static final long M2 = 4294944443L;
+    /** transition matrices of the two MRG32k3a components for 2^76 steps, i.e. from one substream to the next */
+    private static final long[][] A1_SUBSTREAM = powerOfTwo(new long[][]{{0, 1, 0}, {0, 0, 1}, {M1 - 810728, 1403580, 0}}, 76, M1);
+    private static final long[][] A2_SUBSTREAM = powerOfTwo(new long[][]{{0, 1, 0}, {0, 0, 1}, {M2 - 1370589, 0, 527612}}, 76, M2);
+
+    private final long seed;
+    private final List components;
+    /** built with the first key, once the model is wired */
+    private Map<Component, String> paths;
+    private int currentIteration;
+
+    /**
+     * @param components top level components of the model, the paths of the keys start with them
+     */
+    public ComponentStreams(long seed, List components) {
+        this.seed = seed;
+        this.components = components;
+    }
+
+    public void setIteration(int iteration) {
+        currentIteration = iteration;
+    }
+
+    int getCurrentIteration() {
+        return currentIteration;
+    }
+
+    /**
+     * May be called before the model is wired, the key is built with the first draw.
+     *
+     * @return the stream of the draw site
+     */
+    public RandomStreamBase getStream(Component component, String drawSite) {
+        return new ComponentStream(this, component, drawSite);
+    }
+
+    /**
+     * @return the stream of the draw site
+     */
+    public RandomStreamBase getStream(String key) {
+        return new ComponentStream(this, key);
+    }
+
+    synchronized String key(Component component, String drawSite) {
+        if (paths == null) {
+            paths = components == null ? new IdentityHashMap<Component, String>() : ComponentPaths.collect(components);
+        }
+        String path = paths.get(component);
+        if (path == null) {
+            path = component.getClass().getName() + ":" + component.getName();
+        }
+        return path + "/" + drawSite;
+    }
+
+    /**
+     * Derives a valid MRG32k3a seed, i.e. values below the moduli and not all zero per component, from the
+     * simulation seed and a 64 bit FNV-1a hash of the key.
+     */
+    long[] streamSeed(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        long state = hash ^ (seed * 0x9e3779b97f4a7c15L);
+        long[] streamSeed = new long[6];
+        for (int i = 0; i < streamSeed.length; i++) {
+            // splitmix64
+            state += 0x9e3779b97f4a7c15L;
+            long z = state;
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            z ^= z >>> 31;
+            streamSeed[i] = 1 + ((z >>> 1) % ((i < 3 ? M1 : M2) - 1));
+        }
+        return streamSeed;
+    }
+
+    /**
+     * @return the seed of substream n of the stream starting with seed, n >= 0
+     */
+    static long[] substreamSeed(long[] seed, long n) {
+        long[] first = {seed[0], seed[1], seed[2]};
+        long[] second = {seed[3], seed[4], seed[5]};
+        long[][] a1 = A1_SUBSTREAM;
+        long[][] a2 = A2_SUBSTREAM;
+        while (n > 0) {
+            if ((n & 1) == 1) {
+                first = multiply(a1, first, M1);
+                second = multiply(a2, second, M2);
+            }
+            n >>>= 1;
+            if (n > 0) {
+                a1 = multiply(a1, a1, M1);
+                a2 = multiply(a2, a2, M2);
+            }
+        }
+        return new long[]{first[0], first[1], first[2], second[0], second[1], second[2]};
+    }
+
+    static long[][] powerOfTwo(long[][] matrix, int exponent, long modulus) {
+        long[][] power = matrix;
+        for (int i = 0; i < exponent; i++) {
+            power = multiply(power, power, modulus);
+        }
+        return power;
+    }
+
+    private static long[][] multiply(long[][] a, long[][] b, long modulus) {
+        long[][] product = new long[3][3];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                long sum = 0;
+                for (int k = 0; k < 3; k++) {
+                    sum = (sum + multiplyModulo(a[i][k], b[k][j], modulus)) % modulus;
+                }
+                product[i][j] = sum;
+            }
+        }
+        return product;
+    }
+
+    private static long[] multiply(long[][] a, long[] v, long modulus) {
+        long[] product = new long[3];
+        for (int i = 0; i < 3; i++) {
+            long sum = 0;
+            for (int k = 0; k < 3; k++) {
+                sum = (sum + multiplyModulo(a[i][k], v[k], modulus)) % modulus;
+            }
+            product[i] = sum;
+        }
+        return product;
+    }
+
+    /**
+     * a * b mod modulus for a, b < modulus < 2^32 without overflow, b is split into 16 bit halves
+     */
+    private static long multiplyModulo(long a, long b, long modulus) {
+        long high = (a * (b >>> 16)) % modulus;
+        return ((high << 16) % modulus + a * (b & 0xffff)) % modulus;
+    }
+}
@@ -0,0 +1,52 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers;
+
+/**
+ * Control variate estimator of the mean of a target, e.g. the ceded loss of an XL layer, using a control with a
+ * known mean, e.g. the gross attritional claims with the analytic mean of their claims size distribution times the
+ * scale factor. The adjusted mean is mean(target) - beta * (mean(control) - controlMean) with the variance
+ * minimizing beta = cov(target, control) / var(control). The stronger target and control are correlated the
+ * smaller the variance of the estimator. With antithetic iterations the pair means have to be added as
+ * observations.
+ */
+public class ControlVariateEstimator {
+
+    private final double controlMean;
+    private int count;
+    private double meanTarget;
+    private double meanControl;
+    /** sums of squared and cross deviations, updated with Welford's method */
+    private double sumControlControl;
+    private double sumTargetControl;
+
+    public ControlVariateEstimator(double controlMean) {
+        this.controlMean = controlMean;
+    }
+
+    public void add(double target, double control) {
+        count++;
+        double deltaControl = control - meanControl;
+        meanTarget += (target - meanTarget) / count;
+        meanControl += deltaControl / count;
+        sumControlControl += deltaControl * (control - meanControl);
+        sumTargetControl += deltaControl * (target - meanTarget);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return meanTarget;
+    }
+
+    /**
+     * @return zero if the control has no variance
+     */
+    public double getBeta() {
+        return sumControlControl > 0 ? sumTargetControl / sumControlControl : 0;
+    }
+
+    public double getAdjustedMean() {
+        return meanTarget - getBeta() * (meanControl - controlMean);
+    }
+}
@@ -0,0 +1,81 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers;
+
+import umontreal.iro.lecuyer.randvar.NormalGen;
+import umontreal.iro.lecuyer.rng.RandomStream;
+
+/**
+ * Generates standard normal vectors with a given correlation (covariance) matrix sigma. The matrix is
+ * factorized once by {@link #choleskyFactor(double[][])} (sigma = L * L^T) and L is kept as a primitive
+ * lower-triangular array. Every vector afterwards costs one standard normal variate per dimension and a triangular
+ * matrix-vector product.
+ */
+public class CorrelatedNormalGenerator {
+
+    /** lower[i] holds the row L[i][0..i] */
+    private final double[][] lower;
+    private final double[] independentNormals;
+    private final NormalGen normalGenerator;
+
+    /**
+     * @param lower lower-triangular Cholesky factor as returned by {@link #choleskyFactor(double[][])}
+     * @param stream used to draw the independent standard normal variates
+     */
+    public CorrelatedNormalGenerator(double[][] lower, RandomStream stream) {
+        this.lower = lower;
+        independentNormals = new double[lower.length];
+        normalGenerator = new NormalGen(stream);
+    }
+
+    public int getDimension() {
+        return lower.length;
+    }
+
+    /**
+     * Fills point with the next correlated standard normal vector, point.length has to be equal to the dimension.
+     */
+    public void nextPoint(double[] point) {
+        int dimension = lower.length;
+        for (int i = 0; i < dimension; i++) {
+            independentNormals[i] = normalGenerator.nextDouble();
+        }
+        for (int i = 0; i < dimension; i++) {
+            double[] row = lower[i];
+            double value = 0;
+            for (int j = 0; j <= i; j++) {
+                value += row[j] * independentNormals[j];
+            }
+            point[i] = value;
+        }
+    }
+
+    /**
+     * Cholesky-Banachiewicz decomposition of a symmetric matrix. Only the lower triangle of sigma is read.
+     *
+     * @param sigma symmetric matrix
+     * @return lower triangular factor L with sigma = L * L^T, row i has length i + 1, or null if sigma is not
+     *          positive definite
+     */
+    public static double[][] choleskyFactor(double[][] sigma) {
+        int dimension = sigma.length;
+        double[][] lower = new double[dimension][];
+        for (int i = 0; i < dimension; i++) {
+            lower[i] = new double[i + 1];
+            for (int j = 0; j <= i; j++) {
+                double sum = sigma[i][j];
+                for (int k = 0; k < j; k++) {
+                    sum -= lower[i][k] * lower[j][k];
+                }
+                if (i == j) {
+                    if (sum <= 0 || Double.isNaN(sum)) {
+                        return null;
+                    }
+                    lower[i][i] = Math.sqrt(sum);
+                }
+                else {
+                    lower[i][j] = sum / lower[j][j];
+                }
+            }
+        }
+        return lower;
+    }
+}
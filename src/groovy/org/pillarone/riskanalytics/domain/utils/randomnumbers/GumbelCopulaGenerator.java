@@ -0,0 +1,57 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers;
+
+import umontreal.iro.lecuyer.rng.RandomStream;
+
+/**
+ * Generates uniform vectors with a Gumbel copula by the Marshall-Olkin frailty method: a positive stable variate S
+ * with Laplace transform exp(-s^(1/theta)) is drawn by Kanter's representation and every coordinate is
+ * exp(-(E_j / S)^(1/theta)) with E_j standard exponential. A vector costs dimension + 2 uniforms and no iteration,
+ * theta equal to 1 yields independent uniforms.
+ */
+public class GumbelCopulaGenerator {
+
+    private final double alpha;
+    private final double beta;
+    private final RandomStream stream;
+
+    /**
+     * @param theta dependence parameter, at least 1
+     * @param stream used to draw all uniforms
+     */
+    public GumbelCopulaGenerator(double theta, RandomStream stream) {
+        if (!(theta >= 1) || Double.isInfinite(theta)) {
+            throw new IllegalArgumentException("['GumbelCopulaStrategy.invalidLambda','" + theta + "']");
+        }
+        this.stream = stream;
+        alpha = 1 / theta;
+        beta = 1 - alpha;
+    }
+
+    /**
+     * Fills point with the next vector, its length defines the dimension.
+     */
+    public void nextPoint(double[] point) {
+        if (beta == 0) {
+            for (int j = 0; j < point.length; j++) {
+                point[j] = stream.nextDouble();
+            }
+            return;
+        }
+        double frailty = nextPositiveStable();
+        for (int j = 0; j < point.length; j++) {
+            double exponential = -Math.log(stream.nextDouble());
+            point[j] = Math.exp(-Math.pow(exponential / frailty, alpha));
+        }
+    }
+
+    /**
+     * Kanter's representation (A(v) / W)^((1 - alpha) / alpha) with v uniform on (0, pi), W standard exponential and
+     * A(v) = (sin(alpha v)^alpha sin((1 - alpha) v)^(1 - alpha) / sin(v))^(1 / (1 - alpha)).
+     */
+    private double nextPositiveStable() {
+        double v = Math.PI * stream.nextDouble();
+        double exponential = -Math.log(stream.nextDouble());
+        double a = Math.pow(Math.pow(Math.sin(alpha * v), alpha) * Math.pow(Math.sin(beta * v), beta) / Math.sin(v), 1 / beta);
+        return Math.pow(a / exponential, beta / alpha);
+    }
+}
@@ -0,0 +1,65 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers;
+
+import umontreal.iro.lecuyer.hups.PointSet;
+import umontreal.iro.lecuyer.rng.RandomStream;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
+
+/**
+ * Returns the coordinates firstDimension, firstDimension + 1, ... of the Sobol point selected by
+ * {@link QuasiRandomStreams#setIteration(int)} of its owner. Once the reserved dimensions of the current point are
+ * used up the fallback stream is consumed. Instances are created by
+ * {@link QuasiRandomStreams#getStream(int, RandomStreamBase)} only.
+ */
+class QuasiRandomStream extends RandomStreamBase {
+
+    /** the output resolution is 2^-31, zero is replaced by half of it as inversion is undefined at zero */
+    private static final double HALF_RESOLUTION = 0.5 / (1L << 31);
+
+    private final QuasiRandomStreams owner;
+    private final PointSet pointSet;
+    private final int firstDimension;
+    private final int dimensions;
+    private final RandomStream fallback;
+    private int iteration = -1;
+    private int point;
+    private int coordinate;
+
+    QuasiRandomStream(QuasiRandomStreams owner, int firstDimension, int dimensions, RandomStream fallback) {
+        this.owner = owner;
+        this.pointSet = owner.getPointSet();
+        this.firstDimension = firstDimension;
+        this.dimensions = dimensions;
+        this.fallback = fallback;
+    }
+
+    protected double nextValue() {
+        // the point is compared by its iteration as iterations beyond the number of points reuse points
+        int currentIteration = owner.getCurrentIteration();
+        if (currentIteration != iteration) {
+            iteration = currentIteration;
+            point = owner.getCurrentPoint();
+            coordinate = 0;
+        }
+        if (coordinate >= dimensions) {
+            return fallback.nextDouble();
+        }
+        double u = pointSet.getCoordinate(point, firstDimension + coordinate++);
+        return u > 0 ? u : HALF_RESOLUTION;
+    }
+
+    public void resetStartStream() {
+        coordinate = 0;
+    }
+
+    public void resetStartSubstream() {
+        coordinate = 0;
+    }
+
+    public void resetNextSubstream() {
+        coordinate = 0;
+    }
+
+    public String toString() {
+        return "QuasiRandomStream[" + firstDimension + ", " + dimensions + "]";
+    }
+}
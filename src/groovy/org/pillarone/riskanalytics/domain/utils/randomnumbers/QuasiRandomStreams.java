@@ -0,0 +1,100 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers;
+
+import umontreal.iro.lecuyer.hups.PointSet;
+import umontreal.iro.lecuyer.hups.SobolSequence;
+import umontreal.iro.lecuyer.rng.MRG32k3a;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
+
+/**
+ * Quasi-Monte Carlo mode of a simulation: iteration i uses point i of a scrambled Sobol sequence instead of pseudo
+ * random uniforms. Draw sites request a block of consecutive coordinates with {@link #getStream(int, RandomStreamBase)};
+ * blocks are assigned in the order of the requests, which is fixed by the model structure, so every draw site keeps
+ * its dimensions across iterations and runs. Draws beyond the block of a draw site and all draws of sites without a
+ * block use their pseudo random fallback stream.
+ * <p/>
+ * An instance is created per simulation by {@link SimulationStreams} if the runtime parameter of the model enables
+ * the mode. All components consuming quasi random streams have to call {@link #setIteration(int)} at the beginning
+ * of their calculation.
+ */
+public class QuasiRandomStreams {
+
+    /** largest dimension supported by the direction numbers of the SSJ Sobol sequence */
+    public static final int MAX_DIMENSION = 360;
+    private static final int MAX_LOG2_POINTS = 30;
+    private static final int OUTPUT_BITS = 31;
+
+    private final PointSet pointSet;
+    private final int numberOfPoints;
+    private int nextDimension;
+    private int currentIteration;
+    private int currentPoint;
+
+    /**
+     * Builds a Sobol sequence with at least numberOfIterations points, randomized with a left matrix scramble
+     * and a digital shift. Equal seeds reproduce the same randomization.
+     */
+    public QuasiRandomStreams(int numberOfIterations, long seed) {
+        if (numberOfIterations < 1) {
+            throw new IllegalArgumentException("QuasiRandomStreams.invalidNumberOfIterations");
+        }
+        int log2Points = 0;
+        while ((1 << log2Points) < numberOfIterations && log2Points < MAX_LOG2_POINTS) {
+            log2Points++;
+        }
+        SobolSequence sobol = new SobolSequence(log2Points, OUTPUT_BITS, MAX_DIMENSION);
+        MRG32k3a scrambleStream = new MRG32k3a();
+        scrambleStream.setSeed(scrambleSeed(seed));
+        sobol.leftMatrixScramble(scrambleStream);
+        sobol.addRandomShift(scrambleStream);
+        pointSet = sobol;
+        numberOfPoints = 1 << log2Points;
+    }
+
+    /**
+     * Selects the point used by all quasi random streams. Iterations beyond the number of points wrap around.
+     */
+    public void setIteration(int iteration) {
+        currentIteration = iteration;
+        currentPoint = iteration % numberOfPoints;
+    }
+
+    /**
+     * @param dimensions number of uniforms per iteration the draw site takes from the Sobol point
+     * @param fallback stream for draws beyond the reserved coordinates
+     * @return a stream reserving the next dimensions coordinates, or fallback if all coordinates are reserved
+     */
+    public synchronized RandomStreamBase getStream(int dimensions, RandomStreamBase fallback) {
+        if (dimensions < 1 || nextDimension >= MAX_DIMENSION) {
+            return fallback;
+        }
+        int firstDimension = nextDimension;
+        int reserved = Math.min(dimensions, MAX_DIMENSION - firstDimension);
+        nextDimension += reserved;
+        return new QuasiRandomStream(this, firstDimension, reserved, fallback);
+    }
+
+    PointSet getPointSet() {
+        return pointSet;
+    }
+
+    int getCurrentIteration() {
+        return currentIteration;
+    }
+
+    int getCurrentPoint() {
+        return currentPoint;
+    }
+
+    /**
+     * MRG32k3a requires seeds below its moduli, the first and last three values must not all be zero.
+     */
+    private static long[] scrambleSeed(long seed) {
+        long[] seeds = new long[6];
+        long value = seed;
+        for (int i = 0; i < seeds.length; i++) {
+            value = value * 6364136223846793005L + 1442695040888963407L;
+            seeds[i] = 1 + ((value >>> 16) % 4294944442L);
+        }
+        return seeds;
+    }
+}
@@ -0,0 +1,120 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers;
+
+import org.pillarone.riskanalytics.core.components.Component;
+import org.pillarone.riskanalytics.core.simulation.engine.IterationScope;
+import org.pillarone.riskanalytics.core.util.MathUtils;
+import umontreal.iro.lecuyer.rng.RandomStreamBase;
+
+/**
+ * Random number modes of one simulation. An instance is created per simulation from the runtime parameters of the
+ * model, see GlobalParameters, and keeps the state of the enabled modes, therefore simulations running at the same
+ * time do not interfere. Components without simulation scope, i.e. in unit tests, and models without global
+ * parameters use {@link #DISABLED}.
+ */
+public class SimulationStreams {
+
+    /** all modes switched off, draws are taken from the stream of MathUtils */
+    public static final SimulationStreams DISABLED = new SimulationStreams(null, null, null);
+
+    private final QuasiRandomStreams quasiRandomStreams;
+    private final AntitheticStreams antitheticStreams;
+    private final ComponentStreams componentStreams;
+
+    /**
+     * @param quasiRandomStreams null if the quasi-Monte Carlo mode is switched off
+     * @param antitheticStreams null if antithetic variates are switched off
+     * @param componentStreams null if per component streams are switched off
+     */
+    public SimulationStreams(QuasiRandomStreams quasiRandomStreams, AntitheticStreams antitheticStreams,
+                             ComponentStreams componentStreams) {
+        this.quasiRandomStreams = quasiRandomStreams;
+        this.antitheticStreams = antitheticStreams;
+        this.componentStreams = componentStreams;
+    }
+
+    public boolean isQuasiMonteCarlo() {
+        return quasiRandomStreams != null;
+    }
+
+    public boolean isAntithetic() {
+        return antitheticStreams != null;
+    }
+
+    public boolean isComponentStreams() {
+        return componentStreams != null;
+    }
+
+    /**
+     * Has to be called by components drawing from streams of this instance before their first draw of an iteration.
+     */
+    public void setIteration(int iteration) {
+        if (quasiRandomStreams != null) {
+            quasiRandomStreams.setIteration(iteration);
+        }
+        if (antitheticStreams != null) {
+            antitheticStreams.setIteration(iteration);
+        }
+        if (componentStreams != null) {
+            componentStreams.setIteration(iteration);
+        }
+    }
+
+    /**
+     * Convenience for components with an injected iteration scope, ignores a missing scope.
+     */
+    public void setIteration(IterationScope iterationScope) {
+        if (iterationScope != null) {
+            setIteration(iterationScope.getCurrentIteration());
+        }
+    }
+
+    /**
+     * @param drawSite unique within the component
+     * @return the own stream of the draw site, or the stream of MathUtils if per component streams are switched off
+     */
+    public RandomStreamBase getComponentStream(Component component, String drawSite) {
+        if (componentStreams == null) {
+            return MathUtils.getRandomStreamBase();
+        }
+        return componentStreams.getStream(component, drawSite);
+    }
+
+    /**
+     * Every call returns a new stream replaying the draws of the draw site, i.e. callers have to keep it.
+     *
+     * @param drawSite unique and stable within the component, e.g. not numbered in creation order
+     * @return the own stream of the draw site, antithetic if enabled
+     */
+    public RandomStreamBase getDrawSiteStream(Component component, String drawSite) {
+        return getStream(getComponentStream(component, drawSite));
+    }
+
+    /**
+     * @return a new antithetic stream on top of stream, stream itself if antithetic variates are switched off
+     */
+    public RandomStreamBase getStream(RandomStreamBase stream) {
+        if (antitheticStreams == null) {
+            return stream;
+        }
+        return antitheticStreams.getStream(stream);
+    }
+
+    /**
+     * @param dimensions number of uniforms per iteration taken from the Sobol point in quasi-Monte Carlo mode
+     * @param fallback pseudo random stream of the draw site
+     * @return a quasi random stream with fallback for further draws, fallback itself if the mode is switched off
+     */
+    public RandomStreamBase getStream(int dimensions, RandomStreamBase fallback) {
+        if (quasiRandomStreams == null) {
+            return fallback;
+        }
+        return quasiRandomStreams.getStream(dimensions, fallback);
+    }
+
+    /**
+     * @return a quasi random stream, or the stream of MathUtils (antithetic if enabled) if the mode is switched off
+     */
+    public RandomStreamBase getStream(int dimensions) {
+        return getStream(dimensions, getStream(MathUtils.getRandomStreamBase()));
+    }
+}
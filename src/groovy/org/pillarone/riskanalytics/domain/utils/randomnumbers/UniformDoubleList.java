@@ -3,6 +3,7 @@ package org.pillarone.riskanalytics.domain.utils.randomnumbers;
 import org.pillarone.riskanalytics.core.util.MathUtils;
 import org.pillarone.riskanalytics.domain.utils.IRandomNumberGenerator;
 import org.pillarone.riskanalytics.domain.utils.RandomNumberGeneratorFactory;
+import umontreal.iro.lecuyer.rng.RandomStream;
 import umontreal.iro.lecuyer.rng.RandomStreamBase;
 
 import java.util.ArrayList;
@@ -35,4 +36,43 @@ public class UniformDoubleList {
     public static List<Double> getDoubles(int number) {
         return getDoubles(number, false);
     }
+
+    /**
+     * @return number uniforms of stream in drawing order
+     */
+    public static double[] getDoubleArray(int number, RandomStream stream) {
+        double[] values = new double[number];
+        for (int i = 0; i < number; i++) {
+            values[i] = stream.nextDouble();
+        }
+        return values;
+    }
+
+    public static double[] getSortedDoubleArray(int number) {
+        return getSortedDoubleArray(number, MathUtils.getRandomStreamBase());
+    }
+
+    /**
+     * Sorted uniforms in linear time without sorting: for iid standard exponential E(1), ..., E(n+1) with partial
+     * sums S(k) the ratios S(1) / S(n+1) <= ... <= S(n) / S(n+1) are distributed as the order statistics of n
+     * uniforms. Consumes number + 1 uniforms of stream, none if number is 0.
+     *
+     * @return number ascending values in (0,1), e.g. fractions of period
+     */
+    public static double[] getSortedDoubleArray(int number, RandomStream stream) {
+        double[] values = new double[number];
+        if (number == 0) {
+            return values;
+        }
+        double sum = 0;
+        for (int i = 0; i < number; i++) {
+            sum -= Math.log(stream.nextDouble());
+            values[i] = sum;
+        }
+        sum -= Math.log(stream.nextDouble());
+        for (int i = 0; i < number; i++) {
+            values[i] /= sum;
+        }
+        return values;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+import org.pillarone.riskanalytics.core.parameterization.ParameterHolderFactory
+import org.pillarone.riskanalytics.core.simulation.item.parameter.ParameterHolder
+
+/**
+ * Runs the podra model with runtime parameters of the global parameters which must not change the results and
+ * compares them against the reference results. Programs evaluated by a contract cascade send the same totals.
+ * Poisoned claims of the claim arena have a NaN ultimate, i.e. a claim collected after its iteration would break
+ * the comparison.
+ */
+class PodraRuntimeParametersModelTests extends PodraModelTests {
+
+    protected List<ParameterHolder> getRuntimeParameters() {
+        [ParameterHolderFactory.getHolder('globalParameters:runtimeClaimArena', 0, true),
+                ParameterHolderFactory.getHolder('globalParameters:runtimePoisonRecycledClaims', 0, true),
+                ParameterHolderFactory.getHolder('globalParameters:runtimeContractCascade', 0, true)]
+    }
+}
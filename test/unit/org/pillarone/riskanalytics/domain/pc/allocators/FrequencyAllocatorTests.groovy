@@ -2,6 +2,8 @@ package org.pillarone.riskanalytics.domain.pc.allocators
 
 import org.pillarone.riskanalytics.domain.pc.generators.frequency.Frequency
 import org.pillarone.riskanalytics.domain.pc.underwriting.RiskBandsTests
+import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo
+import org.pillarone.riskanalytics.domain.utils.AliasTable
 
 /**
  * @author stefan.kunz (at) intuitive-collaboration (dot) com, michael-noe (at) web (dot) de
@@ -18,4 +20,54 @@ public class FrequencyAllocatorTests extends GroovyTestCase {
 
         assertTrue "correct number of frequencies", frequencyAllocator.inFrequency[0].value == frequencyAllocator.outFrequency.value.sum() 
     }
-}
\ No newline at end of file
+
+    void testZeroExposureBand() {
+        FrequencyAllocator frequencyAllocator = new FrequencyAllocator()
+        frequencyAllocator.inFrequency << new Frequency(value: 100)
+        List<UnderwritingInfo> underwritingInfos = RiskBandsTests.underwritingInfos
+        underwritingInfos[1].numberOfPolicies = 0d
+        frequencyAllocator.inUnderwritingInfo.addAll underwritingInfos
+
+        frequencyAllocator.doCalculation()
+
+        assertEquals "no claims in band without policies", 0d, frequencyAllocator.outFrequency[1].value
+        assertEquals "correct number of frequencies", 100d, frequencyAllocator.outFrequency.value.sum()
+    }
+
+    void testAliasTableRebuiltForChangedWeights() {
+        FrequencyAllocator frequencyAllocator = new FrequencyAllocator()
+        frequencyAllocator.inFrequency << new Frequency(value: 100)
+        frequencyAllocator.inUnderwritingInfo.addAll RiskBandsTests.underwritingInfos
+        frequencyAllocator.doCalculation()
+        AliasTable bands = frequencyAllocator.bands
+
+        frequencyAllocator.reset()
+        frequencyAllocator.inFrequency << new Frequency(value: 100)
+        frequencyAllocator.inUnderwritingInfo.addAll RiskBandsTests.underwritingInfos
+        frequencyAllocator.doCalculation()
+        assertSame "same weights", bands, frequencyAllocator.bands
+
+        frequencyAllocator.reset()
+        frequencyAllocator.inFrequency << new Frequency(value: 100)
+        List<UnderwritingInfo> underwritingInfos = RiskBandsTests.underwritingInfos
+        underwritingInfos[1].numberOfPolicies = 0d
+        frequencyAllocator.inUnderwritingInfo.addAll underwritingInfos
+        frequencyAllocator.doCalculation()
+        assertNotSame "changed weights", bands, frequencyAllocator.bands
+        assertEquals "no claims in band without policies", 0d, frequencyAllocator.outFrequency[1].value
+    }
+
+    void testMultinomialSplit() {
+        FrequencyAllocator frequencyAllocator = new FrequencyAllocator()
+        frequencyAllocator.inFrequency << new Frequency(value: 115000)
+        frequencyAllocator.inUnderwritingInfo.addAll RiskBandsTests.underwritingInfos
+
+        frequencyAllocator.doCalculation()
+
+        assertEquals "correct number of frequencies", 115000d, frequencyAllocator.outFrequency.value.sum()
+        // expected counts 100000, 10000, 5000 with standard deviations below 120
+        assertEquals "band 0", 100000d, frequencyAllocator.outFrequency[0].value, 600d
+        assertEquals "band 1", 10000d, frequencyAllocator.outFrequency[1].value, 600d
+        assertEquals "band 2", 5000d, frequencyAllocator.outFrequency[2].value, 600d
+    }
+}
@@ -0,0 +1,89 @@
+package org.pillarone.riskanalytics.domain.pc.claims
+
+import org.pillarone.riskanalytics.domain.pc.constants.ClaimType
+import org.pillarone.riskanalytics.domain.pc.generators.severities.Event
+import org.pillarone.riskanalytics.domain.utils.marker.IPerilMarker
+import org.pillarone.riskanalytics.domain.utils.marker.ISegmentMarker
+
+class ClaimBatchTests extends GroovyTestCase {
+
+    TestPerilComponent peril = new TestPerilComponent()
+    TestLobComponent lob = new TestLobComponent()
+
+    ClaimBatch getBatch() {
+        ClaimBatch batch = new ClaimBatch(2)
+        batch.origin = peril
+        batch.addMarker(IPerilMarker, peril)
+        batch.addMarker(ISegmentMarker, lob)
+        Event event = new Event(fractionOfPeriod: 0.3)
+        batch.add(100, 0.5, ClaimType.ATTRITIONAL, null, null)
+        batch.add(50, 0.3, ClaimType.AGGREGATED_EVENT, event, null)
+        batch.add(70, 0.3, ClaimType.AGGREGATED_EVENT, event, null)
+        batch.add(20, 0.1, ClaimType.SINGLE, null, null)
+        batch
+    }
+
+    void testAdd() {
+        ClaimBatch batch = getBatch()
+        assertEquals "size", 4, batch.size()
+        assertEquals "total", 240, batch.totalUltimate
+        assertEquals "claim type", ClaimType.AGGREGATED_EVENT, batch.getClaimType(2)
+        assertEquals "shared event", 0, batch.getEventId(1)
+        assertEquals "shared event", 0, batch.getEventId(2)
+        assertEquals "no event", -1, batch.getEventId(0)
+        assertSame "event", batch.getEvent(1), batch.getEvent(2)
+        assertNull "no event", batch.getEvent(3)
+        assertFalse "exposure", batch.hasExposureInfo()
+    }
+
+    void testToClaims() {
+        ClaimBatch batch = getBatch()
+        List<Claim> claims = batch.toClaims()
+        assertEquals "number of claims", 4, claims.size()
+        assertEquals "ultimate", 70, claims[2].ultimate
+        assertEquals "fraction", 0.1, claims[3].fractionOfPeriod
+        assertSame "event", batch.getEvent(1), claims[1].event
+        assertSame "original claim", claims[1], claims[1].originalClaim
+        assertSame "origin", peril, claims[0].origin
+        assertSame "peril", peril, claims[0].peril
+        assertSame "line of business", lob, claims[0].lineOfBusiness
+        assertSame "cached", claims, batch.toClaims()
+    }
+
+    void testDerive() {
+        ClaimBatch gross = getBatch()
+        TestContractComponent contract = new TestContractComponent()
+        ClaimBatch ceded = gross.derive(contract)
+        ceded.setUltimate(1, 10)
+        assertEquals "gross unchanged", 50, gross.getUltimate(1)
+        assertEquals "ceded", 10, ceded.getUltimate(1)
+        assertEquals "ceded total", 200, ceded.totalUltimate
+        assertSame "original batch", gross, ceded.originalBatch
+        assertSame "original batch of derived", gross, ceded.derive(contract).originalBatch
+        assertSame "peril", peril, ceded.peril
+
+        Claim cededClaim = ceded.getClaim(1)
+        assertSame "origin", contract, cededClaim.origin
+        assertSame "original claim", gross.getClaim(1), cededClaim.originalClaim
+        shouldFail(IllegalStateException) {
+            ceded.add(10, 0.5, ClaimType.SINGLE, null, null)
+        }
+    }
+
+    void testAggregate() {
+        Claim claim = getBatch().aggregate()
+        assertEquals "ultimate", 240, claim.ultimate
+        assertEquals "claim type", ClaimType.AGGREGATED, claim.claimType
+        assertSame "line of business", lob, claim.lineOfBusiness
+    }
+
+    void testSortByFractionOfPeriod() {
+        ClaimBatch second = new ClaimBatch()
+        second.add(10, 0.3, ClaimType.SINGLE, null, null)
+        second.add(10, 0, ClaimType.SINGLE, null, null)
+        long[] positions = ClaimBatch.sortByFractionOfPeriod([getBatch(), second])
+        assertEquals "number of claims", 6, positions.length
+        List<List<Integer>> order = positions.collect { [ClaimBatch.getBatchIndex(it), ClaimBatch.getClaimIndex(it)] }
+        assertEquals "stable order", [[1, 1], [0, 3], [0, 1], [0, 2], [1, 0], [0, 0]], order
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package org.pillarone.riskanalytics.domain.pc.claims
+
+import org.pillarone.riskanalytics.domain.pc.constants.ClaimType
+
+class ClaimPacketFactoryTests extends GroovyTestCase {
+
+    void tearDown() {
+        ClaimPacketFactory.disableArena()
+    }
+
+    void testDisabledArena() {
+        Claim claim = ClaimPacketFactory.createPacket()
+        ClaimPacketFactory.setIteration(1)
+        assertNotSame "new claim", claim, ClaimPacketFactory.createPacket()
+        assertSame "original claim", claim, claim.originalClaim
+    }
+
+    void testRecycling() {
+        ClaimPacketFactory.setIteration(0, true, false)
+        List<Claim> claims = (1..3).collect { ClaimPacketFactory.createPacket() }
+        claims[0].ultimate = 100
+        claims[0].claimType = ClaimType.SINGLE
+        claims[0].fractionOfPeriod = 0.3
+        claims[0].originalClaim = claims[1]
+        claims[0].origin = new TestPerilComponent()
+        ClaimPacketFactory.setIteration(0)
+        assertNotSame "same iteration", claims[0], ClaimPacketFactory.createPacket()
+
+        ClaimPacketFactory.setIteration(1)
+        Claim claim = ClaimPacketFactory.createPacket()
+        assertSame "reused", claims[0], claim
+        assertEquals "ultimate", 0, claim.ultimate
+        assertEquals "fraction of period", 0d, claim.fractionOfPeriod
+        assertNull "claim type", claim.claimType
+        assertNull "origin", claim.origin
+        assertSame "original claim", claim, claim.originalClaim
+        assertSame "reused", claims[1], ClaimPacketFactory.createPacket()
+        assertEquals "high-water mark", 4, ClaimPacketFactory.arenaCapacity
+    }
+
+    void testPoisoning() {
+        ClaimPacketFactory.setIteration(0, true, true)
+        Claim claim = ClaimPacketFactory.createPacket()
+        claim.ultimate = 100
+        Claim copy = claim.copy()
+        ClaimPacketFactory.setIteration(1)
+        assertTrue "poisoned ultimate", Double.isNaN(claim.ultimate)
+        assertTrue "poisoned copy", Double.isNaN(copy.ultimate)
+        assertNull "poisoned original claim", claim.originalClaim
+        assertNull "poisoned fraction of period", claim.fractionOfPeriod
+        assertNotSame "not reused", claim, ClaimPacketFactory.createPacket()
+    }
+
+    void testOrdinals() {
+        ClaimPacketFactory.setIteration(0)
+        Claim claim = ClaimPacketFactory.createPacket()
+        assertEquals "first claim", 0, claim.ordinal
+        assertEquals "copy", 1, claim.copy().ordinal
+        assertEquals "constructor", 2, new Claim().ordinal
+        ClaimPacketFactory.setIteration(1)
+        assertEquals "next iteration", 0, ClaimPacketFactory.createPacket().ordinal
+
+        ClaimPacketFactory.setIteration(2, true, false)
+        ClaimPacketFactory.createPacket().ordinal
+        ClaimPacketFactory.setIteration(3)
+        Claim first = ClaimPacketFactory.createPacket()
+        assertEquals "recycled claim", 0, ClaimPacketFactory.createPacket().ordinal
+        assertEquals "numbered on first use", 1, first.ordinal
+    }
+
+    /**
+     * The arena is a setting per thread, switching it off releases its claims.
+     */
+    void testArenaPerThread() {
+        ClaimPacketFactory.setIteration(0, true, false)
+        Claim claim = ClaimPacketFactory.createPacket()
+        boolean otherThreadEnabled = true
+        Thread.start { otherThreadEnabled = ClaimPacketFactory.isArenaEnabled() }.join()
+        assertFalse "other thread", otherThreadEnabled
+        assertTrue "this thread", ClaimPacketFactory.isArenaEnabled()
+
+        ClaimPacketFactory.setIteration(1, false, false)
+        assertFalse ClaimPacketFactory.isArenaEnabled()
+        assertEquals "released", 0, ClaimPacketFactory.arenaCapacity
+        assertNotSame "not reused", claim, ClaimPacketFactory.createPacket()
+    }
+}
\ No newline at end of file
@@ -2,6 +2,10 @@ package org.pillarone.riskanalytics.domain.pc.claims
 
 import org.pillarone.riskanalytics.domain.pc.constants.ClaimType
 import org.pillarone.riskanalytics.domain.pc.utils.UnitTestUtilities
+import org.pillarone.riskanalytics.domain.utils.marker.IPerilMarker
+import org.pillarone.riskanalytics.domain.utils.marker.IReinsuranceContractMarker
+import org.pillarone.riskanalytics.domain.utils.marker.IReserveMarker
+import org.pillarone.riskanalytics.domain.utils.marker.ISegmentMarker
 
 class ClaimTests extends GroovyTestCase {
 
@@ -10,4 +14,37 @@ class ClaimTests extends GroovyTestCase {
         Claim copyAttrClaim100 = attrClaim100.copy()
         UnitTestUtilities.allPropertiesCloned copyAttrClaim100, attrClaim100
     }
+
+    void testMarkerFields() {
+        TestPerilComponent peril = new TestPerilComponent()
+        TestLobComponent lob = new TestLobComponent()
+        TestContractComponent contract = new TestContractComponent()
+        Claim claim = new Claim(claimType: ClaimType.SINGLE, ultimate: 100d)
+        claim.addMarker(IPerilMarker, peril)
+        claim.addMarker(ISegmentMarker, lob)
+        assertSame "peril", peril, claim.peril
+        assertSame "marked peril", peril, claim.getMarkedSender(IPerilMarker)
+        assertSame "line of business", lob, claim.lineOfBusiness
+        assertNull "contract", claim.reinsuranceContract
+
+        Claim copy = claim.copy()
+        assertSame "copied peril", peril, copy.peril
+        assertSame "copied line of business", lob, copy.getMarkedSender(ISegmentMarker)
+
+        Claim cededClaim = new Claim(ultimate: 40d)
+        cededClaim.addMarker(IReinsuranceContractMarker, contract)
+        Claim netClaim = claim.getNetClaim(cededClaim)
+        assertEquals "net", 60d, netClaim.ultimate
+        assertSame "net contract", contract, netClaim.reinsuranceContract
+        assertSame "net peril", peril, netClaim.peril
+
+        TestReserveComponent reserve = new TestReserveComponent()
+        Claim reserveClaim = new Claim()
+        reserveClaim.addMarker(IReserveMarker, reserve)
+        assertSame "reserve as peril", reserve, reserveClaim.peril
+        assertSame "reserve", reserve, reserveClaim.reserve
+        Claim reserveCopy = reserveClaim.copy()
+        assertSame "reserve as peril of the copy", reserve, reserveCopy.getMarkedSender(IPerilMarker)
+        assertNull "no reserve marker of the copy", reserveCopy.getMarkedSender(IReserveMarker)
+    }
 }
\ No newline at end of file
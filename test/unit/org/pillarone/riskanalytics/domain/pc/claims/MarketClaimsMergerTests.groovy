@@ -114,4 +114,30 @@ public class MarketClaimsMergerTests extends GroovyTestCase {
 
         shouldFail(IllegalArgumentException, { merger.doCalculation() })
     }
+
+    void testPairingWithoutDenseOrdinals() {
+        marketClaim900.setOrdinal(Integer.MAX_VALUE)
+        assertMergedCededClaims()
+        marketClaim900.setOrdinal(marketClaim1000.ordinal)
+        assertMergedCededClaims()
+    }
+
+    void testRepeatedCalculations() {
+        assertMergedCededClaims()
+        assertMergedCededClaims()
+    }
+
+    private void assertMergedCededClaims() {
+        MarketClaimsMerger merger = new MarketClaimsMerger()
+        merger.inClaimsGross << grossClaim1000 << grossClaim900 << grossClaim700
+        merger.inClaimsCeded << cededClaim1000 << cededClaim900A << cededClaim900B
+
+        def probe = new TestProbe(merger, "outClaimsCeded")
+        merger.doCalculation()
+
+        assertEquals "cededClaim1000", cededClaim1000.incurred, merger.outClaimsCeded[0].incurred
+        assertEquals "cededClaim900 merged", cededClaim900A.incurred + cededClaim900B.incurred, merger.outClaimsCeded[1].incurred
+        assertEquals "cededClaim700", 0, merger.outClaimsCeded[2].incurred
+        assertSame "net originalClaim", marketClaim900, merger.outClaimsNet[1].originalClaim
+    }
 }
\ No newline at end of file
@@ -1,5 +1,11 @@
 package org.pillarone.riskanalytics.domain.pc.generators
 
+import models.claims.ClaimsModel
+import org.pillarone.riskanalytics.core.simulation.engine.IterationScope
+import org.pillarone.riskanalytics.core.simulation.engine.PeriodScope
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope
+import org.pillarone.riskanalytics.domain.pc.global.GlobalParameters
+import org.pillarone.riskanalytics.domain.pc.generators.severities.Event
 import org.pillarone.riskanalytics.domain.utils.*
 
 public class GeneratorCachingComponentTests extends GroovyTestCase {
@@ -18,6 +24,70 @@ public class GeneratorCachingComponentTests extends GroovyTestCase {
         assertNotSame generator, generator2
     }
 
+    void testCacheIsKeyedOnInstances() {
+        CacheTestComponent component = new CacheTestComponent()
+        RandomDistribution distribution = DistributionType.getStrategy(ClaimSizeDistributionType.NORMAL, ["mean": 0d, "stDev": 1d])
+        RandomDistribution equalDistribution = DistributionType.getStrategy(ClaimSizeDistributionType.NORMAL, ["mean": 0d, "stDev": 1d])
+        DistributionModified modification = DistributionModifier.getStrategy(DistributionModifier.NONE, [:])
+        DistributionModified censored = DistributionModifier.getStrategy(DistributionModifier.CENSORED, ["min": -1d, "max": 1d])
+        def generator = component.getGenerator(distribution, modification)
+        assertNotSame generator, component.getGenerator(equalDistribution, modification)
+        assertNotSame generator, component.getGenerator(distribution, censored)
+        assertSame generator, component.getGenerator(distribution, modification)
+    }
+
+    void testGeneratorSlot() {
+        CacheTestComponent component = new CacheTestComponent()
+        RandomDistribution distribution = DistributionType.getStrategy(ClaimSizeDistributionType.NORMAL, ["mean": 0d, "stDev": 1d])
+        RandomDistribution otherDistribution = DistributionType.getStrategy(ClaimSizeDistributionType.NORMAL, ["mean": 1d, "stDev": 1d])
+        DistributionModified modification = DistributionModifier.getStrategy(DistributionModifier.NONE, [:])
+        GeneratorSlot slot = new GeneratorSlot("slot")
+        def generator = component.getGenerator(slot, distribution, modification)
+        assertNotSame "own draw site", generator, component.getGenerator(distribution, modification)
+        assertSame generator, component.getGenerator(slot, distribution, modification)
+        def otherGenerator = component.getGenerator(slot, otherDistribution, modification)
+        assertNotSame generator, otherGenerator
+        assertSame generator, component.getGenerator(slot, distribution, modification)
+    }
+
+    void testDrawSitesIndependentOfCreationOrder() {
+        SimulationScope simulationScope = new SimulationScope(model: new ClaimsModel())
+        simulationScope.model.allComponents << new GlobalParameters(runtimeComponentStreams: true)
+        RandomDistribution distribution = DistributionType.getStrategy(ClaimSizeDistributionType.NORMAL, ["mean": 0d, "stDev": 1d])
+        RandomDistribution otherDistribution = DistributionType.getStrategy(ClaimSizeDistributionType.NORMAL, ["mean": 1d, "stDev": 1d])
+        DistributionModified modification = DistributionModifier.getStrategy(DistributionModifier.NONE, [:])
+        CacheTestComponent component = new CacheTestComponent(name: 'generator', simulationScope: simulationScope)
+        CacheTestComponent sameComponent = new CacheTestComponent(name: 'generator', simulationScope: simulationScope)
+
+        component.getGenerator(distribution, modification)
+        double value = (Double) component.getGenerator(otherDistribution, modification).nextValue()
+        assertEquals "same draw site", value, (Double) sameComponent.getGenerator(otherDistribution, modification).nextValue()
+
+        GeneratorSlot slot = new GeneratorSlot("slot")
+        GeneratorSlot sameSlot = new GeneratorSlot("slot")
+        value = (Double) component.getGenerator(slot, distribution, modification).nextValue()
+        assertEquals "same slot", value, (Double) sameComponent.getGenerator(sameSlot, distribution, modification).nextValue()
+    }
+
+    void testSynchronizeOncePerIteration() {
+        CacheTestComponent component = new CacheTestComponent()
+        component.iterationScope = new IterationScope(periodScope: new PeriodScope(), currentIteration: 1)
+        RandomDistribution distribution = DistributionType.getStrategy(ClaimSizeDistributionType.NORMAL, ["mean": 0d, "stDev": 1d])
+        DistributionModified modification = DistributionModifier.getStrategy(DistributionModifier.NONE, [:])
+        Event.setIteration(0)
+        new Event()
+        component.getGenerator(distribution, modification)
+        assertEquals "getting a generator does not synchronize", 1, new Event().ordinal
+
+        component.execute()
+        assertEquals "new iteration", 0, new Event().ordinal
+        component.execute()
+        assertEquals "iteration already synchronized", 1, new Event().ordinal
+
+        component.iterationScope.currentIteration = 2
+        component.execute()
+        assertEquals "next iteration", 0, new Event().ordinal
+    }
 }
 
 class CacheTestComponent extends GeneratorCachingComponent {
@@ -30,4 +100,8 @@ class CacheTestComponent extends GeneratorCachingComponent {
         getCachedGenerator(distribution, modifier)
     }
 
+    public def getGenerator(GeneratorSlot slot, distribution, modifier) {
+        getCachedGenerator(slot, distribution, modifier)
+    }
+
 }
\ No newline at end of file
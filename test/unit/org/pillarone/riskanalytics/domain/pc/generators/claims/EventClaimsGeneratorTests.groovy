@@ -1,9 +1,13 @@
 package org.pillarone.riskanalytics.domain.pc.generators.claims
 
+import models.claims.ClaimsModel
 import org.pillarone.riskanalytics.core.packets.PacketList
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope
+import org.pillarone.riskanalytics.domain.pc.global.GlobalParameters
 import org.pillarone.riskanalytics.domain.pc.generators.severities.Event
 import org.pillarone.riskanalytics.domain.pc.generators.severities.EventSeverity
 import org.pillarone.riskanalytics.domain.utils.DistributionType
+import org.pillarone.riskanalytics.domain.utils.LognormalParetoDistribution
 
 /**
  * @author stefan.kunz (at) intuitive-collaboration (dot) com
@@ -28,6 +32,33 @@ class EventClaimsGeneratorTests extends GroovyTestCase {
         assertEquals(3, generator.outClaims.size())
     }
 
+    void testTabulatedInverseF() {
+        Map parameters = ["sigma": 1.2d, "alpha": 1.5d, "beta": 1000d, "mu": 5d]
+        EventClaimsGenerator generator = new EventClaimsGenerator(
+                parmDistribution: DistributionType.getStrategy(DistributionType.LOGNORMALPARETO, parameters))
+        SimulationScope simulationScope = new SimulationScope(model: new ClaimsModel())
+        simulationScope.model.allComponents << new GlobalParameters(runtimeQuantileTableMaxError: 0.01)
+        generator.simulationScope = simulationScope
+        List<Double> probabilities = [0.1, 0.5, 0.9, 0.9995]
+        generator.inSeverities = new PacketList(probabilities.collect { new EventSeverity(value: it, event: new Event()) })
+
+        generator.doCalculation()
+
+        assertTrue generator.parmDistribution.distribution.isInverseFTabulated()
+        LognormalParetoDistribution exact = new LognormalParetoDistribution(1.2, 1.5, 1000, 5)
+        for (int i = 0; i < probabilities.size(); i++) {
+            assertEquals "claim $i", exact.inverseF(probabilities[i]), generator.outClaims[i].ultimate, 0.01
+        }
+    }
+
+    void testExactInverseFByDefault() {
+        EventClaimsGenerator generator = new EventClaimsGenerator(parmDistribution: DistributionType.getStrategy(
+                DistributionType.LOGNORMALPARETO, ["sigma": 1.2d, "alpha": 1.5d, "beta": 1000d, "mu": 5d]))
+        generator.inSeverities = new PacketList([new EventSeverity(value: 0.5, event: new Event())])
+        generator.doCalculation()
+        assertFalse generator.parmDistribution.distribution.isInverseFTabulated()
+    }
+
     void testNoGeneratorSet() {
         shouldFail(java.lang.IllegalStateException, {
             EventClaimsGenerator generator = new EventClaimsGenerator(parmDistribution: null)
@@ -0,0 +1,122 @@
+package org.pillarone.riskanalytics.domain.pc.generators.claims
+
+import org.pillarone.riskanalytics.domain.pc.constants.ClaimType
+import org.pillarone.riskanalytics.domain.pc.generators.severities.Event
+
+class MappedLossTableGeneratorTests extends GroovyTestCase {
+
+    static final int YEARS = 10000
+    static final int ROWS_PER_YEAR = 300
+
+    File file
+
+    void setUp() {
+        file = File.createTempFile("lossTable", ".bin")
+    }
+
+    void tearDown() {
+        LossTableFile.close(file.path)
+        file.delete()
+    }
+
+    /**
+     * year y has the events 0 to 99 of the perils 0 to 2, the loss of a row is y + row index
+     */
+    void writeSyntheticTable() {
+        LossTableFileWriter writer = new LossTableFileWriter(file, 1, YEARS, true)
+        for (int year = 1; year <= YEARS; year++) {
+            for (int row = 0; row < ROWS_PER_YEAR; row++) {
+                writer.addRow(year, row % 100, row.intdiv(100), year + row, (row % 100) / 100d)
+            }
+        }
+        writer.close()
+    }
+
+    void testMultiMillionRowTable() {
+        writeSyntheticTable()
+        LossTableFile table = LossTableFile.open(file.path, this)
+        assertEquals "rows", 3000000L, table.rowCount
+        assertEquals "years", YEARS, table.numberOfYears
+        assertTrue "timing", table.hasTiming()
+        assertEquals "first row of last year", (YEARS - 1L) * ROWS_PER_YEAR, table.getFirstRow(YEARS - 1)
+        assertEquals "end row of last year", table.rowCount, table.getEndRow(YEARS - 1)
+        assertEquals "year", YEARS, table.getYear(table.rowCount - 1)
+        assertEquals "loss", YEARS + 299d, table.getLoss(table.rowCount - 1)
+
+        MappedLossTableGenerator generator = new MappedLossTableGenerator(parmLossTableFile: file.path)
+        generator.validateParameterization()
+        generator.doCalculation()
+        assertEquals "claims of year 1", ROWS_PER_YEAR, generator.outClaims.size()
+        assertEquals "total of year 1", ROWS_PER_YEAR + (0..<ROWS_PER_YEAR).sum(), generator.outClaims.ultimate.sum()
+        assertEquals "claim type", ClaimType.AGGREGATED_EVENT, generator.outClaims[0].claimType
+        assertSame "shared event", generator.outClaims[1].event, generator.outClaims[101].event
+        assertNotSame "different events", generator.outClaims[1].event, generator.outClaims[2].event
+        assertEquals "fraction of period", 0.01, generator.outClaims[101].fractionOfPeriod
+        assertSame "peril", generator, generator.outClaims[0].peril
+
+        generator.reset()
+        generator.parmPeril = 2
+        generator.doCalculation()
+        assertEquals "claims of peril 2", 100, generator.outClaims.size()
+        assertEquals "loss of year 2", 202d, generator.outClaims[0].ultimate
+    }
+
+    void testYearsWrapAround() {
+        LossTableFileWriter writer = new LossTableFileWriter(file, 2000, 3, false)
+        writer.addRow(2000, 1, 0, 10)
+        writer.addRow(2002, 2, 0, 30)
+        writer.addRow(2002, 3, 0, 40)
+        writer.close()
+
+        MappedLossTableGenerator generator = new MappedLossTableGenerator(parmLossTableFile: file.path)
+        List<Integer> claimsPerIteration = []
+        4.times {
+            generator.reset()
+            generator.doCalculation()
+            claimsPerIteration << generator.outClaims.size()
+        }
+        assertEquals "claims per iteration", [1, 0, 2, 1], claimsPerIteration
+        assertEquals "default fraction of period", LossTableFile.DEFAULT_FRACTION_OF_PERIOD, generator.outClaims[0].fractionOfPeriod
+    }
+
+    void testConvertList() {
+        LossTableFileWriter.convert([10, 20, 30], file)
+        LossTableFile table = LossTableFile.open(file.path, this)
+        assertEquals "years", 3, table.numberOfYears
+        assertEquals "loss", 20d, table.getLoss(table.getFirstRow(1))
+        assertEquals "year", 3, table.getYear(2)
+    }
+
+    void testInvalidFiles() {
+        LossTableFileWriter writer = new LossTableFileWriter(file, 1, 2, false)
+        writer.addRow(2, 1, 0, 10)
+        shouldFail(IllegalArgumentException) { writer.addRow(1, 1, 0, 10) }
+        shouldFail(IllegalArgumentException) { writer.addRow(3, 1, 0, 10) }
+        writer.close()
+
+        file.withOutputStream { it.write([1, 2, 3] as byte[]) }
+        LossTableFile.close(file.path)
+        shouldFail(IllegalArgumentException) { LossTableFile.open(file.path, this) }
+        shouldFail(IllegalStateException) { new MappedLossTableGenerator().validateParameterization() }
+        shouldFail(IllegalStateException) { new MappedLossTableGenerator(parmLossTableFile: null).validateParameterization() }
+    }
+
+    void testEventsPerIterationAndPeriod() {
+        LossTableFileWriter.convert([10, 20], file)
+        LossTableFile table = LossTableFile.open(file.path, this)
+        Event event = table.getEvent(0, 0, 1, 0.5)
+        assertSame "same iteration and period", event, table.getEvent(0, 0, 1, 0.5)
+        assertNotSame "next period", event, table.getEvent(0, 1, 1, 0.5)
+        assertNotSame "next iteration", table.getEvent(0, 1, 1, 0.5), table.getEvent(1, 1, 1, 0.5)
+    }
+
+    void testSharedPerOwner() {
+        LossTableFileWriter.convert([10, 20], file)
+        Object simulation = new Object()
+        LossTableFile table = LossTableFile.open(file.path, simulation)
+        assertSame "shared by the generators of a simulation", table, LossTableFile.open(file.path, simulation)
+        assertNotSame "not shared among simulations", table, LossTableFile.open(file.path, new Object())
+        LossTableFile.release(file.path, simulation)
+        assertNotSame "released", table, LossTableFile.open(file.path, simulation)
+    }
+}
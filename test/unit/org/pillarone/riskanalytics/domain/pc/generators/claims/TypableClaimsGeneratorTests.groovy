@@ -4,7 +4,10 @@ import models.claims.ClaimsModel
 import org.pillarone.riskanalytics.core.parameterization.ComboBoxTableMultiDimensionalParameter
 import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope
 import org.pillarone.riskanalytics.core.util.TestPretendInChannelWired
+import org.pillarone.riskanalytics.core.wiring.WireCategory
+import org.pillarone.riskanalytics.core.wiring.WiringUtils
 import org.pillarone.riskanalytics.domain.pc.claims.RiskAllocatorType
+import org.pillarone.riskanalytics.domain.pc.constants.ClaimType
 import org.pillarone.riskanalytics.domain.pc.constants.Exposure
 import org.pillarone.riskanalytics.domain.pc.constants.FrequencyBase
 import org.pillarone.riskanalytics.domain.pc.constants.FrequencySeverityClaimType
@@ -12,6 +15,7 @@ import org.pillarone.riskanalytics.domain.pc.generators.copulas.DependenceStream
 import org.pillarone.riskanalytics.domain.pc.generators.copulas.EventDependenceStream
 import org.pillarone.riskanalytics.domain.pc.generators.severities.Event
 import org.pillarone.riskanalytics.domain.pc.generators.severities.EventSeverity
+import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ReinsuranceContract
 import org.pillarone.riskanalytics.domain.utils.marker.IUnderwritingInfoMarker
 import org.pillarone.riskanalytics.domain.pc.underwriting.RiskBands
 import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo
@@ -31,6 +35,8 @@ import org.pillarone.riskanalytics.domain.utils.FrequencyDistributionType
 import org.pillarone.riskanalytics.core.parameterization.TableMultiDimensionalParameter
 import org.pillarone.riskanalytics.core.simulation.engine.PeriodScope
 import org.pillarone.riskanalytics.core.simulation.engine.IterationScope
+import org.pillarone.riskanalytics.core.simulation.item.Simulation
+import org.pillarone.riskanalytics.domain.pc.global.GlobalParameters
 /**
  * @author stefan.kunz (at) intuitive-collaboration (dot) com
  */
@@ -39,6 +45,7 @@ public class TypableClaimsGeneratorTests extends GroovyTestCase {
 
     TypableClaimsGenerator claimsGenerator
     RiskBands riskBands = new RiskBands()
+    ReinsuranceContract contract
 
     void setUp() {
 
@@ -150,6 +157,69 @@ public class TypableClaimsGeneratorTests extends GroovyTestCase {
         assertEquals "correct value of claim", 123, claimsGenerator.outClaims[0].ultimate
     }
 
+    void testCompoundAggregate() {
+        claimsGenerator = new TypableClaimsGenerator()
+        ComboBoxTableMultiDimensionalParameter uwInfoComboBox = new ComboBoxTableMultiDimensionalParameter(
+                ["motor hull"], ["Underwriting Information"], IUnderwritingInfoMarker)
+        uwInfoComboBox.comboBoxValues.put('motorHull', riskBands)
+        claimsGenerator.setParmUnderwritingInformation(uwInfoComboBox)
+        claimsGenerator.setParmClaimsModel ClaimsGeneratorType.getStrategy(
+                ClaimsGeneratorType.COMPOUND_AGGREGATE, [
+                        "frequencyDistribution": DistributionType.getStrategy(DistributionType.CONSTANT, [constant: 2]),
+                        "claimsSizeBase": Exposure.ABSOLUTE,
+                        "claimsSizeDistribution": DistributionType.getStrategy(DistributionType.CONSTANT, [constant: 123]),
+                        "claimsSizeModification": DistributionModifier.getStrategy(DistributionModifier.NONE, [:]),])
+        claimsGenerator.setParmAssociateExposureInfo(RiskAllocatorType.getStrategy(RiskAllocatorType.NONE, [:]))
+        claimsGenerator.setSimulationScope(new SimulationScope(model: new ClaimsModel()))
+        claimsGenerator.doCalculation()
+
+        assertEquals "one attritional claim", 1, claimsGenerator.outClaims.size()
+        assertEquals "aggregate of two claims", 246, claimsGenerator.outClaims[0].ultimate, 0.1
+        assertEquals "attritional", ClaimType.ATTRITIONAL, claimsGenerator.outClaims[0].claimType
+    }
+
+    void testValidateWiringClaimsAndClaimBatch() {
+        contract = new ReinsuranceContract()
+        WiringUtils.use(WireCategory) {
+            contract.inClaims = claimsGenerator.outClaims
+        }
+        claimsGenerator.validateWiring()
+
+        WiringUtils.use(WireCategory) {
+            contract.inClaimBatches = claimsGenerator.outClaimBatch
+        }
+        shouldFail IllegalStateException, { claimsGenerator.validateWiring() }
+    }
+
+    void testThresholdSplit() {
+        claimsGenerator = new TypableClaimsGenerator()
+        claimsGenerator.setParmClaimsModel ClaimsGeneratorType.getStrategy(
+                ClaimsGeneratorType.THRESHOLD_SPLIT, [
+                        "frequencyDistribution": DistributionType.getStrategy(DistributionType.CONSTANT, [constant: 3]),
+                        "claimsSizeBase": Exposure.ABSOLUTE,
+                        "claimsSizeDistribution": DistributionType.getStrategy(DistributionType.CONSTANT, [constant: 123]),
+                        "claimsSizeModification": DistributionModifier.getStrategy(DistributionModifier.NONE, [:]),
+                        "threshold": 100d])
+        claimsGenerator.setParmAssociateExposureInfo(RiskAllocatorType.getStrategy(RiskAllocatorType.NONE, [:]))
+        claimsGenerator.setSimulationScope(new SimulationScope(model: new ClaimsModel()))
+        claimsGenerator.doCalculation()
+
+        assertEquals "attritional and three single claims", 4, claimsGenerator.outClaims.size()
+        assertEquals "attritional", ClaimType.ATTRITIONAL, claimsGenerator.outClaims[0].claimType
+        assertEquals "no claims below threshold", 0, claimsGenerator.outClaims[0].ultimate, 1E-10
+        for (int i = 1; i < 4; i++) {
+            assertEquals "single", ClaimType.SINGLE, claimsGenerator.outClaims[i].claimType
+            assertEquals "claim above threshold", 123, claimsGenerator.outClaims[i].ultimate
+        }
+
+        claimsGenerator.reset()
+        claimsGenerator.parmClaimsModel.threshold = 200d
+        claimsGenerator.doCalculation()
+
+        assertEquals "attritional claim only", 1, claimsGenerator.outClaims.size()
+        assertEquals "aggregate of three claims", 369, claimsGenerator.outClaims[0].ultimate, 0.1
+    }
+
     void testFrequencySeverity() {
         claimsGenerator = new TypableClaimsGenerator()
         ComboBoxTableMultiDimensionalParameter uwInfoComboBox = new ComboBoxTableMultiDimensionalParameter(
@@ -495,4 +565,47 @@ public class TypableClaimsGeneratorTests extends GroovyTestCase {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * The quasi-Monte Carlo mode is switched on by the global parameters of the model. With independent
+     * randomizations the mean attritional claim has a smaller root mean square error than with pseudo random draws.
+     */
+    void testQuasiMonteCarloConvergence() {
+        int iterations = 1024
+        int replications = 8
+        RandomDistribution distribution = DistributionType.getStrategy(DistributionType.LOGNORMAL, [mean: 1d, stDev: 0.5d])
+        double squaredErrorMonteCarlo = 0
+        double squaredErrorQuasiMonteCarlo = 0
+        for (int r = 0; r < replications; r++) {
+            squaredErrorMonteCarlo += Math.pow(meanAttritionalClaim(distribution, iterations, false, r + 1) - 1d, 2)
+            squaredErrorQuasiMonteCarlo += Math.pow(meanAttritionalClaim(distribution, iterations, true, r + 1) - 1d, 2)
+        }
+        assertTrue "rmse qmc ${Math.sqrt(squaredErrorQuasiMonteCarlo / replications)}, mc ${Math.sqrt(squaredErrorMonteCarlo / replications)}",
+                squaredErrorQuasiMonteCarlo < squaredErrorMonteCarlo / 4
+    }
+
+    private double meanAttritionalClaim(RandomDistribution distribution, int iterations, boolean quasiMonteCarlo, int seed) {
+        IterationScope iterationScope = new IterationScope(periodScope: new PeriodScope())
+        SimulationScope simulationScope = new SimulationScope(model: new ClaimsModel(), iterationScope: iterationScope,
+                simulation: new Simulation("Simmie"), numberOfIterations: iterations)
+        simulationScope.simulation.randomSeed = seed
+        simulationScope.model.allComponents << new GlobalParameters(runtimeQuasiMonteCarlo: quasiMonteCarlo)
+        TypableClaimsGenerator generator = new TypableClaimsGenerator()
+        generator.setParmClaimsModel ClaimsGeneratorType.getStrategy(
+                ClaimsGeneratorType.ATTRITIONAL, [
+                        "claimsSizeBase": Exposure.ABSOLUTE,
+                        "claimsSizeDistribution": distribution,
+                        "claimsSizeModification": DistributionModifier.getStrategy(DistributionModifier.NONE, [:]),])
+        generator.setParmAssociateExposureInfo(RiskAllocatorType.getStrategy(RiskAllocatorType.NONE, [:]))
+        generator.setSimulationScope(simulationScope)
+        generator.setIterationScope(iterationScope)
+        double sum = 0
+        for (int i = 0; i < iterations; i++) {
+            iterationScope.currentIteration = i
+            generator.doCalculation()
+            sum += generator.outClaims[0].ultimate
+            generator.outClaims.clear()
+            generator.outClaimsNumber.clear()
+        }
+        sum / iterations
+    }
+}
@@ -31,6 +31,18 @@ class ClaimsGeneratorStrategyValidatorTests extends GroovyTestCase {
         assertEquals 1, errors.size()
     }
 
+    void testThresholdSplitRequiresPoissonFrequency() {
+        Map parameters = [claimsSizeDistribution: DistributionType.getStrategy(DistributionType.PARETO, ['alpha': 2d, 'beta': 1d]),
+                claimsSizeModification: DistributionModifier.getStrategy(DistributionModifier.NONE, [:]),
+                threshold: 10d]
+        parameters.frequencyDistribution = DistributionType.getStrategy(DistributionType.POISSON, ['lambda': 5d])
+        assertEquals 'poisson', 0, validator.validate(ClaimsGeneratorType.THRESHOLD_SPLIT, parameters).size()
+        parameters.frequencyDistribution = DistributionType.getStrategy(DistributionType.CONSTANT, ['constant': 0d])
+        assertEquals 'no claims', 0, validator.validate(ClaimsGeneratorType.THRESHOLD_SPLIT, parameters).size()
+        parameters.frequencyDistribution = DistributionType.getStrategy(DistributionType.NEGATIVEBINOMIAL, ['gamma': 2d, 'p': 0.5d])
+        assertEquals 'negative binomial', 1, validator.validate(ClaimsGeneratorType.THRESHOLD_SPLIT, parameters).size()
+    }
+
     void testAllStrategies() {
 
         RandomDistribution claimsSizeDistribution = DistributionType.getStrategy(DistributionType.LOGNORMAL_MU_SIGMA, ['mu': 0d, 'sigma': 1d])
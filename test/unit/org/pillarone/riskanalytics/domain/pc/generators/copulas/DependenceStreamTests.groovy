@@ -0,0 +1,35 @@
+package org.pillarone.riskanalytics.domain.pc.generators.copulas
+
+class DependenceStreamTests extends GroovyTestCase {
+
+    void testColumns() {
+        DependenceTargets targets = new DependenceTargets(["fire", "hull", "fire"])
+        assertEquals 0, targets.column("fire")
+        assertEquals 1, targets.column("hull")
+        assertEquals(-1, targets.column("legal"))
+    }
+
+    void testResolveOncePerTargets() {
+        List<String> names = ["fire", "hull"]
+        DependenceTargets targets = new DependenceTargets(names)
+        DependenceStream first = new DependenceStream([0.2d, 0.3d] as double[], targets)
+        DependenceStream second = new DependenceStream([0.4d, 0.5d] as double[], targets)
+        DependenceColumn column = new DependenceColumn()
+        assertEquals 0.3d, first.getValue(column.resolve(first.targets, "hull"))
+        assertEquals 0.5d, second.getValue(column.resolve(second.targets, "hull"))
+        assertEquals 0.4d, second.getValue(column.resolve(second.targets, "fire"))
+        DependenceStream reordered = new DependenceStream([0.6d, 0.7d], ["hull", "fire"])
+        assertEquals 0.6d, reordered.getValue(column.resolve(reordered.targets, "hull"))
+        assertEquals(-1, column.resolve(reordered.targets, "legal"))
+        assertSame names, first.marginals
+    }
+
+    void testProbabilities() {
+        DependenceStream stream = new DependenceStream()
+        stream.probabilities = [0.25d, 0.75d]
+        stream.marginals = ["fire", "hull"]
+        assertEquals([0.25d, 0.75d], stream.probabilities)
+        assertEquals 0.75d, stream.values[1]
+        assertEquals 1, stream.targets.column("hull")
+    }
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.pillarone.riskanalytics.domain.pc.generators.copulas
 
 import org.pillarone.riskanalytics.core.parameterization.SimpleMultiDimensionalParameter
+import org.pillarone.riskanalytics.core.util.MathUtils
 import org.pillarone.riskanalytics.domain.pc.generators.frequency.Frequency
 
 /**
@@ -76,6 +77,81 @@ class GumbelCopulaStrategyTests extends GroovyTestCase {
     */
 //    }
 
+    static GumbelCopulaStrategy getStrategy(double lambda, int dimension) {
+        return (GumbelCopulaStrategy) CopulaStrategyFactory.getCopulaStrategy(
+                LobCopulaType.GUMBEL,
+                ["lambda": lambda, "dimension": dimension, "targets": new SimpleMultiDimensionalParameter(["Fire", "Hull", "Legal"])])
+    }
+
+    /**
+     * The probability of both components exceeding q, divided by 1 - q, converges to the upper tail dependence
+     * 2 - 2^(1/lambda) and is known in closed form. It is compared with the sampler and the conditional algorithm
+     * (Newton iteration on the Kendall distribution function) used before.
+     */
+    void testUpperTailDependence() {
+        MathUtils.initRandomStreamBase(2012)
+        double lambda = 2
+        double q = 0.95
+        int count = 40000
+        GumbelCopulaStrategy strategy = getStrategy(lambda, 2)
+        int jointExceedances = 0
+        int conditionalJointExceedances = 0
+        double sum = 0
+        for (int i = 0; i < count; i++) {
+            List<Number> vector = strategy.getRandomVector()
+            assertEquals 2, vector.size()
+            sum += vector[0] + vector[1]
+            if (vector[0] > q && vector[1] > q) jointExceedances++
+            double[] conditional = conditionalVector(lambda)
+            if (conditional[0] > q && conditional[1] > q) conditionalJointExceedances++
+        }
+        double exact = (1 - 2 * q + Math.pow(q, Math.pow(2, 1 / lambda))) / (1 - q)
+        assertEquals "mean of marginals", 0.5, sum / (2 * count), 0.01
+        assertEquals "tail dependence", exact, jointExceedances / (count * (1 - q)), 0.05
+        assertEquals "conditional algorithm", exact, conditionalJointExceedances / (count * (1 - q)), 0.05
+    }
+
+    void testIndependence() {
+        MathUtils.initRandomStreamBase(2013)
+        GumbelCopulaStrategy strategy = getStrategy(1, 3)
+        int count = 20000
+        double product = 0
+        for (int i = 0; i < count; i++) {
+            List<Number> vector = strategy.getRandomVector()
+            assertEquals 3, vector.size()
+            product += vector[0] * vector[1] * vector[2]
+        }
+        assertEquals 0.125, product / count, 0.005
+    }
+
+    void testParameterChange() {
+        GumbelCopulaStrategy strategy = getStrategy(2, 2)
+        assertEquals 2, strategy.getRandomVector().size()
+        strategy.dimension = 3
+        assertEquals 3, strategy.getRandomVector().size()
+        strategy.lambda = 0.5
+        shouldFail(IllegalArgumentException) { strategy.getRandomVector() }
+    }
+
+    private static double[] conditionalVector(double lambda) {
+        double s = MathUtils.getRandomStreamBase().nextDouble()
+        double t = kendallInverse(MathUtils.getRandomStreamBase().nextDouble(), lambda)
+        double radius = Math.pow(-Math.log(t), lambda)
+        return [Math.exp(-Math.pow(s * radius, 1 / lambda)), Math.exp(-Math.pow((1 - s) * radius, 1 / lambda))] as double[]
+    }
+
+    private static double kendallInverse(double q, double theta) {
+        double xOld = q
+        double xNew = 1 - q
+        int step = 0
+        while (Math.abs(xOld - xNew) > 0.001 && step < 10000) {
+            xOld = xNew
+            xNew = xOld - (xOld - xOld / theta * Math.log(xOld) - q) / (1 - 1 / theta * (Math.log(xOld) + 1))
+            ++step
+        }
+        return xNew
+    }
+
     void testGetParameters() {
         Copula copula = getCopula0()
         //    AbstractMultiDimensionalParameter matrix = ((GumbelCopulaStrategy) copulas.getParmCopulaStrategy()).getDependencyMatrix()
@@ -2,7 +2,9 @@ package org.pillarone.riskanalytics.domain.pc.generators.copulas
 
 import org.pillarone.riskanalytics.core.parameterization.AbstractMultiDimensionalParameter
 import org.pillarone.riskanalytics.core.parameterization.MatrixMultiDimensionalParameter
+import org.pillarone.riskanalytics.core.util.MathUtils
 import org.pillarone.riskanalytics.domain.pc.generators.frequency.Frequency
+import org.pillarone.riskanalytics.domain.utils.FastNormalCdf
 import org.pillarone.riskanalytics.domain.utils.DistributionType
 import org.pillarone.riskanalytics.domain.utils.RandomVariateDistribution
 import org.pillarone.riskanalytics.domain.utils.RandomVariateDistributionFactory
@@ -88,6 +90,24 @@ class NormalCopulaStrategyTests extends GroovyTestCase {
         */
     }
 
+    void testFastMarginals() {
+        NormalCopulaStrategy exact = (NormalCopulaStrategy) getCopula2().parmCopulaStrategy
+        NormalCopulaStrategy fast = (NormalCopulaStrategy) CopulaStrategyFactory.getCopulaStrategy(LobCopulaType.NORMAL,
+                ["dependencyMatrix": exact.dependencyMatrix])
+        fast.fastMarginals = true
+        assertFalse 'exact marginals by default', exact.fastMarginals
+        assertFalse 'fast marginals are not persisted', fast.parameters.containsKey("fastMarginals")
+        MathUtils.initRandomStreamBase(1212)
+        List<List<Number>> exactVectors = (0..<1000).collect { exact.getRandomVector() }
+        MathUtils.initRandomStreamBase(1212)
+        List<List<Number>> fastVectors = (0..<1000).collect { fast.getRandomVector() }
+        for (int i = 0; i < exactVectors.size(); i++) {
+            for (int j = 0; j < exactVectors[i].size(); j++) {
+                assertEquals exactVectors[i][j], fastVectors[i][j], FastNormalCdf.MAX_ABSOLUTE_ERROR
+            }
+        }
+    }
+
     void testGetParameters() {
         Copula copula = getCopula0()
         AbstractMultiDimensionalParameter matrix = ((NormalCopulaStrategy) copula.getParmCopulaStrategy()).getDependencyMatrix()
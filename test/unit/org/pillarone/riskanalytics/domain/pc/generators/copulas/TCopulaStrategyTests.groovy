@@ -2,7 +2,9 @@ package org.pillarone.riskanalytics.domain.pc.generators.copulas
 
 import org.pillarone.riskanalytics.core.parameterization.AbstractMultiDimensionalParameter
 import org.pillarone.riskanalytics.core.parameterization.MatrixMultiDimensionalParameter
+import org.pillarone.riskanalytics.core.util.MathUtils
 import org.pillarone.riskanalytics.domain.pc.generators.frequency.Frequency
+import org.pillarone.riskanalytics.domain.utils.StudentCdfTable
 import umontreal.iro.lecuyer.probdist.StudentDist
 
 /**
@@ -90,6 +92,24 @@ class TCopulaStrategyTests extends GroovyTestCase {
         */
     }
 
+    void testFastMarginals() {
+        TCopulaStrategy exact = (TCopulaStrategy) getCopula2().parmCopulaStrategy
+        TCopulaStrategy fast = (TCopulaStrategy) CopulaStrategyFactory.getCopulaStrategy(LobCopulaType.T,
+                ["dependencyMatrix": exact.dependencyMatrix, "degreesOfFreedom": 10])
+        fast.fastMarginals = true
+        assertFalse 'exact marginals by default', exact.fastMarginals
+        assertFalse 'fast marginals are not persisted', fast.parameters.containsKey("fastMarginals")
+        MathUtils.initRandomStreamBase(1212)
+        List<List<Number>> exactVectors = (0..<1000).collect { exact.getRandomVector() }
+        MathUtils.initRandomStreamBase(1212)
+        List<List<Number>> fastVectors = (0..<1000).collect { fast.getRandomVector() }
+        for (int i = 0; i < exactVectors.size(); i++) {
+            for (int j = 0; j < exactVectors[i].size(); j++) {
+                assertEquals exactVectors[i][j], fastVectors[i][j], StudentCdfTable.MAX_ABSOLUTE_ERROR
+            }
+        }
+    }
+
     void testGetParameters() {
         LobCopula copula = getCopula0()
         AbstractMultiDimensionalParameter matrix = ((TCopulaStrategy) copula.getParmCopulaStrategy()).getDependencyMatrix()
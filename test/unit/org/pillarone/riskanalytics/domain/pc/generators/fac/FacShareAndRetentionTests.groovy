@@ -31,4 +31,18 @@ class FacShareAndRetentionTests extends GroovyTestCase {
         assertEquals 'quota share of uw2', 0.15, facShareAndRetention.getQuotaShare(underwritingInfo2, 0)
         assertEquals 'surplus of uw2', 0.17, facShareAndRetention.getSurplusShare(underwritingInfo2, 0)
     }
+
+    void testDiscreteEmpiricalFacShares() {
+        FacShareRetentionHelper helper = new FacShareRetentionHelper()
+        helper.add(1, 0.2, 0.01)
+        helper.add(2, 0.4, 0.02)
+        UnderwritingInfo underwritingInfo = new UnderwritingInfo()
+
+        FacShareAndRetention facShareAndRetention = new FacShareAndRetention()
+        facShareAndRetention.add(underwritingInfo, helper.getFacQuotaShareDistribution(), helper.getFacSurplusSharesDistribution())
+        for (int i = 0; i < 100; i++) {
+            assertTrue 'quota share drawn from fac shares', [0.2d, 0.4d].contains(facShareAndRetention.getQuotaShare(underwritingInfo, 0))
+            assertTrue 'surplus share drawn from fac shares', [0.01d, 0.02d].contains(facShareAndRetention.getSurplusShare(underwritingInfo, 0))
+        }
+    }
 }
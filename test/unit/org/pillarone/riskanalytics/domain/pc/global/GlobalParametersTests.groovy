@@ -0,0 +1,52 @@
+package org.pillarone.riskanalytics.domain.pc.global
+
+import models.claims.ClaimsModel
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope
+import org.pillarone.riskanalytics.core.simulation.item.Simulation
+import org.pillarone.riskanalytics.core.util.MathUtils
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.AntitheticStreams
+import org.pillarone.riskanalytics.domain.utils.randomnumbers.SimulationStreams
+
+class GlobalParametersTests extends GroovyTestCase {
+
+    void testWithoutGlobalParameters() {
+        assertSame SimulationStreams.DISABLED, GlobalParameters.getSimulationStreams(null)
+        assertSame SimulationStreams.DISABLED, GlobalParameters.getSimulationStreams(new SimulationScope(model: new ClaimsModel()))
+    }
+
+    void testAntitheticVariates() {
+        SimulationScope simulationScope = getSimulationScope(new GlobalParameters(runtimeAntitheticVariates: true))
+        SimulationStreams streams = GlobalParameters.getSimulationStreams(simulationScope)
+        assertTrue streams.isAntithetic()
+        assertFalse streams.isQuasiMonteCarlo()
+        assertTrue AntitheticStreams.isAntithetic(streams.getStream(MathUtils.getRandomStreamBase()))
+        assertSame streams, GlobalParameters.getSimulationStreams(simulationScope)
+    }
+
+    /**
+     * Every simulation, i.e. every model instance, has its own state.
+     */
+    void testStreamsPerSimulation() {
+        SimulationStreams first = GlobalParameters.getSimulationStreams(getSimulationScope(new GlobalParameters(runtimeQuasiMonteCarlo: true)))
+        SimulationStreams second = GlobalParameters.getSimulationStreams(getSimulationScope(new GlobalParameters(runtimeQuasiMonteCarlo: true)))
+        assertTrue first.isQuasiMonteCarlo()
+        assertFalse first.isAntithetic()
+        assertNotSame first, second
+    }
+
+    void testComponentStreams() {
+        SimulationStreams streams = GlobalParameters.getSimulationStreams(getSimulationScope(new GlobalParameters(runtimeComponentStreams: true)))
+        assertTrue streams.isComponentStreams()
+        GlobalParameters component = new GlobalParameters(name: 'other')
+        assertNotSame MathUtils.getRandomStreamBase(), streams.getComponentStream(component, 'draw')
+        assertSame MathUtils.getRandomStreamBase(), SimulationStreams.DISABLED.getComponentStream(component, 'draw')
+    }
+
+    private static SimulationScope getSimulationScope(GlobalParameters globalParameters) {
+        SimulationScope simulationScope = new SimulationScope(model: new ClaimsModel(), simulation: new Simulation("Simmie"),
+                numberOfIterations: 16)
+        simulationScope.simulation.randomSeed = 2011
+        simulationScope.model.allComponents << globalParameters
+        simulationScope
+    }
+}
@@ -140,6 +140,24 @@ class CXLContractStrategyTests extends GroovyTestCase {
         assertEquals("claim40Event3", claim40Event3.ultimate / 10, cxl.outCoveredClaims[9].ultimate)
     }
 
+    void testEventsWithSameOrdinal() {
+        Event.setIteration(-2)
+        Event eventA = new Event(fractionOfPeriod: 0.1d)
+        Event.setIteration(-3)
+        Event eventB = new Event(fractionOfPeriod: 0.2d)
+        assertEquals "same ordinal", eventA.ordinal, eventB.ordinal
+
+        ReinsuranceContract cxl = getContract0()
+        cxl.inClaims << new Claim(event: eventA, claimType: ClaimType.EVENT, value: 10d)
+        cxl.inClaims << new Claim(event: eventB, claimType: ClaimType.EVENT, value: 40d)
+        cxl.inClaims << new Claim(event: eventA, claimType: ClaimType.EVENT, value: 20d)
+        cxl.doCalculation()
+
+        assertEquals "claim10EventA", 10d / 3, cxl.outCoveredClaims[0].ultimate, EPSILON
+        assertEquals "claim40EventB", 20d, cxl.outCoveredClaims[1].ultimate, EPSILON
+        assertEquals "claim20EventA", 20d / 3, cxl.outCoveredClaims[2].ultimate, EPSILON
+    }
+
     void testEventClaimsAggregateDeductible() {
         ReinsuranceContract cxl = getContract2()
 
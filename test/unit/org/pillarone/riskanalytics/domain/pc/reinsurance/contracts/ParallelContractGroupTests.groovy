@@ -0,0 +1,57 @@
+package org.pillarone.riskanalytics.domain.pc.reinsurance.contracts
+
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope
+import org.pillarone.riskanalytics.domain.pc.claims.ClaimPacketFactory
+import org.pillarone.riskanalytics.domain.pc.generators.severities.Event
+import org.pillarone.riskanalytics.domain.pc.global.GlobalParameters
+import org.pillarone.riskanalytics.domain.pc.reinsurance.commissions.CommissionTests
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+
+class ParallelContractGroupTests extends GroovyTestCase {
+
+    void testPoolReleasedIfCalculationFails() {
+        SimulationScope simulationScope = CommissionTests.getTestSimulationScope()
+        simulationScope.numberOfIterations = 2
+        simulationScope.model.allComponents << new GlobalParameters(runtimeParallelContracts: 2)
+        ParallelContractGroup group = new ParallelContractGroup()
+        group.add(new FailingContract(simulationScope: simulationScope))
+        group.add(new FailingContract(simulationScope: simulationScope))
+
+        group.execute(group.contracts[0])
+        assertTrue "pool acquired", ParallelContractGroup.hasPool(simulationScope)
+        shouldFail(IllegalStateException) { group.execute(group.contracts[1]) }
+        assertFalse "pool released", ParallelContractGroup.hasPool(simulationScope)
+    }
+
+    void testPoolThreads() {
+        Object owner = new Object()
+        ExecutorService pool = ParallelContractGroup.acquire(owner, 2)
+        assertTrue "daemon threads", pool.submit({ Thread.currentThread().daemon } as Callable).get()
+        ParallelContractGroup.release(owner)
+        assertTrue "shut down", pool.shutdown
+    }
+
+    void testStartIteration() {
+        int eventOrdinal = -1
+        int claimOrdinal = -1
+        Thread.start {
+            ParallelContractGroup.startIteration(0, false, false)
+            new Event()
+            ClaimPacketFactory.createPacket().ordinal
+            ParallelContractGroup.startIteration(1, false, false)
+            eventOrdinal = new Event().ordinal
+            claimOrdinal = ClaimPacketFactory.createPacket().ordinal
+        }.join()
+        assertEquals "first event of the iteration", 0, eventOrdinal
+        assertEquals "first claim of the iteration", 0, claimOrdinal
+    }
+
+    private static class FailingContract extends ReinsuranceContract {
+
+        public void doCalculation() {
+            throw new IllegalStateException("failing contract")
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.pillarone.riskanalytics.domain.pc.reinsurance.contracts
 import org.pillarone.riskanalytics.core.parameterization.TableMultiDimensionalParameter
 import org.pillarone.riskanalytics.core.util.TestProbe
 import org.pillarone.riskanalytics.domain.pc.claims.Claim
+import org.pillarone.riskanalytics.domain.pc.claims.ClaimBatch
 import org.pillarone.riskanalytics.domain.pc.constants.ClaimType
 import org.pillarone.riskanalytics.domain.pc.constants.PremiumBase
 import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo
@@ -104,6 +105,35 @@ class WXLContractStrategyTests extends GroovyTestCase {
         assertEquals "wxl, underwriting info", 100 + 100 * 7 / 15d, wxl.outCoverUnderwritingInfo[0].premium, 1E-13
     }
 
+    void testCalculateCededClaimBatches() {
+        ClaimBatch attrClaims = new ClaimBatch()
+        attrClaims.add(100d, 0d, ClaimType.ATTRITIONAL, null, null)
+        ClaimBatch largeClaims = new ClaimBatch()
+        largeClaims.add(50d, 0d, ClaimType.SINGLE, null, null)
+        largeClaims.add(60d, 0d, ClaimType.SINGLE, null, null)
+        largeClaims.add(100d, 0d, ClaimType.SINGLE, null, null)
+        largeClaims.add(100d, 0d, ClaimType.SINGLE, null, null)
+
+        ReinsuranceContract wxl = getContract0()
+        wxl.inClaimBatches << attrClaims << largeClaims
+        wxl.inUnderwritingInfo << new UnderwritingInfo(premium: 100)
+        def probeCededClaimBatches = new TestProbe(wxl, "outCoveredClaimBatches")
+        def probeNetClaimBatches = new TestProbe(wxl, "outUncoveredClaimBatches")
+        def probeCXLCededUwInfo = new TestProbe(wxl, "outCoverUnderwritingInfo")
+        wxl.doCalculation()
+
+        assertEquals "no claims created", 0, wxl.outCoveredClaims.size()
+        assertEquals "ceded batches", 2, wxl.outCoveredClaimBatches.size()
+        assertEquals "wxl, attritional claim 100", 0, wxl.outCoveredClaimBatches[0].getUltimate(0)
+        assertEquals "wxl, ceded claim 50", 30, wxl.outCoveredClaimBatches[1].getUltimate(0)
+        assertEquals "wxl, ceded claim 60", 30, wxl.outCoveredClaimBatches[1].getUltimate(1)
+        assertEquals "wxl, ceded claim 100", 30, wxl.outCoveredClaimBatches[1].getUltimate(2)
+        assertEquals "wxl, ceded claim 100 (2)", 10, wxl.outCoveredClaimBatches[1].getUltimate(3)
+        assertEquals "wxl, net claim 100 (2)", 90, wxl.outUncoveredClaimBatches[1].getUltimate(3)
+        assertSame "wxl, original batch", largeClaims, wxl.outCoveredClaimBatches[1].originalBatch
+        assertEquals "wxl, underwriting info", 100 + 100 * 7 / 15d, wxl.outCoverUnderwritingInfo[0].premium, 1E-13
+    }
+
     void testCalculateCededClaimsAggregateDeductible() {
         Claim attrClaim100 = new Claim(claimType: ClaimType.ATTRITIONAL, ultimate: 100d)
         Claim largeClaim50 = new Claim(claimType: ClaimType.SINGLE, ultimate: 50d)
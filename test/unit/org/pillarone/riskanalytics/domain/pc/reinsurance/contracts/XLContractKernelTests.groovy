@@ -0,0 +1,173 @@
+package org.pillarone.riskanalytics.domain.pc.reinsurance.contracts
+
+import org.pillarone.riskanalytics.core.parameterization.AbstractMultiDimensionalParameter
+import org.pillarone.riskanalytics.core.parameterization.TableMultiDimensionalParameter
+import org.pillarone.riskanalytics.domain.pc.constants.PremiumBase
+import org.pillarone.riskanalytics.domain.pc.underwriting.CededUnderwritingInfo
+import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo
+
+class XLContractKernelTests extends GroovyTestCase {
+
+    static final double EPSILON = 1E-10
+
+    static final List<List<Double>> ULTIMATES = [
+            [], [10d], [45d], [50d, 60d, 70d], [120d, 0d, 35d, 300d, 55d, 90d, 21d], [1000d] * 12]
+
+    static final List<AbstractMultiDimensionalParameter> REINSTATEMENT_PREMIUMS = [
+            new TableMultiDimensionalParameter([0d], ['Reinstatement Premium']),
+            new TableMultiDimensionalParameter([0.2], ['Reinstatement Premium']),
+            new TableMultiDimensionalParameter([1d, 0.5, 0.25], ['Reinstatement Premium']),
+            new TableMultiDimensionalParameter([[0.3], [0.6]], ['Reinstatement Premium'])]
+
+    void testCededClaimsAndReinstatementPremiums() {
+        for (double attachmentPoint : [0d, 20d, 40d]) {
+            for (double limit : [0d, 30d, 100d]) {
+                for (double aggregateDeductible : [0d, 25d, 66d]) {
+                    for (double aggregateLimit : [0d, 30d, 75d, 100d, 1000d]) {
+                        for (AbstractMultiDimensionalParameter reinstatementPremiums : REINSTATEMENT_PREMIUMS) {
+                            for (List<Double> ultimates : ULTIMATES) {
+                                assertSameNumerics attachmentPoint, limit, aggregateDeductible, aggregateLimit,
+                                        reinstatementPremiums, ultimates
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void assertSameNumerics(double attachmentPoint, double limit, double aggregateDeductible, double aggregateLimit,
+                                    AbstractMultiDimensionalParameter reinstatementPremiums, List<Double> ultimates) {
+        String layer = "$attachmentPoint xs $limit, AAD $aggregateDeductible, AAL $aggregateLimit, $reinstatementPremiums.values, $ultimates"
+        XLContractKernel kernel = new XLContractKernel()
+        kernel.initPeriod(attachmentPoint, limit, aggregateDeductible, aggregateLimit,
+                XLContractKernel.parseReinstatementPremiums(reinstatementPremiums))
+        ReferenceLayer reference = new ReferenceLayer(attachmentPoint: attachmentPoint, limit: limit,
+                availableAggregateLimit: aggregateLimit, remainingAggregateDeductible: aggregateDeductible)
+        for (double ultimate : ultimates) {
+            assertEquals "ceded $layer", reference.cede(ultimate), kernel.cede(ultimate), EPSILON
+        }
+        assertEquals "available AAL $layer", reference.availableAggregateLimit, kernel.availableAggregateLimit, EPSILON
+        double reinstatements = limit == 0d ? 0d : aggregateLimit / limit - 1
+        assertEquals "reinstatements $layer", reinstatements, kernel.reinstatements, EPSILON
+        assertEquals "reinstatement premium $layer",
+                referenceReinstatementPremiums(aggregateLimit, reference.availableAggregateLimit, limit, reinstatements, reinstatementPremiums),
+                kernel.reinstatementPremiumFactor, EPSILON
+    }
+
+    void testPartialReinstatements() {
+        double[] rates = XLContractKernel.parseReinstatementPremiums(
+                new TableMultiDimensionalParameter([1d, 0.5, 0.25], ['Reinstatement Premium']))
+        assertEquals "no reinstatement used", 0d, XLContractKernel.calculateReinstatementPremiums(100, 100, 20, 4, rates)
+        assertEquals "half of first", 0.25, XLContractKernel.calculateReinstatementPremiums(100, 90, 20, 4, rates)
+        assertEquals "first and half of second", 0.5 + 0.125, XLContractKernel.calculateReinstatementPremiums(100, 70, 20, 4, rates)
+        assertEquals "last rate applies to further reinstatements", 0.5 + 0.25 + 0.25 + 0.25,
+                XLContractKernel.calculateReinstatementPremiums(100, 0, 20, 4, rates)
+        assertEquals "limited by reinstatements", 0.5 + 0.25,
+                XLContractKernel.calculateReinstatementPremiums(100, 0, 20, 2, rates)
+        assertEquals "limit 0", 0d, XLContractKernel.calculateReinstatementPremiums(100, 0, 0, 4, rates)
+        assertEquals "empty rates", 0d, XLContractKernel.calculateReinstatementPremiums(100, 0, 20, 4, new double[0])
+    }
+
+    void testParseReinstatementPremiums() {
+        assertRatesEqual "single rate", [0.2] as double[], XLContractKernel.parseReinstatementPremiums(
+                new TableMultiDimensionalParameter([0.2], ['Reinstatement Premium']))
+        assertRatesEqual "integer and decimal rates", [1d, 0.5, 0.25] as double[], XLContractKernel.parseReinstatementPremiums(
+                new TableMultiDimensionalParameter([1, 0.5, 0.25], ['Reinstatement Premium']))
+        for (AbstractMultiDimensionalParameter reinstatementPremiums : REINSTATEMENT_PREMIUMS) {
+            double[] rates = XLContractKernel.parseReinstatementPremiums(reinstatementPremiums)
+            for (int reinstatement = 0; reinstatement < 5; reinstatement++) {
+                assertEquals "$reinstatementPremiums.values, reinstatement $reinstatement",
+                        referenceReinstatementPremiumFactor(reinstatement, reinstatementPremiums),
+                        XLContractKernel.getReinstatementPremiumRate(reinstatement, rates), EPSILON
+            }
+        }
+    }
+
+    void testStrategyParsesRatesOnce() {
+        WXLContractStrategy strategy = new WXLContractStrategy(attachmentPoint: 20, limit: 30, aggregateLimit: 90,
+                aggregateDeductible: 10, premiumBase: PremiumBase.ABSOLUTE, premium: 100,
+                premiumAllocation: PremiumAllocationType.getStrategy(PremiumAllocationType.PREMIUM_SHARES, new HashMap()),
+                reinstatementPremiums: new TableMultiDimensionalParameter([0.2, 0.4], ['Reinstatement Premium']),
+                coveredByReinsurer: 1d)
+        strategy.initBookkeepingFigures([], [])
+        double[] rates = strategy.reinstatementPremiumRates
+        strategy.initBookkeepingFigures([], [])
+        assertSame "rates kept", rates, strategy.reinstatementPremiumRates
+        strategy.reinstatementPremiums = new TableMultiDimensionalParameter([0.5], ['Reinstatement Premium'])
+        assertRatesEqual "new parameter parsed", [0.5] as double[], strategy.reinstatementPremiumRates
+    }
+
+    void testStrategyCoverUnderwritingInfo() {
+        AbstractMultiDimensionalParameter reinstatementPremiums = new TableMultiDimensionalParameter([0.2, 0.4], ['Reinstatement Premium'])
+        WXLContractStrategy strategy = new WXLContractStrategy(attachmentPoint: 20, limit: 30, aggregateLimit: 90,
+                aggregateDeductible: 10, premiumBase: PremiumBase.GNPI, premium: 0.1,
+                premiumAllocation: PremiumAllocationType.getStrategy(PremiumAllocationType.PREMIUM_SHARES, new HashMap()),
+                reinstatementPremiums: reinstatementPremiums, coveredByReinsurer: 1d)
+        UnderwritingInfo grossUnderwritingInfo = new UnderwritingInfo(premium: 1000, numberOfPolicies: 10)
+        strategy.initBookkeepingFigures([], [grossUnderwritingInfo])
+        strategy.initCededPremiumAllocation([], [grossUnderwritingInfo])
+        ReferenceLayer reference = new ReferenceLayer(attachmentPoint: 20, limit: 30, availableAggregateLimit: 90,
+                remainingAggregateDeductible: 10)
+        for (double ultimate : [40d, 100d, 35d, 80d]) {
+            assertEquals "ceded $ultimate", reference.cede(ultimate), strategy.calculateCededClaim(ultimate), EPSILON
+        }
+        CededUnderwritingInfo cededUnderwritingInfo = strategy.calculateCoverUnderwritingInfo(grossUnderwritingInfo, 0)
+        double variablePremium = 100 * referenceReinstatementPremiums(90, reference.availableAggregateLimit, 30, 2, reinstatementPremiums)
+        assertEquals "fixed premium", 100, cededUnderwritingInfo.fixedPremium, EPSILON
+        assertEquals "variable premium", variablePremium, cededUnderwritingInfo.variablePremium, EPSILON
+        assertEquals "premium", 100 + variablePremium, cededUnderwritingInfo.premium, EPSILON
+    }
+
+    private static void assertRatesEqual(String message, double[] expected, double[] actual) {
+        assertEquals "$message: length", expected.length, actual.length
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals "$message: rate $i", expected[i], actual[i], EPSILON
+        }
+    }
+
+    /** calculation of the XL strategies before the kernel was introduced */
+    private static class ReferenceLayer {
+        double attachmentPoint
+        double limit
+        double availableAggregateLimit
+        double remainingAggregateDeductible
+
+        double cede(double ultimate) {
+            if (availableAggregateLimit > 0) {
+                double ceded = Math.min(Math.max(ultimate - attachmentPoint, 0), limit)
+                double cededAfterAAD = Math.max(0, ceded - remainingAggregateDeductible)
+                remainingAggregateDeductible = Math.max(0, remainingAggregateDeductible - ceded)
+                double cededAfterAAL = availableAggregateLimit > cededAfterAAD ? cededAfterAAD : availableAggregateLimit
+                availableAggregateLimit -= cededAfterAAL
+                return cededAfterAAL
+            }
+            else {
+                return 0d
+            }
+        }
+    }
+
+    private static double referenceReinstatementPremiums(double aggregateLimit, double availableAggregateLimit,
+                                                         double limit, double reinstatements,
+                                                         AbstractMultiDimensionalParameter reinstatementPremiums) {
+        double usedReinstatements = limit == 0d ? 0d : (Double) (aggregateLimit - availableAggregateLimit) / limit
+        usedReinstatements = Math.min(usedReinstatements, reinstatements)
+        double reinstatementPremium = 0d
+        for (int i = 1; i <= usedReinstatements; i++) {
+            reinstatementPremium += referenceReinstatementPremiumFactor(i, reinstatementPremiums)
+        }
+        double partialReinstatement = usedReinstatements - Math.floor(usedReinstatements)
+        reinstatementPremium += partialReinstatement * referenceReinstatementPremiumFactor(
+                Math.ceil(usedReinstatements).toInteger(), reinstatementPremiums)
+        reinstatementPremium
+    }
+
+    private static double referenceReinstatementPremiumFactor(int reinstatement, AbstractMultiDimensionalParameter reinstatementPremiums) {
+        def val = reinstatementPremiums.values[0][Math.min(reinstatement, reinstatementPremiums.valueRowCount - 1)]
+        if (List.class.isAssignableFrom(val.class)) {
+            return val[0]
+        }
+        return val
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package org.pillarone.riskanalytics.domain.pc.reinsurance.programs
+
+import models.capitalEagle.CapitalEagleParameters
+import models.reinsuranceComparison.ReinsuranceComparisonParameters
+import org.pillarone.riskanalytics.core.util.TestProbe
+import org.pillarone.riskanalytics.domain.pc.claims.Claim
+import org.pillarone.riskanalytics.domain.pc.constants.ClaimType
+import org.pillarone.riskanalytics.domain.pc.reinsurance.commissions.CommissionTests
+import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ReinsuranceContract
+import org.pillarone.riskanalytics.domain.pc.underwriting.UnderwritingInfo
+
+/**
+ * Evaluates the reinsurance programs of the capital eagle and reinsurance comparison parameterizations with and
+ * without contract cascade and compares the gross, ceded and net totals of the programs.
+ */
+class ContractCascadeComparisonTests extends GroovyTestCase {
+
+    void testCapitalEagle() {
+        assertProgramTotals(CapitalEagleParameters)
+    }
+
+    void testReinsuranceComparison() {
+        assertProgramTotals(ReinsuranceComparisonParameters)
+    }
+
+    private void assertProgramTotals(Class parameters) {
+        Map<String, ConfigObject> programs = [:]
+        collectPrograms(new ConfigSlurper().parse(parameters).components, '', programs)
+        assertFalse "programs of ${parameters.simpleName}", programs.isEmpty()
+        programs.each { String path, ConfigObject program ->
+            Map<String, Double> fullTotals = runProgram(program, false)
+            Map<String, Double> cascadeTotals = runProgram(program, true)
+            fullTotals.each { String channel, Double total ->
+                assertEquals "$path $channel", total, cascadeTotals[channel], 1E-4
+            }
+        }
+    }
+
+    private static void collectPrograms(ConfigObject config, String path, Map<String, ConfigObject> programs) {
+        config.each { key, value ->
+            if (value instanceof ConfigObject) {
+                if (key.toString().startsWith('subRiProgram')) {
+                    programs[path + ':' + key] = (ConfigObject) value
+                }
+                else {
+                    collectPrograms((ConfigObject) value, path + ':' + key, programs)
+                }
+            }
+        }
+    }
+
+    private static Map<String, Double> runProgram(ConfigObject parameters, boolean contractCascade) {
+        ReinsuranceProgram3SerialContracts program = new ReinsuranceProgram3SerialContracts(globalContractCascade: contractCascade)
+        program.wire()
+        (1..5).each { int i ->
+            ReinsuranceContract contract = program["subContract$i"]
+            contract.simulationScope = CommissionTests.getTestSimulationScope()
+            ConfigObject contractParameters = (ConfigObject) parameters.get("subContract$i".toString())
+            contractParameters?.each { parameter, values ->
+                contract[parameter] = values.get(0)
+            }
+        }
+
+        program.inClaims << new Claim(claimType: ClaimType.ATTRITIONAL, ultimate: 4E7, fractionOfPeriod: 0.5d)
+        [6E5, 2E6, 8E6, 1.2E7, 3E7, 1.5E8].eachWithIndex { double ultimate, int i ->
+            program.inClaims << new Claim(claimType: ClaimType.SINGLE, ultimate: ultimate, fractionOfPeriod: i / 6d)
+        }
+        UnderwritingInfo underwritingInfo = new UnderwritingInfo(premium: 1E8)
+        underwritingInfo.originalUnderwritingInfo = underwritingInfo
+        program.inUnderwritingInfo << underwritingInfo
+
+        Map<String, List> results = [:]
+        ['outClaimsGross', 'outClaimsCeded', 'outClaimsNet', 'outUnderwritingInfoCeded'].each { String channel ->
+            results[channel] = new TestProbe(program, channel).result
+        }
+        program.start()
+
+        Map<String, Double> totals = [:]
+        results.each { String channel, List packets ->
+            totals[channel] = channel.startsWith('outClaims') ? packets.sum(0d) { it.ultimate } : packets.sum(0d) { it.premium }
+        }
+        totals
+    }
+}
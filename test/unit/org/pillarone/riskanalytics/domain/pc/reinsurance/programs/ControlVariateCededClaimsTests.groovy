@@ -0,0 +1,88 @@
+package org.pillarone.riskanalytics.domain.pc.reinsurance.programs
+
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope
+import org.pillarone.riskanalytics.core.util.TestProbe
+import org.pillarone.riskanalytics.domain.pc.claims.Claim
+import org.pillarone.riskanalytics.domain.pc.constants.ClaimType
+import org.pillarone.riskanalytics.domain.pc.generators.claims.TypableClaimsGenerator
+import org.pillarone.riskanalytics.domain.pc.reinsurance.commissions.CommissionTests
+import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ReinsuranceContract
+import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ReinsuranceContractType
+import org.pillarone.riskanalytics.domain.utils.marker.IPerilMarker
+
+class ControlVariateCededClaimsTests extends GroovyTestCase {
+
+    TypableClaimsGenerator generator = new TypableClaimsGenerator()
+
+    void testVarianceReduction() {
+        SimulationScope simulationScope = CommissionTests.getTestSimulationScope()
+        ControlVariateCededClaims controlVariate = new ControlVariateCededClaims(new ReinsuranceContract(simulationScope: simulationScope))
+        generator.@attritionalClaimsMean = 10d
+        Random random = new Random(11)
+        List<Double> ceded = []
+        List<Double> adjusted = []
+        for (int i = 0; i < 5000; i++) {
+            simulationScope.iterationScope.currentIteration = i
+            double gross = 10d + 2d * random.nextGaussian()
+            // stop loss 10 xs 10
+            ceded << Math.min(10d, Math.max(0d, gross - 10d))
+            controlVariate.inClaimsGross << attritionalClaim(gross)
+            controlVariate.inClaimsCeded << new Claim(claimType: ClaimType.ATTRITIONAL, ultimate: ceded[-1])
+            controlVariate.doCalculation()
+            assertEquals "one claim per period", 1, controlVariate.outClaimsCeded.size()
+            adjusted << controlVariate.outClaimsCeded[0].ultimate
+            controlVariate.inClaimsGross.clear()
+            controlVariate.inClaimsCeded.clear()
+            controlVariate.outClaimsCeded.clear()
+        }
+        assertEquals "first iteration unadjusted", ceded[0], adjusted[0]
+        // E[max(0, 2Z)] = 2 / sqrt(2 pi)
+        double expected = 2d / Math.sqrt(2 * Math.PI)
+        assertEquals "unbiased", expected, adjusted.sum() / adjusted.size(), 0.03
+        assertTrue "variance reduction", variance(adjusted) < variance(ceded) / 2
+    }
+
+    void testUnknownMean() {
+        ControlVariateCededClaims controlVariate = new ControlVariateCededClaims(
+                new ReinsuranceContract(simulationScope: CommissionTests.getTestSimulationScope()))
+        for (int i = 0; i < 3; i++) {
+            controlVariate.inClaimsGross << attritionalClaim(10d + i)
+            controlVariate.inClaimsCeded << new Claim(claimType: ClaimType.ATTRITIONAL, ultimate: i)
+            controlVariate.doCalculation()
+            assertEquals "unadjusted without analytic mean", (double) i, controlVariate.outClaimsCeded[0].ultimate
+            controlVariate.reset()
+        }
+    }
+
+    void testDynamicReinsuranceProgram() {
+        DynamicReinsuranceProgram program = new DynamicReinsuranceProgram(globalControlVariate: true)
+        ReinsuranceContract quotaShare = new ReinsuranceContract(
+                parmContractStrategy: ReinsuranceContractType.getStrategy(
+                        ReinsuranceContractType.QUOTASHARE, ["quotaShare": 0.2, "coveredByReinsurer": 1d]),
+                parmInuringPriority: 0,
+                simulationScope: CommissionTests.getTestSimulationScope())
+        quotaShare.name = "subContract0"
+        program.addSubComponent(quotaShare)
+        generator.@attritionalClaimsMean = 90d
+        program.inClaims << attritionalClaim(100d)
+        program.wire()
+        List programCeded = new TestProbe(program, "outClaimsCeded").result
+        List controlVariateCeded = new TestProbe(program, "outClaimsCededControlVariate").result
+        program.start()
+
+        assertEquals "ceded claims", 1, programCeded.size()
+        assertEquals "one control variate claim", 1, controlVariateCeded.size()
+        assertEquals "first iteration unadjusted", programCeded[0].ultimate, controlVariateCeded[0].ultimate
+    }
+
+    private Claim attritionalClaim(double ultimate) {
+        Claim claim = new Claim(claimType: ClaimType.ATTRITIONAL, ultimate: ultimate)
+        claim.addMarker(IPerilMarker, generator)
+        claim
+    }
+
+    private static double variance(List<Double> values) {
+        double mean = values.sum() / values.size()
+        values.sum { (it - mean) * (it - mean) } / (values.size() - 1)
+    }
+}
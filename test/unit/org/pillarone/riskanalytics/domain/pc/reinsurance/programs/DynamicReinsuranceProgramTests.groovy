@@ -1,10 +1,14 @@
 package org.pillarone.riskanalytics.domain.pc.reinsurance.programs
 
 import org.pillarone.riskanalytics.core.parameterization.TableMultiDimensionalParameter
+import org.pillarone.riskanalytics.core.simulation.engine.SimulationScope
+import org.pillarone.riskanalytics.core.util.TestPretendInChannelWired
 import org.pillarone.riskanalytics.core.util.TestProbe
 import org.pillarone.riskanalytics.domain.pc.claims.Claim
 import org.pillarone.riskanalytics.domain.pc.constants.ClaimType
 import org.pillarone.riskanalytics.domain.pc.constants.PremiumBase
+import org.pillarone.riskanalytics.domain.pc.global.GlobalParameters
+import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ParallelContractGroup
 import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ReinsuranceContract
 import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.ReinsuranceContractType
 import org.pillarone.riskanalytics.domain.pc.reinsurance.contracts.limit.LimitStrategyType
@@ -362,4 +366,94 @@ class DynamicReinsuranceProgramTests extends GroovyTestCase {
         assertEquals "program, large ceded claim 2, contract3", 18, programCeded[10].ultimate
         assertEquals "program, large ceded claim 3, contract3", 2, programCeded[11].ultimate
     }
+
+    void testParallelContractGroups() {
+        List serialResults = runProgramWithWXLLayers()
+        SimulationScope simulationScope = CommissionTests.getTestSimulationScope()
+        simulationScope.numberOfIterations = 1
+        simulationScope.iterationScope.numberOfPeriods = 1
+        simulationScope.model.allComponents << new GlobalParameters(runtimeParallelContracts: 2)
+        List parallelResults = runProgramWithWXLLayers(simulationScope)
+        assertEquals "ceded claims", serialResults[0], parallelResults[0]
+        assertEquals "net claims", serialResults[1], parallelResults[1]
+        assertEquals "order of ceded claims", serialResults[2], parallelResults[2]
+        assertEquals "ceded claims", [20d, 12d, 18d, 0d, 0d, 20d, 0d, 20d, 0d, 0d, 18d, 2d], serialResults[0]
+        assertFalse "pool shut down after the last period", ParallelContractGroup.hasPool(simulationScope)
+    }
+
+    void testContractCascade() {
+        List fullResults = runProgramWithWXLLayers()
+        List cascadeResults = runProgramWithWXLLayers(null, true)
+        assertEquals "one ceded claim per gross claim", 3, cascadeResults[0].size()
+        assertEquals "total ceded", fullResults[0].sum(), cascadeResults[0].sum(), 1E-8
+        assertEquals "number of net claims", fullResults[1].size(), cascadeResults[1].size()
+        for (int i = 0; i < fullResults[1].size(); i++) {
+            assertEquals "net claim $i", fullResults[1][i], cascadeResults[1][i], 1E-8
+        }
+        assertEquals "origin", ["contract cascade"] * 3, cascadeResults[2]
+    }
+
+    /**
+     * The cascade does not apply the GNPI base of the underwriting info mergers, programs with wired underwriting
+     * info keep the full wiring.
+     */
+    void testContractCascadeWithUnderwritingInfo() {
+        program = new DynamicReinsuranceProgram(globalContractCascade: true)
+        program.addSubComponent(getWXL(50, "subContract0"))
+        program.addSubComponent(getWXL(10, "subContract1"))
+        new TestPretendInChannelWired(program, "inUnderwritingInfo")
+        program.wire()
+
+        assertNull "no contract cascade", program.contractCascade
+        ReinsuranceContract contract = program.getContract(0)
+        assertFalse "contract claims wired", contract.allInputTransmitter.isEmpty()
+        assertEquals "underwriting info mergers", 1, program.underwritingInfoMergers.size()
+    }
+
+    /**
+     * @return ultimates of the ceded and net claims of the program and the names of the contracts of the ceded claims
+     */
+    private List runProgramWithWXLLayers(SimulationScope simulationScope = null, boolean contractCascade = false) {
+        program = new DynamicReinsuranceProgram(globalContractCascade: contractCascade)
+        program.addSubComponent(getWXL(50, "subContract0", simulationScope))
+        program.addSubComponent(getWXL(10, "subContract1", simulationScope))
+        ReinsuranceContract quotaShare = new ReinsuranceContract(
+                parmContractStrategy: ReinsuranceContractType.getStrategy(
+                        ReinsuranceContractType.QUOTASHARE, ["quotaShare": 0.2, "coveredByReinsurer": 1d]),
+                parmInuringPriority: 0,
+                simulationScope: simulationScope ?: CommissionTests.getTestSimulationScope())
+        quotaShare.name = "subContract2"
+        program.addSubComponent(quotaShare)
+        program.addSubComponent(getWXL(30, "subContract3", simulationScope))
+
+        Claim largeClaim900 = new Claim(claimType: ClaimType.SINGLE, value: 900d, fractionOfPeriod: 0.2d)
+        program.inClaims << new Claim(claimType: ClaimType.ATTRITIONAL, value: 100d, fractionOfPeriod: 0d, originalClaim: attrMarketClaim1000)
+        program.inClaims << new Claim(claimType: ClaimType.SINGLE, value: 60d, fractionOfPeriod: 0.1d, originalClaim: largeMarketClaim600)
+        program.inClaims << new Claim(claimType: ClaimType.SINGLE, value: 90d, fractionOfPeriod: 0.2d, originalClaim: largeClaim900)
+        program.inUnderwritingInfo << UnderwritingInfoTests.getUnderwritingInfo()
+        program.wire()
+
+        List programCeded = new TestProbe(program, "outClaimsCeded").result
+        List programNet = new TestProbe(program, "outClaimsNet").result
+        program.start()
+        [programCeded*.ultimate, programNet*.ultimate, programCeded*.origin*.name]
+    }
+
+    private ReinsuranceContract getWXL(double attachmentPoint, String name, SimulationScope simulationScope = null) {
+        ReinsuranceContract wxl = new ReinsuranceContract(
+                parmContractStrategy: ReinsuranceContractType.getStrategy(
+                        ReinsuranceContractType.WXL,
+                        ["attachmentPoint": attachmentPoint,
+                                "limit": 20,
+                                "aggregateLimit": 20,
+                                "premiumBase": PremiumBase.ABSOLUTE,
+                                "premiumAllocation": PremiumAllocationType.getStrategy(PremiumAllocationType.PREMIUM_SHARES, new HashMap()),
+                                "premium": 100,
+                                "reinstatementPremiums": new TableMultiDimensionalParameter([0.2], ['Reinstatement Premium']),
+                                "coveredByReinsurer": 1d]),
+                parmInuringPriority: 1,
+                simulationScope: simulationScope ?: CommissionTests.getTestSimulationScope())
+        wxl.name = name
+        wxl
+    }
 }
\ No newline at end of file
@@ -99,6 +99,94 @@ class ReinsuranceProgram3SerialContractsTests extends GroovyTestCase {
         assertEquals("net large claim", 20, claimsNet[1].ultimate, 0.000001)
     }
 
+    void testContractCascade() {
+        Claim attrClaim100 = new Claim(claimType: ClaimType.ATTRITIONAL, ultimate: 100d)
+        Claim largeClaim60 = new Claim(claimType: ClaimType.SINGLE, ultimate: 60d)
+
+        ReinsuranceProgram3SerialContracts program = new ReinsuranceProgram3SerialContracts(globalContractCascade: true)
+        program.wire()
+
+        program.subContract1.parmContractStrategy = QuotaShareContractStrategyTests.getQuotaShareContract(0.5).parmContractStrategy
+        program.subContract1.simulationScope = CommissionTests.getTestSimulationScope()
+        program.subContract2.parmContractStrategy = WXLContractStrategyTests.getContract0().parmContractStrategy
+        program.subContract2.simulationScope = CommissionTests.getTestSimulationScope()
+        program.subContract3.parmContractStrategy = StopLossContractStrategyTests.getContractSL0().parmContractStrategy
+        program.subContract3.simulationScope = CommissionTests.getTestSimulationScope()
+        program.subContract4.simulationScope = CommissionTests.getTestSimulationScope()
+        program.subContract5.simulationScope = CommissionTests.getTestSimulationScope()
+
+        program.inClaims << attrClaim100 << largeClaim60
+        UnderwritingInfo underwritingInfo = new UnderwritingInfo(premium: 0)
+        underwritingInfo.originalUnderwritingInfo = underwritingInfo
+        program.inUnderwritingInfo << underwritingInfo
+
+        def probeClaimsCeded = new TestProbe(program, "outClaimsCeded")
+        List claimsCeded = probeClaimsCeded.result
+
+        def probeClaimsNet = new TestProbe(program, "outClaimsNet")
+        List claimsNet = probeClaimsNet.result
+
+        def probeUnderwritingInfoCeded = new TestProbe(program, "outUnderwritingInfoCeded")
+        List underwritingInfoCeded = probeUnderwritingInfoCeded.result
+
+        program.start()
+
+        assertEquals("ceded attritional claim", 50, claimsCeded[0].ultimate)
+        assertEquals("net attritional claim", 50, claimsNet[0].ultimate)
+        assertEquals("ceded large claim", 40, claimsCeded[1].ultimate)
+        assertEquals("net large claim", 20, claimsNet[1].ultimate, 0.000001)
+        assertSame("original claim", largeClaim60, claimsNet[1].originalClaim)
+        assertEquals("ceded underwriting info", 1, underwritingInfoCeded.size())
+        assertTrue program.subContract1.outCoveredClaims.isEmpty()
+    }
+
+    /**
+     * Collected contracts of a cascade send the packets of the full wiring.
+     */
+    void testContractCascadeWithCollectedContract() {
+        Map<String, List> fullResults = runWithCollectedContracts(false)
+        Map<String, List> cascadeResults = runWithCollectedContracts(true)
+        fullResults.each { String channel, List values ->
+            assertEquals "number of packets in $channel", values.size(), cascadeResults[channel].size()
+            for (int i = 0; i < values.size(); i++) {
+                assertEquals "$channel $i", values[i], cascadeResults[channel][i], 1E-8
+            }
+        }
+        assertEquals "covered claims of the quota share", [30d, 50d], cascadeResults['subContract1:outCoveredClaims']
+    }
+
+    /**
+     * @return ultimates of the claims and premiums of the underwriting info sent by the collected contracts
+     */
+    private Map<String, List> runWithCollectedContracts(boolean contractCascade) {
+        ReinsuranceProgram3SerialContracts program = new ReinsuranceProgram3SerialContracts(globalContractCascade: contractCascade)
+        program.wire()
+        program.subContract1.parmContractStrategy = QuotaShareContractStrategyTests.getQuotaShareContract(0.5).parmContractStrategy
+        program.subContract2.parmContractStrategy = WXLContractStrategyTests.getContract0().parmContractStrategy
+        [program.subContract1, program.subContract2, program.subContract3, program.subContract4, program.subContract5].each {
+            it.simulationScope = CommissionTests.getTestSimulationScope()
+        }
+        program.inClaims << new Claim(claimType: ClaimType.ATTRITIONAL, ultimate: 100d, fractionOfPeriod: 0.5d)
+        program.inClaims << new Claim(claimType: ClaimType.SINGLE, ultimate: 60d, fractionOfPeriod: 0.2d)
+        UnderwritingInfo underwritingInfo = new UnderwritingInfo(premium: 1000)
+        underwritingInfo.originalUnderwritingInfo = underwritingInfo
+        program.inUnderwritingInfo << underwritingInfo
+
+        Map<String, List> packets = [
+                'subContract1:outCoveredClaims': new TestProbe(program.subContract1, "outCoveredClaims").result,
+                'subContract2:outCoveredClaims': new TestProbe(program.subContract2, "outCoveredClaims").result,
+                'subContract2:outUncoveredClaims': new TestProbe(program.subContract2, "outUncoveredClaims").result,
+                'subContract2:outCoverUnderwritingInfo': new TestProbe(program.subContract2, "outCoverUnderwritingInfo").result]
+        new TestProbe(program, "outClaimsCeded")
+        program.start()
+
+        Map<String, List> values = [:]
+        packets.each { String channel, List channelPackets ->
+            values[channel] = channel.endsWith('UnderwritingInfo') ? channelPackets*.premium : channelPackets*.ultimate
+        }
+        values
+    }
+
     void testUnderwriting() {
         Claim attrClaim100 = new Claim(claimType: ClaimType.ATTRITIONAL, value: 100d)
         Claim largeClaim60 = new Claim(claimType: ClaimType.SINGLE, value: 60d)
@@ -0,0 +1,37 @@
+package org.pillarone.riskanalytics.domain.utils
+
+import umontreal.iro.lecuyer.probdist.ExponentialDist
+import umontreal.iro.lecuyer.probdist.UniformDist
+
+class AboveThresholdDistributionTests extends GroovyTestCase {
+
+    void testConditionalTail() {
+        AboveThresholdDistribution distribution = new AboveThresholdDistribution(new ExponentialDist(1), 0, 2)
+        assertEquals "no mass at the threshold", 0d, distribution.cdf(2)
+        assertEquals "memoryless", 1 - Math.exp(-1), distribution.cdf(3), 1E-12
+        assertEquals "quantile", 2 - Math.log(0.5), distribution.inverseF(0.5), 1E-12
+        assertEquals "smallest value", 2d, distribution.inverseF(0), 1E-12
+    }
+
+    void testShift() {
+        AboveThresholdDistribution distribution = new AboveThresholdDistribution(new UniformDist(0, 10), 5, 10)
+        assertEquals "median", 12.5, distribution.inverseF(0.5), 1E-12
+        assertEquals "cdf", 0.4, distribution.cdf(12), 1E-12
+    }
+
+    void testMoments() {
+        AboveThresholdDistribution distribution = new AboveThresholdDistribution(new ExponentialDist(1), 0, 2)
+        assertEquals "memoryless mean", 3d, distribution.mean, 1E-6
+        assertEquals "memoryless variance", 1d, distribution.variance, 1E-6
+        distribution = new AboveThresholdDistribution(new UniformDist(0, 10), 5, 10)
+        assertEquals "mean", 12.5, distribution.mean, 1E-6
+        assertEquals "variance", 25 / 12d, distribution.variance, 1E-6
+        assertEquals "standard deviation", Math.sqrt(25 / 12d), distribution.standardDeviation, 1E-6
+    }
+
+    void testNoExceedance() {
+        shouldFail(IllegalArgumentException) {
+            new AboveThresholdDistribution(new UniformDist(0, 10), 0, 10)
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package org.pillarone.riskanalytics.domain.utils
+
+import umontreal.iro.lecuyer.probdist.ExponentialDist
+import umontreal.iro.lecuyer.probdist.PoissonDist
+
+class BelowThresholdDistributionTests extends GroovyTestCase {
+
+    void testExceedanceIsAtomAtZero() {
+        BelowThresholdDistribution distribution = new BelowThresholdDistribution(new ExponentialDist(1), 0, 2)
+        assertEquals "exceedance", Math.exp(-2), distribution.exceedanceProbability, 1E-12
+        assertEquals "atom at 0", Math.exp(-2), distribution.cdf(0), 1E-12
+        assertEquals "above threshold", 1d, distribution.cdf(2)
+        assertEquals "atom drawn as 0", 0d, distribution.inverseF(0.1)
+        assertEquals "quantile below threshold", -Math.log(1 - (0.5 - Math.exp(-2))), distribution.inverseF(0.5), 1E-12
+    }
+
+    void testShift() {
+        BelowThresholdDistribution distribution = new BelowThresholdDistribution(new ExponentialDist(1), 1, 2)
+        assertEquals "exceedance", Math.exp(-1), distribution.exceedanceProbability, 1E-12
+        assertEquals "no claim below the shift", Math.exp(-1), distribution.cdf(0.5), 1E-12
+        assertEquals "cdf", 1 - Math.exp(-0.5) + Math.exp(-1), distribution.cdf(1.5), 1E-12
+    }
+
+    void testCompoundAggregateBelowThreshold() {
+        BelowThresholdDistribution distribution = new BelowThresholdDistribution(new ExponentialDist(1), 0, 2)
+        CompoundAggregateDistribution aggregate = new CompoundAggregateDistribution(new PoissonDist(50), distribution, 0)
+        // E[X; X <= 2] = 1 - 3 exp(-2)
+        assertEquals "mean", 50 * (1 - 3 * Math.exp(-2)), aggregate.mean, 1E-3
+    }
+
+    void testMoments() {
+        BelowThresholdDistribution distribution = new BelowThresholdDistribution(new ExponentialDist(1), 0, 2)
+        // E[X; X <= 2] = 1 - 3 exp(-2), E[X^2; X <= 2] = 2 - 10 exp(-2)
+        double mean = 1 - 3 * Math.exp(-2)
+        assertEquals "mean", mean, distribution.mean, 1E-6
+        assertEquals "variance", 2 - 10 * Math.exp(-2) - mean * mean, distribution.variance, 1E-6
+        assertEquals "standard deviation", Math.sqrt(distribution.variance), distribution.standardDeviation, 1E-12
+    }
+
+    void testNegativeThreshold() {
+        shouldFail(IllegalArgumentException) {
+            new BelowThresholdDistribution(new ExponentialDist(1), 0, -1)
+        }
+    }
+}
\ No newline at end of file
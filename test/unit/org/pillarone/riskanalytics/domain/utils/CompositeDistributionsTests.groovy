@@ -157,4 +157,77 @@ class CompositeDistributionsTests extends GroovyTestCase {
             assertEquals "inverseF(y=0.995)", TypeIIParetoDistribution.inverseF(alpha, beta, lambda, (0.995 - r) / (1.0 - r)), LognormalTypeIIParetoDistribution.inverseF(sigma, alpha, beta, lambda, 0.995)
 
         }
+
+        void testCachedParameterTerms() {
+            LognormalParetoDistribution lognormalPareto = new LognormalParetoDistribution(1.2, 1.5, 1000, 5)
+            LognormalTypeIIParetoDistribution lognormalTypeIIPareto = new LognormalTypeIIParetoDistribution(1.2, 1.5, 1000, 200, 5)
+            TypeIIParetoDistribution typeIIPareto = new TypeIIParetoDistribution(2, 5, 30)
+            GeneralizedParetoDistribution generalizedPareto = new GeneralizedParetoDistribution(-0.4, 10, 100)
+            for (double x : [-1d, 0d, 10d, 500d, 1000d, 1001d, 1E5]) {
+                assertEquals "lognormal pareto f(x = $x)", LognormalParetoDistribution.density(1.2, 1.5, 1000, 5, x), lognormalPareto.density(x)
+                assertEquals "lognormal pareto F(x = $x)", LognormalParetoDistribution.cdf(1.2, 1.5, 1000, 5, x), lognormalPareto.cdf(x)
+                assertEquals "lognormal type II pareto f(x = $x)", LognormalTypeIIParetoDistribution.density(1.2, 1.5, 1000, 200, 5, x), lognormalTypeIIPareto.density(x)
+                assertEquals "lognormal type II pareto F(x = $x)", LognormalTypeIIParetoDistribution.cdf(1.2, 1.5, 1000, 200, 5, x), lognormalTypeIIPareto.cdf(x)
+                assertEquals "type II pareto F(x = $x)", TypeIIParetoDistribution.cdf(2, 5, 30, x), typeIIPareto.cdf(x)
+                assertEquals "generalized pareto f(x = $x)", GeneralizedParetoDistribution.density(-0.4, 10, 100, x), generalizedPareto.density(x)
+                assertEquals "generalized pareto F(x = $x)", GeneralizedParetoDistribution.cdf(-0.4, 10, 100, x), generalizedPareto.cdf(x)
+            }
+            for (double y : [0d, 0.1, 0.5, 0.9, 0.999, 1d]) {
+                assertEquals "lognormal pareto inverseF(y = $y)", LognormalParetoDistribution.inverseF(1.2, 1.5, 1000, 5, y), lognormalPareto.inverseF(y)
+                assertEquals "lognormal type II pareto inverseF(y = $y)", LognormalTypeIIParetoDistribution.inverseF(1.2, 1.5, 1000, 200, 5, y), lognormalTypeIIPareto.inverseF(y)
+                assertEquals "type II pareto inverseF(y = $y)", TypeIIParetoDistribution.inverseF(2, 5, 30, y), typeIIPareto.inverseF(y)
+                assertEquals "generalized pareto inverseF(y = $y)", GeneralizedParetoDistribution.inverseF(-0.4, 10, 100, y), generalizedPareto.inverseF(y)
+            }
+        }
+
+        void testTabulatedInverseF() {
+            double maxAbsoluteError = 0.01
+            LognormalParetoDistribution exact = new LognormalParetoDistribution(1.2, 1.5, 1000, 5)
+            LognormalParetoDistribution tabulated = new LognormalParetoDistribution(1.2, 1.5, 1000, 5)
+            tabulated.tabulateInverseF(maxAbsoluteError, 1E-3)
+            assertTrue tabulated.isInverseFTabulated()
+            double previous = 0
+            for (int i = 0; i <= 100000; i++) {
+                double y = i / 100000d
+                double x = tabulated.inverseF(y)
+                assertEquals "inverseF(y = $y)", exact.inverseF(y), x, maxAbsoluteError
+                assertTrue "monotone at y = $y", x >= previous
+                previous = x
+            }
+            assertEquals "exact far tail", exact.inverseF(0.9995), tabulated.inverseF(0.9995)
+
+            tabulated.setParams(1, 2, 10)
+            assertFalse "table dropped with new parameters", tabulated.isInverseFTabulated()
+        }
+
+        void testTabulatedInverseFErrorBound() {
+            for (double maxAbsoluteError : [1d, 1E-3]) {
+                List<AbstractQuantileTableDistribution> exact = [new LognormalTypeIIParetoDistribution(1.2, 1.5, 1000, 200, 5),
+                        new TypeIIParetoDistribution(2, 5, 30), new GeneralizedParetoDistribution(-0.4, 10, 100)]
+                List<AbstractQuantileTableDistribution> tabulated = [new LognormalTypeIIParetoDistribution(1.2, 1.5, 1000, 200, 5),
+                        new TypeIIParetoDistribution(2, 5, 30), new GeneralizedParetoDistribution(-0.4, 10, 100)]
+                for (int d = 0; d < exact.size(); d++) {
+                    tabulated[d].tabulateInverseF(maxAbsoluteError)
+                    for (int i = 0; i < 20000; i++) {
+                        double y = (i + 0.37) / 20000d
+                        assertEquals "${exact[d].class.simpleName} inverseF(y = $y)", exact[d].inverseF(y), tabulated[d].inverseF(y), maxAbsoluteError
+                    }
+                }
+            }
+        }
+
+        void testTabulatedInverseFTail() {
+            LognormalParetoDistribution exact = new LognormalParetoDistribution(1.2, 1.5, 1000, 5)
+            LognormalParetoDistribution tabulated = new LognormalParetoDistribution(1.2, 1.5, 1000, 5)
+            tabulated.tabulateInverseF(0.01, 0.01)
+            for (double y : [0.99, 0.995, 0.9999, 1 - 1E-9, 1d]) {
+                assertEquals "exact tail inverseF(y = $y)", exact.inverseF(y), tabulated.inverseF(y)
+            }
+            shouldFail(IllegalArgumentException) {
+                tabulated.tabulateInverseF(0)
+            }
+            shouldFail(IllegalArgumentException) {
+                tabulated.tabulateInverseF(0.01, 1)
+            }
+        }
     }
@@ -0,0 +1,68 @@
+package org.pillarone.riskanalytics.domain.utils
+
+import umontreal.iro.lecuyer.probdist.Distribution
+import umontreal.iro.lecuyer.probdist.ExponentialDist
+import umontreal.iro.lecuyer.probdist.NegativeBinomialDist
+import umontreal.iro.lecuyer.probdist.NormalDist
+import umontreal.iro.lecuyer.probdist.PoissonDist
+
+class CompoundAggregateDistributionTests extends GroovyTestCase {
+
+    Distribution claimSize = new ExponentialDist(0.5)
+
+    void testPoissonMoments() {
+        CompoundAggregateDistribution aggregate = new CompoundAggregateDistribution(new PoissonDist(3), claimSize, 0)
+        assertTrue "Panjer's recursion", aggregate.isRecursive()
+        assertEquals "mean", 6, aggregate.mean, 1E-3
+        assertEquals "variance", 24, aggregate.variance, 1E-2
+        assertEquals "probability of the lattice", 1d, (0..<CompoundAggregateDistribution.POINTS).sum { aggregate.probability(it) }, 1E-12
+    }
+
+    void testNegativeBinomialMoments() {
+        CompoundAggregateDistribution aggregate = new CompoundAggregateDistribution(new NegativeBinomialDist(2, 0.4), claimSize, 0)
+        assertTrue "Panjer's recursion", aggregate.isRecursive()
+        // E[N] = 3, Var[N] = 7.5
+        assertEquals "mean", 6, aggregate.mean, 1E-3
+        assertEquals "variance", 3 * 4 + 7.5 * 4, aggregate.variance, 1E-2
+    }
+
+    void testRecursionAgreesWithFourierTransform() {
+        PoissonDist frequency = new PoissonDist(3)
+        Distribution generic = [cdf: { double x -> frequency.cdf(x) }] as Distribution
+        CompoundAggregateDistribution recursive = new CompoundAggregateDistribution(frequency, claimSize, 0)
+        CompoundAggregateDistribution transformed = new CompoundAggregateDistribution(generic, claimSize, 0)
+        assertFalse "Fourier transform", transformed.isRecursive()
+        assertEquals recursive.span, transformed.span, 1E-12
+        for (int k = 0; k < CompoundAggregateDistribution.POINTS; k++) {
+            assertEquals "k = $k", recursive.probability(k), transformed.probability(k), 1E-10
+        }
+    }
+
+    void testHighFrequency() {
+        CompoundAggregateDistribution aggregate = new CompoundAggregateDistribution(new PoissonDist(2000), claimSize, 0)
+        assertFalse "P(S = 0) underflows", aggregate.isRecursive()
+        assertEquals "mean", 4000, aggregate.mean, 4
+        assertEquals "median", 4000, aggregate.inverseF(0.5), 10
+    }
+
+    void testSingleClaim() {
+        CompoundAggregateDistribution aggregate = new CompoundAggregateDistribution(new ConstantDistribution(1), claimSize, 5)
+        for (double x = 5; x < 20; x += 0.5) {
+            assertEquals "x = $x", claimSize.cdf(x - 5), aggregate.cdf(x), 2 * claimSize.density(0) * aggregate.span
+        }
+        assertEquals 0d, aggregate.cdf(4.9)
+        assertEquals 5, aggregate.inverseF(1E-9), aggregate.span
+    }
+
+    void testNoClaims() {
+        CompoundAggregateDistribution aggregate = new CompoundAggregateDistribution(new ConstantDistribution(0), claimSize, 0)
+        assertEquals 0d, aggregate.inverseF(0.999)
+        assertEquals 1d, aggregate.cdf(0)
+    }
+
+    void testNegativeClaimSize() {
+        shouldFail(IllegalArgumentException) {
+            new CompoundAggregateDistribution(new PoissonDist(3), new NormalDist(), 0)
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package org.pillarone.riskanalytics.domain.utils
+
+import umontreal.iro.lecuyer.probdist.NormalDist
+
+class FastNormalCdfTests extends GroovyTestCase {
+
+    void testAgainstNormalDist() {
+        for (double x = -40; x <= 40; x += 0.01) {
+            assertEquals "x = $x", NormalDist.cdf01(x), FastNormalCdf.cdf01(x), FastNormalCdf.MAX_ABSOLUTE_ERROR
+        }
+    }
+
+    void testMonotone() {
+        double previous = 0
+        for (double x = -10; x <= 10; x += 1E-3) {
+            double value = FastNormalCdf.cdf01(x)
+            assertTrue "x = $x", value >= previous
+            previous = value
+        }
+        assertEquals 0.5d, FastNormalCdf.cdf01(0), 1E-15
+        assertEquals 0d, FastNormalCdf.cdf01(Double.NEGATIVE_INFINITY)
+        assertEquals 1d, FastNormalCdf.cdf01(Double.POSITIVE_INFINITY)
+    }
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.pillarone.riskanalytics.domain.utils
 
 import org.pillarone.riskanalytics.core.parameterization.TableMultiDimensionalParameter
+import org.pillarone.riskanalytics.core.util.MathUtils
 import umontreal.iro.lecuyer.rng.F2NL607
 import umontreal.iro.lecuyer.probdist.*
 import umontreal.iro.lecuyer.randvar.*
@@ -155,4 +156,178 @@ class RandomNumberGeneratorTests extends GroovyTestCase {
         assertEquals "ConstantsVariateGenerator(3n+1,17) sdev", sdev, distribution.getStandardDeviation(), 1E-9
 
     }
-}
\ No newline at end of file
+
+    void testNextValues() {
+        IRandomNumberGenerator generator = new RandomNumberGenerator(generator: new NormalGen(new F2NL607(), new NormalDist(1d, 1d)))
+        IRandomNumberGenerator reference = new RandomNumberGenerator(generator: new NormalGen(new F2NL607(), new NormalDist(1d, 1d)))
+        double[] values = new double[12]
+        generator.nextValues(values, 2, 10)
+        assertEquals 0d, values[0]
+        assertEquals 0d, values[1]
+        for (int i = 2; i < values.length; i++) {
+            assertEquals "value $i", (Double) reference.nextValue(), values[i], 1E-14
+        }
+    }
+
+    void testNextIntValues() {
+        IRandomNumberGenerator generator = new RandomNumberGenerator(generator: new PoissonGen(new F2NL607(), new PoissonDist(3d)))
+        IRandomNumberGenerator reference = new RandomNumberGenerator(generator: new PoissonGen(new F2NL607(), new PoissonDist(3d)))
+        int[] values = new int[10]
+        generator.nextValues(values, 0, values.length)
+        for (int i = 0; i < values.length; i++) {
+            assertEquals "value $i", reference.nextValue(), values[i]
+        }
+    }
+
+    void testNextValuesCensoredShifted() {
+        IRandomNumberGenerator generator = new RandomNumberGenerator(generator: new CensoredVariateGen(new F2NL607(), new NormalDist(0d, 1d), -0.5d, 0.5d, 10d))
+        IRandomNumberGenerator reference = new RandomNumberGenerator(generator: new CensoredVariateGen(new F2NL607(), new NormalDist(0d, 1d), -0.5d, 0.5d, 10d))
+        double[] values = new double[100]
+        generator.nextValues(values, 0, values.length)
+        for (int i = 0; i < values.length; i++) {
+            assertEquals "value $i", (Double) reference.nextValue(), values[i], 1E-14
+            assertTrue values[i] >= 9.5d && values[i] <= 10.5d
+        }
+        generator = new RandomNumberGenerator(generator: new ConstantVariateGenerator(constant: 3d))
+        generator.nextValues(values, 0, values.length)
+        assertEquals 3d, values[99]
+    }
+
+    void testDiscreteEmpiricalDistribution() {
+        double[] obs = [20.5, 0.5, 10.5, 20.5, 100.0, 25.5]
+        double[] probs = [0.2, 0.0, 0.1, 0.2, 0.01, 0.49]
+        DiscreteEmpiricalDistribution distribution = new DiscreteEmpiricalDistribution(obs, probs)
+        assertEquals([10.5d, 20.5d, 25.5d, 100d], distribution.sortedValues.toList())
+        assertEquals 0.4d, distribution.sortedProbabilities[1], 1E-14
+        assertEquals 0d, distribution.cdf(10d)
+        assertEquals 0.1d, distribution.cdf(10.5d), 1E-14
+        assertEquals 0.5d, distribution.cdf(25d), 1E-14
+        assertEquals 1d, distribution.cdf(100d)
+        assertEquals 10.5d, distribution.inverseF(0d)
+        assertEquals 10.5d, distribution.inverseF(0.1d)
+        assertEquals 20.5d, distribution.inverseF(0.10001d)
+        assertEquals 25.5d, distribution.inverseF(0.98d)
+        assertEquals 100d, distribution.inverseF(1d)
+
+        double[] cumulative = [0.1, 0.5, 0.99, 1.0]
+        for (double u = 0.0005; u < 1; u += 0.001) {
+            int i = 0
+            while (u > cumulative[i]) i++
+            assertEquals "u = $u", distribution.sortedValues[i], distribution.inverseF(u)
+        }
+    }
+
+    void testPiecewiseLinearDistributionGuideTable() {
+        int size = 200
+        double[] vals = new double[size]
+        double[] probs = new double[size]
+        for (int i = 0; i < size; i++) {
+            vals[i] = i * i
+            probs[i] = Math.sqrt(i / (double) (size - 1))
+        }
+        PiecewiseLinearDistribution withGuideTable = new PiecewiseLinearDistribution(vals, probs, true)
+        PiecewiseLinearDistribution withoutGuideTable = new PiecewiseLinearDistribution(vals, probs, false)
+        for (double u = 0.0005; u < 1; u += 0.001) {
+            int i = 1
+            while (u > probs[i]) i++
+            double expected = vals[i - 1] + (u - probs[i - 1]) / (probs[i] - probs[i - 1]) * (vals[i] - vals[i - 1])
+            assertEquals "u = $u", expected, withGuideTable.inverseF(u), 1E-9
+            assertEquals "u = $u", expected, withoutGuideTable.inverseF(u), 1E-9
+            assertEquals "u = $u", u, withGuideTable.cdf(expected), 1E-9
+        }
+    }
+
+    void testPiecewiseLinearEmpiricalDistribution() {
+        double[] obs = [3, 1, 2, 2, 5]
+        PiecewiseLinearDistribution distribution = PiecewiseLinearDistribution.getEmpiricalDistribution(obs)
+        assertEquals 1d, distribution.inverseF(0d)
+        assertEquals 1.5d, distribution.inverseF(0.125d), 1E-14
+        assertEquals 2d, distribution.inverseF(0.3d), 1E-14
+        assertEquals 2.5d, distribution.inverseF(0.625d), 1E-14
+        assertEquals 5d, distribution.inverseF(1d)
+        assertEquals 0.5d, distribution.cdf(2d), 1E-14
+        assertEquals 'sample mean', 2.6d, distribution.mean, 1E-14
+        assertEquals 'sample variance', 2.3d, distribution.variance, 1E-14
+        assertEquals 'support points', [1d, 2d, 2d, 3d, 5d], distribution.val
+        assertEquals 'cumulative probabilities', [0d, 0.25d, 0.5d, 0.75d, 1d], distribution.cdft
+    }
+
+    void testPiecewiseLinearEmpiricalDistributionOfSingleObservation() {
+        double[] obs = [7]
+        PiecewiseLinearDistribution distribution = PiecewiseLinearDistribution.getEmpiricalDistribution(obs)
+        for (double u : [0d, 0.3d, 1d]) {
+            assertEquals "u = $u", 7d, distribution.inverseF(u)
+        }
+        assertEquals 0d, distribution.cdf(6.9d)
+        assertEquals 1d, distribution.cdf(7d)
+        assertEquals 'mean', 7d, distribution.mean
+        assertEquals 'variance', 0d, distribution.variance
+    }
+
+    void testAliasTable() {
+        double[] weights = [2, 0, 5, 3, 0]
+        AliasTable table = new AliasTable(weights)
+        int[] counts = new int[weights.length]
+        int sampleSize = 100000
+        for (int i = 0; i < sampleSize; i++) {
+            counts[table.index((i + 0.5d) / sampleSize)]++
+        }
+        assertEquals 0, counts[1]
+        assertEquals 0, counts[4]
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals "index $i", weights[i] / 10d, counts[i] / (double) sampleSize, 1E-4
+        }
+        assertTrue "u = 1 stays within the table", weights[table.index(1d)] > 0
+        shouldFail(IllegalArgumentException) {
+            new AliasTable([0d, 0d] as double[])
+        }
+    }
+
+    void testDiscreteEmpiricalAliasGenerator() {
+        double[] obs = [0.5, 10.5, 20.5, 25.5, 100.0]
+        double[] probs = [0.0, 0.1, 0.4, 0.49, 0.01]
+        RandomDistribution distribution = DistributionType.getStrategy(DistributionType.DISCRETEEMPIRICAL,
+                ["discreteEmpiricalValues": new TableMultiDimensionalParameter([obs.toList(), probs.toList()], ["observations", "probabilities"])])
+        assertFalse 'claim sizes invert', RandomNumberGeneratorFactory.getGenerator(distribution).generator instanceof AliasVariateGen
+        IRandomNumberGenerator generator = RandomNumberGeneratorFactory.getGenerator(distribution, MathUtils.getRandomStreamBase(), true)
+        assertTrue 'frequencies use the alias table', generator.generator instanceof AliasVariateGen
+        int sampleSize = 10000
+        double[] values = new double[sampleSize]
+        generator.nextValues(values, 0, sampleSize)
+        Map<Double, Integer> counts = [:]
+        for (double value : values) {
+            counts[value] = (counts[value] ?: 0) + 1
+        }
+        assertFalse counts.containsKey(0.5d)
+        assertEquals 0.4d, counts[20.5d] / (double) sampleSize, 0.03
+        assertEquals 0.49d, counts[25.5d] / (double) sampleSize, 0.03
+    }
+
+    void testInverseTransformVariateGen() {
+        RandomVariateGen generator = new InverseTransformVariateGen(new F2NL607(), new NormalDist(0d, 1d), -0.5d, 0.5d, 10d)
+        RandomVariateGen reference = new CensoredVariateGen(new F2NL607(), new NormalDist(0d, 1d), -0.5d, 0.5d, 10d)
+        for (int i = 0; i < 1000; i++) {
+            assertEquals "value $i", reference.nextDouble(), generator.nextDouble(), 1E-14
+        }
+
+        Distribution leftTruncated = new TruncatedDist(new LognormalDist(1d, 1d), 2d, Double.POSITIVE_INFINITY)
+        generator = new InverseTransformVariateGen(new F2NL607(), leftTruncated, Double.NEGATIVE_INFINITY, 10d, 1d)
+        reference = new CensoredVariateGen(new F2NL607(), leftTruncated, Double.NEGATIVE_INFINITY, 10d, 1d)
+        double[] values = new double[1000]
+        generator.nextArrayOfDouble(values, 0, values.length)
+        for (int i = 0; i < values.length; i++) {
+            assertEquals "value $i", reference.nextDouble(), values[i], 1E-12
+            assertTrue values[i] >= 3d && values[i] <= 11d
+        }
+    }
+
+    void testCensoredDiscreteInverseTransform() {
+        // no mass at the censoring limits: u = cdf(max) has to be mapped below max
+        DiscreteEmpiricalDistribution distribution = new DiscreteEmpiricalDistribution([1d, 2d, 5d] as double[], [0.25d, 0.25d, 0.5d] as double[])
+        RandomVariateGen generator = new InverseTransformVariateGen(new F2NL607(), distribution, 1.5d, 4d)
+        RandomVariateGen reference = new CensoredVariateGen(new F2NL607(), distribution, 1.5d, 4d)
+        for (int i = 0; i < 1000; i++) {
+            assertEquals "value $i", reference.nextDouble(), generator.nextDouble()
+        }
+    }
+}
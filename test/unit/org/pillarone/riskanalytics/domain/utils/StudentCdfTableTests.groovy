@@ -0,0 +1,31 @@
+package org.pillarone.riskanalytics.domain.utils
+
+import umontreal.iro.lecuyer.probdist.StudentDist
+
+class StudentCdfTableTests extends GroovyTestCase {
+
+    void testAgainstStudentDist() {
+        for (int n in [1, 2, 3, 5, 10, 30, 100]) {
+            StudentCdfTable table = new StudentCdfTable(n)
+            for (double x = -20; x <= 20; x += 0.0037) {
+                assertEquals "n = $n, x = $x", StudentDist.cdf(n, x), table.cdf(x), StudentCdfTable.MAX_ABSOLUTE_ERROR
+            }
+        }
+    }
+
+    void testMonotone() {
+        StudentCdfTable table = new StudentCdfTable(4)
+        double previous = 0
+        for (double x = -StudentCdfTable.LIMIT - 1; x <= StudentCdfTable.LIMIT + 1; x += 1E-4) {
+            double value = table.cdf(x)
+            assertTrue "x = $x", value >= previous
+            previous = value
+        }
+    }
+
+    void testSharedInstances() {
+        assertSame StudentCdfTable.getInstance(7), StudentCdfTable.getInstance(7)
+        assertEquals 7, StudentCdfTable.getInstance(7).degreesOfFreedom
+        shouldFail(IllegalArgumentException) { new StudentCdfTable(0) }
+    }
+}
\ No newline at end of file
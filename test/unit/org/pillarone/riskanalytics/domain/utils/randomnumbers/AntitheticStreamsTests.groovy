@@ -0,0 +1,122 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers
+
+import org.pillarone.riskanalytics.core.util.MathUtils
+import org.pillarone.riskanalytics.domain.utils.ClaimSizeDistributionType
+import org.pillarone.riskanalytics.domain.utils.DistributionModifier
+import org.pillarone.riskanalytics.domain.utils.DistributionType
+import org.pillarone.riskanalytics.domain.utils.IRandomNumberGenerator
+import org.pillarone.riskanalytics.domain.utils.RandomNumberGeneratorFactory
+import org.pillarone.riskanalytics.domain.utils.AliasVariateGen
+import org.pillarone.riskanalytics.domain.utils.DiscreteEmpiricalDistribution
+import umontreal.iro.lecuyer.randvar.RandomVariateGen
+import umontreal.iro.lecuyer.rng.RandomStreamBase
+
+class AntitheticStreamsTests extends GroovyTestCase {
+
+    void testDisabled() {
+        assertFalse SimulationStreams.DISABLED.isAntithetic()
+        assertSame MathUtils.getRandomStreamBase(), SimulationStreams.DISABLED.getStream(MathUtils.getRandomStreamBase())
+    }
+
+    void testPairsPerStream() {
+        AntitheticStreams streams = new AntitheticStreams()
+        RandomStreamBase first = streams.getStream(MathUtils.getRandomStreamBase())
+        RandomStreamBase second = streams.getStream(MathUtils.getRandomStreamBase())
+
+        streams.setIteration(1)
+        double u0 = first.nextDouble()
+        double u1 = first.nextDouble()
+        double v0 = second.nextDouble()
+
+        // the twin mirrors the draws of every stream, independent of the order of the streams
+        streams.setIteration(2)
+        streams.setIteration(2)
+        assertEquals 1 - v0, second.nextDouble(), 1E-15
+        assertEquals 1 - u0, first.nextDouble(), 1E-15
+        assertEquals 1 - u1, first.nextDouble(), 1E-15
+        // further draws are fresh
+        double fresh = first.nextDouble()
+        assertTrue fresh > 0 && fresh < 1
+
+        // next pair
+        streams.setIteration(3)
+        double w0 = first.nextDouble()
+        streams.setIteration(4)
+        assertEquals 1 - w0, first.nextDouble(), 1E-15
+    }
+
+    void testStreamWithoutDrawsInFirstIteration() {
+        AntitheticStreams streams = new AntitheticStreams()
+        RandomStreamBase stream = streams.getStream(MathUtils.getRandomStreamBase())
+        streams.setIteration(1)
+        streams.setIteration(2)
+        double u = stream.nextDouble()
+        streams.setIteration(3)
+        double v = stream.nextDouble()
+        assertTrue u != 1 - v
+        streams.setIteration(4)
+        assertEquals 1 - v, stream.nextDouble(), 1E-15
+    }
+
+    /**
+     * The ceded loss of a layer 1.5 xs 1 is monotone in the claim, the mean of antithetic pairs has a smaller
+     * variance than the mean of two independent iterations.
+     */
+    void testVarianceReductionForLayer() {
+        IRandomNumberGenerator independent = RandomNumberGeneratorFactory.getGenerator(
+                DistributionType.getStrategy(ClaimSizeDistributionType.LOGNORMAL, ["mean": 1d, "stDev": 0.5d]),
+                DistributionModifier.getStrategy(DistributionModifier.NONE, [:]), MathUtils.getRandomStreamBase())
+        AntitheticStreams streams = new AntitheticStreams()
+        IRandomNumberGenerator antithetic = RandomNumberGeneratorFactory.getGenerator(
+                DistributionType.getStrategy(ClaimSizeDistributionType.LOGNORMAL, ["mean": 1d, "stDev": 0.5d]),
+                DistributionModifier.getStrategy(DistributionModifier.NONE, [:]), streams.getStream(MathUtils.getRandomStreamBase()))
+        int pairs = 5000
+        double[] independentMeans = new double[pairs]
+        double[] antitheticMeans = new double[pairs]
+        for (int i = 0; i < pairs; i++) {
+            independentMeans[i] = (layer(independent.nextValue()) + layer(independent.nextValue())) / 2
+            streams.setIteration(2 * i)
+            double first = layer(antithetic.nextValue())
+            streams.setIteration(2 * i + 1)
+            antitheticMeans[i] = (first + layer(antithetic.nextValue())) / 2
+        }
+        assertTrue variance(antitheticMeans) < 0.8 * variance(independentMeans)
+    }
+
+    /**
+     * Alias table draws are not monotone in the uniform, discrete empirical distributions are therefore sampled by
+     * inversion on antithetic streams: the twin of the smallest value is the largest one.
+     */
+    void testDiscreteEmpiricalByInversion() {
+        DiscreteEmpiricalDistribution distribution = new DiscreteEmpiricalDistribution(
+                [1d, 2d, 3d, 4d] as double[], [0.25d, 0.25d, 0.25d, 0.25d] as double[])
+        assertTrue RandomNumberGeneratorFactory.getVariateGenerator(MathUtils.getRandomStreamBase(), distribution, true) instanceof AliasVariateGen
+
+        AntitheticStreams streams = new AntitheticStreams()
+        RandomVariateGen generator = RandomNumberGeneratorFactory.getVariateGenerator(
+                streams.getStream(MathUtils.getRandomStreamBase()), distribution, true)
+        assertFalse generator instanceof AliasVariateGen
+        for (int i = 0; i < 100; i++) {
+            streams.setIteration(2 * i)
+            double first = generator.nextDouble()
+            streams.setIteration(2 * i + 1)
+            assertEquals 5d, first + generator.nextDouble()
+        }
+    }
+
+    private static double layer(Number claim) {
+        Math.min(1.5, Math.max(0, claim.doubleValue() - 1))
+    }
+
+    private static double variance(double[] values) {
+        double mean = 0
+        for (double value : values) {
+            mean += value / values.length
+        }
+        double sum = 0
+        for (double value : values) {
+            sum += (value - mean) * (value - mean)
+        }
+        sum / (values.length - 1)
+    }
+}
@@ -0,0 +1,83 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers
+
+import org.pillarone.riskanalytics.domain.pc.lob.ExampleLob
+import umontreal.iro.lecuyer.rng.MRG32k3a
+import umontreal.iro.lecuyer.rng.RandomStreamBase
+
+class ComponentStreamsTests extends GroovyTestCase {
+
+    void testSubstreamSeedEqualsNextSubstream() {
+        long[] seed = [12345, 23456, 34567, 45678, 56789, 67890]
+        MRG32k3a stepped = new MRG32k3a()
+        stepped.setSeed(seed)
+        for (int i = 0; i < 7; i++) {
+            stepped.resetNextSubstream()
+        }
+        MRG32k3a jumped = new MRG32k3a()
+        jumped.setSeed(ComponentStreams.substreamSeed(seed, 7))
+        for (int i = 0; i < 10; i++) {
+            assertEquals stepped.nextDouble(), jumped.nextDouble()
+        }
+    }
+
+    void testIndependentOfCreationOrder() {
+        ComponentStreams streams = new ComponentStreams(2011, [])
+        streams.setIteration(3)
+        RandomStreamBase severity = streams.getStream('claims/severity')
+        RandomStreamBase frequency = streams.getStream('claims/frequency')
+        double frequencyValue = frequency.nextDouble()
+        double severityValue = severity.nextDouble()
+        assertTrue frequencyValue != severityValue
+
+        ComponentStreams sameSeed = new ComponentStreams(2011, [])
+        sameSeed.setIteration(3)
+        assertEquals severityValue, sameSeed.getStream('claims/severity').nextDouble()
+
+        ComponentStreams otherSeed = new ComponentStreams(2012, [])
+        otherSeed.setIteration(3)
+        assertTrue severityValue != otherSeed.getStream('claims/severity').nextDouble()
+    }
+
+    void testReplayOfSingleIteration() {
+        ComponentStreams streams = new ComponentStreams(7, [])
+        RandomStreamBase sequential = streams.getStream('reinsurer/default')
+        List<Double> iterationFive = []
+        for (int iteration = 0; iteration <= 5; iteration++) {
+            streams.setIteration(iteration)
+            for (int i = 0; i < iteration + 1; i++) {
+                double value = sequential.nextDouble()
+                if (iteration == 5) {
+                    iterationFive << value
+                }
+            }
+        }
+        ComponentStreams replay = new ComponentStreams(7, [])
+        replay.setIteration(5)
+        RandomStreamBase replayed = replay.getStream('reinsurer/default')
+        for (double value : iterationFive) {
+            assertEquals value, replayed.nextDouble()
+        }
+    }
+
+    /**
+     * Sub components of the same class and name get different streams if their parents differ.
+     */
+    void testKeyedByPath() {
+        ExampleLob fire = new ExampleLob(name: 'fire')
+        ExampleLob motor = new ExampleLob(name: 'motor')
+        ComponentStreams streams = new ComponentStreams(2011, [fire, motor])
+        assertEquals 'fire:subClaimsGenerator/severity', streams.key(fire.subClaimsGenerator, 'severity')
+        assertEquals 'motor:subClaimsGenerator/severity', streams.key(motor.subClaimsGenerator, 'severity')
+
+        streams.setIteration(3)
+        RandomStreamBase fireSeverity = streams.getStream(fire.subClaimsGenerator, 'severity')
+        RandomStreamBase motorSeverity = streams.getStream(motor.subClaimsGenerator, 'severity')
+        assertTrue fireSeverity.nextDouble() != motorSeverity.nextDouble()
+    }
+
+    void testComponentOutsideOfModel() {
+        ExampleLob lob = new ExampleLob(name: 'fire')
+        ComponentStreams streams = new ComponentStreams(2011, [])
+        assertEquals ExampleLob.name + ':fire/premium', streams.key(lob, 'premium')
+    }
+}
@@ -0,0 +1,51 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers
+
+class ControlVariateEstimatorTests extends GroovyTestCase {
+
+    void testLinearTarget() {
+        ControlVariateEstimator estimator = new ControlVariateEstimator(10d)
+        Random random = new Random(17)
+        for (int i = 0; i < 100; i++) {
+            double control = 10 + random.nextGaussian()
+            estimator.add(3 * control + 1, control)
+        }
+        assertEquals 100, estimator.count
+        assertEquals 3d, estimator.beta, 1E-10
+        // the control explains the target completely
+        assertEquals 31d, estimator.adjustedMean, 1E-10
+        assertTrue Math.abs(estimator.mean - 31d) > 1E-6
+    }
+
+    void testConstantControl() {
+        ControlVariateEstimator estimator = new ControlVariateEstimator(2d)
+        estimator.add(1d, 1d)
+        estimator.add(3d, 1d)
+        assertEquals 0d, estimator.beta
+        assertEquals 2d, estimator.mean, 1E-15
+        assertEquals 2d, estimator.adjustedMean, 1E-15
+    }
+
+    void testVarianceReduction() {
+        Random random = new Random(5)
+        double sumSquaredError = 0
+        double sumSquaredErrorAdjusted = 0
+        double controlMean = Math.exp(0.125)
+        // ceded loss of a stop loss on an attritional claim, the expected ceded loss is estimated once
+        ControlVariateEstimator reference = new ControlVariateEstimator(controlMean)
+        for (int i = 0; i < 200000; i++) {
+            double control = Math.exp(0.5 * random.nextGaussian())
+            reference.add(Math.max(0, control - 1.2), control)
+        }
+        double expected = reference.adjustedMean
+        for (int r = 0; r < 50; r++) {
+            ControlVariateEstimator estimator = new ControlVariateEstimator(controlMean)
+            for (int i = 0; i < 500; i++) {
+                double control = Math.exp(0.5 * random.nextGaussian())
+                estimator.add(Math.max(0, control - 1.2), control)
+            }
+            sumSquaredError += Math.pow(estimator.mean - expected, 2)
+            sumSquaredErrorAdjusted += Math.pow(estimator.adjustedMean - expected, 2)
+        }
+        assertTrue sumSquaredErrorAdjusted < sumSquaredError / 2
+    }
+}
@@ -0,0 +1,46 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers
+
+import org.pillarone.riskanalytics.core.util.MathUtils
+
+class CorrelatedNormalGeneratorTests extends GroovyTestCase {
+
+    void testCholeskyFactor() {
+        double[][] sigma = [[1d, 0.5d, 0.2d], [0.5d, 1d, 0.3d], [0.2d, 0.3d, 1d]]
+        double[][] lower = CorrelatedNormalGenerator.choleskyFactor(sigma)
+        assertEquals 3, lower.length
+        for (int i = 0; i < 3; i++) {
+            assertEquals i + 1, lower[i].length
+            for (int j = 0; j <= i; j++) {
+                double value = 0
+                for (int k = 0; k <= j; k++) {
+                    value += lower[i][k] * lower[j][k]
+                }
+                assertEquals "sigma[$i][$j]", sigma[i][j], value, 1E-12
+            }
+        }
+    }
+
+    void testNotPositiveDefinite() {
+        double[][] sigma = [[1d, 1d], [1d, 1d]]
+        assertNull CorrelatedNormalGenerator.choleskyFactor(sigma)
+        sigma = [[1d, 2d], [2d, 1d]]
+        assertNull CorrelatedNormalGenerator.choleskyFactor(sigma)
+    }
+
+    void testCorrelation() {
+        double[][] sigma = [[1d, 0.6d], [0.6d, 1d]]
+        CorrelatedNormalGenerator generator = new CorrelatedNormalGenerator(CorrelatedNormalGenerator.choleskyFactor(sigma), MathUtils.getRandomStreamBase())
+        assertEquals 2, generator.dimension
+        double[] point = new double[2]
+        double sumXY = 0
+        double sumXX = 0
+        int count = 20000
+        for (int i = 0; i < count; i++) {
+            generator.nextPoint(point)
+            sumXY += point[0] * point[1]
+            sumXX += point[0] * point[0]
+        }
+        assertEquals 1d, sumXX / count, 0.05
+        assertEquals 0.6d, sumXY / count, 0.05
+    }
+}
@@ -0,0 +1,130 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers
+
+import org.pillarone.riskanalytics.core.util.MathUtils
+import umontreal.iro.lecuyer.probdist.LognormalDist
+import umontreal.iro.lecuyer.rng.MRG32k3a
+import umontreal.iro.lecuyer.rng.RandomStream
+import umontreal.iro.lecuyer.rng.RandomStreamBase
+
+class QuasiRandomStreamsTests extends GroovyTestCase {
+
+    void testDisabled() {
+        assertFalse SimulationStreams.DISABLED.isQuasiMonteCarlo()
+        assertSame MathUtils.getRandomStreamBase(), SimulationStreams.DISABLED.getStream(4)
+        RandomStreamBase fallback = new MRG32k3a()
+        assertSame fallback, SimulationStreams.DISABLED.getStream(4, fallback)
+    }
+
+    void testDimensionsPerIteration() {
+        QuasiRandomStreams streams = new QuasiRandomStreams(16, 1234)
+        RandomStreamBase first = streams.getStream(2, MathUtils.getRandomStreamBase())
+        RandomStreamBase second = streams.getStream(1, MathUtils.getRandomStreamBase())
+        assertTrue first instanceof QuasiRandomStream
+        assertTrue second instanceof QuasiRandomStream
+
+        streams.setIteration(3)
+        double u0 = first.nextDouble()
+        double u1 = first.nextDouble()
+        double v0 = second.nextDouble()
+        assertTrue u0 > 0 && u0 < 1
+        assertTrue u1 != u0
+        assertTrue v0 != u0 && v0 != u1
+
+        streams.setIteration(4)
+        double w0 = first.nextDouble()
+        assertTrue w0 != u0
+
+        // the coordinates depend on the iteration only
+        streams.setIteration(3 + 16)
+        assertEquals u0, first.nextDouble()
+        assertEquals u1, first.nextDouble()
+        assertEquals v0, second.nextDouble()
+        // beyond the reserved dimensions the fallback is used
+        double fallback = first.nextDouble()
+        assertTrue fallback > 0 && fallback < 1
+    }
+
+    void testStratification() {
+        int points = 64
+        QuasiRandomStreams streams = new QuasiRandomStreams(points, 42)
+        RandomStreamBase stream = streams.getStream(1, MathUtils.getRandomStreamBase())
+        int[] bins = new int[8]
+        for (int i = 0; i < points; i++) {
+            streams.setIteration(i)
+            bins[(int) (stream.nextDouble() * bins.length)]++
+        }
+        for (int count : bins) {
+            assertEquals points / bins.length, count
+        }
+    }
+
+    void testSameSeedReproducesScrambling() {
+        QuasiRandomStreams streams = new QuasiRandomStreams(32, 7)
+        streams.setIteration(5)
+        double u = streams.getStream(1, MathUtils.getRandomStreamBase()).nextDouble()
+        streams = new QuasiRandomStreams(32, 7)
+        streams.setIteration(5)
+        assertEquals u, streams.getStream(1, MathUtils.getRandomStreamBase()).nextDouble()
+    }
+
+    /**
+     * The dimensions are reserved per instance, i.e. per simulation, a second simulation starts with dimension 0.
+     */
+    void testDimensionsPerSimulation() {
+        QuasiRandomStreams first = new QuasiRandomStreams(32, 7)
+        first.getStream(QuasiRandomStreams.MAX_DIMENSION, MathUtils.getRandomStreamBase())
+        RandomStreamBase fallback = new MRG32k3a()
+        assertSame fallback, first.getStream(1, fallback)
+
+        QuasiRandomStreams second = new QuasiRandomStreams(32, 7)
+        RandomStreamBase stream = second.getStream(1, fallback)
+        assertTrue stream instanceof QuasiRandomStream
+        second.setIteration(5)
+        first.setIteration(6)
+        double u = stream.nextDouble()
+        QuasiRandomStreams third = new QuasiRandomStreams(32, 7)
+        third.setIteration(5)
+        assertEquals u, third.getStream(1, fallback).nextDouble()
+    }
+
+    /**
+     * Estimates the mean of a sum of four lognormal variates, e.g. claims of four lines, with independent
+     * replications. The randomized quasi-Monte Carlo estimator has a smaller root mean square error.
+     */
+    void testConvergenceComparedToMonteCarlo() {
+        int iterations = 1024
+        int replications = 10
+        int dimension = 4
+        LognormalDist distribution = new LognormalDist(0, 0.5)
+        double expected = dimension * distribution.mean
+
+        double squaredErrorMonteCarlo = 0
+        double squaredErrorQuasiMonteCarlo = 0
+        for (int r = 0; r < replications; r++) {
+            RandomStream pseudoRandom = new MRG32k3a()
+            for (int k = 0; k < r; k++) {
+                pseudoRandom.resetNextSubstream()
+            }
+            double sum = 0
+            for (int i = 0; i < iterations; i++) {
+                for (int j = 0; j < dimension; j++) {
+                    sum += distribution.inverseF(pseudoRandom.nextDouble())
+                }
+            }
+            squaredErrorMonteCarlo += Math.pow(sum / iterations - expected, 2)
+
+            QuasiRandomStreams streams = new QuasiRandomStreams(iterations, r + 1)
+            RandomStreamBase quasiRandom = streams.getStream(dimension, MathUtils.getRandomStreamBase())
+            sum = 0
+            for (int i = 0; i < iterations; i++) {
+                streams.setIteration(i)
+                for (int j = 0; j < dimension; j++) {
+                    sum += distribution.inverseF(quasiRandom.nextDouble())
+                }
+            }
+            squaredErrorQuasiMonteCarlo += Math.pow(sum / iterations - expected, 2)
+        }
+        assertTrue "rmse qmc ${Math.sqrt(squaredErrorQuasiMonteCarlo / replications)}, mc ${Math.sqrt(squaredErrorMonteCarlo / replications)}",
+                squaredErrorQuasiMonteCarlo < squaredErrorMonteCarlo / 4
+    }
+}
@@ -0,0 +1,47 @@
+package org.pillarone.riskanalytics.domain.utils.randomnumbers
+
+import umontreal.iro.lecuyer.rng.MRG32k3a
+
+class UniformDoubleListTests extends GroovyTestCase {
+
+    void testDoubleArray() {
+        MRG32k3a stream = new MRG32k3a()
+        MRG32k3a reference = (MRG32k3a) stream.clone()
+        double[] values = UniformDoubleList.getDoubleArray(5, stream)
+        assertEquals 5, values.length
+        for (double value : values) {
+            assertEquals reference.nextDouble(), value
+        }
+    }
+
+    void testSortedDoubleArray() {
+        MRG32k3a stream = new MRG32k3a()
+        assertEquals 0, UniformDoubleList.getSortedDoubleArray(0, stream).length
+        double[] values = UniformDoubleList.getSortedDoubleArray(1000, stream)
+        assertEquals 1000, values.length
+        assertTrue values[0] > 0
+        assertTrue values[999] < 1
+        for (int i = 1; i < values.length; i++) {
+            assertTrue values[i - 1] <= values[i]
+        }
+    }
+
+    /**
+     * The k-th of n sorted uniforms has mean k / (n + 1).
+     */
+    void testOrderStatistics() {
+        MRG32k3a stream = new MRG32k3a()
+        int number = 4
+        int samples = 20000
+        double[] means = new double[number]
+        for (int i = 0; i < samples; i++) {
+            double[] values = UniformDoubleList.getSortedDoubleArray(number, stream)
+            for (int k = 0; k < number; k++) {
+                means[k] += values[k] / samples
+            }
+        }
+        for (int k = 0; k < number; k++) {
+            assertEquals "order statistic $k", (k + 1) / (double) (number + 1), means[k], 0.01
+        }
+    }
+}